@@ -0,0 +1,157 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes user-destined messages to whichever nodes hold the user's sessions.
+ *
+ * Local sessions are served straight from this JVM's broker. Messages for
+ * other nodes are buffered per destination node and shipped in batches —
+ * when a buffer reaches the batch size or on the periodic flush — on a single
+ * relay thread, so each node receives them in order.
+ *
+ * Relay is best effort. A batch that fails to reach its node is counted and
+ * dropped, and replay does not bring it back: balance frames are numbered in
+ * the replay ring of the node that drained them from the outbox, so seqs and
+ * rings are per node, not cluster-wide. A client that misses relayed frames
+ * only catches up on its next full balance reload.
+ */
+public class ClusterMessageRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMessageRouter.class);
+
+    /** Hands messages to this node's broker and streams. */
+    public interface LocalDelivery {
+        /** Sends to {@code user}'s sessions on this node, e.g. via {@code SimpMessagingTemplate::convertAndSendToUser}. */
+        void deliver(String user, String destination, Object payload);
+
+        /** Sends to every session on this node. */
+        void broadcast(String destination, Object payload);
+    }
+
+    private final String nodeId;
+    private final UserSessionRegistry registry;
+    private final ClusterTransport transport;
+    private final LocalDelivery localDelivery;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<String, List<RelayedMessage>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService relay;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder relayFailures = new LongAdder();
+
+    public ClusterMessageRouter(String nodeId, UserSessionRegistry registry, ClusterTransport transport,
+                                LocalDelivery localDelivery, int batchSize, long flushIntervalMs) {
+        this.nodeId = nodeId;
+        this.registry = registry;
+        this.transport = transport;
+        this.localDelivery = localDelivery;
+        this.batchSize = batchSize;
+        this.relay = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "cluster-relay-" + nodeId));
+        this.relay.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ─── Outbound ─────────────────────────────────────────────────────────────
+
+    public void sendToUser(String user, String destination, Object payload) {
+        Set<String> nodes = registry.nodesFor(user);
+
+        // Unknown users are tried locally — the broker simply drops it if no session exists
+        if (nodes.isEmpty() || nodes.contains(nodeId)) {
+            localDelivery.deliver(user, destination, payload);
+        }
+        for (String node : nodes) {
+            if (!node.equals(nodeId)) {
+                enqueue(node, new RelayedMessage(user, destination, payload));
+            }
+        }
+    }
+
+    /** Fans out to every session on this node and hands one copy to each other active node. */
+    public void broadcast(String destination, Object payload) {
+        localDelivery.broadcast(destination, payload);
+        for (String node : registry.activeNodes()) {
+            if (!node.equals(nodeId)) {
+                enqueue(node, new RelayedMessage(null, destination, payload));
+            }
+        }
+    }
+
+    private void enqueue(String node, RelayedMessage message) {
+        List<RelayedMessage> buffer = pending.computeIfAbsent(node, key -> new ArrayList<>());
+        synchronized (buffer) {
+            buffer.add(message);
+            if (buffer.size() >= batchSize) {
+                ship(node, buffer);
+            }
+        }
+    }
+
+    /** Ships every non-empty buffer now; also runs on the flush interval. */
+    public void flushAll() {
+        pending.forEach((node, buffer) -> {
+            synchronized (buffer) {
+                if (!buffer.isEmpty()) {
+                    ship(node, buffer);
+                }
+            }
+        });
+    }
+
+    // Called under the buffer lock, so batches reach the relay queue in the order they were drained
+    private void ship(String node, List<RelayedMessage> buffer) {
+        List<RelayedMessage> batch = new ArrayList<>(buffer);
+        buffer.clear();
+        relay.execute(() -> transmit(node, batch));
+    }
+
+    private void transmit(String node, List<RelayedMessage> batch) {
+        try {
+            transport.send(node, batch);
+            relayed.add(batch.size());
+        } catch (Exception e) {
+            // Not retried, and not recoverable from replay — see the class comment
+            relayFailures.add(batch.size());
+            log.warn("❌ Relay of {} messages to node {} failed: {}", batch.size(), node, e.getMessage());
+        }
+    }
+
+    // ─── Inbound ──────────────────────────────────────────────────────────────
+
+    public void receive(List<RelayedMessage> batch) {
+        for (RelayedMessage message : batch) {
+            if (message.user() == null) {
+                localDelivery.broadcast(message.destination(), message.payload());
+            } else {
+                localDelivery.deliver(message.user(), message.destination(), message.payload());
+            }
+        }
+    }
+
+    public long getRelayed() {
+        return relayed.sum();
+    }
+
+    public long getRelayFailures() {
+        return relayFailures.sum();
+    }
+
+    public void shutdown() {
+        relay.shutdown();
+    }
+}
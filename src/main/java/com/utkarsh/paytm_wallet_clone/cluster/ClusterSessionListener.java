@@ -0,0 +1,55 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which node each authenticated STOMP session lives on.
+ *
+ * Spring can publish {@link SessionDisconnectEvent} more than once for a
+ * session, so open session ids are tracked here and each one is counted in
+ * and out of the registry exactly once.
+ */
+@Component
+public class ClusterSessionListener {
+
+    private final UserSessionRegistry registry;
+    private final ClusterMessageRouter router;
+    private final Set<String> openSessions = ConcurrentHashMap.newKeySet();
+
+    public ClusterSessionListener(UserSessionRegistry registry, ClusterMessageRouter router) {
+        this.registry = registry;
+        this.router = router;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String user = userOf(event);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user != null && sessionId != null && openSessions.add(sessionId)) {
+            registry.sessionOpened(user, router.getNodeId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        String user = userOf(event);
+        // Only the first disconnect for a session counts; a repeat would drop the row of a user still connected here
+        if (user != null && openSessions.remove(event.getSessionId())) {
+            registry.sessionClosed(user, router.getNodeId());
+        }
+    }
+
+    private static String userOf(AbstractSubProtocolEvent event) {
+        Principal principal = event.getUser();
+        return principal != null ? principal.getName() : null;
+    }
+}
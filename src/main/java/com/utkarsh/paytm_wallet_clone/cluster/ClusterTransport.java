@@ -0,0 +1,13 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import java.util.List;
+
+/**
+ * Carries a batch of relayed messages to another node, which hands them to
+ * {@link ClusterMessageRouter#receive}.
+ */
+@FunctionalInterface
+public interface ClusterTransport {
+
+    void send(String nodeId, List<RelayedMessage> batch);
+}
@@ -0,0 +1,40 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts batches to {@code /internal/cluster/relay} on the peer node,
+ * authenticated with the shared cluster token.
+ */
+public class HttpClusterTransport implements ClusterTransport {
+
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+
+    private final Map<String, String> peerUrls;
+    private final String token;
+    private final RestClient restClient = RestClient.create();
+
+    public HttpClusterTransport(Map<String, String> peerUrls, String token) {
+        this.peerUrls = peerUrls;
+        this.token = token;
+    }
+
+    @Override
+    public void send(String nodeId, List<RelayedMessage> batch) {
+        String baseUrl = peerUrls.get(nodeId);
+        if (baseUrl == null) {
+            throw new IllegalStateException("No address configured for cluster node " + nodeId);
+        }
+        restClient.post()
+                .uri(baseUrl + "/internal/cluster/relay")
+                .header(TOKEN_HEADER, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batch)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,55 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for a single JVM: the default when clustering is off, and the
+ * shared registry of the in-JVM multi-node test harness.
+ */
+public class InMemoryUserSessionRegistry implements UserSessionRegistry {
+
+    // user → (node → open session count)
+    private final ConcurrentHashMap<String, Map<String, Integer>> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void sessionOpened(String user, String nodeId) {
+        sessions.compute(user, (key, nodes) -> {
+            Map<String, Integer> next = nodes != null ? nodes : new ConcurrentHashMap<>();
+            next.merge(nodeId, 1, Integer::sum);
+            return next;
+        });
+    }
+
+    @Override
+    public void sessionClosed(String user, String nodeId) {
+        sessions.computeIfPresent(user, (key, nodes) -> {
+            nodes.computeIfPresent(nodeId, (node, count) -> count > 1 ? count - 1 : null);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Set<String> nodesFor(String user) {
+        Map<String, Integer> nodes = sessions.get(user);
+        return nodes != null ? Set.copyOf(nodes.keySet()) : Set.of();
+    }
+
+    @Override
+    public Set<String> activeNodes() {
+        Set<String> nodes = new HashSet<>();
+        sessions.values().forEach(userNodes -> nodes.addAll(userNodes.keySet()));
+        return nodes;
+    }
+
+    @Override
+    public void nodeStarted(String nodeId) {
+        sessions.replaceAll((user, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes;
+        });
+        sessions.values().removeIf(Map::isEmpty);
+    }
+}
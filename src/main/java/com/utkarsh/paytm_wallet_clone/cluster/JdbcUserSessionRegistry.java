@@ -0,0 +1,82 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry shared by every node through the {@code websocket_sessions} table:
+ * one row per (user, node) holding that node's open session count.
+ *
+ * {@link #nodesFor} runs once per outgoing notification, so answers are
+ * cached for a short TTL. This node's own opens and closes update the cache
+ * at once; a session opened on another node is seen once the entry expires,
+ * and frames routed in that window go to the old set of nodes.
+ */
+public class JdbcUserSessionRegistry implements UserSessionRegistry {
+
+    private record CachedNodes(Set<String> nodes, long expiresAtMs) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long cacheTtlMs;
+    private final int cacheMaxUsers;
+    private final ConcurrentHashMap<String, CachedNodes> nodesCache = new ConcurrentHashMap<>();
+
+    public JdbcUserSessionRegistry(JdbcTemplate jdbcTemplate, long cacheTtlMs, int cacheMaxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheMaxUsers = cacheMaxUsers;
+    }
+
+    @Override
+    public void sessionOpened(String user, String nodeId) {
+        jdbcTemplate.update(
+                "INSERT INTO websocket_sessions (user_email, node_id, sessions) VALUES (?, ?, 1) "
+                        + "ON DUPLICATE KEY UPDATE sessions = sessions + 1",
+                user, nodeId);
+        nodesCache.remove(user);
+    }
+
+    @Override
+    public void sessionClosed(String user, String nodeId) {
+        jdbcTemplate.update(
+                "UPDATE websocket_sessions SET sessions = sessions - 1 WHERE user_email = ? AND node_id = ?",
+                user, nodeId);
+        jdbcTemplate.update(
+                "DELETE FROM websocket_sessions WHERE user_email = ? AND node_id = ? AND sessions <= 0",
+                user, nodeId);
+        nodesCache.remove(user);
+    }
+
+    @Override
+    public Set<String> nodesFor(String user) {
+        long now = System.currentTimeMillis();
+        CachedNodes cached = nodesCache.get(user);
+        if (cached != null && cached.expiresAtMs() > now) {
+            return cached.nodes();
+        }
+
+        Set<String> nodes = Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT node_id FROM websocket_sessions WHERE user_email = ?", String.class, user));
+        if (nodesCache.size() >= cacheMaxUsers) {
+            nodesCache.values().removeIf(entry -> entry.expiresAtMs() <= now);
+        }
+        nodesCache.put(user, new CachedNodes(nodes, now + cacheTtlMs));
+        return nodes;
+    }
+
+    @Override
+    public Set<String> activeNodes() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT node_id FROM websocket_sessions", String.class));
+    }
+
+    @Override
+    public void nodeStarted(String nodeId) {
+        jdbcTemplate.update("DELETE FROM websocket_sessions WHERE node_id = ?", nodeId);
+        nodesCache.clear();
+    }
+}
@@ -0,0 +1,9 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+/**
+ * One {@code convertAndSendToUser} call forwarded to the node holding the
+ * user's session, or a broadcast when {@code user} is null. The payload is
+ * re-serialized as JSON on the receiving node.
+ */
+public record RelayedMessage(String user, String destination, Object payload) {
+}
@@ -0,0 +1,22 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import java.util.Set;
+
+/**
+ * Which nodes currently hold WebSocket sessions for a user. A user can be
+ * connected to several nodes at once (phone and browser).
+ */
+public interface UserSessionRegistry {
+
+    void sessionOpened(String user, String nodeId);
+
+    void sessionClosed(String user, String nodeId);
+
+    Set<String> nodesFor(String user);
+
+    /** Nodes holding at least one session — the targets of a broadcast. */
+    Set<String> activeNodes();
+
+    /** Drops registrations a previous run of {@code nodeId} left behind. */
+    void nodeStarted(String nodeId);
+}
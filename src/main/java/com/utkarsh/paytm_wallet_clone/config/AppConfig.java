@@ -1,4 +1,20 @@
 package com.utkarsh.paytm_wallet_clone.config;
 
+import com.utkarsh.paytm_wallet_clone.util.ImportDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableScheduling
 public class AppConfig {
+
+    // Admin imports and replays only touch files under this directory
+    @Bean
+    public ImportDirectory importDirectory(@Value("${wallet.import.dir:imports}") String dir) {
+        return new ImportDirectory(Path.of(dir));
+    }
 }
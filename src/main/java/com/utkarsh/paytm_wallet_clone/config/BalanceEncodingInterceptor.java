@@ -0,0 +1,61 @@
+package com.utkarsh.paytm_wallet_clone.config;
+
+import com.utkarsh.paytm_wallet_clone.service.BalanceEncodingRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Reads the {@code balance-encoding} header of STOMP CONNECT. Clients that
+ * send {@code balance-encoding:binary-v1} over the native {@code /ws-native}
+ * endpoint receive balance frames in the compact binary layout. SockJS
+ * carries frames as text, so binary is never granted there.
+ */
+@Component
+public class BalanceEncodingInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceEncodingInterceptor.class);
+
+    public static final String ENCODING_HEADER = "balance-encoding";
+    public static final String BINARY_V1 = "binary-v1";
+
+    /** Session attribute set by the handshake on the native (non-SockJS) endpoint. */
+    public static final String NATIVE_TRANSPORT_ATTR = "wallet.nativeTransport";
+
+    private final BalanceEncodingRegistry encodingRegistry;
+
+    public BalanceEncodingInterceptor(BalanceEncodingRegistry encodingRegistry) {
+        this.encodingRegistry = encodingRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())
+                && BINARY_V1.equals(accessor.getFirstNativeHeader(ENCODING_HEADER))) {
+            Principal user = accessor.getUser();
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            boolean nativeTransport = attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT_ATTR));
+
+            if (user != null && nativeTransport) {
+                encodingRegistry.binarySessionOpened(user.getName(), accessor.getSessionId());
+                log.info("📦 Binary balance frames negotiated for {}", user.getName());
+            } else if (user != null) {
+                log.debug("Binary balance frames need the /ws-native endpoint; {} stays on JSON", user.getName());
+            }
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,92 @@
+package com.utkarsh.paytm_wallet_clone.config;
+
+import com.utkarsh.paytm_wallet_clone.cluster.ClusterMessageRouter;
+import com.utkarsh.paytm_wallet_clone.cluster.ClusterTransport;
+import com.utkarsh.paytm_wallet_clone.cluster.HttpClusterTransport;
+import com.utkarsh.paytm_wallet_clone.cluster.InMemoryUserSessionRegistry;
+import com.utkarsh.paytm_wallet_clone.cluster.JdbcUserSessionRegistry;
+import com.utkarsh.paytm_wallet_clone.cluster.UserSessionRegistry;
+import com.utkarsh.paytm_wallet_clone.service.LocalNotificationDelivery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wiring for multi-node user destinations.
+ *
+ * With {@code wallet.cluster.enabled=false} (single node) sessions are tracked
+ * in memory and everything is delivered locally. When enabled, sessions are
+ * registered in the shared {@code websocket_sessions} table and messages for
+ * users connected elsewhere are relayed to the peer listed in
+ * {@code wallet.cluster.peers}.
+ */
+@Configuration
+public class ClusterConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterConfig.class);
+
+    @Value("${wallet.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wallet.cluster.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Bean
+    public UserSessionRegistry userSessionRegistry(JdbcTemplate jdbcTemplate,
+                                                   @Value("${wallet.cluster.session-cache-ttl:2s}") Duration cacheTtl,
+                                                   @Value("${wallet.cluster.session-cache-max-users:100000}") int cacheMaxUsers) {
+        UserSessionRegistry registry = enabled
+                ? new JdbcUserSessionRegistry(jdbcTemplate, cacheTtl.toMillis(), cacheMaxUsers)
+                : new InMemoryUserSessionRegistry();
+        registry.nodeStarted(nodeId);
+        return registry;
+    }
+
+    @Bean
+    public ClusterTransport clusterTransport(@Value("${wallet.cluster.peers:}") String peers,
+                                             @Value("${wallet.cluster.token:}") String token) {
+        if (!enabled) {
+            return (node, batch) -> {
+                throw new IllegalStateException("Clustering is disabled; cannot relay to " + node);
+            };
+        }
+        if (token.isBlank()) {
+            throw new IllegalStateException("wallet.cluster.token must be set when clustering is enabled");
+        }
+        Map<String, String> peerUrls = parsePeers(peers);
+        log.info("🌐 Cluster node {} relaying to peers {}", nodeId, peerUrls.keySet());
+        return new HttpClusterTransport(peerUrls, token);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ClusterMessageRouter clusterMessageRouter(UserSessionRegistry registry,
+                                                     ClusterTransport transport,
+                                                     LocalNotificationDelivery localDelivery,
+                                                     @Value("${wallet.cluster.batch-size:100}") int batchSize,
+                                                     @Value("${wallet.cluster.flush-ms:20}") long flushMs) {
+        return new ClusterMessageRouter(nodeId, registry, transport, localDelivery, batchSize, flushMs);
+    }
+
+    // "node-b=http://10.0.0.2:8080,node-c=http://10.0.0.3:8080"
+    private static Map<String, String> parsePeers(String peers) {
+        Map<String, String> peerUrls = new LinkedHashMap<>();
+        for (String entry : peers.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalStateException("Invalid wallet.cluster.peers entry: " + entry.trim());
+            }
+            peerUrls.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+        }
+        return peerUrls;
+    }
+}
@@ -0,0 +1,31 @@
+package com.utkarsh.paytm_wallet_clone.config;
+
+import com.utkarsh.paytm_wallet_clone.merchant.CallbackAddressPolicy;
+import com.utkarsh.paytm_wallet_clone.merchant.MerchantWebhookSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * One HTTP client for every merchant callback, so connections to a merchant
+ * are reused across deliveries instead of being opened per batch.
+ */
+@Configuration
+public class MerchantWebhookConfig {
+
+    @Bean
+    public CallbackAddressPolicy callbackAddressPolicy(
+            @Value("${wallet.merchant-webhook.allow-private-addresses:false}") boolean allowPrivate) {
+        return new CallbackAddressPolicy(allowPrivate);
+    }
+
+    @Bean(destroyMethod = "close")
+    public MerchantWebhookSender merchantWebhookSender(
+            @Value("${wallet.merchant-webhook.connect-timeout:3s}") Duration connectTimeout,
+            @Value("${wallet.merchant-webhook.request-timeout:10s}") Duration requestTimeout,
+            CallbackAddressPolicy callbackAddressPolicy) {
+        return new MerchantWebhookSender(connectTimeout, requestTimeout, callbackAddressPolicy);
+    }
+}
@@ -1,11 +1,17 @@
 package com.utkarsh.paytm_wallet_clone.config;
 
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
+import com.utkarsh.paytm_wallet_clone.gateway.RazorpayGatewayClient;
+import com.utkarsh.paytm_wallet_clone.gateway.SimulatedPaymentGateway;
+import com.utkarsh.paytm_wallet_clone.util.CircuitBreaker;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+// wallet.payment.gateway.mode picks the gateway: razorpay (default) or simulator for load runs
 @Configuration
 public class RazorpayConfig {
 
@@ -15,8 +21,30 @@ public class RazorpayConfig {
     @Value("${razorpay.key-secret:dummy_secret_for_development_only}")
     private String keySecret;
 
+    @Value("${razorpay.api-base-url:https://api.razorpay.com/v1}")
+    private String apiBaseUrl;
+
     @Bean
-    public RazorpayClient razorpayClient() throws RazorpayException {
-        return new RazorpayClient(keyId, keySecret);
+    @ConditionalOnProperty(name = "wallet.payment.gateway.mode", havingValue = "razorpay", matchIfMissing = true)
+    public PaymentGateway razorpayGatewayClient(
+            @Value("${wallet.payment.gateway.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${wallet.payment.gateway.read-timeout:5s}") Duration readTimeout,
+            @Value("${wallet.payment.gateway.breaker-failure-threshold:5}") int failureThreshold,
+            @Value("${wallet.payment.gateway.breaker-open-duration:30s}") Duration openDuration) {
+        return new RazorpayGatewayClient(apiBaseUrl, keyId, keySecret, connectTimeout, readTimeout,
+                new CircuitBreaker(failureThreshold, openDuration));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "wallet.payment.gateway.mode", havingValue = "simulator")
+    public PaymentGateway simulatedPaymentGateway(
+            @Value("${razorpay.webhook-secret}") String webhookSecret,
+            @Value("${wallet.payment.simulator.webhook-url:http://localhost:${server.port:8080}/webhook/razorpay}") String webhookUrl,
+            @Value("${wallet.payment.simulator.rate-per-second:0}") int ratePerSecond,
+            @Value("${wallet.payment.simulator.latency-median:2s}") Duration latencyMedian,
+            @Value("${wallet.payment.simulator.latency-p99:15s}") Duration latencyP99,
+            @Value("${wallet.payment.simulator.failure-ratio:0.05}") double failureRatio) {
+        return new SimulatedPaymentGateway(webhookUrl, webhookSecret, ratePerSecond,
+                latencyMedian, latencyP99, failureRatio);
     }
-}
\ No newline at end of file
+}
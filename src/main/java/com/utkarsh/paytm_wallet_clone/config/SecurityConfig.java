@@ -2,14 +2,18 @@ package com.utkarsh.paytm_wallet_clone.config;
 
 import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
 import com.utkarsh.paytm_wallet_clone.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -21,6 +25,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -28,6 +33,10 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
 
+    // Operators allowed to call /api/admin/** (comma separated in config)
+    @Value("${wallet.admin.emails:}")
+    private List<String> adminEmails;
+
     public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
     }
@@ -43,8 +52,11 @@ public class SecurityConfig {
                         .requestMatchers("/css/**", "/js/**", "/pages/**").permitAll()
                         .requestMatchers("/favicon.ico", "/error").permitAll()
 
+                        // Async re-dispatch when an SSE stream completes; the original request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // ⭐ WebSocket endpoint - MUST BE ALLOWED
-                        .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/ws/**", "/ws-native/**").permitAll()
 
                         // Allow auth endpoints (public only)
                         .requestMatchers("/api/auth/login", "/api/auth/register",
@@ -52,6 +64,13 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/webhook/razorpay").permitAll()
 
+                        // Node-to-node relay, authenticated by the shared cluster token
+                        .requestMatchers("/internal/cluster/**").permitAll()
+
+                        // Operator endpoints
+                        .requestMatchers("/api/admin/**").access((authentication, context) ->
+                                new AuthorizationDecision(isAdmin(authentication.get())))
+
                         // Allow CORS preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
@@ -64,6 +83,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private boolean isAdmin(Authentication authentication) {
+        return authentication != null
+                && authentication.isAuthenticated()
+                && adminEmails.contains(authentication.getName());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -1,26 +1,74 @@
 package com.utkarsh.paytm_wallet_clone.config;
 
+import com.utkarsh.paytm_wallet_clone.service.SessionSendBuffers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final BalanceEncodingInterceptor balanceEncodingInterceptor;
+    private final SessionSendBuffers sessionSendBuffers;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final int outboundPoolSize;
+    private final int outboundQueueCapacity;
 
-    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor) {
+    public WebSocketConfig(WebSocketAuthInterceptor webSocketAuthInterceptor,
+                           BalanceEncodingInterceptor balanceEncodingInterceptor,
+                           SessionSendBuffers sessionSendBuffers,
+                           @Value("${wallet.websocket.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${wallet.websocket.send-buffer-size-limit:65536}") int sendBufferSizeLimit,
+                           @Value("${wallet.websocket.outbound-pool-size:8}") int outboundPoolSize,
+                           @Value("${wallet.websocket.outbound-queue-capacity:10000}") int outboundQueueCapacity) {
         this.webSocketAuthInterceptor = webSocketAuthInterceptor;
+        this.balanceEncodingInterceptor = balanceEncodingInterceptor;
+        this.sessionSendBuffers = sessionSendBuffers;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.outboundPoolSize = outboundPoolSize;
+        this.outboundQueueCapacity = outboundQueueCapacity;
     }
 
     @Override
     public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        // Auth first: encoding negotiation needs the authenticated user
+        registration.interceptors(webSocketAuthInterceptor, balanceEncodingInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        // Bounded instead of the default unbounded queue; the pool sends frames for many sessions at once,
+        // setPreservePublishOrder in configureMessageBroker keeps each session's frames in order
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        // Counts each frame into its session's send buffer, for the dispatcher's backpressure check
+        registration.interceptors(sessionSendBuffers);
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        // A session that cannot drain its buffer within these limits is closed
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(sessionSendBuffers);
     }
 
     @Override
@@ -31,6 +79,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setApplicationDestinationPrefixes("/app");
         // User-specific message prefix
         config.setUserDestinationPrefix("/user");
+        // The outbound channel runs on a pool: without this a session's frames can overtake each other,
+        // which clients read as seq gaps and SessionSendBuffers' FIFO accounting depends on
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -39,5 +90,22 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:8080", "http://localhost:3000", "http://127.0.0.1:5500")
                 .withSockJS(); // Fallback for browsers without WebSocket support
+
+        // Plain WebSocket for native clients; the only endpoint that can carry binary balance frames
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins("http://localhost:8080", "http://localhost:3000", "http://127.0.0.1:5500")
+                .addInterceptors(new HandshakeInterceptor() {
+                    @Override
+                    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+                        attributes.put(BalanceEncodingInterceptor.NATIVE_TRANSPORT_ATTR, Boolean.TRUE);
+                        return true;
+                    }
+
+                    @Override
+                    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+                    }
+                });
     }
 }
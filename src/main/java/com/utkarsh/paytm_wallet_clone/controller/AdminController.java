@@ -0,0 +1,222 @@
+package com.utkarsh.paytm_wallet_clone.controller;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.BroadcastRequest;
+import com.utkarsh.paytm_wallet_clone.dto.request.BulkRefundRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.DispatcherStatsDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.ImportJobStatusDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.MerchantWebhookStatsDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.PayoutCycleDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.RefundBatchDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.ReconciliationSummaryDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.StatementImportStatusDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.WebhookInboxStatsDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.WebhookReplayStatusDTO;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BroadcastMessage;
+import com.utkarsh.paytm_wallet_clone.service.BankStatementImportService;
+import com.utkarsh.paytm_wallet_clone.service.MerchantWebhookDispatcher;
+import com.utkarsh.paytm_wallet_clone.service.MerchantWebhookService;
+import com.utkarsh.paytm_wallet_clone.service.PaymentReconciliationService;
+import com.utkarsh.paytm_wallet_clone.service.PayoutService;
+import com.utkarsh.paytm_wallet_clone.service.RefundService;
+import com.utkarsh.paytm_wallet_clone.service.UserImportService;
+import com.utkarsh.paytm_wallet_clone.service.WebSocketDispatcher;
+import com.utkarsh.paytm_wallet_clone.service.WebSocketService;
+import com.utkarsh.paytm_wallet_clone.service.WebhookInboxService;
+import com.utkarsh.paytm_wallet_clone.service.WebhookReplayService;
+import com.utkarsh.paytm_wallet_clone.util.ImportDirectory;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+// Operator endpoints — restricted to wallet.admin.emails in SecurityConfig
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final UserImportService userImportService;
+    private final WebSocketDispatcher webSocketDispatcher;
+    private final WebSocketService webSocketService;
+    private final WebhookInboxService webhookInboxService;
+    private final PaymentReconciliationService reconciliationService;
+    private final BankStatementImportService statementImportService;
+    private final PayoutService payoutService;
+    private final RefundService refundService;
+    private final WebhookReplayService webhookReplayService;
+    private final MerchantWebhookDispatcher merchantWebhookDispatcher;
+    private final MerchantWebhookService merchantWebhookService;
+    private final ImportDirectory importDirectory;
+
+    public AdminController(UserImportService userImportService,
+                           WebSocketDispatcher webSocketDispatcher,
+                           WebSocketService webSocketService,
+                           WebhookInboxService webhookInboxService,
+                           PaymentReconciliationService reconciliationService,
+                           BankStatementImportService statementImportService,
+                           PayoutService payoutService,
+                           RefundService refundService,
+                           WebhookReplayService webhookReplayService,
+                           MerchantWebhookDispatcher merchantWebhookDispatcher,
+                           MerchantWebhookService merchantWebhookService,
+                           ImportDirectory importDirectory) {
+        this.userImportService = userImportService;
+        this.webSocketDispatcher = webSocketDispatcher;
+        this.webSocketService = webSocketService;
+        this.webhookInboxService = webhookInboxService;
+        this.reconciliationService = reconciliationService;
+        this.statementImportService = statementImportService;
+        this.payoutService = payoutService;
+        this.refundService = refundService;
+        this.webhookReplayService = webhookReplayService;
+        this.merchantWebhookDispatcher = merchantWebhookDispatcher;
+        this.merchantWebhookService = merchantWebhookService;
+        this.importDirectory = importDirectory;
+    }
+
+    // ─── Bulk user onboarding ─────────────────────────────────────────────────
+
+    // POST /api/admin/users/import?path=partner.csv&fromLine=2 — path is relative to wallet.import.dir
+    @PostMapping("/users/import")
+    public ResponseEntity<ImportJobStatusDTO> importUsers(
+            @RequestParam String path,
+            @RequestParam(defaultValue = "2") long fromLine) {
+
+        ImportJobStatusDTO status = userImportService.startImport(importDirectory.resolve(path), fromLine);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/users/import/{jobId}")
+    public ResponseEntity<ImportJobStatusDTO> importStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(userImportService.getStatus(jobId));
+    }
+
+    // ─── WebSocket fan-out ────────────────────────────────────────────────────
+
+    // GET /api/admin/websocket/stats — sessions, shard queue depths, drops, send latency
+    @GetMapping("/websocket/stats")
+    public ResponseEntity<DispatcherStatsDTO> webSocketStats() {
+        return ResponseEntity.ok(webSocketDispatcher.getStats());
+    }
+
+    // POST /api/admin/broadcast
+    // Body: { "type": "MAINTENANCE", "title": "...", "message": "..." } — sent to every connected session
+    @PostMapping("/broadcast")
+    public ResponseEntity<BroadcastMessage> broadcast(@Valid @RequestBody BroadcastRequest request) {
+        BroadcastMessage broadcast = webSocketService.broadcast(
+                request.getType(), request.getTitle(), request.getMessage());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(broadcast);
+    }
+
+    // ─── Webhook inbox ────────────────────────────────────────────────────────
+
+    // GET /api/admin/webhooks/inbox/stats — pending depth, partition queues, processing lag
+    @GetMapping("/webhooks/inbox/stats")
+    public ResponseEntity<WebhookInboxStatsDTO> webhookInboxStats() {
+        return ResponseEntity.ok(webhookInboxService.getStats());
+    }
+
+    // POST /api/admin/webhooks/replay?path=razorpay-events-2026-10-17.ndjson — path is relative to wallet.import.dir
+    // Re-applies an exported event file; lines that fail land in <path>.failed.ndjson
+    @PostMapping("/webhooks/replay")
+    public ResponseEntity<WebhookReplayStatusDTO> replayWebhooks(@RequestParam String path) {
+        WebhookReplayStatusDTO status = webhookReplayService.startReplay(importDirectory.resolve(path));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/webhooks/replay/{jobId}")
+    public ResponseEntity<WebhookReplayStatusDTO> webhookReplayStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(webhookReplayService.getStatus(jobId));
+    }
+
+    // ─── Payment reconciliation ───────────────────────────────────────────────
+
+    // POST /api/admin/payments/reconcile — runs a pass now; 409 if one is already running
+    @PostMapping("/payments/reconcile")
+    public ResponseEntity<ReconciliationSummaryDTO> reconcilePayments() {
+        return reconciliationService.reconcile()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // GET /api/admin/payments/reconcile — summary of the last pass on this node
+    @GetMapping("/payments/reconcile")
+    public ResponseEntity<ReconciliationSummaryDTO> lastReconciliation() {
+        return reconciliationService.getLastSummary()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // ─── Bank statement matching ──────────────────────────────────────────────
+
+    // POST /api/admin/statements/import?path=hdfc-2026-09.csv&fromLine=2
+    @PostMapping("/statements/import")
+    public ResponseEntity<StatementImportStatusDTO> importStatement(
+            @RequestParam String path,
+            @RequestParam(defaultValue = "2") long fromLine) {
+
+        StatementImportStatusDTO status = statementImportService.startImport(importDirectory.resolve(path), fromLine);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/statements/import/{jobId}")
+    public ResponseEntity<StatementImportStatusDTO> statementImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(statementImportService.getStatus(jobId));
+    }
+
+    // ─── Withdrawal payouts ───────────────────────────────────────────────────
+
+    // POST /api/admin/payouts/run — settles every pending withdrawal now; 409 if a cycle is running
+    @PostMapping("/payouts/run")
+    public ResponseEntity<PayoutCycleDTO> runPayoutCycle() {
+        return payoutService.runCycle()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/payouts/last")
+    public ResponseEntity<PayoutCycleDTO> lastPayoutCycle() {
+        return payoutService.getLastCycle()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // POST /api/admin/payouts/PO20261018180000-1a2b/file — rebuilds a cycle's file from the database
+    @PostMapping("/payouts/{batchId}/file")
+    public ResponseEntity<PayoutCycleDTO> regeneratePayoutFile(@PathVariable String batchId) {
+        return ResponseEntity.ok(payoutService.regenerateFile(batchId));
+    }
+
+    // ─── Bulk refunds ─────────────────────────────────────────────────────────
+
+    // POST /api/admin/refunds
+    // Body: { "orderIds": ["order_Pxyz1234", ...], "reason": "Campaign double credit" }
+    @PostMapping("/refunds")
+    public ResponseEntity<RefundBatchDTO> submitRefunds(@Valid @RequestBody BulkRefundRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(refundService.submit(request));
+    }
+
+    @GetMapping("/refunds/{batchId}")
+    public ResponseEntity<RefundBatchDTO> refundBatch(@PathVariable String batchId) {
+        return ResponseEntity.ok(refundService.getBatch(batchId));
+    }
+
+    @PostMapping("/refunds/{batchId}/resume")
+    public ResponseEntity<RefundBatchDTO> resumeRefunds(@PathVariable String batchId) {
+        return ResponseEntity.ok(refundService.resume(batchId));
+    }
+
+    // ─── Merchant webhooks ────────────────────────────────────────────────────
+
+    @GetMapping("/merchant-webhooks/stats")
+    public ResponseEntity<MerchantWebhookStatsDTO> merchantWebhookStats() {
+        return ResponseEntity.ok(merchantWebhookDispatcher.getStats());
+    }
+
+    // PUT /api/admin/merchants/42?enabled=true — only merchant accounts may register a callback
+    @PutMapping("/merchants/{userId}")
+    public ResponseEntity<Void> setMerchant(@PathVariable Long userId, @RequestParam boolean enabled) {
+        merchantWebhookService.setMerchant(userId, enabled);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.utkarsh.paytm_wallet_clone.controller;
+
+import com.utkarsh.paytm_wallet_clone.cluster.ClusterMessageRouter;
+import com.utkarsh.paytm_wallet_clone.cluster.HttpClusterTransport;
+import com.utkarsh.paytm_wallet_clone.cluster.RelayedMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Node-to-node endpoint: peers post batches of messages for users whose
+ * sessions live on this node.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterRelayController {
+
+    private final ClusterMessageRouter router;
+
+    @Value("${wallet.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wallet.cluster.token:}")
+    private String token;
+
+    public ClusterRelayController(ClusterMessageRouter router) {
+        this.router = router;
+    }
+
+    // POST /internal/cluster/relay
+    @PostMapping("/relay")
+    public ResponseEntity<Void> relay(
+            @RequestHeader(value = HttpClusterTransport.TOKEN_HEADER, required = false) String receivedToken,
+            @RequestBody List<RelayedMessage> batch) {
+
+        if (!enabled || receivedToken == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), receivedToken.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(403).build();
+        }
+
+        router.receive(batch);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.utkarsh.paytm_wallet_clone.controller;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.MerchantEndpointRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.MerchantEndpointDTO;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.service.MerchantWebhookService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/merchant")
+public class MerchantController {
+
+    private final MerchantWebhookService merchantWebhookService;
+
+    public MerchantController(MerchantWebhookService merchantWebhookService) {
+        this.merchantWebhookService = merchantWebhookService;
+    }
+
+    // PUT /api/merchant/webhook
+    // Body: { "url": "https://shop.example.com/wallet/events" }
+    // Returns the signing secret — it is not shown again; registering again rotates it
+    @PutMapping("/webhook")
+    public ResponseEntity<MerchantEndpointDTO> registerWebhook(
+            @Valid @RequestBody MerchantEndpointRequest request,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(merchantWebhookService.register(user, request));
+    }
+
+    @GetMapping("/webhook")
+    public ResponseEntity<MerchantEndpointDTO> getWebhook(@AuthenticationPrincipal User user) {
+        return merchantWebhookService.getEndpoint(user)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @DeleteMapping("/webhook")
+    public ResponseEntity<Void> removeWebhook(@AuthenticationPrincipal User user) {
+        return merchantWebhookService.removeEndpoint(user)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,23 +1,35 @@
 package com.utkarsh.paytm_wallet_clone.controller;
 
-import com.razorpay.RazorpayException;
 import com.utkarsh.paytm_wallet_clone.dto.request.CreateOrderRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.OrderStatusResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.PaymentOrderResponse;
 import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.service.OrderStatusWaiters;
 import com.utkarsh.paytm_wallet_clone.service.PaymentService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/payment")
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final OrderStatusWaiters orderStatusWaiters;
+
+    @Value("${wallet.payment.status-max-wait:30s}")
+    private Duration maxWait;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             OrderStatusWaiters orderStatusWaiters) {
         this.paymentService = paymentService;
+        this.orderStatusWaiters = orderStatusWaiters;
     }
 
     // POST /api/payment/create-order
@@ -26,9 +38,43 @@ public class PaymentController {
     @PostMapping("/create-order")
     public ResponseEntity<PaymentOrderResponse> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
-            @AuthenticationPrincipal User user) throws RazorpayException {
+            @AuthenticationPrincipal User user) {
 
         PaymentOrderResponse response = paymentService.createOrder(request, user);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // GET /api/payment/orders/{orderId}/status?wait=30s
+    // Answers immediately once the order is no longer CREATED; otherwise holds the
+    // request (without a thread) until the webhook credits the wallet or the wait runs out
+    @GetMapping("/orders/{orderId}/status")
+    public DeferredResult<OrderStatusResponse> orderStatus(
+            @PathVariable String orderId,
+            @RequestParam(defaultValue = "0s") String wait,
+            @AuthenticationPrincipal User user) {
+
+        OrderStatusResponse current = paymentService.getOrderStatus(orderId, user);
+        Duration capped = clampWait(wait);
+
+        if (!"CREATED".equals(current.getStatus()) || capped.isZero()) {
+            DeferredResult<OrderStatusResponse> done = new DeferredResult<>();
+            done.setResult(current);
+            return done;
+        }
+        return orderStatusWaiters.await(orderId, capped, () -> paymentService.getOrderStatus(orderId, user));
+    }
+
+    // "30s", "2m" or ISO-8601, clamped to [0, status-max-wait]; anything unparseable is a 400
+    private Duration clampWait(String wait) {
+        Duration requested;
+        try {
+            requested = DurationStyle.detectAndParse(wait.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid wait '" + wait + "': use a duration such as 30s, 2m or PT30S");
+        }
+        if (requested.isNegative()) {
+            return Duration.ZERO;
+        }
+        return requested.compareTo(maxWait) > 0 ? maxWait : requested;
+    }
+}
@@ -1,22 +1,37 @@
 package com.utkarsh.paytm_wallet_clone.controller;
 
+import com.utkarsh.paytm_wallet_clone.dto.request.ContactDiscoveryRequest;
 import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
+import com.utkarsh.paytm_wallet_clone.dto.request.WithdrawalRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.ContactDiscoveryResponse;
+import com.utkarsh.paytm_wallet_clone.dto.response.NotificationReplayResponse;
+import com.utkarsh.paytm_wallet_clone.dto.response.TransactionChangesResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransactionDTO;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransferResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
 import com.utkarsh.paytm_wallet_clone.dto.response.WalletBalanceDTO;
+import com.utkarsh.paytm_wallet_clone.dto.response.WithdrawalDTO;
 import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.service.BalanceStreamService;
+import com.utkarsh.paytm_wallet_clone.service.ContactDiscoveryService;
+import com.utkarsh.paytm_wallet_clone.service.NotificationReplayService;
 import com.utkarsh.paytm_wallet_clone.service.PdfReceiptService;
+import com.utkarsh.paytm_wallet_clone.service.RecipientSuggestionService;
 import com.utkarsh.paytm_wallet_clone.service.TransactionService;
 import com.utkarsh.paytm_wallet_clone.service.TransferService;
 import com.utkarsh.paytm_wallet_clone.service.WalletService;
+import com.utkarsh.paytm_wallet_clone.service.WithdrawalService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/wallet")
@@ -26,15 +41,30 @@ public class WalletController {
     private final TransferService transferService;
     private final TransactionService transactionService;
     private final PdfReceiptService pdfReceiptService;
+    private final ContactDiscoveryService contactDiscoveryService;
+    private final RecipientSuggestionService recipientSuggestionService;
+    private final NotificationReplayService notificationReplayService;
+    private final BalanceStreamService balanceStreamService;
+    private final WithdrawalService withdrawalService;
 
     public WalletController(WalletService walletService,
                             TransferService transferService,
                             TransactionService transactionService,
-                            PdfReceiptService pdfReceiptService) {
+                            PdfReceiptService pdfReceiptService,
+                            ContactDiscoveryService contactDiscoveryService,
+                            RecipientSuggestionService recipientSuggestionService,
+                            NotificationReplayService notificationReplayService,
+                            BalanceStreamService balanceStreamService,
+                            WithdrawalService withdrawalService) {
         this.walletService = walletService;
         this.transferService = transferService;
         this.transactionService = transactionService;
         this.pdfReceiptService = pdfReceiptService;
+        this.contactDiscoveryService = contactDiscoveryService;
+        this.recipientSuggestionService = recipientSuggestionService;
+        this.notificationReplayService = notificationReplayService;
+        this.balanceStreamService = balanceStreamService;
+        this.withdrawalService = withdrawalService;
     }
 
     @GetMapping("/balance")
@@ -42,6 +72,15 @@ public class WalletController {
         return ResponseEntity.ok(walletService.getBalance(user));
     }
 
+    // GET /api/wallet/balance/stream  (text/event-stream)
+    // Browsers reconnect automatically and send the last event id back as Last-Event-ID
+    @GetMapping(value = "/balance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalance(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @AuthenticationPrincipal User user) {
+        return balanceStreamService.open(user.getEmail(), lastEventId);
+    }
+
     @GetMapping("/user/{phone}")
     public ResponseEntity<UserLookupDTO> lookupUserByPhone(
             @PathVariable String phone,
@@ -51,6 +90,32 @@ public class WalletController {
         return ResponseEntity.ok(lookup);
     }
 
+    // POST /api/wallet/users/discover
+    // Body: { "phones": ["+91 98765 43210", ...] } — up to 5000 address-book entries
+    @PostMapping("/users/discover")
+    public ResponseEntity<ContactDiscoveryResponse> discoverContacts(
+            @Valid @RequestBody ContactDiscoveryRequest request) {
+        return ResponseEntity.ok(contactDiscoveryService.discover(request.getPhones()));
+    }
+
+    // GET /api/wallet/users/suggest?q=9876  or  ?q=rahul k  (name matches come back with a masked phone)
+    @GetMapping("/users/suggest")
+    public ResponseEntity<List<UserLookupDTO>> suggestRecipients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(recipientSuggestionService.suggest(user.getEmail(), q, limit));
+    }
+
+    // GET /api/wallet/notifications/replay?lastSeq=1718000000000042
+    // Balance frames missed while the socket was down, or resyncRequired if the gap is too old
+    @GetMapping("/notifications/replay")
+    public ResponseEntity<NotificationReplayResponse> replayNotifications(
+            @RequestParam(required = false) Long lastSeq,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(notificationReplayService.replay(user.getEmail(), lastSeq));
+    }
+
     @PostMapping("/transfer")
     public ResponseEntity<TransferResponse> transfer(
             @Valid @RequestBody TransferRequest request,
@@ -58,6 +123,28 @@ public class WalletController {
         return ResponseEntity.ok(transferService.transfer(user, request));
     }
 
+    // POST /api/wallet/withdrawals
+    // Body: { "amount": 2500, "accountNumber": "...", "ifsc": "HDFC0001234", "accountHolder": "..." }
+    // The amount is held now and paid out in the next payout cycle
+    @PostMapping("/withdrawals")
+    public ResponseEntity<WithdrawalDTO> requestWithdrawal(
+            @Valid @RequestBody WithdrawalRequest request,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(withdrawalService.requestWithdrawal(user, request));
+    }
+
+    @GetMapping("/withdrawals")
+    public ResponseEntity<List<WithdrawalDTO>> getWithdrawals(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(withdrawalService.getWithdrawals(user));
+    }
+
+    @DeleteMapping("/withdrawals/{id}")
+    public ResponseEntity<WithdrawalDTO> cancelWithdrawal(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(withdrawalService.cancelWithdrawal(user, id));
+    }
+
     @GetMapping("/transactions")
     public ResponseEntity<Page<TransactionDTO>> getTransactionHistory(
             @RequestParam(defaultValue = "0") int page,
@@ -68,6 +155,19 @@ public class WalletController {
         return ResponseEntity.ok(history);
     }
 
+    // GET /api/wallet/transactions/changes?sinceSeq=42
+    // Ledger rows after sinceSeq, oldest first; 304 when there is nothing new
+    @GetMapping("/transactions/changes")
+    public ResponseEntity<TransactionChangesResponse> getTransactionChanges(
+            @RequestParam(defaultValue = "0") long sinceSeq,
+            @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal User user) {
+
+        return transactionService.getChangesSince(user, sinceSeq, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+    }
+
     @GetMapping("/transactions/{txnRef}")
     public ResponseEntity<TransactionDTO> getTransactionByRef(
             @PathVariable String txnRef,
@@ -1,92 +1,63 @@
 package com.utkarsh.paytm_wallet_clone.controller;
 
-import com.utkarsh.paytm_wallet_clone.service.PaymentService;
-import org.springframework.beans.factory.annotation.Value;
+import com.utkarsh.paytm_wallet_clone.security.WebhookSignatureVerifier;
+import com.utkarsh.paytm_wallet_clone.service.WebhookInboxService;
+import com.utkarsh.paytm_wallet_clone.util.WebhookEventParser;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/webhook")
 public class WebhookController {
 
-    private final PaymentService paymentService;
+    private final WebhookInboxService webhookInboxService;
+    private final WebhookSignatureVerifier signatureVerifier;
 
-    @Value("${razorpay.webhook-secret}")
-    private String webhookSecret;
-
-    public WebhookController(PaymentService paymentService) {
-        this.paymentService = paymentService;
+    public WebhookController(WebhookInboxService webhookInboxService,
+                             WebhookSignatureVerifier signatureVerifier) {
+        this.webhookInboxService = webhookInboxService;
+        this.signatureVerifier = signatureVerifier;
     }
 
     // POST /webhook/razorpay
-    // Called by Razorpay when payment events occur
+    // Called by Razorpay when payment events occur. The verified event is stored
+    // in the inbox and acknowledged at once; workers apply it after the response.
     @PostMapping("/razorpay")
     public ResponseEntity<String> handleRazorpayWebhook(
-            @RequestBody String rawBody,
-            @RequestHeader("X-Razorpay-Signature") String receivedSignature) {
+            @RequestBody byte[] rawBody,
+            @RequestHeader("X-Razorpay-Signature") String receivedSignature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
 
         // ─── CRITICAL: Verify signature FIRST ────────────────────────────────
-        if (!verifySignature(rawBody, receivedSignature)) {
+        // HMAC over the exact bytes received — no charset round trip
+        if (!signatureVerifier.verify(rawBody, receivedSignature)) {
             System.out.println("❌ WEBHOOK REJECTED: Invalid signature");
             return ResponseEntity.status(400).body("Invalid signature");
         }
 
-        System.out.println("✅ Webhook signature verified");
-
-        // ─── Parse the event ──────────────────────────────────────────────────
+        // ─── Read just enough to route the event ─────────────────────────────
+        WebhookEventParser.Fields fields;
         try {
-            // Razorpay sends JSON, we need to extract event type and payload
-            org.json.JSONObject json = new org.json.JSONObject(rawBody);
-            String event = json.getString("event");
-            org.json.JSONObject payload = json.getJSONObject("payload")
-                    .getJSONObject("payment")
-                    .getJSONObject("entity");
-
-            System.out.println("📦 Webhook event: " + event);
-
-            if ("payment.captured".equals(event)) {
-                String paymentId = payload.getString("id");
-                String orderId = payload.getString("order_id");
-                int amountInPaise = payload.getInt("amount");
-
-                paymentService.handlePaymentSuccess(orderId, paymentId, amountInPaise);
-            }
-
-            return ResponseEntity.ok("Webhook processed");
-
-        } catch (Exception e) {
-            System.err.println("❌ Webhook processing error: " + e.getMessage());
-            return ResponseEntity.status(500).body("Processing failed");
+            fields = WebhookEventParser.parse(rawBody);
+        } catch (IllegalArgumentException e) {
+            // A malformed body won't parse on redelivery either — don't ask for one
+            System.err.println("❌ Webhook payload rejected: " + e.getMessage());
+            return ResponseEntity.status(400).body("Malformed payload");
         }
-    }
 
-    // ─── HMAC-SHA256 signature verification ──────────────────────────────────
-    private boolean verifySignature(String rawBody, String receivedSignature) {
+        // ─── Persist, then ack ────────────────────────────────────────────────
+        // The signature is an HMAC of the body, so it identifies the event when no id is sent
+        String inboxKey = eventId != null && !eventId.isBlank() ? eventId : receivedSignature;
         try {
-            Mac sha256Hmac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            sha256Hmac.init(secretKey);
-
-            byte[] hash = sha256Hmac.doFinal(rawBody.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-
-            String computedSignature = hexString.toString();
-            return computedSignature.equals(receivedSignature);
-
+            boolean stored = webhookInboxService.accept(inboxKey, fields.event(), fields.orderId(),
+                    new String(rawBody, StandardCharsets.UTF_8));
+            return ResponseEntity.ok(stored ? "Webhook accepted" : "Webhook already received");
         } catch (Exception e) {
-            System.err.println("❌ Signature verification failed: " + e.getMessage());
-            return false;
+            // Not stored — a non-2xx makes the gateway retry
+            System.err.println("❌ Webhook inbox write failed: " + e.getMessage());
+            return ResponseEntity.status(503).body("Try again");
         }
     }
-}
\ No newline at end of file
+}
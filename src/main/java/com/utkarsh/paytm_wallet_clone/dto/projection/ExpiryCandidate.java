@@ -0,0 +1,7 @@
+package com.utkarsh.paytm_wallet_clone.dto.projection;
+
+import java.time.LocalDateTime;
+
+// Lightweight (id, timestamp) row used to re-register deadlines on startup
+public record ExpiryCandidate(Long id, LocalDateTime timestamp) {
+}
@@ -0,0 +1,5 @@
+package com.utkarsh.paytm_wallet_clone.dto.projection;
+
+// (razorpay order id, user id) pair used to route webhook events to a worker partition
+public record OrderOwner(String orderId, Long userId) {
+}
@@ -0,0 +1,9 @@
+package com.utkarsh.paytm_wallet_clone.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// CREATED order as the statement matcher needs it — receipt is the reference customers quote
+public record PendingDeposit(Long id, String razorpayOrderId, String receipt,
+                             BigDecimal amount, LocalDateTime createdAt) {
+}
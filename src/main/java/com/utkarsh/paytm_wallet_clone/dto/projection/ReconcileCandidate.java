@@ -0,0 +1,5 @@
+package com.utkarsh.paytm_wallet_clone.dto.projection;
+
+// Order still CREATED past the reconciliation threshold — enough to ask the gateway about it
+public record ReconcileCandidate(Long id, String razorpayOrderId) {
+}
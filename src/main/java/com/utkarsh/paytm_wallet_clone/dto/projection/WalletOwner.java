@@ -0,0 +1,5 @@
+package com.utkarsh.paytm_wallet_clone.dto.projection;
+
+// (wallet id, owner id, owner phone) — confirms a directory route without locking the wallet
+public record WalletOwner(Long walletId, Long userId, String phone) {
+}
@@ -0,0 +1,30 @@
+package com.utkarsh.paytm_wallet_clone.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class BroadcastRequest {
+
+    @NotBlank(message = "Type is required")
+    @Pattern(regexp = "MAINTENANCE|PROMOTION", message = "Type must be MAINTENANCE or PROMOTION")
+    private String type;
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 100, message = "Title must be at most 100 characters")
+    private String title;
+
+    @NotBlank(message = "Message is required")
+    @Size(max = 500, message = "Message must be at most 500 characters")
+    private String message;
+
+    // Getters & Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
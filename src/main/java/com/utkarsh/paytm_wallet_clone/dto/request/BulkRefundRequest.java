@@ -0,0 +1,26 @@
+package com.utkarsh.paytm_wallet_clone.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkRefundRequest {
+
+    // Gateway order ids, e.g. "order_Pxyz1234"
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 50000, message = "At most 50000 orders per request")
+    private List<@NotBlank String> orderIds;
+
+    @NotBlank(message = "Reason is required")
+    @Size(max = 100, message = "Reason must be at most 100 characters")
+    private String reason;
+
+    // Getters & Setters
+    public List<String> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<String> orderIds) { this.orderIds = orderIds; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
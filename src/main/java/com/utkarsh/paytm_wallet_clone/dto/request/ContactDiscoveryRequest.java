@@ -0,0 +1,17 @@
+package com.utkarsh.paytm_wallet_clone.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ContactDiscoveryRequest {
+
+    @NotEmpty(message = "At least one phone number is required")
+    @Size(max = 5000, message = "At most 5000 contacts per sync")
+    private List<String> phones;
+
+    // Getters & Setters
+    public List<String> getPhones() { return phones; }
+    public void setPhones(List<String> phones) { this.phones = phones; }
+}
@@ -0,0 +1,15 @@
+package com.utkarsh.paytm_wallet_clone.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class MerchantEndpointRequest {
+
+    @NotBlank(message = "Callback URL is required")
+    @Size(max = 500, message = "Callback URL is too long")
+    private String url;
+
+    // Getters & Setters
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+}
@@ -0,0 +1,41 @@
+package com.utkarsh.paytm_wallet_clone.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public class WithdrawalRequest {
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "1.00", message = "Amount must be at least ₹1")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Account number is required")
+    @Pattern(regexp = "^\\d{9,18}$", message = "Account number must be 9 to 18 digits")
+    private String accountNumber;
+
+    @NotBlank(message = "IFSC is required")
+    @Pattern(regexp = "^[A-Z]{4}0[A-Z0-9]{6}$", message = "Invalid IFSC code")
+    private String ifsc;
+
+    @NotBlank(message = "Account holder name is required")
+    @Size(max = 100, message = "Account holder name is too long")
+    private String accountHolder;
+
+    // Getters & Setters
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getIfsc() { return ifsc; }
+    public void setIfsc(String ifsc) { this.ifsc = ifsc; }
+
+    public String getAccountHolder() { return accountHolder; }
+    public void setAccountHolder(String accountHolder) { this.accountHolder = accountHolder; }
+}
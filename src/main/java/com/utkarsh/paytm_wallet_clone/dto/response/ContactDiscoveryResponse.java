@@ -0,0 +1,21 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.util.List;
+
+public class ContactDiscoveryResponse {
+
+    private List<UserLookupDTO> registered;   // contacts that are on PayFlow
+    private int checked;                      // valid, de-duplicated numbers in the request
+    private int candidates;                   // numbers that passed the Bloom pre-filter
+
+    public ContactDiscoveryResponse(List<UserLookupDTO> registered, int checked, int candidates) {
+        this.registered = registered;
+        this.checked = checked;
+        this.candidates = candidates;
+    }
+
+    // Getters
+    public List<UserLookupDTO> getRegistered() { return registered; }
+    public int getChecked() { return checked; }
+    public int getCandidates() { return candidates; }
+}
@@ -0,0 +1,45 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.util.List;
+
+public class DispatcherStatsDTO {
+
+    private int activeSessions;
+    private List<Integer> queueDepths;        // one entry per shard
+    private long dispatched;
+    private long sent;
+    private long failed;
+    private long droppedQueueFull;
+    private long droppedUserBacklog;
+    private long droppedSlowClient;           // every session's send buffer past the high-water mark
+    private long latencyP50Micros;            // enqueue → handed to the broker
+    private long latencyP99Micros;
+
+    public DispatcherStatsDTO(int activeSessions, List<Integer> queueDepths,
+                              long dispatched, long sent, long failed,
+                              long droppedQueueFull, long droppedUserBacklog, long droppedSlowClient,
+                              long latencyP50Micros, long latencyP99Micros) {
+        this.activeSessions = activeSessions;
+        this.queueDepths = queueDepths;
+        this.dispatched = dispatched;
+        this.sent = sent;
+        this.failed = failed;
+        this.droppedQueueFull = droppedQueueFull;
+        this.droppedUserBacklog = droppedUserBacklog;
+        this.droppedSlowClient = droppedSlowClient;
+        this.latencyP50Micros = latencyP50Micros;
+        this.latencyP99Micros = latencyP99Micros;
+    }
+
+    // Getters
+    public int getActiveSessions() { return activeSessions; }
+    public List<Integer> getQueueDepths() { return queueDepths; }
+    public long getDispatched() { return dispatched; }
+    public long getSent() { return sent; }
+    public long getFailed() { return failed; }
+    public long getDroppedQueueFull() { return droppedQueueFull; }
+    public long getDroppedUserBacklog() { return droppedUserBacklog; }
+    public long getDroppedSlowClient() { return droppedSlowClient; }
+    public long getLatencyP50Micros() { return latencyP50Micros; }
+    public long getLatencyP99Micros() { return latencyP99Micros; }
+}
@@ -0,0 +1,48 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.time.LocalDateTime;
+
+public class ImportJobStatusDTO {
+
+    private String jobId;
+    private String file;
+    private String state;                 // QUEUED | RUNNING | COMPLETED | FAILED
+    private long fromLine;
+    private long linesRead;
+    private long committedThroughLine;    // resume with fromLine = committedThroughLine + 1
+    private long imported;
+    private long rejected;
+    private String errorFile;             // rejected rows with line number and reason
+    private String failure;
+    private LocalDateTime startedAt;
+
+    public ImportJobStatusDTO(String jobId, String file, String state, long fromLine,
+                              long linesRead, long committedThroughLine,
+                              long imported, long rejected, String errorFile,
+                              String failure, LocalDateTime startedAt) {
+        this.jobId = jobId;
+        this.file = file;
+        this.state = state;
+        this.fromLine = fromLine;
+        this.linesRead = linesRead;
+        this.committedThroughLine = committedThroughLine;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errorFile = errorFile;
+        this.failure = failure;
+        this.startedAt = startedAt;
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getFile() { return file; }
+    public String getState() { return state; }
+    public long getFromLine() { return fromLine; }
+    public long getLinesRead() { return linesRead; }
+    public long getCommittedThroughLine() { return committedThroughLine; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public String getErrorFile() { return errorFile; }
+    public String getFailure() { return failure; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+}
@@ -0,0 +1,27 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.time.LocalDateTime;
+
+public class MerchantEndpointDTO {
+
+    private String url;
+    private String secret;           // only returned when the endpoint is (re)registered
+    private long pending;            // events waiting to be delivered
+    private long failed;             // events that ran out of attempts
+    private LocalDateTime updatedAt;
+
+    public MerchantEndpointDTO(String url, String secret, long pending, long failed, LocalDateTime updatedAt) {
+        this.url = url;
+        this.secret = secret;
+        this.pending = pending;
+        this.failed = failed;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public String getUrl() { return url; }
+    public String getSecret() { return secret; }
+    public long getPending() { return pending; }
+    public long getFailed() { return failed; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,25 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+public class MerchantWebhookStatsDTO {
+
+    private long pending;            // queued rows, including ones backing off
+    private long failed;             // rows that ran out of attempts
+    private long delivered;          // events delivered since this node started
+    private long requests;           // HTTP requests sent since this node started
+    private long failedRequests;     // of which not answered with 2xx
+
+    public MerchantWebhookStatsDTO(long pending, long failed, long delivered, long requests, long failedRequests) {
+        this.pending = pending;
+        this.failed = failed;
+        this.delivered = delivered;
+        this.requests = requests;
+        this.failedRequests = failedRequests;
+    }
+
+    // Getters
+    public long getPending() { return pending; }
+    public long getFailed() { return failed; }
+    public long getDelivered() { return delivered; }
+    public long getRequests() { return requests; }
+    public long getFailedRequests() { return failedRequests; }
+}
@@ -0,0 +1,24 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+
+import java.util.List;
+
+public class NotificationReplayResponse {
+
+    private boolean resyncRequired;           // gap no longer buffered — refetch balance and history
+    private Long latestSeq;
+    private List<BalanceUpdateMessage> messages;
+
+    public NotificationReplayResponse(boolean resyncRequired, Long latestSeq,
+                                      List<BalanceUpdateMessage> messages) {
+        this.resyncRequired = resyncRequired;
+        this.latestSeq = latestSeq;
+        this.messages = messages;
+    }
+
+    // Getters
+    public boolean isResyncRequired() { return resyncRequired; }
+    public Long getLatestSeq() { return latestSeq; }
+    public List<BalanceUpdateMessage> getMessages() { return messages; }
+}
@@ -0,0 +1,25 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderStatusResponse {
+
+    private String razorpayOrderId;
+    private String status;           // CREATED | PAID | FAILED | REFUNDED
+    private BigDecimal amount;
+    private LocalDateTime paidAt;
+
+    public OrderStatusResponse(String razorpayOrderId, String status,
+                               BigDecimal amount, LocalDateTime paidAt) {
+        this.razorpayOrderId = razorpayOrderId;
+        this.status = status;
+        this.amount = amount;
+        this.paidAt = paidAt;
+    }
+
+    public String getRazorpayOrderId() { return razorpayOrderId; }
+    public String getStatus() { return status; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDateTime getPaidAt() { return paidAt; }
+}
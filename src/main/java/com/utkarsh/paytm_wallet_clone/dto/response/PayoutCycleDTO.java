@@ -0,0 +1,35 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PayoutCycleDTO {
+
+    private String batchId;
+    private LocalDateTime startedAt;
+    private long settled;            // withdrawals debited and written to the file
+    private BigDecimal totalAmount;
+    private String file;             // null when there was nothing to pay out
+    private long postingMs;          // DEBIT ledger rows, chunked transactions
+    private long fileMs;             // streaming the payout file
+
+    public PayoutCycleDTO(String batchId, LocalDateTime startedAt, long settled, BigDecimal totalAmount,
+                          String file, long postingMs, long fileMs) {
+        this.batchId = batchId;
+        this.startedAt = startedAt;
+        this.settled = settled;
+        this.totalAmount = totalAmount;
+        this.file = file;
+        this.postingMs = postingMs;
+        this.fileMs = fileMs;
+    }
+
+    // Getters
+    public String getBatchId() { return batchId; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public long getSettled() { return settled; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public String getFile() { return file; }
+    public long getPostingMs() { return postingMs; }
+    public long getFileMs() { return fileMs; }
+}
@@ -0,0 +1,37 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.time.LocalDateTime;
+
+public class ReconciliationSummaryDTO {
+
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int checked;           // stale CREATED orders looked up at the gateway
+    private int settled;           // captured at the gateway and credited by this run
+    private int alreadySettled;    // captured, but the webhook got there first
+    private int unpaid;            // no captured payment yet — left for the next run or expiry
+    private int errors;            // gateway unreachable or settlement failed
+    private boolean aborted;       // stopped early because every lookup in a page failed
+
+    public ReconciliationSummaryDTO(LocalDateTime startedAt, long durationMs, int checked, int settled,
+                                    int alreadySettled, int unpaid, int errors, boolean aborted) {
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.checked = checked;
+        this.settled = settled;
+        this.alreadySettled = alreadySettled;
+        this.unpaid = unpaid;
+        this.errors = errors;
+        this.aborted = aborted;
+    }
+
+    // Getters
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public long getDurationMs() { return durationMs; }
+    public int getChecked() { return checked; }
+    public int getSettled() { return settled; }
+    public int getAlreadySettled() { return alreadySettled; }
+    public int getUnpaid() { return unpaid; }
+    public int getErrors() { return errors; }
+    public boolean isAborted() { return aborted; }
+}
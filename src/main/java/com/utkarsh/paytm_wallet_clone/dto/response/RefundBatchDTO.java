@@ -0,0 +1,40 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.math.BigDecimal;
+
+public class RefundBatchDTO {
+
+    private String batchId;
+    private String state;           // RUNNING | PENDING (resumes on the next sweep) | COMPLETED
+    private Integer notRefundable;  // submit only: orders unknown, unpaid, settled by bank transfer or already refunding
+    private long queued;            // wallet not debited yet
+    private long debited;           // wallet debited, gateway refund outstanding
+    private long refunded;
+    private long failed;            // refused by the gateway; the debit was reversed
+    private long skipped;           // wallet could no longer cover the refund
+    private BigDecimal refundedAmount;
+
+    public RefundBatchDTO(String batchId, String state, Integer notRefundable, long queued, long debited,
+                          long refunded, long failed, long skipped, BigDecimal refundedAmount) {
+        this.batchId = batchId;
+        this.state = state;
+        this.notRefundable = notRefundable;
+        this.queued = queued;
+        this.debited = debited;
+        this.refunded = refunded;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.refundedAmount = refundedAmount;
+    }
+
+    // Getters
+    public String getBatchId() { return batchId; }
+    public String getState() { return state; }
+    public Integer getNotRefundable() { return notRefundable; }
+    public long getQueued() { return queued; }
+    public long getDebited() { return debited; }
+    public long getRefunded() { return refunded; }
+    public long getFailed() { return failed; }
+    public long getSkipped() { return skipped; }
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+}
@@ -0,0 +1,54 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.time.LocalDateTime;
+
+public class StatementImportStatusDTO {
+
+    private String jobId;
+    private String file;
+    private String state;                 // QUEUED | RUNNING | COMPLETED | FAILED
+    private long fromLine;
+    private long linesRead;
+    private long committedThroughLine;    // resume with fromLine = committedThroughLine + 1
+    private int pendingOrders;            // CREATED orders indexed for matching
+    private long credited;                // confident matches credited to wallets
+    private long review;                  // written to the review file for a person to decide
+    private long unmatched;               // credits that look unrelated to any order
+    private String reviewFile;
+    private String failure;
+    private LocalDateTime startedAt;
+
+    public StatementImportStatusDTO(String jobId, String file, String state, long fromLine,
+                                    long linesRead, long committedThroughLine, int pendingOrders,
+                                    long credited, long review, long unmatched,
+                                    String reviewFile, String failure, LocalDateTime startedAt) {
+        this.jobId = jobId;
+        this.file = file;
+        this.state = state;
+        this.fromLine = fromLine;
+        this.linesRead = linesRead;
+        this.committedThroughLine = committedThroughLine;
+        this.pendingOrders = pendingOrders;
+        this.credited = credited;
+        this.review = review;
+        this.unmatched = unmatched;
+        this.reviewFile = reviewFile;
+        this.failure = failure;
+        this.startedAt = startedAt;
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getFile() { return file; }
+    public String getState() { return state; }
+    public long getFromLine() { return fromLine; }
+    public long getLinesRead() { return linesRead; }
+    public long getCommittedThroughLine() { return committedThroughLine; }
+    public int getPendingOrders() { return pendingOrders; }
+    public long getCredited() { return credited; }
+    public long getReview() { return review; }
+    public long getUnmatched() { return unmatched; }
+    public String getReviewFile() { return reviewFile; }
+    public String getFailure() { return failure; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+}
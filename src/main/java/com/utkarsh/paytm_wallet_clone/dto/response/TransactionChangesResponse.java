@@ -0,0 +1,21 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.util.List;
+
+public class TransactionChangesResponse {
+
+    private long latestSeq;                   // pass back as sinceSeq on the next call
+    private boolean hasMore;                  // more rows after latestSeq — call again straight away
+    private List<TransactionDTO> transactions;
+
+    public TransactionChangesResponse(long latestSeq, boolean hasMore, List<TransactionDTO> transactions) {
+        this.latestSeq = latestSeq;
+        this.hasMore = hasMore;
+        this.transactions = transactions;
+    }
+
+    // Getters
+    public long getLatestSeq() { return latestSeq; }
+    public boolean isHasMore() { return hasMore; }
+    public List<TransactionDTO> getTransactions() { return transactions; }
+}
@@ -14,6 +14,7 @@ public class TransactionDTO {
     private String counterpartyName;          // other person's name (for transfers)
     private String counterpartyPhone;         // other person's phone
     private LocalDateTime createdAt;
+    private Long seq;                         // position in this user's wallet ledger
 
     public enum TransactionDirection {
         SENT,      // User is the sender (money out)
@@ -23,7 +24,7 @@ public class TransactionDTO {
     public TransactionDTO(String txnRef, TransactionDirection direction, String type,
                           BigDecimal amount, String status, String description,
                           String counterpartyName, String counterpartyPhone,
-                          LocalDateTime createdAt) {
+                          LocalDateTime createdAt, Long seq) {
         this.txnRef = txnRef;
         this.direction = direction;
         this.type = type;
@@ -33,6 +34,7 @@ public class TransactionDTO {
         this.counterpartyName = counterpartyName;
         this.counterpartyPhone = counterpartyPhone;
         this.createdAt = createdAt;
+        this.seq = seq;
     }
 
     // Getters
@@ -45,4 +47,5 @@ public class TransactionDTO {
     public String getCounterpartyName() { return counterpartyName; }
     public String getCounterpartyPhone() { return counterpartyPhone; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getSeq() { return seq; }
 }
\ No newline at end of file
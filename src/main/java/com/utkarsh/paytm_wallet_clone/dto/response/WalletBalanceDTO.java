@@ -6,14 +6,18 @@ public class WalletBalanceDTO {
 
     private Long walletId;
     private BigDecimal balance;
+    private BigDecimal heldAmount;        // reserved by pending withdrawals
+    private BigDecimal availableBalance;  // balance - heldAmount
     private String currency;
     private Long userId;
     private String userName;
 
-    public WalletBalanceDTO(Long walletId, BigDecimal balance, String currency,
+    public WalletBalanceDTO(Long walletId, BigDecimal balance, BigDecimal heldAmount, String currency,
                             Long userId, String userName) {
         this.walletId = walletId;
         this.balance = balance;
+        this.heldAmount = heldAmount;
+        this.availableBalance = balance.subtract(heldAmount);
         this.currency = currency;
         this.userId = userId;
         this.userName = userName;
@@ -21,6 +25,8 @@ public class WalletBalanceDTO {
 
     public Long getWalletId() { return walletId; }
     public BigDecimal getBalance() { return balance; }
+    public BigDecimal getHeldAmount() { return heldAmount; }
+    public BigDecimal getAvailableBalance() { return availableBalance; }
     public String getCurrency() { return currency; }
     public Long getUserId() { return userId; }
     public String getUserName() { return userName; }
@@ -0,0 +1,35 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.util.List;
+
+public class WebhookInboxStatsDTO {
+
+    private long pending;                     // RECEIVED rows waiting in the inbox (all nodes)
+    private long failed;                      // rows that ran out of attempts
+    private List<Integer> partitionDepths;    // events queued on this node, one entry per partition
+    private long processed;                   // since this node started
+    private long retried;
+    private long oldestPendingAgeMs;          // age of the oldest unprocessed event, 0 if none
+    private long lastLagMs;                   // received → processed for the latest event on this node
+
+    public WebhookInboxStatsDTO(long pending, long failed, List<Integer> partitionDepths,
+                                long processed, long retried,
+                                long oldestPendingAgeMs, long lastLagMs) {
+        this.pending = pending;
+        this.failed = failed;
+        this.partitionDepths = partitionDepths;
+        this.processed = processed;
+        this.retried = retried;
+        this.oldestPendingAgeMs = oldestPendingAgeMs;
+        this.lastLagMs = lastLagMs;
+    }
+
+    // Getters
+    public long getPending() { return pending; }
+    public long getFailed() { return failed; }
+    public List<Integer> getPartitionDepths() { return partitionDepths; }
+    public long getProcessed() { return processed; }
+    public long getRetried() { return retried; }
+    public long getOldestPendingAgeMs() { return oldestPendingAgeMs; }
+    public long getLastLagMs() { return lastLagMs; }
+}
@@ -0,0 +1,60 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.time.LocalDateTime;
+
+public class WebhookReplayStatusDTO {
+
+    private String jobId;
+    private String file;
+    private String state;             // QUEUED | RUNNING | COMPLETED | FAILED
+    private long linesRead;
+    private long credited;            // payments applied to wallets by this replay
+    private long repeatedInFile;      // same event earlier in the file, skipped
+    private long alreadyApplied;      // payment already credited, e.g. by the live webhook
+    private long ignored;             // verified events other than payment.captured
+    private long rejected;            // bad signature or unreadable line
+    private long failed;              // written to the failed file, which can be replayed as is
+    private double eventsPerSecond;   // captured events processed per second
+    private long durationMs;
+    private String failedFile;
+    private String failure;
+    private LocalDateTime startedAt;
+
+    public WebhookReplayStatusDTO(String jobId, String file, String state, long linesRead,
+                                  long credited, long repeatedInFile, long alreadyApplied, long ignored, long rejected, long failed,
+                                  double eventsPerSecond, long durationMs, String failedFile,
+                                  String failure, LocalDateTime startedAt) {
+        this.jobId = jobId;
+        this.file = file;
+        this.state = state;
+        this.linesRead = linesRead;
+        this.credited = credited;
+        this.repeatedInFile = repeatedInFile;
+        this.alreadyApplied = alreadyApplied;
+        this.ignored = ignored;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.eventsPerSecond = eventsPerSecond;
+        this.durationMs = durationMs;
+        this.failedFile = failedFile;
+        this.failure = failure;
+        this.startedAt = startedAt;
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getFile() { return file; }
+    public String getState() { return state; }
+    public long getLinesRead() { return linesRead; }
+    public long getCredited() { return credited; }
+    public long getRepeatedInFile() { return repeatedInFile; }
+    public long getAlreadyApplied() { return alreadyApplied; }
+    public long getIgnored() { return ignored; }
+    public long getRejected() { return rejected; }
+    public long getFailed() { return failed; }
+    public double getEventsPerSecond() { return eventsPerSecond; }
+    public long getDurationMs() { return durationMs; }
+    public String getFailedFile() { return failedFile; }
+    public String getFailure() { return failure; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+}
@@ -0,0 +1,38 @@
+package com.utkarsh.paytm_wallet_clone.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class WithdrawalDTO {
+
+    private Long id;
+    private BigDecimal amount;
+    private String status;          // PENDING | SETTLED | CANCELLED
+    private String accountNumber;   // masked, last 4 digits
+    private String ifsc;
+    private String txnRef;          // DEBIT posted at settlement
+    private LocalDateTime createdAt;
+    private LocalDateTime settledAt;
+
+    public WithdrawalDTO(Long id, BigDecimal amount, String status, String accountNumber,
+                         String ifsc, String txnRef, LocalDateTime createdAt, LocalDateTime settledAt) {
+        this.id = id;
+        this.amount = amount;
+        this.status = status;
+        this.accountNumber = accountNumber;
+        this.ifsc = ifsc;
+        this.txnRef = txnRef;
+        this.createdAt = createdAt;
+        this.settledAt = settledAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public BigDecimal getAmount() { return amount; }
+    public String getStatus() { return status; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getIfsc() { return ifsc; }
+    public String getTxnRef() { return txnRef; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getSettledAt() { return settledAt; }
+}
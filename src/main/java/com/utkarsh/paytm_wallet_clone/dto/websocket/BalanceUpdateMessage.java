@@ -5,13 +5,23 @@ import java.time.LocalDateTime;
 
 public class BalanceUpdateMessage {
     
-    private String type;              // "CREDIT" | "DEBIT" | "TRANSFER_RECEIVED"
+    private String type;              // "CREDIT" | "DEBIT" | "TRANSFER_RECEIVED" | "SUMMARY"
     private BigDecimal newBalance;
-    private BigDecimal amount;
+    private BigDecimal amount;        // SUMMARY: net change (credited − debited)
     private String fromUser;          // Sender name (for transfers)
     private String message;           // Notification message
     private LocalDateTime timestamp;
+    private Long seq;                 // per-user sequence, used to replay missed frames on reconnect
+
+    // Only set on SUMMARY frames that coalesce several updates
+    private Integer count;
+    private BigDecimal totalCredited;
+    private BigDecimal totalDebited;
     
+    // For Jackson, when a relayed frame is read back on another node
+    public BalanceUpdateMessage() {
+    }
+
     public BalanceUpdateMessage(String type, BigDecimal newBalance, BigDecimal amount, 
                                  String fromUser, String message) {
         this.type = type;
@@ -40,4 +50,16 @@ public class BalanceUpdateMessage {
     
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+
+    public BigDecimal getTotalCredited() { return totalCredited; }
+    public void setTotalCredited(BigDecimal totalCredited) { this.totalCredited = totalCredited; }
+
+    public BigDecimal getTotalDebited() { return totalDebited; }
+    public void setTotalDebited(BigDecimal totalDebited) { this.totalDebited = totalDebited; }
 }
@@ -0,0 +1,40 @@
+package com.utkarsh.paytm_wallet_clone.dto.websocket;
+
+import java.time.LocalDateTime;
+
+public class BroadcastMessage {
+
+    private String id;
+    private String type;              // "MAINTENANCE" | "PROMOTION"
+    private String title;
+    private String message;
+    private LocalDateTime timestamp;
+
+    // For Jackson, when a relayed broadcast is read back on another node
+    public BroadcastMessage() {
+    }
+
+    public BroadcastMessage(String id, String type, String title, String message) {
+        this.id = id;
+        this.type = type;
+        this.title = title;
+        this.message = message;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters & Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
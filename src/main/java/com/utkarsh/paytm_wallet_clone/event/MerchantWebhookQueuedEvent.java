@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.event;
+
+/**
+ * Published when merchant webhook deliveries are queued, so the dispatcher
+ * can send them as soon as the surrounding transaction commits.
+ */
+public record MerchantWebhookQueuedEvent(int deliveries) {
+}
@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.event;
+
+/**
+ * Published whenever a row is added to the notification outbox, so the relay
+ * can drain it as soon as the surrounding transaction commits.
+ */
+public record NotificationQueuedEvent(String userEmail) {
+}
@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.event;
+
+/**
+ * Published when a Razorpay order leaves CREATED. Long-poll waiters on the
+ * order's status are woken after commit.
+ */
+public record OrderStatusChangedEvent(String razorpayOrderId) {
+}
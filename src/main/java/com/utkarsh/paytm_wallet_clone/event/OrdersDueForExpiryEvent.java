@@ -0,0 +1,12 @@
+package com.utkarsh.paytm_wallet_clone.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by the expiry tick for orders whose TTL ran out while still
+ * CREATED. They are only marked FAILED once a last gateway check shows no
+ * captured payment; {@code createdBefore} guards the UPDATE as before.
+ */
+public record OrdersDueForExpiryEvent(List<Long> orderIds, LocalDateTime createdBefore) {
+}
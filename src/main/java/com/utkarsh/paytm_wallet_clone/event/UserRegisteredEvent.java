@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.event;
+
+/**
+ * Published once a user and their wallet exist (self sign-up or bulk import).
+ * In-memory directories listen for it after commit to stay in sync with the DB.
+ */
+public record UserRegisteredEvent(Long userId, Long walletId, String name, String phone) {
+}
@@ -107,6 +107,81 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    // ─── Order Not Found ───────────────────────────────────────────────────────
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderNotFound(
+            OrderNotFoundException ex) {
+
+        log.warn("Order not found: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody(
+                HttpStatus.NOT_FOUND,
+                ex.getMessage(),
+                null
+        ));
+    }
+
+    // ─── Withdrawal Not Found ───────────────────────────────────────────────────
+
+    @ExceptionHandler(WithdrawalNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleWithdrawalNotFound(
+            WithdrawalNotFoundException ex) {
+
+        log.warn("Withdrawal not found: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody(
+                HttpStatus.NOT_FOUND,
+                ex.getMessage(),
+                null
+        ));
+    }
+
+    // ─── Merchant Account Required (webhook registration) ─────────────────────
+
+    @ExceptionHandler(MerchantAccountRequiredException.class)
+    public ResponseEntity<Map<String, Object>> handleMerchantAccountRequired(
+            MerchantAccountRequiredException ex) {
+
+        log.warn("Merchant account required: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorBody(
+                HttpStatus.FORBIDDEN,
+                ex.getMessage(),
+                null
+        ));
+    }
+
+    // ─── Too Many Requests (per-user rate limits) ──────────────────────────────
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(
+            TooManyRequestsException ex) {
+
+        log.warn("Rate limited: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorBody(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage(),
+                null
+        ));
+    }
+
+    // ─── Payment Gateway Unavailable ───────────────────────────────────────────
+
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<Map<String, Object>> handlePaymentGateway(
+            PaymentGatewayException ex) {
+
+        log.warn("Payment gateway error: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorBody(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Payment gateway is unavailable right now, please try again shortly",
+                null
+        ));
+    }
+
     // ─── Insufficient Funds ────────────────────────────────────────────────────
 
     @ExceptionHandler(InsufficientFundsException.class)
@@ -0,0 +1,7 @@
+package com.utkarsh.paytm_wallet_clone.exception;
+
+public class MerchantAccountRequiredException extends RuntimeException {
+    public MerchantAccountRequiredException(String message) {
+        super(message);
+    }
+}
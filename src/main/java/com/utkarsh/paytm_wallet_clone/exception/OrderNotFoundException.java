@@ -0,0 +1,7 @@
+package com.utkarsh.paytm_wallet_clone.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.utkarsh.paytm_wallet_clone.exception;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    // true when the gateway answered and refused the request — retrying won't help
+    private final boolean rejected;
+
+    public PaymentGatewayException(String message) {
+        super(message);
+        this.rejected = false;
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause, boolean rejected) {
+        super(message, cause);
+        this.rejected = rejected;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,7 @@
+package com.utkarsh.paytm_wallet_clone.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
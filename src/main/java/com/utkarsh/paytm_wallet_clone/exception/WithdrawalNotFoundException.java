@@ -0,0 +1,7 @@
+package com.utkarsh.paytm_wallet_clone.exception;
+
+public class WithdrawalNotFoundException extends RuntimeException {
+    public WithdrawalNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+
+import java.util.List;
+
+/**
+ * The payment gateway as the wallet sees it. {@link RazorpayGatewayClient}
+ * talks to Razorpay; {@link SimulatedPaymentGateway} creates orders locally
+ * and pays them with signed webhooks, for load runs.
+ */
+public interface PaymentGateway {
+
+    /** What the wallet keeps from a created order. */
+    record GatewayOrder(String id, long amountPaise, String status) {
+    }
+
+    /** A payment attempt against an order; {@code status} is the gateway's, e.g. "captured". */
+    record GatewayPayment(String id, long amountPaise, String status) {
+
+        public boolean isCaptured() {
+            return "captured".equals(status);
+        }
+    }
+
+    /** A refund against a payment; {@code receipt} is the reference we sent with it. */
+    record GatewayRefund(String id, String paymentId, long amountPaise, String status, String receipt) {
+    }
+
+    /**
+     * Creates a gateway order for {@code amountPaise}.
+     *
+     * @throws PaymentGatewayException if the gateway is unreachable or rejects the request
+     */
+    GatewayOrder createOrder(long amountPaise, String currency, String receipt);
+
+    /**
+     * Payment attempts made against {@code orderId}, oldest first; empty if
+     * the customer never paid.
+     *
+     * @throws PaymentGatewayException if the gateway is unreachable or rejects the request
+     */
+    List<GatewayPayment> fetchPayments(String orderId);
+
+    /**
+     * Refunds {@code amountPaise} of a captured payment. {@code receipt} is
+     * stored with the refund and is how {@link #fetchRefunds} results are
+     * matched back after a lost response.
+     *
+     * @throws PaymentGatewayException if the gateway is unreachable or rejects the request
+     */
+    GatewayRefund createRefund(String paymentId, long amountPaise, String receipt);
+
+    /**
+     * Refunds already made against {@code paymentId}.
+     *
+     * @throws PaymentGatewayException if the gateway is unreachable or rejects the request
+     */
+    List<GatewayRefund> fetchRefunds(String paymentId);
+}
@@ -0,0 +1,177 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Calls the Razorpay Orders API with hard connect/read timeouts behind a
+ * circuit breaker.
+ *
+ * The SDK's client shares one static HTTP client with fixed timeouts, so a
+ * slow gateway could hold request threads for a minute. Here a timeout, a
+ * connection error or a 5xx counts against the breaker; once it opens,
+ * calls fail immediately with {@link PaymentGatewayException} until a trial
+ * call succeeds. 4xx answers are our fault, not the gateway's, and don't
+ * trip it.
+ */
+public class RazorpayGatewayClient implements PaymentGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(RazorpayGatewayClient.class);
+
+    private final RestClient restClient;
+    private final CircuitBreaker breaker;
+
+    public RazorpayGatewayClient(String baseUrl, String keyId, String keySecret,
+                                 Duration connectTimeout, Duration readTimeout, CircuitBreaker breaker) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        String credentials = Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+                .build();
+        this.breaker = breaker;
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) {
+        Map<?, ?> body = call("create order " + receipt, () -> restClient.post()
+                .uri("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "amount", amountPaise,
+                        "currency", currency,
+                        "receipt", receipt,
+                        "payment_capture", 1))
+                .retrieve()
+                .body(Map.class));
+        return toOrder(body);
+    }
+
+    @Override
+    public List<GatewayPayment> fetchPayments(String orderId) {
+        Map<?, ?> body = call("fetch payments of " + orderId, () -> restClient.get()
+                .uri("/orders/{id}/payments", orderId)
+                .retrieve()
+                .body(Map.class));
+
+        List<GatewayPayment> payments = new ArrayList<>();
+        if (body != null && body.get("items") instanceof List<?> items) {
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> payment && payment.get("id") instanceof String id) {
+                    long amount = payment.get("amount") instanceof Number n ? n.longValue() : 0;
+                    payments.add(new GatewayPayment(id, amount, String.valueOf(payment.get("status"))));
+                }
+            }
+        }
+        return payments;
+    }
+
+    @Override
+    public GatewayRefund createRefund(String paymentId, long amountPaise, String receipt) {
+        Map<?, ?> body = call("refund " + paymentId, () -> restClient.post()
+                .uri("/payments/{id}/refund", paymentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "amount", amountPaise,
+                        "receipt", receipt))
+                .retrieve()
+                .body(Map.class));
+        GatewayRefund refund = toRefund(body);
+        if (refund == null) {
+            throw new PaymentGatewayException("Payment gateway returned no refund id");
+        }
+        return refund;
+    }
+
+    @Override
+    public List<GatewayRefund> fetchRefunds(String paymentId) {
+        Map<?, ?> body = call("fetch refunds of " + paymentId, () -> restClient.get()
+                .uri("/payments/{id}/refunds", paymentId)
+                .retrieve()
+                .body(Map.class));
+
+        List<GatewayRefund> refunds = new ArrayList<>();
+        if (body != null && body.get("items") instanceof List<?> items) {
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> map) {
+                    GatewayRefund refund = toRefund(map);
+                    if (refund != null) {
+                        refunds.add(refund);
+                    }
+                }
+            }
+        }
+        return refunds;
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+
+    // Exactly one outcome is recorded per acquired call, whatever is thrown, so a
+    // HALF_OPEN trial can never stay in flight; anything unexpected counts as a failure
+    Map<?, ?> call(String what, Supplier<Map<?, ?>> request) {
+        if (!breaker.tryAcquire()) {
+            throw new PaymentGatewayException("Payment gateway unavailable (circuit open)");
+        }
+        boolean recorded = false;
+        try {
+            Map<?, ?> response = request.get();
+            recorded = true;
+            breaker.onSuccess();
+            return response;
+        } catch (HttpClientErrorException e) {
+            recorded = true;
+            breaker.onSuccess();   // the gateway answered — the request was wrong
+            throw new PaymentGatewayException("Payment gateway rejected " + what + ": " + e.getStatusCode(), e, true);
+        } catch (RestClientException e) {
+            recorded = true;
+            breaker.onFailure();
+            log.warn("⚠️ Payment gateway call failed ({}): {} — breaker {}", what, e.getMessage(), breaker.getState());
+            throw new PaymentGatewayException("Payment gateway unavailable", e);
+        } finally {
+            if (!recorded) {
+                breaker.onFailure();
+            }
+        }
+    }
+
+    private static GatewayOrder toOrder(Map<?, ?> body) {
+        if (body == null || !(body.get("id") instanceof String id)) {
+            throw new PaymentGatewayException("Payment gateway returned no order id");
+        }
+        long amount = body.get("amount") instanceof Number n ? n.longValue() : 0;
+        return new GatewayOrder(id, amount, String.valueOf(body.get("status")));
+    }
+
+    private static GatewayRefund toRefund(Map<?, ?> body) {
+        if (body == null || !(body.get("id") instanceof String id)) {
+            return null;
+        }
+        long amount = body.get("amount") instanceof Number n ? n.longValue() : 0;
+        return new GatewayRefund(id, String.valueOf(body.get("payment_id")), amount,
+                String.valueOf(body.get("status")), body.get("receipt") instanceof String r ? r : null);
+    }
+}
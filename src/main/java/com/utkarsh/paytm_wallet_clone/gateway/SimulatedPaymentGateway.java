@@ -0,0 +1,166 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for Razorpay for load runs of the add-money flow.
+ *
+ * Orders are created in memory. Each one is "paid" after a delay drawn from
+ * a log-normal distribution fitted to {@code latency-median} and
+ * {@code latency-p99}; a {@code failure-ratio} share fail instead. The
+ * outcome is posted to the wallet's own webhook as a signed
+ * {@code payment.captured} / {@code payment.failed} event, exactly as the
+ * gateway would send it. Deliveries are paced to {@code rate-per-second}
+ * (0 = unpaced). Outcomes are kept so {@link #fetchPayments} can answer
+ * reconciliation queries. Refunds are processed at once and kept per payment.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedPaymentGateway.class);
+
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.3263;
+
+    private final URI webhookUrl;
+    private final Mac mac;                 // used only on the scheduler thread
+    private final long intervalNanos;
+    private final double mu;
+    private final double sigma;
+    private final double failureRatio;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "gateway-simulator"));
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, GatewayPayment> payments = new ConcurrentHashMap<>();
+    private final Map<String, List<GatewayRefund>> refunds = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder created = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder deliveryErrors = new LongAdder();
+    private final LongAdder simulatedFailures = new LongAdder();
+
+    public SimulatedPaymentGateway(String webhookUrl, String webhookSecret, int ratePerSecond,
+                                   Duration latencyMedian, Duration latencyP99, double failureRatio) {
+        this.webhookUrl = URI.create(webhookUrl);
+        this.intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        this.mu = Math.log(Math.max(1, latencyMedian.toMillis()));
+        this.sigma = Math.max(0, (Math.log(Math.max(1, latencyP99.toMillis())) - mu) / Z_99);
+        this.failureRatio = failureRatio;
+        try {
+            this.mac = Mac.getInstance("HmacSHA256");
+            this.mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+        log.info("🧪 Simulated payment gateway active: webhooks → {} (median {}, p99 {}, failure {}, {}/s)",
+                webhookUrl, latencyMedian, latencyP99, failureRatio, ratePerSecond > 0 ? ratePerSecond : "∞");
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) {
+        long n = sequence.incrementAndGet();
+        GatewayOrder order = new GatewayOrder("order_sim_" + n, amountPaise, "created");
+        created.increment();
+
+        long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sampleLatencyMs());
+        long slot = intervalNanos == 0 ? dueNanos
+                : nextSlotNanos.accumulateAndGet(dueNanos, (prev, due) -> Math.max(prev + intervalNanos, due));
+        scheduler.schedule(() -> pay(order, currency, n), slot - System.nanoTime(), TimeUnit.NANOSECONDS);
+        return order;
+    }
+
+    @Override
+    public List<GatewayPayment> fetchPayments(String orderId) {
+        GatewayPayment payment = payments.get(orderId);
+        return payment != null ? List.of(payment) : List.of();
+    }
+
+    @Override
+    public GatewayRefund createRefund(String paymentId, long amountPaise, String receipt) {
+        GatewayRefund refund = new GatewayRefund("rfnd_sim_" + sequence.incrementAndGet(), paymentId,
+                amountPaise, "processed", receipt);
+        refunds.computeIfAbsent(paymentId, key -> new CopyOnWriteArrayList<>()).add(refund);
+        return refund;
+    }
+
+    @Override
+    public List<GatewayRefund> fetchRefunds(String paymentId) {
+        return List.copyOf(refunds.getOrDefault(paymentId, List.of()));
+    }
+
+    private long sampleLatencyMs() {
+        return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private void pay(GatewayOrder order, String currency, long n) {
+        boolean fails = ThreadLocalRandom.current().nextDouble() < failureRatio;
+        if (fails) {
+            simulatedFailures.increment();
+        }
+        payments.put(order.id(), new GatewayPayment("pay_sim_" + n, order.amountPaise(), fails ? "failed" : "captured"));
+        String event = fails ? "payment.failed" : "payment.captured";
+        String body = """
+                {"entity":"event","account_id":"acc_simulator","event":"%s","contains":["payment"],\
+                "payload":{"payment":{"entity":{"id":"pay_sim_%d","entity":"payment","amount":%d,\
+                "currency":"%s","status":"%s","order_id":"%s","method":"upi","captured":%b}}},\
+                "created_at":%d}"""
+                .formatted(event, n, order.amountPaise(), currency, fails ? "failed" : "captured",
+                        order.id(), !fails, System.currentTimeMillis() / 1000);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(webhookUrl)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("X-Razorpay-Signature", HexFormat.of().formatHex(mac.doFinal(bytes)))
+                .header("X-Razorpay-Event-Id", "evt_sim_" + n)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(bytes))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error == null && response.statusCode() / 100 == 2) {
+                        delivered.increment();
+                    } else {
+                        deliveryErrors.increment();
+                        log.debug("Simulated webhook for {} not accepted: {}", order.id(),
+                                error != null ? error.getMessage() : response.statusCode());
+                    }
+                });
+    }
+
+    public long getCreated() { return created.sum(); }
+    public long getDelivered() { return delivered.sum(); }
+    public long getDeliveryErrors() { return deliveryErrors.sum(); }
+    public long getSimulatedFailures() { return simulatedFailures.sum(); }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        httpClient.shutdownNow();
+    }
+}
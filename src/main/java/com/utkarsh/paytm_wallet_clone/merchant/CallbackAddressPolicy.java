@@ -0,0 +1,68 @@
+package com.utkarsh.paytm_wallet_clone.merchant;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+
+/**
+ * Keeps merchant callbacks pointed at the public internet.
+ *
+ * A callback host is resolved and refused if any of its addresses is
+ * loopback, any-local, link-local (cloud metadata at 169.254.169.254
+ * included), private (RFC 1918, carrier-grade NAT, IPv6 fc00::/7) or
+ * multicast. The check runs when a URL is registered and again before every
+ * request, so a name re-pointed at an internal address after registration
+ * is refused too. {@code allowPrivate} switches it off for local testing.
+ */
+public class CallbackAddressPolicy {
+
+    private final boolean allowPrivate;
+
+    public CallbackAddressPolicy(boolean allowPrivate) {
+        this.allowPrivate = allowPrivate;
+    }
+
+    /** Throws {@link IllegalArgumentException} unless every address of the URL's host is public. */
+    public void check(URI uri) {
+        String host = uri.getHost();
+        if (host == null) {
+            throw new IllegalArgumentException("Callback URL has no host");
+        }
+        if (allowPrivate) {
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            // Strip the brackets of an IPv6 literal
+            addresses = InetAddress.getAllByName(host.startsWith("[") ? host.substring(1, host.length() - 1) : host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Callback host does not resolve: " + host);
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new IllegalArgumentException("Callback host " + host + " resolves to a non-public address");
+            }
+        }
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first != 0                                   // 0.0.0.0/8, "this network"
+                    && !(first == 100 && (second & 0xc0) == 64)  // 100.64.0.0/10, carrier-grade NAT
+                    && !(first == 169 && second == 254);         // link-local, metadata endpoint
+        }
+        if (address instanceof Inet6Address) {
+            return (bytes[0] & 0xfe) != 0xfc;                   // fc00::/7, unique local
+        }
+        return true;
+    }
+}
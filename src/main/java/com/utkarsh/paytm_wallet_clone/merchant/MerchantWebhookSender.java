@@ -0,0 +1,133 @@
+package com.utkarsh.paytm_wallet_clone.merchant;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Posts batches of merchant events to a merchant's callback URL.
+ *
+ * One {@link HttpClient} is shared by every delivery: it prefers HTTP/2, so
+ * all batches to the same merchant host are multiplexed over one connection
+ * (HTTP/1.1 hosts get pooled keep-alive connections instead), and it runs on
+ * virtual threads, so a slow merchant parks a cheap thread rather than a
+ * platform one. {@link #deliver} blocks and is meant to be called from a
+ * virtual thread.
+ *
+ * Body: {@code {"events":[...]}}, the stored event JSON joined as is.
+ * {@code X-Wallet-Timestamp} carries epoch seconds and
+ * {@code X-Wallet-Signature} is {@code v1=} + hex HMAC-SHA256 of
+ * {@code <timestamp>.<body>} with the endpoint's secret, so a captured
+ * request can't be replayed later under a fresh timestamp.
+ *
+ * The callback host is checked against {@link CallbackAddressPolicy} before
+ * every request, not just at registration.
+ */
+public class MerchantWebhookSender implements AutoCloseable {
+
+    public static final String SIGNATURE_HEADER = "X-Wallet-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Wallet-Timestamp";
+
+    private static final int MAX_ERROR_BODY = 200;
+
+    /** Outcome of one request; {@code status} is 0 when no HTTP answer came back. */
+    public record Result(int status, String error) {
+
+        public boolean delivered() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final CallbackAddressPolicy addressPolicy;
+
+    public MerchantWebhookSender(Duration connectTimeout, Duration requestTimeout, CallbackAddressPolicy addressPolicy) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.addressPolicy = addressPolicy;
+    }
+
+    public Result deliver(String url, String secret, List<String> events) {
+        URI uri = URI.create(url);
+        try {
+            addressPolicy.check(uri);
+        } catch (IllegalArgumentException e) {
+            return new Result(0, e.getMessage());
+        }
+
+        String body = body(events);
+        long timestamp = System.currentTimeMillis() / 1000;
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header(TIMESTAMP_HEADER, Long.toString(timestamp))
+                .header(SIGNATURE_HEADER, sign(secret, timestamp, body))
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                return new Result(response.statusCode(), null);
+            }
+            String answer = response.body();
+            return new Result(response.statusCode(), "HTTP " + response.statusCode()
+                    + (answer == null || answer.isBlank() ? "" : ": " + abbreviate(answer)));
+        } catch (IOException e) {
+            return new Result(0, e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : ""));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(0, "Interrupted");
+        }
+    }
+
+    public static String body(List<String> events) {
+        int length = 12;
+        for (String event : events) {
+            length += event.length() + 1;
+        }
+        StringBuilder body = new StringBuilder(length).append("{\"events\":[");
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(events.get(i));
+        }
+        return body.append("]}").toString();
+    }
+
+    public static String sign(String secret, long timestamp, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+            return "v1=" + HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= MAX_ERROR_BODY ? text : text.substring(0, MAX_ERROR_BODY) + "…";
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+}
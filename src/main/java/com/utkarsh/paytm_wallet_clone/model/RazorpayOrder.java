@@ -12,8 +12,8 @@ public class RazorpayOrder {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // The order ID returned by Razorpay API (e.g. "order_Pxyz1234")
-    @Column(name = "order_id", nullable = false, unique = true)
+    // The order ID returned by Razorpay API (e.g. "order_Pxyz1234") — null while INITIATING
+    @Column(name = "order_id", unique = true)
     private String razorpayOrderId;
 
     // The payment ID returned after successful payment
@@ -47,7 +47,7 @@ public class RazorpayOrder {
     // ─── Enum ────────────────────────────────────────────────────────────────
 
     public enum RazorpayOrderStatus {
-        CREATED, PAID, FAILED, REFUNDED
+        INITIATING, CREATED, PAID, FAILED, REFUNDED
     }
 
     // ─── Getters & Setters ───────────────────────────────────────────────────
@@ -27,6 +27,13 @@ public class Transaction {
     @JoinColumn(name = "receiver_wallet_id")
     private Wallet receiverWallet; // null for DEBIT (withdrawal)
 
+    // Position of this row in each wallet's ledger (see Wallet.ledgerSeq)
+    @Column(updatable = false)
+    private Long senderSeq;
+
+    @Column(updatable = false)
+    private Long receiverSeq;
+
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
@@ -62,6 +69,12 @@ public class Transaction {
     public Wallet getReceiverWallet() { return receiverWallet; }
     public void setReceiverWallet(Wallet receiverWallet) { this.receiverWallet = receiverWallet; }
 
+    public Long getSenderSeq() { return senderSeq; }
+    public void setSenderSeq(Long senderSeq) { this.senderSeq = senderSeq; }
+
+    public Long getReceiverSeq() { return receiverSeq; }
+    public void setReceiverSeq(Long receiverSeq) { this.receiverSeq = receiverSeq; }
+
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
 
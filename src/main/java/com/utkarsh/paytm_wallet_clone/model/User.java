@@ -34,6 +34,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    // Only merchant accounts may register a webhook callback
+    @Column(nullable = false)
+    private Boolean isMerchant = false;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -101,6 +105,10 @@ public class User implements UserDetails {
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
 
+    public Boolean getIsMerchant() { return isMerchant; }
+    public void setIsMerchant(Boolean isMerchant) { this.isMerchant = isMerchant; }
+    public boolean isMerchant() { return Boolean.TRUE.equals(isMerchant); }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
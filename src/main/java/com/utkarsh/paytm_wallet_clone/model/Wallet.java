@@ -24,6 +24,10 @@ public class Wallet {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    // Reserved by pending withdrawals — only changed by conditional UPDATEs that also bump version
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal heldAmount = BigDecimal.ZERO;
+
     @Column(nullable = false, length = 3)
     private String currency = "INR";
 
@@ -36,11 +40,21 @@ public class Wallet {
     @Column(nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Number of the latest ledger row this wallet took part in — drives delta sync
+    @Column(nullable = false)
+    private Long ledgerSeq = 0L;
+
     @PreUpdate
     public void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Called in the same transaction as the balance change; @Version keeps it race-free
+    public long nextLedgerSeq() {
+        ledgerSeq = ledgerSeq + 1;
+        return ledgerSeq;
+    }
+
     // ─── Getters & Setters ───────────────────────────────────────────────────
 
     public Long getId() { return id; }
@@ -55,6 +69,12 @@ public class Wallet {
     public BigDecimal getBalance() { return balance; }
     public void setBalance(BigDecimal balance) { this.balance = balance; }
 
+    public BigDecimal getHeldAmount() { return heldAmount; }
+    public void setHeldAmount(BigDecimal heldAmount) { this.heldAmount = heldAmount; }
+
+    // What transfers and withdrawals may spend
+    public BigDecimal getAvailableBalance() { return balance.subtract(heldAmount); }
+
     public String getCurrency() { return currency; }
     public void setCurrency(String currency) { this.currency = currency; }
 
@@ -66,4 +86,7 @@ public class Wallet {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getLedgerSeq() { return ledgerSeq; }
+    public void setLedgerSeq(Long ledgerSeq) { this.ledgerSeq = ledgerSeq; }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.utkarsh.paytm_wallet_clone.model;
+
+import com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "webhook_inbox")
+public class WebhookInboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Gateway event id (or the payload signature when the gateway sends none)
+    @Column(nullable = false, unique = true, updatable = false, length = 100)
+    private String eventId;
+
+    @Column(nullable = false, updatable = false, length = 60)
+    private String eventType;   // e.g. payment.captured
+
+    @Column(updatable = false, length = 100)
+    private String orderId;     // used to find the user the event belongs to
+
+    // Raw, signature-verified body exactly as received
+    @Column(nullable = false, updatable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookInboxStatus status = WebhookInboxStatus.RECEIVED;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime receivedAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = receivedAt;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime processedAt;
+
+    public WebhookInboxEvent() {
+    }
+
+    public WebhookInboxEvent(String eventId, String eventType, String orderId, String payload) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.orderId = orderId;
+        this.payload = payload;
+    }
+
+    // ─── Getters & Setters ───────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public WebhookInboxStatus getStatus() { return status; }
+    public void setStatus(WebhookInboxStatus status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
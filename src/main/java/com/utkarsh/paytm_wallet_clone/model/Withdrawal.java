@@ -0,0 +1,88 @@
+package com.utkarsh.paytm_wallet_clone.model;
+
+import com.utkarsh.paytm_wallet_clone.model.enums.WithdrawalStatus;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "withdrawals")
+public class Withdrawal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    private User user;
+
+    @Column(nullable = false, updatable = false)
+    private Long walletId;
+
+    @Column(nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, updatable = false, length = 18)
+    private String accountNumber;
+
+    @Column(nullable = false, updatable = false, length = 11)
+    private String ifsc;
+
+    @Column(nullable = false, updatable = false, length = 100)
+    private String accountHolder;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WithdrawalStatus status = WithdrawalStatus.PENDING;
+
+    // Payout cycle that paid this out, and the DEBIT it posted — set together at settlement
+    @Column(length = 40)
+    private String batchId;
+
+    @Column(length = 36)
+    private String txnRef;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime settledAt;
+
+    // ─── Getters & Setters ───────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Long getWalletId() { return walletId; }
+    public void setWalletId(Long walletId) { this.walletId = walletId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getIfsc() { return ifsc; }
+    public void setIfsc(String ifsc) { this.ifsc = ifsc; }
+
+    public String getAccountHolder() { return accountHolder; }
+    public void setAccountHolder(String accountHolder) { this.accountHolder = accountHolder; }
+
+    public WithdrawalStatus getStatus() { return status; }
+    public void setStatus(WithdrawalStatus status) { this.status = status; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public String getTxnRef() { return txnRef; }
+    public void setTxnRef(String txnRef) { this.txnRef = txnRef; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getSettledAt() { return settledAt; }
+    public void setSettledAt(LocalDateTime settledAt) { this.settledAt = settledAt; }
+}
@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.model.enums;
+
+public enum WebhookInboxStatus {
+    RECEIVED,   // stored and acknowledged, waiting for a worker
+    QUEUED,     // claimed by a node and handed to a partition worker
+    PROCESSED,  // applied
+    FAILED      // gave up after max attempts
+}
@@ -0,0 +1,8 @@
+package com.utkarsh.paytm_wallet_clone.model.enums;
+
+public enum WithdrawalStatus {
+    PENDING,    // amount held on the wallet, waiting for the payout cycle
+    SETTLED,    // DEBIT posted and included in a payout file
+    CANCELLED,  // withdrawn by the user before the cycle; hold released
+    ERROR       // wallet could not cover it at payout; hold released, needs an operator
+}
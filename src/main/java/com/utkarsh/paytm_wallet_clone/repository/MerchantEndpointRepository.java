@@ -0,0 +1,13 @@
+package com.utkarsh.paytm_wallet_clone.repository;
+
+import com.utkarsh.paytm_wallet_clone.model.MerchantEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MerchantEndpointRepository extends JpaRepository<MerchantEndpoint, Long> {
+
+    Optional<MerchantEndpoint> findByUserId(Long userId);
+}
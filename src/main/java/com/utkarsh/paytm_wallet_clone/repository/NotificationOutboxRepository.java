@@ -0,0 +1,23 @@
+package com.utkarsh.paytm_wallet_clone.repository;
+
+import com.utkarsh.paytm_wallet_clone.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // SKIP LOCKED lets several relay instances drain the table without handing out the same row twice
+    @Query(value = "SELECT * FROM notification_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutbox> lockNextBatch(int limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+}
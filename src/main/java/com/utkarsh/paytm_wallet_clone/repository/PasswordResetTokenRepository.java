@@ -1,10 +1,17 @@
 package com.utkarsh.paytm_wallet_clone.repository;
 
+import com.utkarsh.paytm_wallet_clone.dto.projection.ExpiryCandidate;
 import com.utkarsh.paytm_wallet_clone.model.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +21,15 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
 
     @Modifying
     void deleteByUserId(Long userId);
+
+    // Keyset scan used to re-register outstanding deadlines after a restart
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.ExpiryCandidate(t.id, t.expiryDate) " +
+            "FROM PasswordResetToken t WHERE t.id > :afterId ORDER BY t.id")
+    List<ExpiryCandidate> findExpiryCandidates(Long afterId, Pageable pageable);
+
+    // Chunked purge — the expiry guard keeps a late or stale deadline from deleting a fresh token
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.id IN :ids AND t.expiryDate <= :now")
+    int deleteExpiredByIds(Collection<Long> ids, LocalDateTime now);
 }
@@ -1,9 +1,21 @@
 package com.utkarsh.paytm_wallet_clone.repository;
 
+import com.utkarsh.paytm_wallet_clone.dto.projection.ExpiryCandidate;
+import com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner;
+import com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit;
+import com.utkarsh.paytm_wallet_clone.dto.projection.ReconcileCandidate;
 import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.LockModeType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +24,81 @@ public interface RazorpayOrderRepository extends JpaRepository<RazorpayOrder, Lo
 
     Optional<RazorpayOrder> findByRazorpayOrderId(String razorpayOrderId);
 
+    // Pessimistic write lock — serializes concurrent credits for the same order (webhook vs reconciliation)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM RazorpayOrder o WHERE o.razorpayOrderId = :razorpayOrderId")
+    Optional<RazorpayOrder> findByRazorpayOrderIdForUpdate(String razorpayOrderId);
+
     List<RazorpayOrder> findByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner(o.razorpayOrderId, o.user.id) " +
+            "FROM RazorpayOrder o WHERE o.razorpayOrderId IN :orderIds")
+    List<OrderOwner> findOwners(Collection<String> orderIds);
+
+    // Keyset scan over orders still waiting for payment (uses idx_rzp_status)
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.ExpiryCandidate(o.id, o.createdAt) " +
+            "FROM RazorpayOrder o WHERE o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<ExpiryCandidate> findExpiryCandidates(RazorpayOrder.RazorpayOrderStatus status,
+                                               Long afterId, Pageable pageable);
+
+    // Keyset scan over orders that have waited too long for their webhook (uses idx_rzp_status)
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.ReconcileCandidate(o.id, o.razorpayOrderId) " +
+            "FROM RazorpayOrder o WHERE o.status = :status AND o.id > :afterId AND o.createdAt < :createdBefore " +
+            "ORDER BY o.id")
+    List<ReconcileCandidate> findReconcileCandidates(RazorpayOrder.RazorpayOrderStatus status,
+                                                     Long afterId, LocalDateTime createdBefore,
+                                                     Pageable pageable);
+
+    // Orders whose TTL ran out, for the last gateway check before they are failed
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.ReconcileCandidate(o.id, o.razorpayOrderId) " +
+            "FROM RazorpayOrder o WHERE o.id IN :ids AND o.status = :status")
+    List<ReconcileCandidate> findReconcileCandidatesByIds(Collection<Long> ids,
+                                                          RazorpayOrder.RazorpayOrderStatus status);
+
+    // Keyset scan used to build the bank statement matcher's in-memory indexes
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit(" +
+            "o.id, o.razorpayOrderId, o.receipt, o.amount, o.createdAt) " +
+            "FROM RazorpayOrder o WHERE o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<PendingDeposit> findPendingDeposits(RazorpayOrder.RazorpayOrderStatus status,
+                                             Long afterId, Pageable pageable);
+
+    // Same scan over recent orders that were given up on without a payment — bank transfers can land after expiry
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit(" +
+            "o.id, o.razorpayOrderId, o.receipt, o.amount, o.createdAt) " +
+            "FROM RazorpayOrder o WHERE o.status = :status AND o.razorpayPaymentId IS NULL " +
+            "AND o.createdAt >= :createdAfter AND o.id > :afterId ORDER BY o.id")
+    List<PendingDeposit> findUnpaidDepositsSince(RazorpayOrder.RazorpayOrderStatus status, LocalDateTime createdAfter,
+                                                 Long afterId, Pageable pageable);
+
+    // Chunked status flip — only touches rows that are still in the expected state
+    @Transactional
+    @Modifying
+    @Query("UPDATE RazorpayOrder o SET o.status = :to " +
+            "WHERE o.id IN :ids AND o.status = :from AND o.createdAt <= :createdBefore")
+    int expireByIds(Collection<Long> ids,
+                    RazorpayOrder.RazorpayOrderStatus from,
+                    RazorpayOrder.RazorpayOrderStatus to,
+                    LocalDateTime createdBefore);
+
+    // Second half of order creation — only if the sweeper hasn't given up on the row meanwhile
+    @Transactional
+    @Modifying
+    @Query("UPDATE RazorpayOrder o SET o.razorpayOrderId = :razorpayOrderId, o.status = :to " +
+            "WHERE o.id = :id AND o.status = :from")
+    int finalizeOrder(Long id, String razorpayOrderId,
+                      RazorpayOrder.RazorpayOrderStatus from,
+                      RazorpayOrder.RazorpayOrderStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RazorpayOrder o SET o.status = :to WHERE o.id = :id AND o.status = :from")
+    int transition(Long id, RazorpayOrder.RazorpayOrderStatus from, RazorpayOrder.RazorpayOrderStatus to);
+
+    // Rows whose gateway call never came back (crash between insert and finalize)
+    @Transactional
+    @Modifying
+    @Query("UPDATE RazorpayOrder o SET o.status = :to WHERE o.status = :from AND o.createdAt < :createdBefore")
+    int transitionCreatedBefore(RazorpayOrder.RazorpayOrderStatus from,
+                                RazorpayOrder.RazorpayOrderStatus to,
+                                LocalDateTime createdBefore);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +18,11 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Page<Transaction> findByWalletId(Long walletId, Pageable pageable);
 
     Optional<Transaction> findByTxnRef(String txnRef);
+
+    // Delta sync — one range scan per role on (wallet_id, seq)
+    @Query("SELECT t FROM Transaction t WHERE t.senderWallet.id = :walletId AND t.senderSeq > :sinceSeq ORDER BY t.senderSeq")
+    List<Transaction> findSentSince(Long walletId, long sinceSeq, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.receiverWallet.id = :walletId AND t.receiverSeq > :sinceSeq ORDER BY t.receiverSeq")
+    List<Transaction> findReceivedSince(Long walletId, long sinceSeq, Pageable pageable);
 }
\ No newline at end of file
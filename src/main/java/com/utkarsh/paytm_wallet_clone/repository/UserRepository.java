@@ -1,9 +1,13 @@
 package com.utkarsh.paytm_wallet_clone.repository;
 
+import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
 import com.utkarsh.paytm_wallet_clone.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
-}
\ No newline at end of file
+
+    // Contact discovery — projects straight into the DTO so no User entities are loaded
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO(u.name, u.phone, true) " +
+            "FROM User u WHERE u.phone IN :phones")
+    List<UserLookupDTO> findLookupsByPhoneIn(Collection<String> phones);
+}
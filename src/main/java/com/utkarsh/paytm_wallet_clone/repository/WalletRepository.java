@@ -1,12 +1,17 @@
 package com.utkarsh.paytm_wallet_clone.repository;
 
+import com.utkarsh.paytm_wallet_clone.dto.projection.WalletOwner;
 import com.utkarsh.paytm_wallet_clone.model.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,8 +19,29 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     Optional<Wallet> findByUserId(Long userId);
 
+    // Delta sync probe — reads only the ledger sequence off the user_id index
+    @Query("SELECT w.ledgerSeq FROM Wallet w WHERE w.user.id = :userId")
+    Optional<Long> findLedgerSeqByUserId(Long userId);
+
+    // Plain read used to confirm directory routes before any wallet row is locked
+    @Query("SELECT new com.utkarsh.paytm_wallet_clone.dto.projection.WalletOwner(w.id, u.id, u.phone) " +
+            "FROM Wallet w JOIN w.user u WHERE w.id IN :ids")
+    List<WalletOwner> findOwners(Collection<Long> ids);
+
     // Pessimistic write lock — used during balance deductions to prevent double-spend
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM Wallet w WHERE w.id = :id")
     Optional<Wallet> findByIdForUpdate(Long id);
+
+    // Single conditional UPDATE — no read-then-write, so holds need no row lock held across calls.
+    // Bumping version makes any stale Wallet entity fail its optimistic check instead of overwriting the hold.
+    @Modifying
+    @Query("UPDATE Wallet w SET w.heldAmount = w.heldAmount + :amount, w.version = w.version + 1 " +
+            "WHERE w.id = :id AND w.balance - w.heldAmount >= :amount")
+    int placeHold(Long id, BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Wallet w SET w.heldAmount = w.heldAmount - :amount, w.version = w.version + 1 " +
+            "WHERE w.id = :id AND w.heldAmount >= :amount")
+    int releaseHold(Long id, BigDecimal amount);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.utkarsh.paytm_wallet_clone.repository;
+
+import com.utkarsh.paytm_wallet_clone.model.WebhookInboxEvent;
+import com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+
+    // SKIP LOCKED lets every node claim from the inbox without handing out the same event twice
+    @Query(value = "SELECT * FROM webhook_inbox WHERE status = 'RECEIVED' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<WebhookInboxEvent> lockNextBatch(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.status = :status, e.claimedAt = :now WHERE e.id IN :ids")
+    int markClaimed(Collection<Long> ids, WebhookInboxStatus status, LocalDateTime now);
+
+    // Both outcomes only apply to a still-QUEUED event: once releaseStaleClaims has re-queued a slow one
+    // and another worker finished it, a late result from the first worker must not overwrite that
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.status = :status, e.processedAt = :now " +
+            "WHERE e.id = :id AND e.status = com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus.QUEUED")
+    int markDone(Long id, WebhookInboxStatus status, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.status = :status, e.attempts = e.attempts + 1, " +
+            "e.lastError = :error, e.nextAttemptAt = :nextAttemptAt " +
+            "WHERE e.id = :id AND e.status = com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus.QUEUED")
+    int markAttemptFailed(Long id, WebhookInboxStatus status, String error, LocalDateTime nextAttemptAt);
+
+    // Events claimed by a node that died before finishing them go back to the inbox
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.status = :to WHERE e.status = :from AND e.claimedAt < :claimedBefore")
+    int releaseStaleClaims(WebhookInboxStatus from, WebhookInboxStatus to, LocalDateTime claimedBefore);
+
+    long countByStatus(WebhookInboxStatus status);
+
+    @Query("SELECT MIN(e.receivedAt) FROM WebhookInboxEvent e WHERE e.status IN :statuses")
+    LocalDateTime findOldestReceivedAt(Collection<WebhookInboxStatus> statuses);
+}
@@ -0,0 +1,22 @@
+package com.utkarsh.paytm_wallet_clone.repository;
+
+import com.utkarsh.paytm_wallet_clone.model.Withdrawal;
+import com.utkarsh.paytm_wallet_clone.model.enums.WithdrawalStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WithdrawalRepository extends JpaRepository<Withdrawal, Long> {
+
+    List<Withdrawal> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    // Only succeeds while the payout cycle hasn't taken the row
+    @Modifying
+    @Query("UPDATE Withdrawal w SET w.status = :to WHERE w.id = :id AND w.user.id = :userId AND w.status = :from")
+    int transition(Long id, Long userId, WithdrawalStatus from, WithdrawalStatus to);
+}
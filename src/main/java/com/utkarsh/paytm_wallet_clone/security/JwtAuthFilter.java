@@ -17,6 +17,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String SSE_STREAM_PATH = "/api/wallet/balance/stream";
+
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
 
@@ -44,16 +46,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String authHeader = request.getHeader("Authorization");
+        final String token = resolveToken(request, path);
 
         // No token → continue (SecurityConfig will block if needed)
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String token = authHeader.substring(7).trim();
-
         if (!jwtUtil.validateToken(token)) {
             filterChain.doFilter(request, response);
             return;
@@ -83,4 +83,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // EventSource can't set headers, so the SSE stream also accepts ?access_token=
+    private static String resolveToken(HttpServletRequest request, String path) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7).trim();
+        }
+        if (path.equals(SSE_STREAM_PATH)) {
+            String param = request.getParameter("access_token");
+            return param != null && !param.isBlank() ? param.trim() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.utkarsh.paytm_wallet_clone.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Verifies {@code X-Razorpay-Signature} — hex HMAC-SHA256 of the raw body.
+ *
+ * Each thread keeps an initialised {@link Mac} and two 32-byte scratch
+ * buffers, so a verification allocates nothing: the MAC is computed straight
+ * over the request bytes, the received hex is decoded into a buffer, and the
+ * two are compared in constant time.
+ */
+@Component
+public class WebhookSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 32;
+
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] computed = new byte[MAC_BYTES];
+        final byte[] received = new byte[MAC_BYTES];
+
+        Scratch(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    private final ThreadLocal<Scratch> scratch;
+
+    public WebhookSignatureVerifier(@Value("${razorpay.webhook-secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.scratch = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return new Scratch(mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 unavailable", e);
+            }
+        });
+    }
+
+    public boolean verify(byte[] body, String signatureHex) {
+        if (signatureHex == null || signatureHex.length() != MAC_BYTES * 2) {
+            return false;
+        }
+        Scratch s = scratch.get();
+        if (!decodeHex(signatureHex, s.received)) {
+            return false;
+        }
+
+        // doFinal also resets the Mac for the next request on this thread
+        s.mac.update(body);
+        try {
+            s.mac.doFinal(s.computed, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+
+        int diff = 0;
+        for (int i = 0; i < MAC_BYTES; i++) {
+            diff |= s.computed[i] ^ s.received[i];
+        }
+        return diff == 0;
+    }
+
+    private static boolean decodeHex(String hex, byte[] out) {
+        int bad = 0;
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            bad |= hi | lo;   // -1 has the sign bit set
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return bad >= 0;
+    }
+}
@@ -5,6 +5,7 @@ import com.utkarsh.paytm_wallet_clone.dto.request.LoginRequest;
 import com.utkarsh.paytm_wallet_clone.dto.request.RegisterRequest;
 import com.utkarsh.paytm_wallet_clone.dto.request.ResetPasswordRequest;
 import com.utkarsh.paytm_wallet_clone.dto.response.AuthResponse;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
 import com.utkarsh.paytm_wallet_clone.exception.DuplicateUserException;
 import com.utkarsh.paytm_wallet_clone.exception.UserNotFoundException;
 import com.utkarsh.paytm_wallet_clone.model.PasswordResetToken;
@@ -16,6 +17,7 @@ import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
 import com.utkarsh.paytm_wallet_clone.security.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -36,19 +38,25 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final ExpiryService expiryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthService(UserRepository userRepository,
             WalletRepository walletRepository,
             PasswordResetTokenRepository resetTokenRepository,
             PasswordEncoder passwordEncoder,
             JwtUtil jwtUtil,
-            AuthenticationManager authenticationManager) {
+            AuthenticationManager authenticationManager,
+            ExpiryService expiryService,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
         this.resetTokenRepository = resetTokenRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.expiryService = expiryService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -81,6 +89,10 @@ public class AuthService {
 
         log.info("Wallet created for user: {} (Wallet ID: {})", user.getEmail(), wallet.getId());
 
+        // In-memory phone directories pick this up after commit
+        eventPublisher.publishEvent(new UserRegisteredEvent(
+                user.getId(), wallet.getId(), user.getName(), user.getPhone()));
+
         String token = jwtUtil.generateToken(user.getId(), user.getEmail());
 
         return new AuthResponse(token, user.getEmail(), user.getId(), user.getName());
@@ -134,6 +146,7 @@ public class AuthService {
         String token = UUID.randomUUID().toString();
         PasswordResetToken resetToken = new PasswordResetToken(user, token);
         resetTokenRepository.save(resetToken);
+        expiryService.registerResetToken(resetToken.getId(), resetToken.getExpiryDate());
 
         log.info("Password reset token generated for user: {}", user.getEmail());
 
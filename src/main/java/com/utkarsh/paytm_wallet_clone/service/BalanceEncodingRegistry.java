@@ -0,0 +1,42 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP sessions that negotiated the compact binary balance encoding
+ * (see {@link com.utkarsh.paytm_wallet_clone.util.BalanceFrameCodec}).
+ * Every other session gets JSON.
+ */
+@Service
+public class BalanceEncodingRegistry {
+
+    private final ConcurrentHashMap<String, Set<String>> binarySessionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> userBySession = new ConcurrentHashMap<>();
+
+    public void binarySessionOpened(String user, String sessionId) {
+        userBySession.put(sessionId, user);
+        binarySessionsByUser.computeIfAbsent(user, key -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    /** Session ids of {@code user} that want binary frames; empty for JSON-only users. */
+    public Set<String> binarySessions(String user) {
+        Set<String> sessions = binarySessionsByUser.get(user);
+        return sessions != null ? sessions : Set.of();
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        String user = userBySession.remove(event.getSessionId());
+        if (user != null) {
+            binarySessionsByUser.computeIfPresent(user, (key, sessions) -> {
+                sessions.remove(event.getSessionId());
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.cluster.UserSessionRegistry;
+import com.utkarsh.paytm_wallet_clone.dto.response.NotificationReplayResponse;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events balance streams for clients that don't want SockJS/STOMP.
+ *
+ * An idle stream holds no thread — only the emitter and a small queue. When
+ * frames arrive they are written by a virtual thread per busy stream, so a
+ * slow client blocks nobody else. Frames carry their replay sequence as the
+ * event id; a reconnecting client sends it back as {@code Last-Event-ID} and
+ * gets what it missed from {@link NotificationReplayService}.
+ */
+@Service
+public class BalanceStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceStreamService.class);
+
+    private record Frame(Long seq, SseEmitter.SseEventBuilder event) {
+    }
+
+    private static final class Stream {
+        final String user;
+        final SseEmitter emitter;
+        final ArrayDeque<Frame> pending = new ArrayDeque<>(4);
+        final AtomicBoolean closed = new AtomicBoolean();
+        long lastQueuedSeq;
+        boolean replaying = true;
+        boolean draining;
+
+        Stream(String user, SseEmitter emitter) {
+            this.user = user;
+            this.emitter = emitter;
+        }
+    }
+
+    private final NotificationReplayService replayService;
+    private final UserSessionRegistry sessionRegistry;
+    private final String nodeId;
+    private final long timeoutMs;
+    private final int maxBacklog;
+
+    private final ConcurrentHashMap<String, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-writer-", 0).factory());
+
+    public BalanceStreamService(NotificationReplayService replayService,
+                                UserSessionRegistry sessionRegistry,
+                                @Value("${wallet.cluster.node-id:${HOSTNAME:local}}") String nodeId,
+                                @Value("${wallet.sse.timeout:30m}") Duration timeout,
+                                @Value("${wallet.sse.max-backlog:64}") int maxBacklog) {
+        this.replayService = replayService;
+        this.sessionRegistry = sessionRegistry;
+        this.nodeId = nodeId;
+        this.timeoutMs = timeout.toMillis();
+        this.maxBacklog = maxBacklog;
+    }
+
+    /**
+     * Opens a stream for {@code user}, first replaying anything after
+     * {@code lastSeq} (or sending a {@code resync} event if that is no
+     * longer buffered).
+     */
+    public SseEmitter open(String user, Long lastSeq) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        attach(user, lastSeq, emitter);
+        return emitter;
+    }
+
+    void attach(String user, Long lastSeq, SseEmitter emitter) {
+        Stream stream = new Stream(user, emitter);
+        emitter.onCompletion(() -> close(stream));
+        emitter.onTimeout(() -> close(stream));
+        emitter.onError(e -> close(stream));
+
+        // Register before taking the replay snapshot so nothing falls between the two
+        streams.computeIfAbsent(user, key -> ConcurrentHashMap.newKeySet()).add(stream);
+        sessionRegistry.sessionOpened(user, nodeId);
+
+        NotificationReplayResponse replay = replayService.replay(user, lastSeq);
+        synchronized (stream) {
+            // Live frames queued meanwhile may overlap the snapshot — keep only the newer ones
+            ArrayDeque<Frame> live = new ArrayDeque<>(stream.pending);
+            stream.pending.clear();
+
+            if (replay.isResyncRequired()) {
+                stream.pending.add(new Frame(null, SseEmitter.event().name("resync").data("")));
+            }
+            for (BalanceUpdateMessage missed : replay.getMessages()) {
+                stream.pending.add(balanceFrame(missed.getSeq(), missed));
+            }
+            long replayedUpTo = replay.getLatestSeq() != null ? replay.getLatestSeq() : 0;
+            for (Frame frame : live) {
+                if (frame.seq() == null || frame.seq() > replayedUpTo) {
+                    stream.pending.add(frame);
+                }
+            }
+            stream.lastQueuedSeq = Math.max(stream.lastQueuedSeq, replayedUpTo);
+            stream.replaying = false;
+            scheduleDrain(stream);
+        }
+        log.debug("📶 SSE stream opened for {} (lastSeq={})", user, lastSeq);
+    }
+
+    /** Queues a balance frame on every stream {@code user} has open on this node. */
+    public void deliver(String user, Object payload) {
+        Set<Stream> userStreams = streams.get(user);
+        if (userStreams == null) {
+            return;
+        }
+        Long seq = seqOf(payload);
+        for (Stream stream : userStreams) {
+            synchronized (stream) {
+                if (seq != null && seq <= stream.lastQueuedSeq) {
+                    continue;   // already sent as part of the reconnect replay
+                }
+                if (stream.pending.size() >= maxBacklog) {
+                    // Client isn't keeping up — drop it; it reconnects with Last-Event-ID and replays
+                    log.debug("Closing SSE stream for {}: {} frames backlogged", user, maxBacklog);
+                    stream.emitter.complete();
+                    continue;
+                }
+                if (seq != null) {
+                    stream.lastQueuedSeq = seq;
+                }
+                stream.pending.add(balanceFrame(seq, payload));
+                scheduleDrain(stream);
+            }
+        }
+    }
+
+    public int getOpenStreams() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Keeps proxies from timing out idle streams and surfaces dead connections
+    @Scheduled(fixedDelayString = "${wallet.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Stream> userStreams : streams.values()) {
+            for (Stream stream : userStreams) {
+                synchronized (stream) {
+                    if (stream.pending.isEmpty()) {
+                        stream.pending.add(new Frame(null, SseEmitter.event().comment("ping")));
+                        scheduleDrain(stream);
+                    }
+                }
+            }
+        }
+    }
+
+    // ─── Writing ──────────────────────────────────────────────────────────────
+
+    // Called under the stream lock; at most one writer per stream keeps frames in order
+    private void scheduleDrain(Stream stream) {
+        if (!stream.draining && !stream.replaying && !stream.pending.isEmpty()) {
+            stream.draining = true;
+            writers.execute(() -> drain(stream));
+        }
+    }
+
+    private void drain(Stream stream) {
+        while (true) {
+            Frame frame;
+            synchronized (stream) {
+                frame = stream.pending.poll();
+                if (frame == null) {
+                    stream.draining = false;
+                    return;
+                }
+            }
+            try {
+                stream.emitter.send(frame.event());
+            } catch (Exception e) {
+                log.debug("SSE stream for {} closed: {}", stream.user, e.getMessage());
+                stream.emitter.completeWithError(e);
+                close(stream);
+                return;
+            }
+        }
+    }
+
+    private void close(Stream stream) {
+        if (!stream.closed.compareAndSet(false, true)) {
+            return;
+        }
+        streams.computeIfPresent(stream.user, (key, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+        sessionRegistry.sessionClosed(stream.user, nodeId);
+        synchronized (stream) {
+            stream.pending.clear();
+        }
+    }
+
+    private static Frame balanceFrame(Long seq, Object payload) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("balance").data(payload);
+        return new Frame(seq, seq != null ? event.id(seq.toString()) : event);
+    }
+
+    // Local frames are BalanceUpdateMessage; frames relayed from another node arrive as JSON maps
+    private static Long seqOf(Object payload) {
+        if (payload instanceof BalanceUpdateMessage message) {
+            return message.getSeq();
+        }
+        if (payload instanceof Map<?, ?> map && map.get("seq") instanceof Number seq) {
+            return seq.longValue();
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> stream.emitter.complete()));
+        writers.shutdown();
+    }
+}
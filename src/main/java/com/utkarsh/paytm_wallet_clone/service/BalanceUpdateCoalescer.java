@@ -0,0 +1,152 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Opt-in per-user coalescing of balance updates.
+ *
+ * The first update for a user goes out immediately and opens a short
+ * window; anything arriving while it is open is folded into one SUMMARY
+ * frame (latest balance, count, credited and debited totals) sent when the
+ * window closes. A merchant receiving hundreds of payments a second gets a
+ * few frames instead of one per payment.
+ *
+ * A closing window stays in place while its summary is sent, outside the
+ * map lock, so updates arriving meanwhile join it rather than jumping ahead
+ * as a new leading update; they go out one window later.
+ */
+@Service
+public class BalanceUpdateCoalescer {
+
+    private static final class Window {
+        BalanceUpdateMessage latest;
+        int count;
+        BigDecimal credited = BigDecimal.ZERO;
+        BigDecimal debited = BigDecimal.ZERO;
+
+        // Hands over what has been folded so far and starts counting afresh
+        Window take() {
+            Window taken = new Window();
+            taken.latest = latest;
+            taken.count = count;
+            taken.credited = credited;
+            taken.debited = debited;
+            latest = null;
+            count = 0;
+            credited = BigDecimal.ZERO;
+            debited = BigDecimal.ZERO;
+            return taken;
+        }
+
+        void add(BalanceUpdateMessage update) {
+            latest = update;
+            count++;
+            if ("DEBIT".equals(update.getType())) {
+                debited = debited.add(update.getAmount());
+            } else {
+                credited = credited.add(update.getAmount());
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "balance-coalescer"));
+
+    public BalanceUpdateCoalescer(@Value("${wallet.websocket.coalesce.enabled:false}") boolean enabled,
+                                  @Value("${wallet.websocket.coalesce.window-ms:250}") long windowMs) {
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sends {@code update} through {@code sink} right away if no window is
+     * open for the user, otherwise folds it into the pending summary.
+     */
+    public void offer(String user, BalanceUpdateMessage update, BiConsumer<String, BalanceUpdateMessage> sink) {
+        boolean[] leading = {false};
+        windows.compute(user, (key, window) -> {
+            if (window == null) {
+                leading[0] = true;
+                return new Window();
+            }
+            window.add(update);
+            return window;
+        });
+
+        if (leading[0]) {
+            sink.accept(user, update);
+            timer.schedule(() -> flush(user, sink), windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(String user, BiConsumer<String, BalanceUpdateMessage> sink) {
+        // Take the contents but leave the window in the map, so a concurrent offer joins it
+        // instead of going out ahead of the summary as a new leading update
+        Window[] closing = {null};
+        windows.computeIfPresent(user, (key, window) -> {
+            if (window.count == 0) {
+                return null;
+            }
+            closing[0] = window.take();
+            return window;
+        });
+        if (closing[0] == null) {
+            return;
+        }
+
+        // The sink publishes to the replay ring, the dispatcher and possibly other nodes — never under the map lock
+        Window sent = closing[0];
+        sink.accept(user, sent.count == 1 ? sent.latest : summarize(sent));
+
+        boolean[] more = {false};
+        windows.computeIfPresent(user, (key, window) -> {
+            more[0] = window.count > 0;
+            return more[0] ? window : null;
+        });
+        if (more[0]) {
+            // Updates arrived while the summary was going out; they close one window later
+            timer.schedule(() -> flush(user, sink), windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static BalanceUpdateMessage summarize(Window window) {
+        BigDecimal net = window.credited.subtract(window.debited);
+        StringBuilder message = new StringBuilder()
+                .append(window.count).append(" wallet updates");
+        if (window.credited.signum() > 0) {
+            message.append(" · ₹").append(window.credited.toPlainString()).append(" received");
+        }
+        if (window.debited.signum() > 0) {
+            message.append(" · ₹").append(window.debited.toPlainString()).append(" sent");
+        }
+
+        BalanceUpdateMessage summary = new BalanceUpdateMessage(
+                "SUMMARY", window.latest.getNewBalance(), net, null, message.toString());
+        summary.setCount(window.count);
+        summary.setTotalCredited(window.credited);
+        summary.setTotalDebited(window.debited);
+        return summary;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,350 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit;
+import com.utkarsh.paytm_wallet_clone.dto.response.StatementImportStatusDTO;
+import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.util.MappedCsvScanner;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Matches a bank statement against pending add-money orders and credits the
+ * confident matches.
+ *
+ * The CSV ({@code date,reference,narration,debit,credit} with a header row;
+ * reference is the bank's UTR) is read through {@link MappedCsvScanner}, so
+ * month-end files of several GB never land on the heap. Every CREATED order,
+ * and every order FAILED without a payment in the last {@code failed-lookback}
+ * (expiry gives up on orders long before a transfer may show up on a
+ * statement), is first loaded into a {@link DepositMatcher}; each credit line is matched
+ * by the receipt quoted in its narration, its amount and its date. Confident
+ * matches are settled through {@link PaymentService#handlePaymentSuccess} in
+ * chunks of {@code chunk-size}, one transaction per chunk, with
+ * {@code bank_<UTR>} as the payment id — re-importing a file credits nothing
+ * twice. Everything that needs a person goes to {@code <file>.review.csv}.
+ * Like the user import, a job reports the last committed line to resume from;
+ * a resumed job first drops review rows at or past its start line, so they
+ * aren't listed twice.
+ */
+@Service
+public class BankStatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BankStatementImportService.class);
+
+    private static final int DATE = 0;
+    private static final int REFERENCE = 1;
+    private static final int NARRATION = 2;
+    private static final int CREDIT = 4;
+
+    private static final byte[] RECEIPT_PREFIX = "receipt_".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_PAYMENT_ID_LENGTH = 100;
+    private static final int LOAD_PAGE_SIZE = 5_000;
+
+    private record BankCredit(long lineNo, String paymentId, String orderId, int paise, String raw) {
+    }
+
+    private final RazorpayOrderRepository razorpayOrderRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration matchWindow;
+    private final Duration failedLookback;
+    private final int windowBytes;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "statement-import"));
+    private final Map<String, StatementJob> jobs = new ConcurrentHashMap<>();
+
+    public BankStatementImportService(RazorpayOrderRepository razorpayOrderRepository,
+                                      PaymentService paymentService,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${wallet.statement.chunk-size:200}") int chunkSize,
+                                      @Value("${wallet.statement.match-window:72h}") Duration matchWindow,
+                                      @Value("${wallet.statement.failed-lookback:35d}") Duration failedLookback,
+                                      @Value("${wallet.statement.map-window-bytes:" + MappedCsvScanner.DEFAULT_WINDOW_BYTES + "}") int windowBytes) {
+        this.razorpayOrderRepository = razorpayOrderRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.matchWindow = matchWindow;
+        this.failedLookback = failedLookback;
+        this.windowBytes = windowBytes;
+    }
+
+    // ─── Job control ──────────────────────────────────────────────────────────
+
+    /**
+     * Queues a match of {@code file}. {@code fromLine} is the 1-based line to
+     * start at; pass the previous job's {@code committedThroughLine + 1} to resume.
+     */
+    public StatementImportStatusDTO startImport(Path file, long fromLine) {
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Statement file not readable: " + file);
+        }
+
+        StatementJob job = new StatementJob(UUID.randomUUID().toString(), file, Math.max(2, fromLine));
+        jobs.put(job.id, job);
+        jobExecutor.submit(() -> run(job));
+
+        log.info("🏦 Statement import {} queued: {} from line {}", job.id, file, job.fromLine);
+        return job.toStatus();
+    }
+
+    public StatementImportStatusDTO getStatus(String jobId) {
+        StatementJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown statement import job: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    // ─── Pipeline ─────────────────────────────────────────────────────────────
+
+    private void run(StatementJob job) {
+        job.state = "RUNNING";
+        Path reviewFile = Path.of(job.file + ".review.csv");
+
+        try (BufferedWriter review = openReviewFile(reviewFile, job.fromLine)) {
+
+            job.reviewFile = reviewFile.toString();
+            DepositMatcher matcher = loadPendingOrders();
+            job.pendingOrders = matcher.size();
+
+            List<BankCredit> chunk = new ArrayList<>(chunkSize);
+            long lines = MappedCsvScanner.scan(job.file, job.fromLine, windowBytes, row -> {
+                job.linesRead.set(row.lineNo());
+                long paise = row.paise(CREDIT);
+                if (paise == 0) {
+                    return;   // debit or balance-only line
+                }
+                if (paise < 0 || paise > Integer.MAX_VALUE) {
+                    writeReview(review, job, row.lineNo(), "Unreadable credit amount", null, row.raw());
+                    return;
+                }
+                long creditedAt = row.epochSecond(DATE);
+                if (creditedAt == Long.MIN_VALUE) {
+                    writeReview(review, job, row.lineNo(), "Unreadable date", null, row.raw());
+                    return;
+                }
+
+                DepositMatcher.Match match = matcher.match(referenceIn(row), paise, creditedAt);
+                switch (match.kind()) {
+                    case UNMATCHED -> job.unmatched.incrementAndGet();
+                    case REVIEW -> writeReview(review, job, row.lineNo(), match.reason(), match.order(), row.raw());
+                    case CONFIDENT -> {
+                        String utr = row.text(REFERENCE);
+                        if (utr.isEmpty() || utr.length() > MAX_PAYMENT_ID_LENGTH - 5) {
+                            writeReview(review, job, row.lineNo(), "Missing or oversized bank reference", match.order(), row.raw());
+                            return;
+                        }
+                        chunk.add(new BankCredit(row.lineNo(), "bank_" + utr,
+                                match.order().razorpayOrderId(), (int) paise, row.raw()));
+                        if (chunk.size() == chunkSize) {
+                            creditChunk(job, chunk, review);
+                            job.committedThroughLine.set(row.lineNo());
+                            chunk.clear();
+                        }
+                    }
+                }
+            });
+
+            if (!chunk.isEmpty()) {
+                creditChunk(job, chunk, review);
+            }
+            job.linesRead.set(lines);
+            job.committedThroughLine.set(lines);
+            job.state = "COMPLETED";
+
+            log.info("✅ Statement import {} completed: {} credited, {} for review, {} unmatched",
+                    job.id, job.credited.get(), job.review.get(), job.unmatched.get());
+
+        } catch (Exception e) {
+            job.state = "FAILED";
+            job.failure = e.getMessage();
+            log.error("❌ Statement import {} failed after line {} — resume from line {}",
+                    job.id, job.committedThroughLine.get(), job.committedThroughLine.get() + 1, e);
+        }
+    }
+
+    private DepositMatcher loadPendingOrders() {
+        DepositMatcher matcher = new DepositMatcher(matchWindow);
+        long afterId = 0;
+        while (true) {
+            List<PendingDeposit> page = razorpayOrderRepository.findPendingDeposits(
+                    RazorpayOrder.RazorpayOrderStatus.CREATED, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            page.forEach(matcher::add);
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+
+        LocalDateTime createdAfter = LocalDateTime.now().minus(failedLookback);
+        afterId = 0;
+        while (true) {
+            List<PendingDeposit> page = razorpayOrderRepository.findUnpaidDepositsSince(
+                    RazorpayOrder.RazorpayOrderStatus.FAILED, createdAfter, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            page.forEach(matcher::add);
+            if (page.size() < LOAD_PAGE_SIZE) {
+                return matcher;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    // A fresh run starts an empty review file; a resumed one keeps only the rows before its start line
+    private static BufferedWriter openReviewFile(Path reviewFile, long fromLine) throws IOException {
+        if (fromLine <= 2 || !Files.exists(reviewFile)) {
+            return Files.newBufferedWriter(reviewFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        Path kept = Files.createTempFile(reviewFile.toAbsolutePath().getParent(), "review", ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(reviewFile, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(kept, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (reviewLineNo(line) < fromLine) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(kept, reviewFile, StandardCopyOption.REPLACE_EXISTING);
+        return Files.newBufferedWriter(reviewFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    // Review rows start with the statement line they came from
+    private static long reviewLineNo(String reviewRow) {
+        int comma = reviewRow.indexOf(',');
+        try {
+            return Long.parseLong(comma < 0 ? reviewRow : reviewRow.substring(0, comma));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Customers are asked to quote the order's receipt in the transfer remarks
+    private static String referenceIn(MappedCsvScanner.Row row) {
+        int at = row.indexOf(NARRATION, RECEIPT_PREFIX);
+        return at < 0 ? null : row.token(NARRATION, at);
+    }
+
+    private void creditChunk(StatementJob job, List<BankCredit> chunk, BufferedWriter review) {
+        try {
+            List<BankCredit> alreadyPaid = transactionTemplate.execute(status -> {
+                List<BankCredit> notCredited = new ArrayList<>();
+                for (BankCredit credit : chunk) {
+                    if (!paymentService.handlePaymentSuccess(credit.orderId(), credit.paymentId(), credit.paise())) {
+                        notCredited.add(credit);
+                    }
+                }
+                return notCredited;
+            });
+            job.credited.addAndGet(chunk.size() - alreadyPaid.size());
+            // Paid through the gateway after the matcher loaded — the transfer still needs a person (likely a refund)
+            for (BankCredit credit : alreadyPaid) {
+                writeAlreadyPaid(review, job, credit);
+            }
+        } catch (Exception e) {
+            // A webhook or reconciliation settled one of these meanwhile — fall back to row by row
+            log.warn("Statement chunk failed ({}), retrying {} credits individually", e.getMessage(), chunk.size());
+            for (BankCredit credit : chunk) {
+                try {
+                    boolean credited = transactionTemplate.execute(status ->
+                            paymentService.handlePaymentSuccess(credit.orderId(), credit.paymentId(), credit.paise()));
+                    if (credited) {
+                        job.credited.incrementAndGet();
+                    } else {
+                        writeAlreadyPaid(review, job, credit);
+                    }
+                } catch (Exception rowFailure) {
+                    writeReview(review, job, credit.lineNo(), "Credit failed: " + rowFailure.getMessage(),
+                            null, credit.raw());
+                }
+            }
+        }
+    }
+
+    private void writeAlreadyPaid(BufferedWriter review, StatementJob job, BankCredit credit) {
+        writeReviewRow(review, job, credit.lineNo(), "Order already paid", credit.orderId(), credit.raw());
+    }
+
+    private void writeReview(BufferedWriter review, StatementJob job, long lineNo, String reason,
+                             PendingDeposit order, String raw) {
+        writeReviewRow(review, job, lineNo, reason, order != null ? order.razorpayOrderId() : null, raw);
+    }
+
+    private void writeReviewRow(BufferedWriter review, StatementJob job, long lineNo, String reason,
+                                String orderId, String raw) {
+        job.review.incrementAndGet();
+        try {
+            review.write(lineNo + ",\"" + reason.replace("\"", "\"\"") + "\","
+                    + (orderId != null ? orderId : "") + "," + raw);
+            review.newLine();
+        } catch (IOException e) {
+            log.warn("Could not write statement review row {}: {}", lineNo, e.getMessage());
+        }
+    }
+
+    // ─── Internal state ───────────────────────────────────────────────────────
+
+    private static final class StatementJob {
+        final String id;
+        final Path file;
+        final long fromLine;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong linesRead = new AtomicLong();
+        final AtomicLong committedThroughLine = new AtomicLong();
+        final AtomicLong credited = new AtomicLong();
+        final AtomicLong review = new AtomicLong();
+        final AtomicLong unmatched = new AtomicLong();
+        volatile int pendingOrders;
+        volatile String state = "QUEUED";
+        volatile String reviewFile;
+        volatile String failure;
+
+        StatementJob(String id, Path file, long fromLine) {
+            this.id = id;
+            this.file = file;
+            this.fromLine = fromLine;
+            this.committedThroughLine.set(fromLine - 1);
+        }
+
+        StatementImportStatusDTO toStatus() {
+            return new StatementImportStatusDTO(id, file.toString(), state, fromLine,
+                    linesRead.get(), committedThroughLine.get(), pendingOrders,
+                    credited.get(), review.get(), unmatched.get(), reviewFile, failure, startedAt);
+        }
+    }
+}
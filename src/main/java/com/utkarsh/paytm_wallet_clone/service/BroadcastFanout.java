@@ -0,0 +1,195 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends one payload to every STOMP session on this node.
+ *
+ * The payload is serialized once; each session gets a message sharing the
+ * same bytes. Sessions are sent in batches by a small worker pool, paced to
+ * {@code rate-per-second}, and paused while the outbound channel queue is
+ * above its high-water mark, so a broadcast to every session never crowds
+ * out transactional notifications. Broadcasts run one at a time.
+ */
+@Service
+public class BroadcastFanout {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastFanout.class);
+
+    private record Target(String user, String sessionId) {
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+    private final int ratePerSecond;
+    private final int batchSize;
+    private final int parallelism;
+    private final int outboundHighWater;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "broadcast-coordinator"));
+    private final ExecutorService workers;
+    private final LongAdder sent = new LongAdder();
+
+    public BroadcastFanout(SimpMessagingTemplate messagingTemplate,
+                           SimpUserRegistry userRegistry,
+                           @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor,
+                           @Value("${wallet.websocket.broadcast.rate-per-second:20000}") int ratePerSecond,
+                           @Value("${wallet.websocket.broadcast.batch-size:500}") int batchSize,
+                           @Value("${wallet.websocket.broadcast.parallelism:4}") int parallelism,
+                           @Value("${wallet.websocket.broadcast.outbound-high-water:5000}") int outboundHighWater) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.outboundExecutor = outboundExecutor;
+        this.ratePerSecond = ratePerSecond;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.outboundHighWater = outboundHighWater;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "broadcast-" + threadIndex.getAndIncrement()));
+    }
+
+    /** Queues the broadcast and returns; sending happens in the background. */
+    public void fanOut(String destination, Object payload) {
+        coordinator.execute(() -> run(destination, payload));
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    private void run(String destination, Object payload) {
+        long startedNanos = System.nanoTime();
+        long batchIntervalNanos = TimeUnit.SECONDS.toNanos(batchSize) / ratePerSecond;
+        long nextBatchNanos = startedNanos;
+
+        // Serialize once — every session's message shares these bytes
+        Message<?> serialized;
+        try {
+            serialized = messagingTemplate.getMessageConverter().toMessage(payload, jsonHeaders());
+        } catch (Exception e) {
+            log.error("❌ Broadcast to {} dropped: {}", destination, e.getMessage());
+            return;
+        }
+        byte[] body = serialized == null ? null : switch (serialized.getPayload()) {
+            case byte[] bytes -> bytes;
+            case String text -> text.getBytes(StandardCharsets.UTF_8);
+            default -> null;
+        };
+        if (body == null) {
+            log.error("❌ Broadcast to {} dropped: payload could not be serialized", destination);
+            return;
+        }
+
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        AtomicInteger sessions = new AtomicInteger();
+        List<Target> batch = new ArrayList<>(batchSize);
+        try {
+            for (SimpUser user : userRegistry.getUsers()) {
+                for (SimpSession session : user.getSessions()) {
+                    batch.add(new Target(user.getName(), session.getId()));
+                    if (batch.size() == batchSize) {
+                        nextBatchNanos = submit(batch, destination, body, inFlight, sessions, nextBatchNanos);
+                        nextBatchNanos += batchIntervalNanos;
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, destination, body, inFlight, sessions, nextBatchNanos);
+            }
+            inFlight.acquire(parallelism * 2);   // wait for the last batches
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        log.info("📢 Broadcast to {} sent to {} sessions in {} ms", destination, sessions.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+    }
+
+    private long submit(List<Target> batch, String destination, byte[] body, Semaphore inFlight,
+                        AtomicInteger sessions, long notBeforeNanos) throws InterruptedException {
+        long waitNanos = notBeforeNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        // Back off while transactional traffic has the outbound queue busy
+        while (outboundQueueDepth() > outboundHighWater) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                for (Target target : batch) {
+                    send(target, destination, body);
+                }
+                sessions.addAndGet(batch.size());
+            } finally {
+                inFlight.release();
+            }
+        });
+        return Math.max(notBeforeNanos, System.nanoTime());
+    }
+
+    private void send(Target target, String destination, byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(target.sessionId());
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        try {
+            String user = target.user().replace("/", "%2F");
+            messagingTemplate.send("/user/" + user + destination,
+                    MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+            sent.increment();
+        } catch (Exception e) {
+            log.debug("Broadcast to session {} failed: {}", target.sessionId(), e.getMessage());
+        }
+    }
+
+    private int outboundQueueDepth() {
+        return outboundExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    private static MessageHeaders jsonHeaders() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return accessor.getMessageHeaders();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,180 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.ContactDiscoveryResponse;
+import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import com.utkarsh.paytm_wallet_clone.util.LongBloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Address-book sync: tells a user which of their contacts are on PayFlow.
+ *
+ * An in-memory Bloom filter of every registered phone screens out the
+ * (typically large) majority of numbers that are not users, so only the
+ * possible hits reach MySQL, and those are resolved with chunked IN queries.
+ * The filter is built at startup and updated on every registration.
+ */
+@Service
+public class ContactDiscoveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactDiscoveryService.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final int queryChunkSize;
+
+    // null until the startup build finishes — discovery then skips the pre-filter
+    private volatile LongBloomFilter filter;
+    private volatile LongBloomFilter building;
+
+    public ContactDiscoveryService(UserRepository userRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${wallet.discovery.expected-users:10000000}") long expectedUsers,
+                                   @Value("${wallet.discovery.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${wallet.discovery.query-chunk-size:500}") int queryChunkSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.queryChunkSize = queryChunkSize;
+    }
+
+    // ─── Build / maintain ─────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Long userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long capacity = Math.max(expectedUsers, (userCount != null ? userCount : 0) * 2);
+
+        LongBloomFilter next = LongBloomFilter.create(capacity, falsePositiveRate);
+        building = next;
+
+        // Keyset paging keeps the scan cheap and the heap flat regardless of table size
+        long lastId = 0;
+        long loaded = 0;
+        while (true) {
+            List<Object[]> page = jdbcTemplate.query(
+                    "SELECT id, phone FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)},
+                    lastId, LOAD_PAGE_SIZE);
+            for (Object[] row : page) {
+                long phone = parsePhone((String) row[1]);
+                if (phone > 0) {
+                    next.put(phone);
+                }
+            }
+            loaded += page.size();
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            lastId = (Long) page.get(page.size() - 1)[0];
+        }
+
+        filter = next;
+        building = null;
+
+        log.info("📇 Phone Bloom filter built: {} phones | {} bits, {} hashes | {} ms",
+                loaded, next.bitSize(), next.hashCount(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        long phone = parsePhone(event.phone());
+        if (phone <= 0) {
+            return;
+        }
+        // A registration racing the startup build must land in the new filter too.
+        // Read building before filter: rebuild() publishes filter before clearing building.
+        LongBloomFilter next = building;
+        if (next != null) {
+            next.put(phone);
+        }
+        LongBloomFilter current = filter;
+        if (current != null) {
+            current.put(phone);
+        }
+    }
+
+    // ─── Discover ─────────────────────────────────────────────────────────────
+
+    public ContactDiscoveryResponse discover(List<String> contacts) {
+        Set<String> phones = new LinkedHashSet<>();
+        for (String contact : contacts) {
+            String phone = normalize(contact);
+            if (phone != null) {
+                phones.add(phone);
+            }
+        }
+
+        LongBloomFilter current = filter;
+        List<String> candidates = new ArrayList<>();
+        for (String phone : phones) {
+            if (current == null || current.mightContain(Long.parseLong(phone))) {
+                candidates.add(phone);
+            }
+        }
+
+        List<UserLookupDTO> registered = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += queryChunkSize) {
+            List<String> chunk = candidates.subList(from, Math.min(from + queryChunkSize, candidates.size()));
+            registered.addAll(userRepository.findLookupsByPhoneIn(chunk));
+        }
+
+        log.debug("Contact discovery: {} numbers | {} valid | {} candidates | {} registered",
+                contacts.size(), phones.size(), candidates.size(), registered.size());
+
+        return new ContactDiscoveryResponse(registered, phones.size(), candidates.size());
+    }
+
+    // Address books carry +91 / 0 prefixes, spaces and dashes — keep the last 10 digits
+    private static String normalize(String contact) {
+        if (contact == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(contact.length());
+        for (int i = 0; i < contact.length(); i++) {
+            char c = contact.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < 10) {
+            return null;
+        }
+        String phone = digits.substring(digits.length() - 10);
+        return phone.charAt(0) >= '6' ? phone : null;
+    }
+
+    private static long parsePhone(String phone) {
+        if (phone == null || phone.isEmpty() || phone.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory indexes over pending orders for matching bank credits: one hash
+ * map by reference (the order's receipt) and one by amount in paise.
+ *
+ * A credit is confident only when its reference names a pending order with
+ * the same amount and the credit falls between the day the order was created
+ * and {@code window} after it. Anything weaker — reference with the wrong
+ * amount or date, or amount and date without a reference — goes to review.
+ * A confidently matched order is claimed and can't match a second credit.
+ */
+final class DepositMatcher {
+
+    enum Kind { CONFIDENT, REVIEW, UNMATCHED }
+
+    record Match(Kind kind, PendingDeposit order, String reason) {
+    }
+
+    private record Entry(PendingDeposit order, long paise, long createdAt) {
+    }
+
+    private final long windowSeconds;
+    private final Map<String, Entry> byReference = new HashMap<>();
+    private final Map<Long, List<Entry>> byAmount = new HashMap<>();
+
+    DepositMatcher(Duration window) {
+        this.windowSeconds = window.toSeconds();
+    }
+
+    void add(PendingDeposit order) {
+        Entry entry = new Entry(order, order.amount().movePointRight(2).longValueExact(),
+                order.createdAt().toEpochSecond(ZoneOffset.UTC));
+        if (order.receipt() != null) {
+            byReference.put(order.receipt().toLowerCase(), entry);
+        }
+        byAmount.computeIfAbsent(entry.paise(), key -> new ArrayList<>(1)).add(entry);
+    }
+
+    int size() {
+        return byReference.size();
+    }
+
+    /**
+     * @param reference  receipt quoted in the narration, or null
+     * @param creditedAt statement time in epoch seconds, local time read as UTC
+     */
+    Match match(String reference, long paise, long creditedAt) {
+        if (reference != null) {
+            Entry entry = byReference.get(reference.toLowerCase());
+            if (entry == null) {
+                return new Match(Kind.REVIEW, null, "Reference " + reference + " is not a pending order");
+            }
+            if (entry.paise() != paise) {
+                return new Match(Kind.REVIEW, entry.order(), "Amount differs from order");
+            }
+            if (!inWindow(entry, creditedAt)) {
+                return new Match(Kind.REVIEW, entry.order(), "Credited outside the match window");
+            }
+            claim(entry);
+            return new Match(Kind.CONFIDENT, entry.order(), null);
+        }
+
+        List<Entry> sameAmount = byAmount.get(paise);
+        if (sameAmount == null) {
+            return new Match(Kind.UNMATCHED, null, null);
+        }
+        Entry candidate = null;
+        int candidates = 0;
+        for (Entry entry : sameAmount) {
+            if (inWindow(entry, creditedAt)) {
+                candidate = entry;
+                candidates++;
+            }
+        }
+        return switch (candidates) {
+            case 0 -> new Match(Kind.UNMATCHED, null, null);
+            case 1 -> new Match(Kind.REVIEW, candidate.order(), "Amount and time match, no reference");
+            default -> new Match(Kind.REVIEW, null, candidates + " pending orders match amount and time");
+        };
+    }
+
+    // Statements often carry only a date, so the window opens at the start of the order's day
+    private boolean inWindow(Entry entry, long creditedAt) {
+        long dayStart = Math.floorDiv(entry.createdAt(), 86_400) * 86_400;
+        return creditedAt >= dayStart && creditedAt <= entry.createdAt() + windowSeconds;
+    }
+
+    private void claim(Entry entry) {
+        byReference.remove(entry.order().receipt().toLowerCase());
+        List<Entry> sameAmount = byAmount.get(entry.paise());
+        sameAmount.remove(entry);
+        if (sameAmount.isEmpty()) {
+            byAmount.remove(entry.paise());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.ExpiryCandidate;
+import com.utkarsh.paytm_wallet_clone.event.OrdersDueForExpiryEvent;
+import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import com.utkarsh.paytm_wallet_clone.repository.PasswordResetTokenRepository;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.util.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Central expiry scheduler.
+ *
+ * Deadlines are registered in an in-memory hierarchical timing wheel when the
+ * entity is created. A scheduler tick advances the wheel and expires whatever
+ * fell due in chunked DELETE / UPDATE statements. After a restart the wheel is
+ * refilled from the database with a bounded keyset scan; anything past the
+ * bound is picked up one page per tick until the scan catches up.
+ *
+ * Stale orders are not failed here directly: they are handed to
+ * {@link PaymentReconciliationService} as an {@link OrdersDueForExpiryEvent}
+ * for a last gateway check, which calls back {@link #failOrders} for the
+ * unpaid ones and {@link #deferOrders} for those it couldn't check.
+ */
+@Service
+public class ExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryService.class);
+
+    public enum ExpiryKind {
+        RESET_TOKEN,    // password_reset_tokens row → DELETE
+        STALE_ORDER     // razorpay_orders row stuck in CREATED → FAILED, after a last gateway check
+    }
+
+    private record ExpiryKey(ExpiryKind kind, long id) {
+    }
+
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final RazorpayOrderRepository razorpayOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HierarchicalTimingWheel<ExpiryKey> wheel;
+
+    private final Duration orderTtl;
+    private final int batchSize;
+    private final int recoveryPageSize;
+    private final int recoveryMaxRows;
+
+    // Keyset cursors for the startup scan; null once a kind is fully recovered
+    private final Map<ExpiryKind, Long> recoveryCursors = new EnumMap<>(ExpiryKind.class);
+
+    public ExpiryService(PasswordResetTokenRepository resetTokenRepository,
+                         RazorpayOrderRepository razorpayOrderRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${wallet.expiry.tick-ms:1000}") long tickMs,
+                         @Value("${wallet.expiry.order-ttl:24h}") Duration orderTtl,
+                         @Value("${wallet.expiry.batch-size:500}") int batchSize,
+                         @Value("${wallet.expiry.recovery-page-size:1000}") int recoveryPageSize,
+                         @Value("${wallet.expiry.recovery-max-rows:100000}") int recoveryMaxRows) {
+        this.resetTokenRepository = resetTokenRepository;
+        this.razorpayOrderRepository = razorpayOrderRepository;
+        this.eventPublisher = eventPublisher;
+        this.orderTtl = orderTtl;
+        this.batchSize = batchSize;
+        this.recoveryPageSize = recoveryPageSize;
+        this.recoveryMaxRows = recoveryMaxRows;
+        // 64 slots × 4 levels at 1s ticks spans ~194 days before overflow kicks in
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, 64, 4, System.currentTimeMillis());
+    }
+
+    // ─── Registration (called when the entity is created) ─────────────────────
+
+    public void registerResetToken(Long tokenId, LocalDateTime expiryDate) {
+        wheel.add(toEpochMillis(expiryDate), new ExpiryKey(ExpiryKind.RESET_TOKEN, tokenId));
+    }
+
+    public void registerOrder(Long orderId, LocalDateTime createdAt) {
+        wheel.add(toEpochMillis(createdAt.plus(orderTtl)), new ExpiryKey(ExpiryKind.STALE_ORDER, orderId));
+    }
+
+    /** Puts orders back on the wheel, e.g. when the gateway couldn't confirm they are unpaid. */
+    public void deferOrders(List<Long> orderIds, Duration delay) {
+        long deadline = System.currentTimeMillis() + delay.toMillis();
+        for (Long orderId : orderIds) {
+            wheel.add(deadline, new ExpiryKey(ExpiryKind.STALE_ORDER, orderId));
+        }
+    }
+
+    public int pendingDeadlines() {
+        return wheel.size();
+    }
+
+    // ─── Startup recovery ─────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOutstandingDeadlines() {
+        synchronized (recoveryCursors) {
+            recoveryCursors.put(ExpiryKind.RESET_TOKEN, 0L);
+            recoveryCursors.put(ExpiryKind.STALE_ORDER, 0L);
+        }
+
+        int recovered = 0;
+        while (recovered < recoveryMaxRows) {
+            int page = recoverNextPage();
+            if (page == 0) {
+                break;
+            }
+            recovered += page;
+        }
+
+        log.info("⏰ Expiry recovery registered {} deadlines{}", recovered,
+                isRecovering() ? " (scan bound reached, continuing in background)" : "");
+    }
+
+    // Registers one keyset page for the first kind that still has rows left
+    private int recoverNextPage() {
+        synchronized (recoveryCursors) {
+            for (ExpiryKind kind : ExpiryKind.values()) {
+                Long afterId = recoveryCursors.get(kind);
+                if (afterId == null) {
+                    continue;
+                }
+
+                PageRequest page = PageRequest.of(0, recoveryPageSize);
+                List<ExpiryCandidate> rows = kind == ExpiryKind.RESET_TOKEN
+                        ? resetTokenRepository.findExpiryCandidates(afterId, page)
+                        : razorpayOrderRepository.findExpiryCandidates(
+                                RazorpayOrder.RazorpayOrderStatus.CREATED, afterId, page);
+
+                for (ExpiryCandidate row : rows) {
+                    if (kind == ExpiryKind.RESET_TOKEN) {
+                        registerResetToken(row.id(), row.timestamp());
+                    } else {
+                        registerOrder(row.id(), row.timestamp());
+                    }
+                }
+
+                recoveryCursors.put(kind, rows.size() < recoveryPageSize
+                        ? null
+                        : rows.get(rows.size() - 1).id());
+
+                if (!rows.isEmpty()) {
+                    return rows.size();
+                }
+            }
+            return 0;
+        }
+    }
+
+    private boolean isRecovering() {
+        synchronized (recoveryCursors) {
+            return recoveryCursors.values().stream().anyMatch(cursor -> cursor != null);
+        }
+    }
+
+    // ─── Tick ─────────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${wallet.expiry.tick-ms:1000}")
+    public void tick() {
+        if (isRecovering()) {
+            recoverNextPage();
+        }
+
+        List<ExpiryKey> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<Long> tokenIds = new ArrayList<>();
+        List<Long> orderIds = new ArrayList<>();
+        for (ExpiryKey key : expired) {
+            (key.kind() == ExpiryKind.RESET_TOKEN ? tokenIds : orderIds).add(key.id());
+        }
+
+        try {
+            int tokens = expireResetTokens(tokenIds);
+            if (tokens > 0) {
+                log.info("⏰ Expired {} reset tokens", tokens);
+            }
+        } catch (Exception e) {
+            // Rows stay in the DB and are picked up again by the next startup scan
+            log.error("❌ Expiry batch failed", e);
+        }
+        if (!orderIds.isEmpty()) {
+            eventPublisher.publishEvent(new OrdersDueForExpiryEvent(orderIds, LocalDateTime.now().minus(orderTtl)));
+        }
+    }
+
+    private int expireResetTokens(List<Long> ids) {
+        int affected = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            affected += resetTokenRepository.deleteExpiredByIds(chunk, now);
+        }
+        return affected;
+    }
+
+    /** Marks orders FAILED in chunks — only those still CREATED and created before {@code createdBefore}. */
+    public int failOrders(List<Long> ids, LocalDateTime createdBefore) {
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            affected += razorpayOrderRepository.expireByIds(chunk,
+                    RazorpayOrder.RazorpayOrderStatus.CREATED,
+                    RazorpayOrder.RazorpayOrderStatus.FAILED,
+                    createdBefore);
+        }
+        return affected;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
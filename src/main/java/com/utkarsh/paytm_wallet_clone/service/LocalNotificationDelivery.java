@@ -0,0 +1,107 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utkarsh.paytm_wallet_clone.cluster.ClusterMessageRouter;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import com.utkarsh.paytm_wallet_clone.util.BalanceFrameCodec;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Set;
+
+/**
+ * Last hop of a user notification on the node that holds the user's
+ * connections: STOMP sessions (JSON, or the binary layout where negotiated)
+ * and SSE streams, plus node-wide broadcasts. Used as the cluster router's
+ * local delivery.
+ */
+@Service
+public class LocalNotificationDelivery implements ClusterMessageRouter.LocalDelivery {
+
+    public static final String BALANCE_DESTINATION = "/queue/balance";
+    public static final String BROADCAST_DESTINATION = "/queue/broadcast";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final BalanceEncodingRegistry encodingRegistry;
+    private final BalanceStreamService balanceStreams;
+    private final ObjectMapper objectMapper;
+    private final BroadcastFanout broadcastFanout;
+
+    public LocalNotificationDelivery(SimpMessagingTemplate messagingTemplate,
+                                     SimpUserRegistry simpUserRegistry,
+                                     BalanceEncodingRegistry encodingRegistry,
+                                     BalanceStreamService balanceStreams,
+                                     ObjectMapper objectMapper,
+                                     BroadcastFanout broadcastFanout) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.encodingRegistry = encodingRegistry;
+        this.balanceStreams = balanceStreams;
+        this.objectMapper = objectMapper;
+        this.broadcastFanout = broadcastFanout;
+    }
+
+    @Override
+    public void deliver(String user, String destination, Object payload) {
+        if (!BALANCE_DESTINATION.equals(destination)) {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+            return;
+        }
+
+        Set<String> binarySessions = encodingRegistry.binarySessions(user);
+        if (binarySessions.isEmpty()) {
+            // Common case: one JSON send fans out to all of the user's sessions
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+        } else {
+            sendPerSession(user, destination, payload, binarySessions);
+        }
+        balanceStreams.deliver(user, payload);
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        broadcastFanout.fanOut(destination, payload);
+    }
+
+    // Each encoding is produced once, then addressed to the sessions that asked for it
+    private void sendPerSession(String user, String destination, Object payload, Set<String> binarySessions) {
+        SimpUser simpUser = simpUserRegistry.getUser(user);
+        if (simpUser == null) {
+            return;
+        }
+        byte[] binary = BalanceFrameCodec.encode(toMessage(payload));
+        for (SimpSession session : simpUser.getSessions()) {
+            if (binarySessions.contains(session.getId())) {
+                messagingTemplate.convertAndSendToUser(user, destination, binary,
+                        sessionHeaders(session.getId(), MimeTypeUtils.APPLICATION_OCTET_STREAM));
+            } else {
+                messagingTemplate.convertAndSendToUser(user, destination, payload,
+                        sessionHeaders(session.getId(), MimeTypeUtils.APPLICATION_JSON));
+            }
+        }
+    }
+
+    // Frames relayed from another node arrive as JSON maps
+    private BalanceUpdateMessage toMessage(Object payload) {
+        return payload instanceof BalanceUpdateMessage message
+                ? message
+                : objectMapper.convertValue(payload, BalanceUpdateMessage.class);
+    }
+
+    private static MessageHeaders sessionHeaders(String sessionId, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+}
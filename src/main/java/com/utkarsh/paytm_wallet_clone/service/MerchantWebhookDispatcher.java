@@ -0,0 +1,314 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.MerchantWebhookStatsDTO;
+import com.utkarsh.paytm_wallet_clone.event.MerchantWebhookQueuedEvent;
+import com.utkarsh.paytm_wallet_clone.merchant.MerchantWebhookSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers queued merchant events to their callback URLs.
+ *
+ * Like the notification outbox relay, a drain is requested after every commit
+ * that queued an event and by a periodic poll, and drains run on one thread.
+ * Each pass claims up to {@code claim-batch-size} due rows with
+ * {@code FOR UPDATE SKIP LOCKED} and leases them by pushing
+ * {@code next_attempt_at} out by {@code claim-lease}, so other nodes skip
+ * them and a crash only delays them. Claimed rows are grouped per endpoint
+ * and sent as batches of up to {@code events-per-request} events; each
+ * endpoint is served in order by its own virtual thread, at most
+ * {@code max-concurrent-endpoints} at a time, over the shared HTTP/2 client.
+ *
+ * A pass doesn't wait for its endpoints to finish: the next claim skips
+ * endpoints that still have a sender running, and a finishing sender asks for
+ * another drain, so one slow merchant only holds up its own events. Senders
+ * renew the lease on what they still hold before every request, so the lease
+ * only has to outlast one request rather than a whole endpoint's backlog.
+ *
+ * A 2xx deletes the batch. Anything else backs the batch — and the rest of
+ * that endpoint's batches in the pass — off exponentially with jitter, and
+ * rows that reach {@code max-attempts} are kept as FAILED.
+ */
+@Service
+public class MerchantWebhookDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantWebhookDispatcher.class);
+
+    private static final String CLAIM_DUE =
+            "SELECT id, endpoint_id, payload, attempts FROM merchant_webhook_deliveries " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String CLAIM_DUE_SKIPPING_BUSY =
+            "SELECT id, endpoint_id, payload, attempts FROM merchant_webhook_deliveries " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now AND endpoint_id NOT IN (:busy) " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String LEASE =
+            "UPDATE merchant_webhook_deliveries SET next_attempt_at = :until WHERE id IN (:ids)";
+    private static final String LOAD_ENDPOINTS =
+            "SELECT id, url, secret FROM merchant_endpoints WHERE id IN (:ids)";
+    private static final String DELETE_DELIVERED =
+            "DELETE FROM merchant_webhook_deliveries WHERE id IN (:ids)";
+    private static final String RECORD_FAILURE =
+            "UPDATE merchant_webhook_deliveries SET status = :status, attempts = :attempts, " +
+            "next_attempt_at = :next, last_error = :error WHERE id = :id";
+    private static final String COUNT_BY_STATUS =
+            "SELECT status, COUNT(*) FROM merchant_webhook_deliveries GROUP BY status";
+
+    private record Delivery(long id, long endpointId, String payload, int attempts) {
+    }
+
+    private record Endpoint(long id, String url, String secret) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final MerchantWebhookSender sender;
+    private final int claimBatchSize;
+    private final int eventsPerRequest;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
+
+    private final ExecutorService relay = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "merchant-webhook-relay"));
+    private final ExecutorService endpointSenders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore endpointSlots;
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    // Endpoints with a sender running; their rows are left alone until it finishes
+    private final Set<Long> busyEndpoints = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+
+    public MerchantWebhookDispatcher(NamedParameterJdbcTemplate jdbc,
+                                     TransactionTemplate transactionTemplate,
+                                     MerchantWebhookSender sender,
+                                     @Value("${wallet.merchant-webhook.claim-batch-size:1000}") int claimBatchSize,
+                                     @Value("${wallet.merchant-webhook.events-per-request:100}") int eventsPerRequest,
+                                     @Value("${wallet.merchant-webhook.max-concurrent-endpoints:64}") int maxConcurrentEndpoints,
+                                     @Value("${wallet.merchant-webhook.max-attempts:12}") int maxAttempts,
+                                     @Value("${wallet.merchant-webhook.retry-backoff:10s}") Duration retryBackoff,
+                                     @Value("${wallet.merchant-webhook.max-backoff:1h}") Duration maxBackoff,
+                                     @Value("${wallet.merchant-webhook.claim-lease:2m}") Duration claimLease) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.sender = sender;
+        this.claimBatchSize = claimBatchSize;
+        this.eventsPerRequest = eventsPerRequest;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+        this.endpointSlots = new Semaphore(maxConcurrentEndpoints);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueued(MerchantWebhookQueuedEvent event) {
+        requestDrain();
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.merchant-webhook.poll-ms:5000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    public MerchantWebhookStatsDTO getStats() {
+        long[] counts = new long[2];   // pending, failed
+        jdbc.query(COUNT_BY_STATUS, Map.of(), rs -> {
+            counts["FAILED".equals(rs.getString(1)) ? 1 : 0] += rs.getLong(2);
+        });
+        return new MerchantWebhookStatsDTO(counts[0], counts[1], delivered.sum(), requests.sum(), failedRequests.sum());
+    }
+
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            relay.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Cleared before reading so a commit landing mid-drain schedules another pass
+        drainRequested.set(false);
+        try {
+            int claimed;
+            do {
+                claimed = dispatchPass();
+            } while (claimed == claimBatchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Claimed rows keep their lease and are picked up again once it runs out
+            log.error("❌ Merchant webhook pass failed", e);
+        }
+    }
+
+    // ─── One pass ─────────────────────────────────────────────────────────────
+
+    private int dispatchPass() throws Exception {
+        List<Delivery> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<Delivery>> byEndpoint = new LinkedHashMap<>();
+        for (Delivery delivery : claimed) {
+            byEndpoint.computeIfAbsent(delivery.endpointId(), id -> new ArrayList<>()).add(delivery);
+        }
+        Map<Long, Endpoint> endpoints = loadEndpoints(byEndpoint.keySet());
+
+        for (Map.Entry<Long, List<Delivery>> entry : byEndpoint.entrySet()) {
+            Endpoint endpoint = endpoints.get(entry.getKey());
+            if (endpoint == null) {
+                continue;   // removed since the claim; its rows went with it
+            }
+            endpointSlots.acquire();
+            busyEndpoints.add(endpoint.id());
+            endpointSenders.execute(() -> {
+                try {
+                    deliver(endpoint, entry.getValue());
+                } catch (Exception e) {
+                    // Rows keep their lease and are retried once it runs out
+                    log.error("❌ Merchant webhook sender for {} failed", endpoint.url(), e);
+                } finally {
+                    busyEndpoints.remove(endpoint.id());
+                    endpointSlots.release();
+                    requestDrain();   // rows for this endpoint may have come due meanwhile
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    private List<Delivery> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> busy = List.copyOf(busyEndpoints);
+            List<Delivery> rows = jdbc.query(busy.isEmpty() ? CLAIM_DUE : CLAIM_DUE_SKIPPING_BUSY,
+                    new MapSqlParameterSource()
+                            .addValue("now", now)
+                            .addValue("limit", claimBatchSize)
+                            .addValue("busy", busy),
+                    (rs, i) -> new Delivery(rs.getLong("id"), rs.getLong("endpoint_id"),
+                            rs.getString("payload"), rs.getInt("attempts")));
+            if (!rows.isEmpty()) {
+                jdbc.update(LEASE, new MapSqlParameterSource()
+                        .addValue("until", now.plus(claimLease))
+                        .addValue("ids", rows.stream().map(Delivery::id).toList()));
+            }
+            return rows;
+        });
+    }
+
+    private Map<Long, Endpoint> loadEndpoints(Set<Long> ids) {
+        return jdbc.query(LOAD_ENDPOINTS, Map.of("ids", ids),
+                        (rs, i) -> new Endpoint(rs.getLong("id"), rs.getString("url"), rs.getString("secret")))
+                .stream()
+                .collect(Collectors.toMap(Endpoint::id, endpoint -> endpoint));
+    }
+
+    // Runs on the endpoint's virtual thread; batches go out one after another, oldest first
+    private void deliver(Endpoint endpoint, List<Delivery> deliveries) {
+        for (int from = 0; from < deliveries.size(); from += eventsPerRequest) {
+            List<Delivery> batch = deliveries.subList(from, Math.min(from + eventsPerRequest, deliveries.size()));
+            if (from > 0) {
+                renewLease(deliveries.subList(from, deliveries.size()));
+            }
+
+            MerchantWebhookSender.Result result;
+            try {
+                result = sender.deliver(endpoint.url(), endpoint.secret(),
+                        batch.stream().map(Delivery::payload).toList());
+            } catch (Exception e) {
+                result = new MerchantWebhookSender.Result(0, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            requests.increment();
+
+            if (result.delivered()) {
+                jdbc.update(DELETE_DELIVERED, Map.of("ids", batch.stream().map(Delivery::id).toList()));
+                delivered.add(batch.size());
+                continue;
+            }
+
+            // Don't keep hammering an endpoint that just failed — back off everything left for it
+            failedRequests.increment();
+            List<Delivery> remaining = deliveries.subList(from, deliveries.size());
+            recordFailure(remaining, result.error());
+            log.warn("⚠️ Merchant webhook to {} failed ({} events backed off): {}",
+                    endpoint.url(), remaining.size(), result.error());
+            return;
+        }
+    }
+
+    private void renewLease(List<Delivery> deliveries) {
+        jdbc.update(LEASE, new MapSqlParameterSource()
+                .addValue("until", LocalDateTime.now().plus(claimLease))
+                .addValue("ids", deliveries.stream().map(Delivery::id).toList()));
+    }
+
+    private void recordFailure(List<Delivery> deliveries, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String truncated = error == null ? null : error.length() <= 255 ? error : error.substring(0, 255);
+
+        SqlParameterSource[] updates = new SqlParameterSource[deliveries.size()];
+        int exhausted = 0;
+        for (int i = 0; i < updates.length; i++) {
+            Delivery delivery = deliveries.get(i);
+            int attempts = delivery.attempts() + 1;
+            boolean giveUp = attempts >= maxAttempts;
+            if (giveUp) {
+                exhausted++;
+            }
+            updates[i] = new MapSqlParameterSource()
+                    .addValue("id", delivery.id())
+                    .addValue("status", giveUp ? "FAILED" : "PENDING")
+                    .addValue("attempts", attempts)
+                    .addValue("next", now.plus(Duration.ofMillis(backoffMs(attempts))))
+                    .addValue("error", truncated);
+        }
+        jdbc.batchUpdate(RECORD_FAILURE, updates);
+
+        if (exhausted > 0) {
+            log.error("❌ {} merchant webhook events gave up after {} attempts: {}",
+                    exhausted, maxAttempts, truncated);
+        }
+    }
+
+    // Base × 2^(attempt−1) capped at max-backoff, with ±50% jitter so endpoints recovering together aren't stampeded
+    private long backoffMs(int attempt) {
+        long base = Math.min(retryBackoff.toMillis() << Math.min(attempt - 1, 20), maxBackoff.toMillis());
+        return base / 2 + ThreadLocalRandom.current().nextLong(base + 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relay.shutdownNow();
+        endpointSenders.shutdown();
+    }
+}
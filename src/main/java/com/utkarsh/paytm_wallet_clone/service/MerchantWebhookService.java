@@ -0,0 +1,226 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utkarsh.paytm_wallet_clone.dto.request.MerchantEndpointRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.MerchantEndpointDTO;
+import com.utkarsh.paytm_wallet_clone.event.MerchantWebhookQueuedEvent;
+import com.utkarsh.paytm_wallet_clone.exception.MerchantAccountRequiredException;
+import com.utkarsh.paytm_wallet_clone.exception.UserNotFoundException;
+import com.utkarsh.paytm_wallet_clone.merchant.CallbackAddressPolicy;
+import com.utkarsh.paytm_wallet_clone.model.MerchantEndpoint;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.repository.MerchantEndpointRepository;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Merchant callback registration and the outbound event queue.
+ *
+ * A merchant account ({@code users.is_merchant}, set by an operator)
+ * registers one callback URL, which must resolve to a public address, and
+ * gets back a secret for checking the {@code X-Wallet-Signature} header. Events are queued into
+ * {@code merchant_webhook_deliveries} inside the transaction that moved the
+ * money, so a committed transfer always has its event and a rolled-back one
+ * never does; {@link MerchantWebhookDispatcher} sends them after commit.
+ */
+@Service
+public class MerchantWebhookService {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantWebhookService.class);
+
+    public static final String TRANSFER_RECEIVED = "transfer.received";
+
+    // Copies the event once per endpoint the recipient owns — nothing is written for non-merchants
+    private static final String QUEUE_EVENT =
+            "INSERT INTO merchant_webhook_deliveries " +
+            "(endpoint_id, event_id, event_type, payload, status, attempts, next_attempt_at, created_at) " +
+            "SELECT id, :eventId, :eventType, :payload, 'PENDING', 0, :now, :now " +
+            "FROM merchant_endpoints WHERE user_id = :userId";
+    private static final String COUNT_BY_STATUS =
+            "SELECT status, COUNT(*) FROM merchant_webhook_deliveries WHERE endpoint_id = :endpointId GROUP BY status";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MerchantEndpointRepository endpointRepository;
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CallbackAddressPolicy addressPolicy;
+    private final boolean allowHttp;
+
+    public MerchantWebhookService(MerchantEndpointRepository endpointRepository,
+                                  UserRepository userRepository,
+                                  NamedParameterJdbcTemplate jdbc,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  CallbackAddressPolicy addressPolicy,
+                                  @Value("${wallet.merchant-webhook.allow-http:false}") boolean allowHttp) {
+        this.endpointRepository = endpointRepository;
+        this.userRepository = userRepository;
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.addressPolicy = addressPolicy;
+        this.allowHttp = allowHttp;
+    }
+
+    // ─── Registration ─────────────────────────────────────────────────────────
+
+    /** Registers or replaces the caller's callback URL; a fresh secret is issued every time. */
+    @Transactional
+    public MerchantEndpointDTO register(User user, MerchantEndpointRequest request) {
+        if (!user.isMerchant()) {
+            throw new MerchantAccountRequiredException("Only merchant accounts can register a webhook");
+        }
+        String url = validateUrl(request.getUrl());
+
+        MerchantEndpoint endpoint = endpointRepository.findByUserId(user.getId())
+                .orElseGet(() -> {
+                    MerchantEndpoint created = new MerchantEndpoint();
+                    created.setUser(user);
+                    return created;
+                });
+        endpoint.setUrl(url);
+        endpoint.setSecret(newSecret());
+        endpoint.setUpdatedAt(LocalDateTime.now());
+        endpointRepository.save(endpoint);
+
+        log.info("🔗 Merchant webhook registered for {} → {}", user.getEmail(), url);
+        return toDTO(endpoint, endpoint.getSecret());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MerchantEndpointDTO> getEndpoint(User user) {
+        return endpointRepository.findByUserId(user.getId())
+                .map(endpoint -> toDTO(endpoint, null));
+    }
+
+    /** Removes the callback; events still queued for it are dropped with it. */
+    @Transactional
+    public boolean removeEndpoint(User user) {
+        return endpointRepository.findByUserId(user.getId())
+                .map(endpoint -> {
+                    endpointRepository.delete(endpoint);
+                    log.info("🔗 Merchant webhook removed for {}", user.getEmail());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /** Operator switch for merchant status; revoking it also removes the account's callback. */
+    @Transactional
+    public void setMerchant(Long userId, boolean merchant) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
+        user.setIsMerchant(merchant);
+        userRepository.save(user);
+        if (!merchant) {
+            endpointRepository.findByUserId(userId).ifPresent(endpointRepository::delete);
+        }
+        log.info("🔗 Merchant status of {} set to {}", user.getEmail(), merchant);
+    }
+
+    // ─── Events ───────────────────────────────────────────────────────────────
+
+    /**
+     * Queues {@code transfer.received} for the recipient's endpoint, if any.
+     * Must run inside the transfer's transaction.
+     */
+    public void queueTransferReceived(Long recipientUserId, String txnRef, BigDecimal amount,
+                                      String fromName, String note, BigDecimal newBalance) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("txn_ref", txnRef);
+        data.put("amount", amount.toPlainString());
+        data.put("currency", "INR");
+        data.put("from", fromName);
+        data.put("note", note);
+        data.put("balance", newBalance.toPlainString());
+
+        queue(recipientUserId, "evt_" + txnRef, TRANSFER_RECEIVED, data);
+    }
+
+    private void queue(Long userId, String eventId, String eventType, Map<String, Object> data) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", eventId);
+        event.put("type", eventType);
+        event.put("created_at", OffsetDateTime.now(ZoneOffset.UTC).toString());
+        event.put("data", data);
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize merchant event " + eventId, e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int queued = jdbc.update(QUEUE_EVENT, new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("eventType", eventType)
+                .addValue("payload", payload)
+                .addValue("now", now)
+                .addValue("userId", userId));
+        if (queued > 0) {
+            eventPublisher.publishEvent(new MerchantWebhookQueuedEvent(queued));
+        }
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private String validateUrl(String raw) {
+        URI uri;
+        try {
+            uri = new URI(raw.trim());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid callback URL");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!scheme.equals("https") && !(allowHttp && scheme.equals("http"))) {
+            throw new IllegalArgumentException(allowHttp
+                    ? "Callback URL must use http or https"
+                    : "Callback URL must use https");
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null || uri.getFragment() != null) {
+            throw new IllegalArgumentException("Invalid callback URL");
+        }
+        addressPolicy.check(uri);
+        return uri.toString();
+    }
+
+    private static String newSecret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return "whsec_" + HexFormat.of().formatHex(bytes);
+    }
+
+    private MerchantEndpointDTO toDTO(MerchantEndpoint endpoint, String secret) {
+        long[] counts = new long[2];   // pending, failed
+        if (endpoint.getId() != null) {
+            jdbc.query(COUNT_BY_STATUS, Map.of("endpointId", endpoint.getId()), rs -> {
+                counts["FAILED".equals(rs.getString(1)) ? 1 : 0] += rs.getLong(2);
+            });
+        }
+        return new MerchantEndpointDTO(endpoint.getUrl(), secret, counts[0], counts[1], endpoint.getUpdatedAt());
+    }
+}
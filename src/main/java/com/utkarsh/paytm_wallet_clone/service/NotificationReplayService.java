@@ -0,0 +1,110 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.NotificationReplayResponse;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import com.utkarsh.paytm_wallet_clone.util.SequencedRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the last few balance frames per user so a reconnecting client can
+ * fetch only what it missed instead of reloading balance and history.
+ *
+ * Each ring starts numbering from a base derived from the clock when it is
+ * created, so a {@code lastSeq} from before a restart always reads as a gap
+ * and the client falls back to a full refresh. Rings idle for longer than the
+ * TTL are dropped to bound memory; a ring created after that never starts
+ * below the highest seq an evicted ring handed out, so clients that kept
+ * their {@code lastSeq} don't discard the new frames as already seen.
+ *
+ * Rings live on the node that drains the outbox, so in cluster mode seqs and
+ * replay are per node (see {@link com.utkarsh.paytm_wallet_clone.cluster.ClusterMessageRouter}).
+ */
+@Service
+public class NotificationReplayService {
+
+    private static final class UserRing {
+        final SequencedRing<BalanceUpdateMessage> ring;
+        volatile long lastUsedMs = System.currentTimeMillis();
+        boolean evicted;   // guarded by ring
+
+        UserRing(int capacity, long baseSeq) {
+            this.ring = new SequencedRing<>(capacity, baseSeq);
+        }
+    }
+
+    private final int capacity;
+    private final long idleTtlMs;
+    private final AtomicLong evictedHighWater = new AtomicLong();
+    private final ConcurrentHashMap<String, UserRing> rings = new ConcurrentHashMap<>();
+
+    public NotificationReplayService(@Value("${wallet.websocket.replay.buffer-size:32}") int capacity,
+                                     @Value("${wallet.websocket.replay.idle-ttl:10m}") Duration idleTtl) {
+        this.capacity = capacity;
+        this.idleTtlMs = idleTtl.toMillis();
+    }
+
+    /**
+     * Numbers {@code message}, buffers it and hands it to {@code send} — all
+     * under the user's ring lock so frames leave in sequence order.
+     */
+    public void publish(String user, BalanceUpdateMessage message, Consumer<BalanceUpdateMessage> send) {
+        while (true) {
+            UserRing userRing = rings.computeIfAbsent(user, key -> new UserRing(capacity, nextBaseSeq()));
+            userRing.lastUsedMs = System.currentTimeMillis();
+            synchronized (userRing.ring) {
+                if (userRing.evicted) {
+                    continue;   // lost a race with evictIdle — number it in the ring that replaces this one
+                }
+                message.setSeq(userRing.ring.append(message));
+                send.accept(message);
+                return;
+            }
+        }
+    }
+
+    public NotificationReplayResponse replay(String user, Long lastSeq) {
+        UserRing userRing = rings.get(user);
+        if (userRing == null) {
+            // Nothing sent since boot (or since the ring went idle) — only a stale lastSeq needs a resync
+            return new NotificationReplayResponse(lastSeq != null, null, List.of());
+        }
+        userRing.lastUsedMs = System.currentTimeMillis();
+
+        long latest = userRing.ring.lastSeq();
+        if (lastSeq == null) {
+            return new NotificationReplayResponse(false, latest, List.of());
+        }
+        List<BalanceUpdateMessage> missed = userRing.ring.since(lastSeq);
+        return missed == null
+                ? new NotificationReplayResponse(true, latest, List.of())
+                : new NotificationReplayResponse(false, latest, missed);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTtlMs;
+        rings.forEach((user, userRing) -> {
+            synchronized (userRing.ring) {
+                if (userRing.lastUsedMs >= cutoff) {
+                    return;
+                }
+                userRing.evicted = true;
+                evictedHighWater.accumulateAndGet(userRing.ring.lastSeq(), Math::max);
+                rings.remove(user, userRing);
+            }
+        });
+    }
+
+    // Microseconds since the epoch, and never below what an evicted ring already used
+    private long nextBaseSeq() {
+        return Math.max(System.currentTimeMillis() * 1_000, evictedHighWater.get());
+    }
+}
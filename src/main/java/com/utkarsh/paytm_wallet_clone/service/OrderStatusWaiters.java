@@ -0,0 +1,88 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.OrderStatusResponse;
+import com.utkarsh.paytm_wallet_clone.event.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Held {@code GET /orders/{id}/status?wait=} requests.
+ *
+ * A waiter is a {@link DeferredResult} parked against the order id — no
+ * thread is held while it waits. When the webhook marks the order paid the
+ * waiters are completed right after commit; otherwise they complete with the
+ * then-current status when the wait runs out.
+ */
+@Service
+public class OrderStatusWaiters {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusWaiters.class);
+
+    private record Waiter(DeferredResult<OrderStatusResponse> result, Supplier<OrderStatusResponse> status) {
+    }
+
+    private final ConcurrentHashMap<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Parks a request until {@code orderId} changes status or {@code wait}
+     * elapses, then answers with {@code status.get()}.
+     */
+    public DeferredResult<OrderStatusResponse> await(String orderId, Duration wait,
+                                                     Supplier<OrderStatusResponse> status) {
+        DeferredResult<OrderStatusResponse> result = new DeferredResult<>(wait.toMillis());
+        Waiter waiter = new Waiter(result, status);
+
+        result.onTimeout(() -> complete(waiter));
+        result.onError(e -> remove(orderId, waiter));
+        result.onCompletion(() -> remove(orderId, waiter));
+
+        waiters.computeIfAbsent(orderId, key -> ConcurrentHashMap.newKeySet()).add(waiter);
+
+        // The webhook may have committed between the caller's read and registration
+        OrderStatusResponse current = status.get();
+        if (!"CREATED".equals(current.getStatus())) {
+            result.setResult(current);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        Set<Waiter> parked = waiters.remove(event.razorpayOrderId());
+        if (parked == null) {
+            return;
+        }
+        log.debug("Waking {} waiters on order {}", parked.size(), event.razorpayOrderId());
+        parked.forEach(this::complete);
+    }
+
+    public int getWaiting() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void complete(Waiter waiter) {
+        if (waiter.result().isSetOrExpired()) {
+            return;
+        }
+        try {
+            waiter.result().setResult(waiter.status().get());
+        } catch (Exception e) {
+            waiter.result().setErrorResult(e);
+        }
+    }
+
+    private void remove(String orderId, Waiter waiter) {
+        waiters.computeIfPresent(orderId, (key, parked) -> {
+            parked.remove(waiter);
+            return parked.isEmpty() ? null : parked;
+        });
+    }
+}
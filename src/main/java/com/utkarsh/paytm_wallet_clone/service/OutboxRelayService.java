@@ -0,0 +1,108 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.event.NotificationQueuedEvent;
+import com.utkarsh.paytm_wallet_clone.model.NotificationOutbox;
+import com.utkarsh.paytm_wallet_clone.repository.NotificationOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the notification outbox onto the STOMP broker.
+ *
+ * A drain is requested after every committing transaction that queued a
+ * notification, so messaging work starts only once wallet row locks are
+ * released. Requests are coalesced onto one relay thread; each batch is
+ * locked, sent and deleted in its own short transaction. A periodic poll
+ * picks up anything left behind by a crash or a failed batch.
+ */
+@Service
+public class OutboxRelayService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final WebSocketService webSocketService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ExecutorService relay = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "outbox-relay"));
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    public OutboxRelayService(NotificationOutboxRepository outboxRepository,
+                              WebSocketService webSocketService,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${wallet.outbox.batch-size:200}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.webSocketService = webSocketService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationQueued(NotificationQueuedEvent event) {
+        requestDrain();
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.outbox.poll-ms:5000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            relay.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Cleared before reading so a commit landing mid-drain schedules another pass
+        drainRequested.set(false);
+        try {
+            int delivered = 0;
+            int batch;
+            do {
+                batch = drainBatch();
+                delivered += batch;
+            } while (batch == batchSize);
+
+            if (delivered > 0) {
+                log.debug("🔔 Outbox relay delivered {} notifications", delivered);
+            }
+        } catch (Exception e) {
+            // Undelivered rows stay in the outbox and go out on the next poll
+            log.error("❌ Outbox relay batch failed", e);
+        }
+    }
+
+    private int drainBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<NotificationOutbox> rows = outboxRepository.lockNextBatch(batchSize);
+            for (NotificationOutbox row : rows) {
+                webSocketService.sendBalanceUpdate(row.getUserEmail(), row.getType(), row.getNewBalance(),
+                        row.getAmount(), row.getFromUser(), row.getMessage());
+            }
+            if (!rows.isEmpty()) {
+                outboxRepository.deleteByIds(rows.stream().map(NotificationOutbox::getId).toList());
+            }
+            return rows.size();
+        });
+        return sent != null ? sent : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relay.shutdown();
+    }
+}
@@ -0,0 +1,260 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.ReconcileCandidate;
+import com.utkarsh.paytm_wallet_clone.dto.response.ReconciliationSummaryDTO;
+import com.utkarsh.paytm_wallet_clone.event.OrdersDueForExpiryEvent;
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
+import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Catches payments whose webhook never arrived.
+ *
+ * Each run walks CREATED orders older than {@code stale-after} in keyset
+ * pages and asks the gateway for each order's payments, at most
+ * {@code parallelism} lookups at a time. A captured payment is settled
+ * through {@link PaymentService#handlePaymentSuccess}, the same idempotent
+ * path the webhook uses, so a webhook landing mid-run can't double-credit.
+ *
+ * A run stops after {@code max-orders-per-run}; the next one resumes after
+ * the last order checked and wraps around at the end, so every stale order
+ * is reached in turn. Orders whose expiry TTL runs out get one more check
+ * here ({@link OrdersDueForExpiryEvent}) and are only failed if still
+ * unpaid; if the gateway can't answer, expiry is retried later.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private enum Outcome { SETTLED, ALREADY_SETTLED, UNPAID, ERROR }
+
+    private final PaymentGateway paymentGateway;
+    private final RazorpayOrderRepository razorpayOrderRepository;
+    private final PaymentService paymentService;
+    private final ExpiryService expiryService;
+    private final Duration staleAfter;
+    private final int pageSize;
+    private final int maxOrdersPerRun;
+    private final Duration expiryRetry;
+
+    private final ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long resumeAfterId;   // where the next run picks up; 0 = from the start
+    private volatile ReconciliationSummaryDTO lastSummary;
+
+    public PaymentReconciliationService(PaymentGateway paymentGateway,
+                                        RazorpayOrderRepository razorpayOrderRepository,
+                                        PaymentService paymentService,
+                                        ExpiryService expiryService,
+                                        @Value("${wallet.payment.reconcile.stale-after:15m}") Duration staleAfter,
+                                        @Value("${wallet.payment.reconcile.page-size:200}") int pageSize,
+                                        @Value("${wallet.payment.reconcile.parallelism:8}") int parallelism,
+                                        @Value("${wallet.payment.reconcile.max-orders-per-run:10000}") int maxOrdersPerRun,
+                                        @Value("${wallet.payment.reconcile.expiry-retry:5m}") Duration expiryRetry) {
+        this.paymentGateway = paymentGateway;
+        this.razorpayOrderRepository = razorpayOrderRepository;
+        this.paymentService = paymentService;
+        this.expiryService = expiryService;
+        this.staleAfter = staleAfter;
+        this.pageSize = pageSize;
+        this.maxOrdersPerRun = maxOrdersPerRun;
+        this.expiryRetry = expiryRetry;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "reconcile-" + threadIndex.getAndIncrement()));
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.payment.reconcile.interval-ms:300000}",
+            initialDelayString = "${wallet.payment.reconcile.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        reconcile();
+    }
+
+    /** Runs one pass now; empty if a pass is already in progress on this node. */
+    public Optional<ReconciliationSummaryDTO> reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            ReconciliationSummaryDTO summary = run();
+            lastSummary = summary;
+            return Optional.of(summary);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<ReconciliationSummaryDTO> getLastSummary() {
+        return Optional.ofNullable(lastSummary);
+    }
+
+    private ReconciliationSummaryDTO run() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startedNanos = System.nanoTime();
+        LocalDateTime createdBefore = startedAt.minus(staleAfter);
+        int[] counts = new int[Outcome.values().length];
+        int checked = 0;
+        boolean aborted = false;
+
+        // First lap: from where the last run stopped to the end. Second lap: from the start back to there
+        long startAfterId = resumeAfterId;
+        long afterId = startAfterId;
+        boolean secondLap = false;
+        while (checked < maxOrdersPerRun) {
+            int limit = Math.min(pageSize, maxOrdersPerRun - checked);
+            List<ReconcileCandidate> page = razorpayOrderRepository.findReconcileCandidates(
+                    RazorpayOrder.RazorpayOrderStatus.CREATED, afterId, createdBefore, PageRequest.of(0, limit));
+            boolean endOfLap = page.size() < limit;
+            if (secondLap) {
+                List<ReconcileCandidate> unseen = page.stream()
+                        .filter(candidate -> candidate.id() <= startAfterId)
+                        .toList();
+                endOfLap |= unseen.size() < page.size();
+                page = unseen;
+            }
+
+            if (!page.isEmpty()) {
+                List<CompletableFuture<Outcome>> lookups = page.stream()
+                        .map(candidate -> CompletableFuture.supplyAsync(() -> reconcileOne(candidate), workers))
+                        .toList();
+                int pageErrors = 0;
+                for (CompletableFuture<Outcome> lookup : lookups) {
+                    Outcome outcome = lookup.join();
+                    counts[outcome.ordinal()]++;
+                    if (outcome == Outcome.ERROR) {
+                        pageErrors++;
+                    }
+                }
+                checked += page.size();
+
+                // Nothing got through — the gateway is down or the breaker is open; retry this page next run
+                if (pageErrors == page.size()) {
+                    aborted = true;
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+
+            if (endOfLap) {
+                if (secondLap || startAfterId == 0) {
+                    afterId = 0;   // every stale order has been seen; start over next run
+                    break;
+                }
+                secondLap = true;
+                afterId = 0;
+            }
+        }
+        resumeAfterId = afterId;
+
+        ReconciliationSummaryDTO summary = new ReconciliationSummaryDTO(startedAt,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos), checked,
+                counts[Outcome.SETTLED.ordinal()], counts[Outcome.ALREADY_SETTLED.ordinal()],
+                counts[Outcome.UNPAID.ordinal()], counts[Outcome.ERROR.ordinal()], aborted);
+        if (summary.getSettled() > 0 || summary.getErrors() > 0) {
+            log.warn("🔎 Reconciliation: checked {}, settled {} missed payments, {} already settled, {} unpaid, {} errors{} ({} ms)",
+                    checked, summary.getSettled(), summary.getAlreadySettled(), summary.getUnpaid(),
+                    summary.getErrors(), aborted ? ", aborted" : "", summary.getDurationMs());
+        } else if (checked > 0) {
+            log.info("🔎 Reconciliation: checked {} stale orders, none paid ({} ms)", checked, summary.getDurationMs());
+        }
+        return summary;
+    }
+
+    // ─── Last check before expiry ─────────────────────────────────────────────
+
+    @EventListener
+    public void onOrdersDueForExpiry(OrdersDueForExpiryEvent event) {
+        List<ReconcileCandidate> due = razorpayOrderRepository.findReconcileCandidatesByIds(
+                event.orderIds(), RazorpayOrder.RazorpayOrderStatus.CREATED);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Lookups run on the workers; the expiry tick only queues them
+        List<CompletableFuture<Outcome>> lookups = due.stream()
+                .map(candidate -> CompletableFuture.supplyAsync(() -> reconcileOne(candidate), workers))
+                .toList();
+        CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                .thenRun(() -> finishExpiry(due, lookups, event));
+    }
+
+    private void finishExpiry(List<ReconcileCandidate> due, List<CompletableFuture<Outcome>> lookups,
+                              OrdersDueForExpiryEvent event) {
+        List<Long> unpaid = new ArrayList<>();
+        List<Long> unchecked = new ArrayList<>();
+        for (int i = 0; i < due.size(); i++) {
+            Outcome outcome = lookups.get(i).join();
+            if (outcome == Outcome.UNPAID) {
+                unpaid.add(due.get(i).id());
+            } else if (outcome == Outcome.ERROR) {
+                unchecked.add(due.get(i).id());
+            }
+        }
+
+        try {
+            int failed = expiryService.failOrders(unpaid, event.createdBefore());
+            expiryService.deferOrders(unchecked, expiryRetry);
+            if (failed > 0 || !unchecked.isEmpty()) {
+                log.info("⏰ Expired {} unpaid orders{}", failed,
+                        unchecked.isEmpty() ? "" : ", " + unchecked.size() + " deferred (gateway check failed)");
+            }
+        } catch (Exception e) {
+            // Rows stay CREATED and are picked up again by the next startup scan
+            log.error("❌ Order expiry batch failed", e);
+        }
+    }
+
+    private Outcome reconcileOne(ReconcileCandidate candidate) {
+        String orderId = candidate.razorpayOrderId();
+        try {
+            Optional<PaymentGateway.GatewayPayment> captured = paymentGateway.fetchPayments(orderId).stream()
+                    .filter(PaymentGateway.GatewayPayment::isCaptured)
+                    .findFirst();
+            if (captured.isEmpty()) {
+                return Outcome.UNPAID;
+            }
+            PaymentGateway.GatewayPayment payment = captured.get();
+            boolean credited = paymentService.handlePaymentSuccess(
+                    orderId, payment.id(), Math.toIntExact(payment.amountPaise()));
+            if (credited) {
+                log.info("🔎 Settled missed payment {} for order {}", payment.id(), orderId);
+            }
+            return credited ? Outcome.SETTLED : Outcome.ALREADY_SETTLED;
+        } catch (PaymentGatewayException e) {
+            log.debug("Reconciliation lookup for {} failed: {}", orderId, e.getMessage());
+            return Outcome.ERROR;
+        } catch (Exception e) {
+            // Typically a concurrent webhook won the unique payment_id race — next run sees it PAID
+            log.warn("⚠️ Reconciliation of order {} failed: {}", orderId, e.getMessage());
+            return Outcome.ERROR;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -1,22 +1,26 @@
 package com.utkarsh.paytm_wallet_clone.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
 import com.utkarsh.paytm_wallet_clone.dto.request.CreateOrderRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.OrderStatusResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.PaymentOrderResponse;
+import com.utkarsh.paytm_wallet_clone.event.OrderStatusChangedEvent;
+import com.utkarsh.paytm_wallet_clone.exception.OrderNotFoundException;
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
 import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
 import com.utkarsh.paytm_wallet_clone.model.User;
 import com.utkarsh.paytm_wallet_clone.model.Wallet;
 import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
@@ -24,78 +28,135 @@ public class PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
-    private final RazorpayClient razorpayClient;
+    private final PaymentGateway paymentGateway;
     private final RazorpayOrderRepository razorpayOrderRepository;
     private final WalletService walletService;
     private final TransactionService transactionService;
     private final WebSocketService webSocketService;  // ← ADD THIS
+    private final ExpiryService expiryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${razorpay.key-id}")
     private String keyId;
 
-    public PaymentService(RazorpayClient razorpayClient,
+    @Value("${wallet.payment.initiating-timeout:2m}")
+    private Duration initiatingTimeout;
+
+    public PaymentService(PaymentGateway paymentGateway,
                           RazorpayOrderRepository razorpayOrderRepository,
                           WalletService walletService,
                           TransactionService transactionService,
-                          WebSocketService webSocketService) {  // ← ADD THIS
-        this.razorpayClient = razorpayClient;
+                          WebSocketService webSocketService,  // ← ADD THIS
+                          ExpiryService expiryService,
+                          ApplicationEventPublisher eventPublisher) {
+        this.paymentGateway = paymentGateway;
         this.razorpayOrderRepository = razorpayOrderRepository;
         this.walletService = walletService;
         this.transactionService = transactionService;
         this.webSocketService = webSocketService;  // ← ADD THIS
+        this.expiryService = expiryService;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
-    public PaymentOrderResponse createOrder(CreateOrderRequest request, User user)
-            throws RazorpayException {
+    /**
+     * Creates an add-money order in three steps so no DB connection is held
+     * while the gateway is called: insert an INITIATING row, create the
+     * gateway order outside any transaction, then record its id as CREATED.
+     * A failed or rejected gateway call marks the row FAILED.
+     */
+    public PaymentOrderResponse createOrder(CreateOrderRequest request, User user) {
 
         BigDecimal amount = request.getAmount();
-        int amountInPaise = amount.multiply(BigDecimal.valueOf(100)).intValue();
+        long amountInPaise = amount.multiply(BigDecimal.valueOf(100)).longValue();
         String receipt = "receipt_" + user.getId() + "_" + System.currentTimeMillis();
 
         log.info("Creating Razorpay order for user {} | Amount: ₹{}", user.getEmail(), amount);
 
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amountInPaise);
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", receipt);
-        orderRequest.put("payment_capture", 1);
-
-        Order razorpayOrder = razorpayClient.orders.create(orderRequest);
-        String razorpayOrderId = razorpayOrder.get("id");
-
+        // 1. Local row first — short transaction of its own
         RazorpayOrder dbOrder = new RazorpayOrder();
-        dbOrder.setRazorpayOrderId(razorpayOrderId);
         dbOrder.setUser(user);
         dbOrder.setAmount(amount);
         dbOrder.setCurrency("INR");
         dbOrder.setReceipt(receipt);
-        dbOrder.setStatus(RazorpayOrder.RazorpayOrderStatus.CREATED);
+        dbOrder.setStatus(RazorpayOrder.RazorpayOrderStatus.INITIATING);
         razorpayOrderRepository.save(dbOrder);
 
-        log.info("Razorpay order created: {} | User: {}", razorpayOrderId, user.getEmail());
+        // 2. Gateway call — no transaction, bounded by timeouts and the circuit breaker
+        PaymentGateway.GatewayOrder gatewayOrder;
+        try {
+            gatewayOrder = paymentGateway.createOrder(amountInPaise, "INR", receipt);
+        } catch (PaymentGatewayException e) {
+            razorpayOrderRepository.transition(dbOrder.getId(),
+                    RazorpayOrder.RazorpayOrderStatus.INITIATING, RazorpayOrder.RazorpayOrderStatus.FAILED);
+            log.warn("❌ Razorpay order creation failed for user {}: {}", user.getEmail(), e.getMessage());
+            throw e;
+        }
+
+        // 3. Finalize
+        int finalized = razorpayOrderRepository.finalizeOrder(dbOrder.getId(), gatewayOrder.id(),
+                RazorpayOrder.RazorpayOrderStatus.INITIATING, RazorpayOrder.RazorpayOrderStatus.CREATED);
+        if (finalized == 0) {
+            // The stale-INITIATING sweep already failed it; the gateway order simply goes unpaid
+            throw new PaymentGatewayException("Payment gateway took too long, please try again");
+        }
+        expiryService.registerOrder(dbOrder.getId(), dbOrder.getCreatedAt());
+
+        log.info("Razorpay order created: {} | User: {}", gatewayOrder.id(), user.getEmail());
 
         return new PaymentOrderResponse(
-                razorpayOrderId, amount, "INR", receipt, "CREATED", keyId);
+                gatewayOrder.id(), amount, "INR", receipt, "CREATED", keyId);
     }
 
+    // Rows left INITIATING by a crash between insert and finalize
+    @Scheduled(fixedDelayString = "${wallet.payment.initiating-sweep-ms:60000}")
+    public void failStaleInitiatingOrders() {
+        int failed = razorpayOrderRepository.transitionCreatedBefore(
+                RazorpayOrder.RazorpayOrderStatus.INITIATING, RazorpayOrder.RazorpayOrderStatus.FAILED,
+                LocalDateTime.now().minus(initiatingTimeout));
+        if (failed > 0) {
+            log.warn("⚠️ Marked {} orders FAILED that never got a gateway order id", failed);
+        }
+    }
+
+    /**
+     * Current status of one of {@code user}'s orders
+     */
+    @Transactional(readOnly = true)
+    public OrderStatusResponse getOrderStatus(String razorpayOrderId, User user) {
+        RazorpayOrder order = razorpayOrderRepository.findByRazorpayOrderId(razorpayOrderId)
+                .filter(o -> o.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + razorpayOrderId));
+
+        return new OrderStatusResponse(order.getRazorpayOrderId(), order.getStatus().name(),
+                order.getAmount(), order.getPaidAt());
+    }
+
+    /**
+     * Credits the wallet for a captured payment. Safe to call more than once
+     * for the same payment — from the webhook and from reconciliation; only
+     * the first call credits. The order row is locked, so a concurrent second
+     * call waits for the first to commit and then sees the payment id already set.
+     *
+     * @return true if this call credited the wallet
+     */
     @Transactional
-    public void handlePaymentSuccess(String razorpayOrderId, String paymentId, int amountInPaise) {
+    public boolean handlePaymentSuccess(String razorpayOrderId, String paymentId, int amountInPaise) {
 
         log.info("🔔 Webhook received: Payment {} for order {}", paymentId, razorpayOrderId);
 
-        RazorpayOrder order = razorpayOrderRepository.findByRazorpayOrderId(razorpayOrderId)
+        RazorpayOrder order = razorpayOrderRepository.findByRazorpayOrderIdForUpdate(razorpayOrderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         if (order.getRazorpayPaymentId() != null) {
             log.warn("⚠️ Payment already processed: {}", paymentId);
-            return;
+            return false;
         }
 
         order.setRazorpayPaymentId(paymentId);
         order.setStatus(RazorpayOrder.RazorpayOrderStatus.PAID);
         order.setPaidAt(LocalDateTime.now());
         razorpayOrderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(razorpayOrderId));
 
         BigDecimal amountInRupees = BigDecimal.valueOf(amountInPaise).divide(BigDecimal.valueOf(100));
         User user = order.getUser();
@@ -110,19 +171,16 @@ public class PaymentService {
 
         transactionService.recordCredit(wallet, amountInRupees, "Razorpay payment: " + paymentId);
 
-        // ========== SEND WEBSOCKET NOTIFICATION ==========
+        // ========== QUEUE WEBSOCKET NOTIFICATION ==========
+        // Written to the outbox in this transaction; relayed only after commit
 
-        try {
-            webSocketService.notifyPaymentReceived(
-                    user.getEmail(),
-                    amountInRupees,
-                    newBalance
-            );
-            log.info("🔔 Sent WebSocket to user: {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("❌ Failed to send WebSocket notification", e);
-        }
+        webSocketService.notifyPaymentReceived(
+                user.getEmail(),
+                amountInRupees,
+                newBalance
+        );
 
         log.info("✅ Payment processed: {} | User: {}", paymentId, user.getEmail());
+        return true;
     }
 }
\ No newline at end of file
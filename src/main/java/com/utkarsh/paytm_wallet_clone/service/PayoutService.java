@@ -0,0 +1,318 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.PayoutCycleDTO;
+import com.utkarsh.paytm_wallet_clone.util.PayoutFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-of-cycle settlement of withdrawals.
+ *
+ * Posting: PENDING withdrawals are claimed {@code chunk-size} at a time with
+ * {@code FOR UPDATE SKIP LOCKED}. Per chunk and in one transaction, the
+ * affected wallets are locked in a single statement, each wallet's balance,
+ * hold and ledger sequence move once by its chunk total, the DEBIT ledger
+ * rows are batch-inserted and the withdrawals are marked SETTLED with the
+ * cycle's batch id. Nothing is locked per request. A wallet whose balance or
+ * hold no longer covers its withdrawals has them marked ERROR and the hold
+ * released, and the rest of the chunk settles without it.
+ *
+ * File: once posting is done, the cycle's rows are streamed by keyset into a
+ * fixed-width payout file ({@link PayoutFileWriter}). The file is rebuilt
+ * from the database alone, so a crash between the two steps is repaired with
+ * {@link #regenerateFile}.
+ */
+@Service
+public class PayoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayoutService.class);
+
+    private static final DateTimeFormatter BATCH_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private static final String CLAIM_PENDING =
+            "SELECT id, wallet_id, amount, account_number FROM withdrawals " +
+            "WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String LOCK_WALLETS =
+            "SELECT id, balance, held_amount, ledger_seq FROM wallets WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String DEBIT_WALLET =
+            "UPDATE wallets SET balance = balance - :total, held_amount = held_amount - :total, " +
+            "ledger_seq = ledger_seq + :count, version = version + 1, updated_at = :now WHERE id = :walletId";
+    private static final String INSERT_DEBIT =
+            "INSERT INTO transactions (txn_ref, sender_wallet_id, sender_seq, amount, type, status, description, created_at) " +
+            "VALUES (:txnRef, :walletId, :seq, :amount, 'DEBIT', 'SUCCESS', :description, :now)";
+    private static final String MARK_SETTLED =
+            "UPDATE withdrawals SET status = 'SETTLED', batch_id = :batchId, txn_ref = :txnRef, settled_at = :now " +
+            "WHERE id = :id";
+    private static final String MARK_ERROR =
+            "UPDATE withdrawals SET status = 'ERROR' WHERE id IN (:ids)";
+    private static final String RELEASE_HOLD =
+            "UPDATE wallets SET held_amount = held_amount - LEAST(held_amount, :total), " +
+            "version = version + 1, updated_at = :now WHERE id = :walletId";
+    private static final String BATCH_PAGE =
+            "SELECT id, account_number, ifsc, account_holder, amount FROM withdrawals " +
+            "WHERE batch_id = :batchId AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private record Claimed(long id, long walletId, BigDecimal amount, String accountNumber) {
+    }
+
+    // claimed drives the loop (a full chunk means more may be waiting); settled excludes rows marked ERROR
+    private record ChunkResult(int claimed, int settled) {
+        static final ChunkResult EMPTY = new ChunkResult(0, 0);
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final Path outputDir;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile PayoutCycleDTO lastCycle;
+
+    public PayoutService(NamedParameterJdbcTemplate jdbc,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${wallet.withdrawal.payout-dir:payouts}") String outputDir,
+                         @Value("${wallet.withdrawal.chunk-size:1000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.outputDir = Path.of(outputDir);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${wallet.withdrawal.payout-cron:0 0 18 * * *}")
+    public void scheduledCycle() {
+        runCycle();
+    }
+
+    /** Settles every PENDING withdrawal now; empty if a cycle is already running on this node. */
+    public Optional<PayoutCycleDTO> runCycle() {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            PayoutCycleDTO cycle = cycle();
+            lastCycle = cycle;
+            return Optional.of(cycle);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<PayoutCycleDTO> getLastCycle() {
+        return Optional.ofNullable(lastCycle);
+    }
+
+    private PayoutCycleDTO cycle() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Nodes running the same cron each settle what they claimed, under their own batch id
+        String batchId = "PO" + BATCH_TIME.format(startedAt) + "-"
+                + Integer.toHexString(ThreadLocalRandom.current().nextInt(0x1000, 0x10000));
+
+        long postingStarted = System.nanoTime();
+        long posted = 0;
+        while (true) {
+            ChunkResult chunk = settleChunkWithRetry(batchId);
+            posted += chunk.settled();
+            if (chunk.claimed() < chunkSize) {
+                break;
+            }
+        }
+        long postingMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postingStarted);
+
+        if (posted == 0) {
+            log.info("🏧 Payout cycle: no withdrawals settled");
+            return new PayoutCycleDTO(batchId, startedAt, 0, BigDecimal.ZERO, null, postingMs, 0);
+        }
+
+        long fileStarted = System.nanoTime();
+        PayoutCycleDTO file = regenerateFile(batchId);
+        long fileMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fileStarted);
+
+        log.info("🏧 Payout cycle {}: {} withdrawals, ₹{} → {} (posting {} ms, file {} ms)",
+                batchId, file.getSettled(), file.getTotalAmount(), file.getFile(), postingMs, fileMs);
+        return new PayoutCycleDTO(batchId, startedAt, file.getSettled(), file.getTotalAmount(),
+                file.getFile(), postingMs, fileMs);
+    }
+
+    // ─── Posting ──────────────────────────────────────────────────────────────
+
+    // Deadlocks with concurrent transfers are possible on the wallet locks; the chunk simply runs again
+    private ChunkResult settleChunkWithRetry(String batchId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ChunkResult chunk = transactionTemplate.execute(status -> settleChunk(batchId));
+                return chunk != null ? chunk : ChunkResult.EMPTY;
+            } catch (TransientDataAccessException e) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Payout chunk for {} hit {}, retrying", batchId, e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private ChunkResult settleChunk(String batchId) {
+        List<Claimed> claimed = jdbc.query(CLAIM_PENDING, Map.of("limit", chunkSize),
+                (rs, row) -> new Claimed(rs.getLong("id"), rs.getLong("wallet_id"),
+                        rs.getBigDecimal("amount"), rs.getString("account_number")));
+        if (claimed.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+
+        Map<Long, List<Claimed>> byWallet = new LinkedHashMap<>();
+        for (Claimed withdrawal : claimed) {
+            byWallet.computeIfAbsent(withdrawal.walletId(), key -> new ArrayList<>()).add(withdrawal);
+        }
+
+        // One statement locks every wallet in the chunk, in id order
+        Map<Long, Long> ledgerSeqs = new HashMap<>();
+        jdbc.query(LOCK_WALLETS, Map.of("ids", byWallet.keySet()), rs -> {
+            long walletId = rs.getLong("id");
+            BigDecimal total = total(byWallet.get(walletId));
+            if (rs.getBigDecimal("held_amount").compareTo(total) >= 0 && rs.getBigDecimal("balance").compareTo(total) >= 0) {
+                ledgerSeqs.put(walletId, rs.getLong("ledger_seq"));
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        quarantineUncovered(byWallet, ledgerSeqs, now);
+        if (byWallet.isEmpty()) {
+            return new ChunkResult(claimed.size(), 0);
+        }
+
+        List<SqlParameterSource> wallets = new ArrayList<>(byWallet.size());
+        List<SqlParameterSource> debits = new ArrayList<>(claimed.size());
+        List<SqlParameterSource> settled = new ArrayList<>(claimed.size());
+        byWallet.forEach((walletId, withdrawals) -> {
+            wallets.add(new MapSqlParameterSource()
+                    .addValue("walletId", walletId)
+                    .addValue("total", total(withdrawals))
+                    .addValue("count", withdrawals.size())
+                    .addValue("now", now));
+            long seq = ledgerSeqs.get(walletId);
+            for (Claimed withdrawal : withdrawals) {
+                String txnRef = UUID.randomUUID().toString();
+                String account = withdrawal.accountNumber();
+                debits.add(new MapSqlParameterSource()
+                        .addValue("txnRef", txnRef)
+                        .addValue("walletId", walletId)
+                        .addValue("seq", ++seq)
+                        .addValue("amount", withdrawal.amount())
+                        .addValue("description", "Withdrawal to bank XXXX" + account.substring(account.length() - 4))
+                        .addValue("now", now));
+                settled.add(new MapSqlParameterSource()
+                        .addValue("id", withdrawal.id())
+                        .addValue("batchId", batchId)
+                        .addValue("txnRef", txnRef)
+                        .addValue("now", now));
+            }
+        });
+
+        jdbc.batchUpdate(DEBIT_WALLET, wallets.toArray(SqlParameterSource[]::new));
+        jdbc.batchUpdate(INSERT_DEBIT, debits.toArray(SqlParameterSource[]::new));
+        jdbc.batchUpdate(MARK_SETTLED, settled.toArray(SqlParameterSource[]::new));
+        return new ChunkResult(claimed.size(), settled.size());
+    }
+
+    // One bad wallet must not roll back the chunk, or every later cycle would claim and fail it again
+    private void quarantineUncovered(Map<Long, List<Claimed>> byWallet, Map<Long, Long> ledgerSeqs, LocalDateTime now) {
+        Iterator<Map.Entry<Long, List<Claimed>>> uncovered = byWallet.entrySet().iterator();
+        while (uncovered.hasNext()) {
+            Map.Entry<Long, List<Claimed>> entry = uncovered.next();
+            if (ledgerSeqs.containsKey(entry.getKey())) {
+                continue;
+            }
+            List<Long> ids = entry.getValue().stream().map(Claimed::id).toList();
+            BigDecimal total = total(entry.getValue());
+            jdbc.update(MARK_ERROR, Map.of("ids", ids));
+            jdbc.update(RELEASE_HOLD, new MapSqlParameterSource()
+                    .addValue("walletId", entry.getKey())
+                    .addValue("total", total)
+                    .addValue("now", now));
+            log.error("❌ Wallet {} holds less than its pending withdrawals (₹{}); withdrawals {} marked ERROR",
+                    entry.getKey(), total, ids);
+            uncovered.remove();
+        }
+    }
+
+    private static BigDecimal total(List<Claimed> withdrawals) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Claimed withdrawal : withdrawals) {
+            total = total.add(withdrawal.amount());
+        }
+        return total;
+    }
+
+    // ─── Payout file ──────────────────────────────────────────────────────────
+
+    /** (Re)writes the payout file for {@code batchId} from the settled rows. */
+    public PayoutCycleDTO regenerateFile(String batchId) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(outputDir);
+            Path target = outputDir.resolve(batchId + ".txt");
+            try (PayoutFileWriter writer = new PayoutFileWriter(target, batchId, startedAt.toLocalDate())) {
+                long afterId = 0;
+                while (true) {
+                    MapSqlParameterSource params = new MapSqlParameterSource()
+                            .addValue("batchId", batchId)
+                            .addValue("afterId", afterId)
+                            .addValue("limit", chunkSize);
+                    long[] lastId = {-1};
+                    jdbc.query(BATCH_PAGE, params, rs -> {
+                        try {
+                            writer.record(rs.getString("account_number"), rs.getString("ifsc"),
+                                    rs.getString("account_holder"),
+                                    rs.getBigDecimal("amount").movePointRight(2).longValueExact(),
+                                    "WD" + rs.getLong("id"));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        lastId[0] = rs.getLong("id");
+                    });
+                    if (lastId[0] < 0) {
+                        break;
+                    }
+                    afterId = lastId[0];
+                }
+                if (writer.count() == 0) {
+                    throw new IllegalArgumentException("No settled withdrawals in batch " + batchId);
+                }
+                writer.finish();
+                return new PayoutCycleDTO(batchId, startedAt, writer.count(),
+                        BigDecimal.valueOf(writer.totalPaise(), 2), target.toString(), 0,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write payout file for " + batchId, e);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import com.utkarsh.paytm_wallet_clone.exception.TooManyRequestsException;
+import com.utkarsh.paytm_wallet_clone.util.UserPrefixIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * As-you-type recipient suggestions by phone or name prefix.
+ *
+ * Reads hit an immutable {@link UserPrefixIndex} snapshot (binary searches
+ * over primitive arrays) plus a small skip-list delta holding registrations
+ * since the snapshot was built. Once the delta grows past a threshold it is
+ * merged into a fresh snapshot on a background thread and swapped in.
+ *
+ * Name matches only carry the last four digits of the phone, so typing name
+ * prefixes can't be used to harvest numbers; short queries return nothing and
+ * each user gets {@code requests-per-minute} lookups.
+ */
+@Service
+public class RecipientSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipientSuggestionService.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MAX_LIMIT = 20;
+    // Upper bound on candidates examined for multi-word queries, keeps p99 flat
+    private static final int MAX_SCAN = 2_000;
+    // Below these a query matches too much of the user base to be a real search
+    private static final int MIN_PHONE_DIGITS = 4;
+    private static final int MIN_NAME_CHARS = 3;
+    private static final long WINDOW_MS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int mergeThreshold;
+    private final int requestsPerMinute;
+
+    private volatile UserPrefixIndex snapshot = UserPrefixIndex.empty();
+    private final ConcurrentSkipListMap<Long, String> phoneDelta = new ConcurrentSkipListMap<>();
+    // key = token + '\0' + phone, so a token prefix is a contiguous key range
+    private final ConcurrentSkipListMap<String, Long> tokenDelta = new ConcurrentSkipListMap<>();
+
+    private final ExecutorService merger = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "suggestion-index-merge"));
+    private final AtomicBoolean merging = new AtomicBoolean();
+
+    // user → {window start, requests in window}
+    private final ConcurrentHashMap<String, long[]> requestWindows = new ConcurrentHashMap<>();
+
+    public RecipientSuggestionService(JdbcTemplate jdbcTemplate,
+                                      @Value("${wallet.suggest.merge-threshold:50000}") int mergeThreshold,
+                                      @Value("${wallet.suggest.requests-per-minute:60}") int requestsPerMinute) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mergeThreshold = mergeThreshold;
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    // ─── Load / maintain ──────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        UserPrefixIndex.Builder builder = new UserPrefixIndex.Builder();
+
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = new ArrayList<>(LOAD_PAGE_SIZE);
+            jdbcTemplate.query("SELECT id, phone, name FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        ids.add(rs.getLong(1));
+                        long phone = parsePhone(rs.getString(2));
+                        if (phone > 0) {
+                            builder.add(phone, rs.getString(3));
+                        }
+                    },
+                    lastId, LOAD_PAGE_SIZE);
+            if (ids.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        snapshot = builder.build();
+        log.info("🔎 Recipient suggestion index loaded: {} users in {} ms",
+                snapshot.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        long phone = parsePhone(event.phone());
+        if (phone <= 0) {
+            return;
+        }
+        phoneDelta.put(phone, event.name());
+        for (String token : UserPrefixIndex.tokenize(event.name())) {
+            tokenDelta.put(token + '\0' + phone, phone);
+        }
+
+        if (phoneDelta.size() >= mergeThreshold && merging.compareAndSet(false, true)) {
+            merger.submit(this::mergeDelta);
+        }
+    }
+
+    private void mergeDelta() {
+        try {
+            Map<Long, String> merged = Map.copyOf(phoneDelta);
+            UserPrefixIndex.Builder builder = new UserPrefixIndex.Builder().addAll(snapshot);
+            merged.forEach(builder::add);
+            snapshot = builder.build();
+
+            // Only drop what made it into the snapshot; registrations during the merge stay in the delta
+            merged.forEach((phone, name) -> {
+                phoneDelta.remove(phone, name);
+                for (String token : UserPrefixIndex.tokenize(name)) {
+                    tokenDelta.remove(token + '\0' + phone);
+                }
+            });
+            log.info("🔎 Merged {} registrations into suggestion index ({} users)", merged.size(), snapshot.size());
+        } catch (Exception e) {
+            log.error("❌ Suggestion index merge failed", e);
+        } finally {
+            merging.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelay = WINDOW_MS)
+    public void evictRequestWindows() {
+        long cutoff = System.currentTimeMillis() - WINDOW_MS;
+        requestWindows.values().removeIf(window -> window[0] < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        merger.shutdownNow();
+    }
+
+    // ─── Query ────────────────────────────────────────────────────────────────
+
+    public List<UserLookupDTO> suggest(String requester, String query, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        checkRate(requester);
+
+        String digits = phoneDigits(query);
+        if (digits != null) {
+            return digits.length() < MIN_PHONE_DIGITS ? List.of() : suggestByPhone(digits, max);
+        }
+
+        List<String> tokens = UserPrefixIndex.tokenize(query);
+        if (tokens.isEmpty() || tokens.get(0).length() < MIN_NAME_CHARS) {
+            return List.of();
+        }
+        return suggestByName(tokens, max);
+    }
+
+    // Digits of a phone query with any +91 country code or 0 trunk prefix removed; null for a name query
+    static String phoneDigits(String query) {
+        String digits = query.strip().replaceAll("[\\s-]", "");
+        if (digits.startsWith("+")) {
+            digits = digits.substring(1);
+            if (digits.startsWith("91")) {
+                digits = digits.substring(2);
+            }
+        } else if (digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        if (digits.isEmpty() || !digits.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        // A full number typed as 91XXXXXXXXXX
+        if (digits.length() > UserPrefixIndex.PHONE_DIGITS) {
+            digits = digits.substring(digits.length() - UserPrefixIndex.PHONE_DIGITS);
+        }
+        return digits;
+    }
+
+    private void checkRate(String requester) {
+        long now = System.currentTimeMillis();
+        long[] window = requestWindows.compute(requester, (user, current) -> {
+            if (current == null || now - current[0] >= WINDOW_MS) {
+                return new long[]{now, 1};
+            }
+            current[1]++;
+            return current;
+        });
+        if (window[1] > requestsPerMinute) {
+            throw new TooManyRequestsException("Too many suggestion requests, try again in a minute");
+        }
+    }
+
+    private List<UserLookupDTO> suggestByPhone(String prefix, int max) {
+        UserPrefixIndex index = snapshot;
+        List<UserLookupDTO> results = new ArrayList<>(max);
+        Set<Long> seen = new HashSet<>();
+
+        index.forEachPhonePrefix(prefix, slot -> {
+            long phone = index.phoneAt(slot);
+            seen.add(phone);
+            results.add(toDto(phone, index.nameAt(slot), false));
+            return results.size() < max;
+        });
+
+        if (results.size() < max && !phoneDelta.isEmpty()) {
+            long[] range = phoneRange(prefix);
+            for (Map.Entry<Long, String> entry : phoneDelta.subMap(range[0], range[1]).entrySet()) {
+                if (seen.add(entry.getKey())) {
+                    results.add(toDto(entry.getKey(), entry.getValue(), false));
+                    if (results.size() == max) {
+                        break;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    // First token drives the index lookup; the rest must prefix-match some other token of the name
+    private List<UserLookupDTO> suggestByName(List<String> tokens, int max) {
+        UserPrefixIndex index = snapshot;
+        String lead = tokens.get(0);
+        List<String> rest = tokens.subList(1, tokens.size());
+
+        List<UserLookupDTO> results = new ArrayList<>(max);
+        Set<Long> seen = new HashSet<>();
+        int[] scanned = {0};
+
+        index.forEachTokenPrefix(lead, slot -> {
+            long phone = index.phoneAt(slot);
+            if (!seen.contains(phone)) {
+                String name = index.nameAt(slot);
+                if (rest.isEmpty() || matchesAll(name, rest)) {
+                    seen.add(phone);
+                    results.add(toDto(phone, name, true));
+                }
+            }
+            return results.size() < max && ++scanned[0] < MAX_SCAN;
+        });
+
+        if (results.size() < max && !tokenDelta.isEmpty()) {
+            ConcurrentNavigableMap<String, Long> range = tokenDelta.subMap(lead, lead + Character.MAX_VALUE);
+            for (Long phone : range.values()) {
+                String name = phoneDelta.get(phone);
+                if (name != null && !seen.contains(phone) && (rest.isEmpty() || matchesAll(name, rest))) {
+                    seen.add(phone);
+                    results.add(toDto(phone, name, true));
+                    if (results.size() == max) {
+                        break;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static boolean matchesAll(String name, List<String> prefixes) {
+        List<String> nameTokens = UserPrefixIndex.tokenize(name);
+        for (String prefix : prefixes) {
+            if (nameTokens.stream().noneMatch(token -> token.startsWith(prefix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] phoneRange(String prefix) {
+        long scale = 1;
+        for (int i = prefix.length(); i < UserPrefixIndex.PHONE_DIGITS; i++) {
+            scale *= 10;
+        }
+        long value = Long.parseLong(prefix);
+        return new long[]{value * scale, (value + 1) * scale};
+    }
+
+    // Name matches show ******3210: enough to tell two Rahuls apart, not enough to pay or harvest
+    private static UserLookupDTO toDto(long phone, String name, boolean maskPhone) {
+        String digits = Long.toString(phone);
+        return new UserLookupDTO(name, maskPhone ? "******" + digits.substring(digits.length() - 4) : digits, true);
+    }
+
+    private static long parsePhone(String phone) {
+        if (phone == null || phone.length() != UserPrefixIndex.PHONE_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,545 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.BulkRefundRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.RefundBatchDTO;
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk refunds of paid add-money orders.
+ *
+ * A batch is a set of gateway order ids. Each PAID order becomes one
+ * {@code refunds} row — the row is unique per order, so an order submitted
+ * twice is refunded once. A batch then runs in two phases:
+ *
+ * Debit: QUEUED rows are taken {@code chunk-size} at a time, in id order,
+ * with {@code FOR UPDATE SKIP LOCKED}. Per chunk and in one transaction the
+ * affected wallets are locked in a single statement; every refund the
+ * wallet's available balance still covers is debited with a DEBIT ledger row
+ * and becomes DEBITED, the rest are SKIPPED.
+ *
+ * Gateway: DEBITED rows are refunded at the gateway, at most
+ * {@code parallelism} calls at a time, retrying outages with jittered
+ * exponential backoff. Each call is preceded by a lease on the row, and any
+ * pass after the first looks the refund up by its receipt before creating
+ * it, so a crash after the gateway answered can't refund twice. A refund the
+ * gateway refuses is reversed with a CREDIT and marked FAILED.
+ *
+ * Batches that stopped part-way — a crash, an outage — are picked up again
+ * by the resume sweep.
+ */
+@Service
+public class RefundService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundService.class);
+
+    private static final DateTimeFormatter BATCH_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final int CHUNK_ATTEMPTS = 3;
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private static final String FIND_ORDERS =
+            "SELECT o.id, o.payment_id, o.amount, o.status, w.id AS wallet_id FROM razorpay_orders o " +
+            "JOIN wallets w ON w.user_id = o.user_id WHERE o.order_id IN (:orderIds)";
+    private static final String QUEUE_REFUND =
+            "INSERT IGNORE INTO refunds (batch_id, order_id, payment_id, wallet_id, amount, status, reason, created_at, updated_at) " +
+            "VALUES (:batchId, :orderId, :paymentId, :walletId, :amount, 'QUEUED', :reason, :now, :now)";
+    private static final String CLAIM_QUEUED =
+            "SELECT r.id, r.wallet_id, r.amount, o.order_id AS gateway_order_id FROM refunds r " +
+            "JOIN razorpay_orders o ON o.id = r.order_id WHERE r.batch_id = :batchId AND r.status = 'QUEUED' " +
+            "ORDER BY r.id LIMIT :limit FOR UPDATE OF r SKIP LOCKED";
+    private static final String LOCK_WALLETS =
+            "SELECT id, balance, held_amount, ledger_seq FROM wallets WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String DEBIT_WALLET =
+            "UPDATE wallets SET balance = balance - :total, ledger_seq = ledger_seq + :count, " +
+            "version = version + 1, updated_at = :now WHERE id = :walletId";
+    private static final String INSERT_DEBIT =
+            "INSERT INTO transactions (txn_ref, sender_wallet_id, sender_seq, amount, type, status, description, created_at) " +
+            "VALUES (:txnRef, :walletId, :seq, :amount, 'DEBIT', 'SUCCESS', :description, :now)";
+    private static final String MARK_DEBITED =
+            "UPDATE refunds SET status = 'DEBITED', txn_ref = :txnRef, updated_at = :now WHERE id = :id";
+    private static final String MARK_SKIPPED =
+            "UPDATE refunds SET status = 'SKIPPED', last_error = 'Insufficient available balance', updated_at = :now " +
+            "WHERE id = :id";
+    private static final String DEBITED_PAGE =
+            "SELECT r.id, r.order_id, o.order_id AS gateway_order_id, r.payment_id, r.wallet_id, r.amount, r.attempts " +
+            "FROM refunds r JOIN razorpay_orders o ON o.id = r.order_id " +
+            "WHERE r.batch_id = :batchId AND r.status = 'DEBITED' AND r.id > :afterId ORDER BY r.id LIMIT :limit";
+    private static final String CLAIM_ATTEMPT =
+            "UPDATE refunds SET attempts = attempts + 1, claimed_until = :until, updated_at = :now " +
+            "WHERE id = :id AND status = 'DEBITED' AND attempts = :attempts " +
+            "AND (claimed_until IS NULL OR claimed_until < :now)";
+    private static final String MARK_REFUNDED =
+            "UPDATE refunds SET status = 'REFUNDED', gateway_refund_id = :gatewayRefundId, last_error = NULL, " +
+            "claimed_until = NULL, updated_at = :now WHERE id = :id AND status = 'DEBITED'";
+    private static final String MARK_ORDER_REFUNDED =
+            "UPDATE razorpay_orders SET status = 'REFUNDED' WHERE id = :orderId AND status = 'PAID'";
+    private static final String RECORD_ERROR =
+            "UPDATE refunds SET last_error = :error, claimed_until = NULL, updated_at = :now WHERE id = :id";
+    private static final String MARK_FAILED =
+            "UPDATE refunds SET status = 'FAILED', last_error = :error, claimed_until = NULL, updated_at = :now " +
+            "WHERE id = :id AND status = 'DEBITED'";
+    private static final String CREDIT_WALLET =
+            "UPDATE wallets SET balance = balance + :amount, ledger_seq = ledger_seq + 1, " +
+            "version = version + 1, updated_at = :now WHERE id = :walletId";
+    private static final String READ_LEDGER_SEQ =
+            "SELECT ledger_seq FROM wallets WHERE id = :walletId";
+    private static final String INSERT_CREDIT =
+            "INSERT INTO transactions (txn_ref, receiver_wallet_id, receiver_seq, amount, type, status, description, created_at) " +
+            "VALUES (:txnRef, :walletId, :seq, :amount, 'CREDIT', 'SUCCESS', :description, :now)";
+    private static final String BATCH_COUNTS =
+            "SELECT status, COUNT(*) AS refunds, COALESCE(SUM(amount), 0) AS total FROM refunds " +
+            "WHERE batch_id = :batchId GROUP BY status";
+    private static final String UNFINISHED_BATCHES =
+            "SELECT DISTINCT batch_id FROM refunds WHERE status IN ('QUEUED', 'DEBITED')";
+
+    private enum Outcome { REFUNDED, FAILED, ERROR, CONTENDED }
+
+    private record Claimed(long id, long walletId, BigDecimal amount, String gatewayOrderId) {
+    }
+
+    private record Debited(long id, long orderId, String gatewayOrderId, String paymentId,
+                           long walletId, BigDecimal amount, int attempts) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGateway paymentGateway;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration claimLease;
+
+    private final ExecutorService batchExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "refund-batch"));
+    private final ExecutorService workers;
+    private final Set<String> activeBatches = ConcurrentHashMap.newKeySet();
+
+    public RefundService(NamedParameterJdbcTemplate jdbc,
+                         TransactionTemplate transactionTemplate,
+                         PaymentGateway paymentGateway,
+                         @Value("${wallet.refund.chunk-size:500}") int chunkSize,
+                         @Value("${wallet.refund.parallelism:8}") int parallelism,
+                         @Value("${wallet.refund.max-attempts:4}") int maxAttempts,
+                         @Value("${wallet.refund.retry-backoff:500ms}") Duration retryBackoff,
+                         @Value("${wallet.refund.claim-lease:10m}") Duration claimLease) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentGateway = paymentGateway;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimLease = claimLease;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "refund-" + threadIndex.getAndIncrement()));
+    }
+
+    // ─── Batch control ────────────────────────────────────────────────────────
+
+    /** Queues refunds for every refundable order in the request and starts the batch. */
+    public RefundBatchDTO submit(BulkRefundRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        String batchId = "RF" + BATCH_TIME.format(now) + "-"
+                + Integer.toHexString(ThreadLocalRandom.current().nextInt(0x1000, 0x10000));
+
+        List<String> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds().stream()
+                .map(String::trim)
+                .toList()));
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<String> slice = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            transactionTemplate.executeWithoutResult(status -> queue(batchId, slice, request.getReason().trim(), now));
+        }
+
+        RefundBatchDTO queued = status(batchId, null);
+        int accepted = (int) queued.getQueued();
+        log.info("💸 Refund batch {} submitted: {} orders, {} queued", batchId, orderIds.size(), accepted);
+        if (accepted > 0) {
+            enqueue(batchId);
+        }
+        return status(batchId, orderIds.size() - accepted);
+    }
+
+    public RefundBatchDTO getBatch(String batchId) {
+        RefundBatchDTO batch = status(batchId, null);
+        if (batch.getQueued() + batch.getDebited() + batch.getRefunded() + batch.getFailed() + batch.getSkipped() == 0) {
+            throw new IllegalArgumentException("Unknown refund batch: " + batchId);
+        }
+        return batch;
+    }
+
+    /** Restarts a batch that stopped part-way; a no-op if it's running or finished. */
+    public RefundBatchDTO resume(String batchId) {
+        RefundBatchDTO batch = getBatch(batchId);
+        if (batch.getQueued() + batch.getDebited() > 0) {
+            enqueue(batchId);
+        }
+        return status(batchId, null);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.refund.resume-interval-ms:300000}",
+            initialDelayString = "${wallet.refund.resume-initial-delay-ms:60000}")
+    public void resumeUnfinished() {
+        jdbc.queryForList(UNFINISHED_BATCHES, Map.of(), String.class).forEach(this::enqueue);
+    }
+
+    private void enqueue(String batchId) {
+        if (!activeBatches.add(batchId)) {
+            return;
+        }
+        batchExecutor.execute(() -> {
+            try {
+                run(batchId);
+            } catch (Exception e) {
+                log.error("❌ Refund batch {} stopped — the resume sweep picks it up again", batchId, e);
+            } finally {
+                activeBatches.remove(batchId);
+            }
+        });
+    }
+
+    private void queue(String batchId, List<String> orderIds, String reason, LocalDateTime now) {
+        List<SqlParameterSource> refunds = new ArrayList<>(orderIds.size());
+        jdbc.query(FIND_ORDERS, Map.of("orderIds", orderIds), rs -> {
+            String paymentId = rs.getString("payment_id");
+            // Deposits matched from a bank statement have no gateway payment to refund
+            if (!"PAID".equals(rs.getString("status")) || paymentId == null || paymentId.startsWith("bank_")) {
+                return;
+            }
+            refunds.add(new MapSqlParameterSource()
+                    .addValue("batchId", batchId)
+                    .addValue("orderId", rs.getLong("id"))
+                    .addValue("paymentId", paymentId)
+                    .addValue("walletId", rs.getLong("wallet_id"))
+                    .addValue("amount", rs.getBigDecimal("amount"))
+                    .addValue("reason", reason)
+                    .addValue("now", now));
+        });
+        if (!refunds.isEmpty()) {
+            // IGNORE: an order already in another batch keeps its one refund
+            jdbc.batchUpdate(QUEUE_REFUND, refunds.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private RefundBatchDTO status(String batchId, Integer notRefundable) {
+        Map<String, Long> counts = new HashMap<>();
+        BigDecimal[] refundedAmount = {BigDecimal.ZERO};
+        jdbc.query(BATCH_COUNTS, Map.of("batchId", batchId), rs -> {
+            counts.put(rs.getString("status"), rs.getLong("refunds"));
+            if ("REFUNDED".equals(rs.getString("status"))) {
+                refundedAmount[0] = rs.getBigDecimal("total");
+            }
+        });
+        long queued = counts.getOrDefault("QUEUED", 0L);
+        long debited = counts.getOrDefault("DEBITED", 0L);
+        String state = activeBatches.contains(batchId) ? "RUNNING"
+                : queued + debited > 0 ? "PENDING" : "COMPLETED";
+        return new RefundBatchDTO(batchId, state, notRefundable, queued, debited,
+                counts.getOrDefault("REFUNDED", 0L), counts.getOrDefault("FAILED", 0L),
+                counts.getOrDefault("SKIPPED", 0L), refundedAmount[0]);
+    }
+
+    // ─── Pipeline ─────────────────────────────────────────────────────────────
+
+    private void run(String batchId) {
+        long startedNanos = System.nanoTime();
+        while (true) {
+            if (debitChunkWithRetry(batchId) < chunkSize) {
+                break;
+            }
+        }
+        int[] outcomes = refundAtGateway(batchId);
+
+        RefundBatchDTO batch = status(batchId, null);
+        log.info("💸 Refund batch {}: {} refunded (₹{}), {} failed, {} skipped, {} outstanding ({} ms)",
+                batchId, batch.getRefunded(), batch.getRefundedAmount(), batch.getFailed(), batch.getSkipped(),
+                batch.getQueued() + batch.getDebited(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+        if (outcomes[Outcome.ERROR.ordinal()] > 0) {
+            log.warn("⚠️ Refund batch {}: {} gateway refunds still outstanding after {} attempts",
+                    batchId, outcomes[Outcome.ERROR.ordinal()], maxAttempts);
+        }
+    }
+
+    // Deadlocks with concurrent transfers are possible on the wallet locks; the chunk simply runs again
+    private int debitChunkWithRetry(String batchId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer claimed = transactionTemplate.execute(status -> debitChunk(batchId));
+                return claimed != null ? claimed : 0;
+            } catch (TransientDataAccessException e) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Refund chunk for {} hit {}, retrying", batchId, e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private int debitChunk(String batchId) {
+        List<Claimed> claimed = jdbc.query(CLAIM_QUEUED, Map.of("batchId", batchId, "limit", chunkSize),
+                (rs, row) -> new Claimed(rs.getLong("id"), rs.getLong("wallet_id"),
+                        rs.getBigDecimal("amount"), rs.getString("gateway_order_id")));
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> walletIds = new LinkedHashSet<>();
+        claimed.forEach(refund -> walletIds.add(refund.walletId()));
+
+        // One statement locks every wallet in the chunk, in id order
+        Map<Long, BigDecimal> available = new HashMap<>();
+        Map<Long, Long> ledgerSeqs = new HashMap<>();
+        jdbc.query(LOCK_WALLETS, Map.of("ids", walletIds), rs -> {
+            long walletId = rs.getLong("id");
+            available.put(walletId, rs.getBigDecimal("balance").subtract(rs.getBigDecimal("held_amount")));
+            ledgerSeqs.put(walletId, rs.getLong("ledger_seq"));
+        });
+
+        // Refunds are applied in id order; one the wallet can't cover any more is skipped
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Claimed>> debitsByWallet = new LinkedHashMap<>();
+        List<SqlParameterSource> skipped = new ArrayList<>();
+        for (Claimed refund : claimed) {
+            BigDecimal left = available.get(refund.walletId()).subtract(refund.amount());
+            if (left.signum() >= 0) {
+                available.put(refund.walletId(), left);
+                debitsByWallet.computeIfAbsent(refund.walletId(), key -> new ArrayList<>()).add(refund);
+            } else {
+                skipped.add(new MapSqlParameterSource().addValue("id", refund.id()).addValue("now", now));
+            }
+        }
+
+        List<SqlParameterSource> wallets = new ArrayList<>(debitsByWallet.size());
+        List<SqlParameterSource> ledger = new ArrayList<>(claimed.size());
+        List<SqlParameterSource> debited = new ArrayList<>(claimed.size());
+        debitsByWallet.forEach((walletId, refunds) -> {
+            BigDecimal total = BigDecimal.ZERO;
+            long seq = ledgerSeqs.get(walletId);
+            for (Claimed refund : refunds) {
+                total = total.add(refund.amount());
+                String txnRef = UUID.randomUUID().toString();
+                ledger.add(new MapSqlParameterSource()
+                        .addValue("txnRef", txnRef)
+                        .addValue("walletId", walletId)
+                        .addValue("seq", ++seq)
+                        .addValue("amount", refund.amount())
+                        .addValue("description", "Refund of " + refund.gatewayOrderId())
+                        .addValue("now", now));
+                debited.add(new MapSqlParameterSource()
+                        .addValue("id", refund.id())
+                        .addValue("txnRef", txnRef)
+                        .addValue("now", now));
+            }
+            wallets.add(new MapSqlParameterSource()
+                    .addValue("walletId", walletId)
+                    .addValue("total", total)
+                    .addValue("count", refunds.size())
+                    .addValue("now", now));
+        });
+
+        if (!wallets.isEmpty()) {
+            jdbc.batchUpdate(DEBIT_WALLET, wallets.toArray(SqlParameterSource[]::new));
+            jdbc.batchUpdate(INSERT_DEBIT, ledger.toArray(SqlParameterSource[]::new));
+            jdbc.batchUpdate(MARK_DEBITED, debited.toArray(SqlParameterSource[]::new));
+        }
+        if (!skipped.isEmpty()) {
+            jdbc.batchUpdate(MARK_SKIPPED, skipped.toArray(SqlParameterSource[]::new));
+        }
+        return claimed.size();
+    }
+
+    private int[] refundAtGateway(String batchId) {
+        int[] counts = new int[Outcome.values().length];
+        long afterId = 0;
+        while (true) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("batchId", batchId)
+                    .addValue("afterId", afterId)
+                    .addValue("limit", chunkSize);
+            List<Debited> page = jdbc.query(DEBITED_PAGE, params, (rs, row) -> new Debited(
+                    rs.getLong("id"), rs.getLong("order_id"), rs.getString("gateway_order_id"),
+                    rs.getString("payment_id"), rs.getLong("wallet_id"), rs.getBigDecimal("amount"),
+                    rs.getInt("attempts")));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<Outcome>> calls = page.stream()
+                    .map(refund -> CompletableFuture.supplyAsync(() -> refundOne(refund), workers))
+                    .toList();
+            int pageErrors = 0;
+            for (CompletableFuture<Outcome> call : calls) {
+                Outcome outcome = call.join();
+                counts[outcome.ordinal()]++;
+                if (outcome == Outcome.ERROR) {
+                    pageErrors++;
+                }
+            }
+
+            // Nothing got through — the gateway is down or the breaker is open; the sweep resumes later
+            if (pageErrors == page.size()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+            if (page.size() < chunkSize) {
+                break;
+            }
+        }
+        return counts;
+    }
+
+    private Outcome refundOne(Debited refund) {
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource claim = new MapSqlParameterSource()
+                .addValue("id", refund.id())
+                .addValue("attempts", refund.attempts())
+                .addValue("until", now.plus(claimLease))
+                .addValue("now", now);
+        if (jdbc.update(CLAIM_ATTEMPT, claim) == 0) {
+            return Outcome.CONTENDED;   // another node holds the lease, or finished it
+        }
+
+        String receipt = "refund_" + refund.id();
+        long paise = refund.amount().movePointRight(2).longValueExact();
+        String lastError = null;
+        try {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    // After a lost response the refund may exist already — look before creating another
+                    PaymentGateway.GatewayRefund created = refund.attempts() > 0 || attempt > 1
+                            ? findByReceipt(refund.paymentId(), receipt)
+                            : null;
+                    if (created == null) {
+                        created = paymentGateway.createRefund(refund.paymentId(), paise, receipt);
+                    }
+                    markRefunded(refund, created.id());
+                    return Outcome.REFUNDED;
+                } catch (PaymentGatewayException e) {
+                    if (e.isRejected()) {
+                        reverse(refund, e.getMessage());
+                        return Outcome.FAILED;
+                    }
+                    lastError = e.getMessage();
+                    if (attempt < maxAttempts) {
+                        TimeUnit.MILLISECONDS.sleep(backoffMs(attempt));
+                    }
+                }
+            }
+            recordError(refund, lastError);
+            return Outcome.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.ERROR;
+        } catch (Exception e) {
+            // The lease runs out and a later pass looks the refund up by receipt
+            log.warn("⚠️ Refund {} of order {} failed: {}", refund.id(), refund.gatewayOrderId(), e.getMessage());
+            return Outcome.ERROR;
+        }
+    }
+
+    private PaymentGateway.GatewayRefund findByReceipt(String paymentId, String receipt) {
+        return paymentGateway.fetchRefunds(paymentId).stream()
+                .filter(existing -> receipt.equals(existing.receipt()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Base × 2^(attempt−1), with ±50% jitter so parallel retries don't land together
+    private long backoffMs(int attempt) {
+        long base = retryBackoff.toMillis() << Math.min(attempt - 1, 10);
+        return base / 2 + ThreadLocalRandom.current().nextLong(base + 1);
+    }
+
+    private void markRefunded(Debited refund, String gatewayRefundId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = jdbc.update(MARK_REFUNDED, new MapSqlParameterSource()
+                    .addValue("id", refund.id())
+                    .addValue("gatewayRefundId", gatewayRefundId)
+                    .addValue("now", LocalDateTime.now()));
+            if (updated == 1) {
+                jdbc.update(MARK_ORDER_REFUNDED, Map.of("orderId", refund.orderId()));
+            }
+        });
+    }
+
+    private void recordError(Debited refund, String error) {
+        jdbc.update(RECORD_ERROR, new MapSqlParameterSource()
+                .addValue("id", refund.id())
+                .addValue("error", truncate(error))
+                .addValue("now", LocalDateTime.now()));
+    }
+
+    // The gateway refused the refund — give the money back to the wallet
+    private void reverse(Debited refund, String error) {
+        boolean reversed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int failed = jdbc.update(MARK_FAILED, new MapSqlParameterSource()
+                    .addValue("id", refund.id())
+                    .addValue("error", truncate(error))
+                    .addValue("now", now));
+            if (failed == 0) {
+                return false;
+            }
+            Map<String, Object> wallet = Map.of("walletId", refund.walletId(), "amount", refund.amount(), "now", now);
+            jdbc.update(CREDIT_WALLET, wallet);
+            Long seq = jdbc.queryForObject(READ_LEDGER_SEQ, wallet, Long.class);
+            jdbc.update(INSERT_CREDIT, new MapSqlParameterSource()
+                    .addValue("txnRef", UUID.randomUUID().toString())
+                    .addValue("walletId", refund.walletId())
+                    .addValue("seq", seq)
+                    .addValue("amount", refund.amount())
+                    .addValue("description", "Refund of " + refund.gatewayOrderId() + " reversed")
+                    .addValue("now", now));
+            return true;
+        }));
+        if (reversed) {
+            log.warn("⚠️ Refund {} of order {} refused by the gateway, ₹{} returned to wallet: {}",
+                    refund.id(), refund.gatewayOrderId(), refund.amount(), error);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,158 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bytes waiting in each STOMP session's send buffer — the buffer Spring's
+ * per-session decorator fills while a slow client is still reading the
+ * previous frame, and closes the session over once it passes
+ * {@code send-buffer-size-limit}.
+ *
+ * A frame is counted when the outbound channel hands it to the session and
+ * uncounted once the socket write underneath that buffer returns. The
+ * {@link WebSocketDispatcher} drops a user's notifications while all of the
+ * user's sessions are above the high-water mark, before the limit is hit.
+ */
+@Service
+public class SessionSendBuffers implements WebSocketHandlerDecoratorFactory, ExecutorChannelInterceptor {
+
+    private static final class Buffer {
+        // Payload sizes in send order; the socket writes them in the same order
+        final Queue<Integer> frames = new ConcurrentLinkedQueue<>();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    private final long highWaterBytes;
+    private final ConcurrentHashMap<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    public SessionSendBuffers(@Value("${wallet.websocket.send-buffer-size-limit:65536}") int sendBufferSizeLimit,
+                              @Value("${wallet.websocket.dispatch.send-buffer-high-water:0.5}") double highWater) {
+        this.highWaterBytes = (long) (sendBufferSizeLimit * highWater);
+    }
+
+    /** True when every local session of {@code user} has a send buffer above the high-water mark. */
+    public boolean isBackedUp(String user) {
+        Set<String> sessions = sessionsByUser.get(user);
+        if (sessions == null || sessions.isEmpty()) {
+            return false;
+        }
+        for (String sessionId : sessions) {
+            if (bufferedBytes(sessionId) < highWaterBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bufferedBytes(String sessionId) {
+        Buffer buffer = buffers.get(sessionId);
+        return buffer != null ? buffer.bytes.get() : 0;
+    }
+
+    // ─── Outbound channel: frame handed to the session ────────────────────────
+
+    @Override
+    public Message<?> beforeHandle(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                   @NonNull MessageHandler handler) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Buffer buffer = sessionId != null ? buffers.get(sessionId) : null;
+        if (buffer != null && message.getPayload() instanceof byte[] payload) {
+            buffer.frames.add(payload.length);
+            buffer.bytes.addAndGet(payload.length);
+        }
+        return message;
+    }
+
+    // ─── Transport: frame written to the socket ───────────────────────────────
+
+    @Override
+    @NonNull
+    public WebSocketHandler decorate(@NonNull WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                Buffer buffer = new Buffer();
+                buffers.put(session.getId(), buffer);
+                super.afterConnectionEstablished(new CountingSession(session, buffer));
+            }
+
+            @Override
+            public void afterConnectionClosed(@NonNull WebSocketSession session,
+                                              @NonNull CloseStatus closeStatus) throws Exception {
+                buffers.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // Sits under Spring's buffering decorator, so it only sees frames as they leave the buffer
+    private static final class CountingSession extends WebSocketSessionDecorator {
+
+        private final Buffer buffer;
+
+        CountingSession(WebSocketSession session, Buffer buffer) {
+            super(session);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void sendMessage(@NonNull WebSocketMessage<?> message) throws IOException {
+            Integer size = buffer.frames.poll();
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (size != null) {
+                    buffer.bytes.addAndGet(-size);
+                }
+            }
+        }
+    }
+
+    // ─── Sessions ─────────────────────────────────────────────────────────────
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user != null && sessionId != null) {
+            sessionsByUser.computeIfAbsent(user.getName(), key -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user != null) {
+            sessionsByUser.computeIfPresent(user.getName(), (key, sessions) -> {
+                sessions.remove(event.getSessionId());
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.utkarsh.paytm_wallet_clone.service;
 
+import com.utkarsh.paytm_wallet_clone.dto.response.TransactionChangesResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransactionDTO;
 import com.utkarsh.paytm_wallet_clone.exception.WalletNotFoundException;
 import com.utkarsh.paytm_wallet_clone.model.Transaction;
@@ -17,11 +18,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class TransactionService {
 
+    private static final int MAX_CHANGES_PER_CALL = 500;
+
     private final TransactionRepository transactionRepository;
     private final WalletRepository walletRepository;
 
@@ -37,6 +43,7 @@ public class TransactionService {
     public Transaction recordCredit(Wallet wallet, BigDecimal amount, String description) {
         Transaction txn = new Transaction();
         txn.setReceiverWallet(wallet);
+        txn.setReceiverSeq(wallet.nextLedgerSeq());
         txn.setSenderWallet(null);            // null sender = external deposit
         txn.setAmount(amount);
         txn.setType(TransactionType.CREDIT);
@@ -51,6 +58,7 @@ public class TransactionService {
     public Transaction recordDebit(Wallet wallet, BigDecimal amount, String description) {
         Transaction txn = new Transaction();
         txn.setSenderWallet(wallet);
+        txn.setSenderSeq(wallet.nextLedgerSeq());
         txn.setReceiverWallet(null);          // null receiver = external withdrawal
         txn.setAmount(amount);
         txn.setType(TransactionType.DEBIT);
@@ -66,7 +74,9 @@ public class TransactionService {
                                       BigDecimal amount, String description) {
         Transaction txn = new Transaction();
         txn.setSenderWallet(sender);
+        txn.setSenderSeq(sender.nextLedgerSeq());
         txn.setReceiverWallet(receiver);
+        txn.setReceiverSeq(receiver.nextLedgerSeq());
         txn.setAmount(amount);
         txn.setType(TransactionType.TRANSFER);
         txn.setStatus(TransactionStatus.SUCCESS);
@@ -88,6 +98,40 @@ public class TransactionService {
         return transactions.map(txn -> toDTO(txn, wallet));
     }
 
+    // ─── Delta Sync: Transactions Since a Ledger Sequence ──────────────────────
+
+    /**
+     * Ledger rows after {@code sinceSeq}, oldest first, or empty when the
+     * client is already current. The no-change case — most calls — is a single
+     * index probe for the wallet's ledger sequence.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TransactionChangesResponse> getChangesSince(User user, long sinceSeq, int limit) {
+        long latestSeq = walletRepository.findLedgerSeqByUserId(user.getId())
+                .orElseThrow(() -> new WalletNotFoundException(
+                        "Wallet not found for user: " + user.getEmail()));
+        if (latestSeq <= sinceSeq) {
+            return Optional.empty();
+        }
+
+        Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+        int pageSize = Math.clamp(limit, 1, MAX_CHANGES_PER_CALL);
+        Pageable firstPage = PageRequest.of(0, pageSize);
+
+        // Each side is already in seq order — merge and keep the first pageSize
+        List<Transaction> changes = new ArrayList<>(
+                transactionRepository.findSentSince(wallet.getId(), sinceSeq, firstPage));
+        changes.addAll(transactionRepository.findReceivedSince(wallet.getId(), sinceSeq, firstPage));
+        changes.sort(Comparator.comparingLong(txn -> seqFor(txn, wallet)));
+        if (changes.size() > pageSize) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        long upTo = changes.isEmpty() ? latestSeq : seqFor(changes.get(changes.size() - 1), wallet);
+        List<TransactionDTO> dtos = changes.stream().map(txn -> toDTO(txn, wallet)).toList();
+        return Optional.of(new TransactionChangesResponse(upTo, upTo < latestSeq, dtos));
+    }
+
     // ─── Get Single Transaction by Reference ───────────────────────────────────
 
     @Transactional(readOnly = true)
@@ -147,7 +191,14 @@ public class TransactionService {
                 txn.getDescription(),
                 counterpartyName,
                 counterpartyPhone,
-                txn.getCreatedAt()
+                txn.getCreatedAt(),
+                seqFor(txn, userWallet)
         );
     }
+
+    private static Long seqFor(Transaction txn, Wallet userWallet) {
+        return txn.getSenderWallet() != null && txn.getSenderWallet().getId().equals(userWallet.getId())
+                ? txn.getSenderSeq()
+                : txn.getReceiverSeq();
+    }
 }
\ No newline at end of file
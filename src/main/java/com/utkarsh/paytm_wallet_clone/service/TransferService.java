@@ -1,5 +1,6 @@
 package com.utkarsh.paytm_wallet_clone.service;
 
+import com.utkarsh.paytm_wallet_clone.dto.projection.WalletOwner;
 import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransferResponse;
 import com.utkarsh.paytm_wallet_clone.exception.InsufficientFundsException;
@@ -10,12 +11,19 @@ import com.utkarsh.paytm_wallet_clone.model.User;
 import com.utkarsh.paytm_wallet_clone.model.Wallet;
 import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
 import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.util.MappedPhoneDirectory.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransferService {
@@ -26,15 +34,21 @@ public class TransferService {
     private final WalletRepository walletRepository;
     private final TransactionService transactionService;
     private final WebSocketService webSocketService;  // ← ADD THIS
+    private final WalletDirectoryService walletDirectory;
+    private final MerchantWebhookService merchantWebhookService;
 
     public TransferService(UserRepository userRepository,
                            WalletRepository walletRepository,
                            TransactionService transactionService,
-                           WebSocketService webSocketService) {  // ← ADD THIS
+                           WebSocketService webSocketService,  // ← ADD THIS
+                           WalletDirectoryService walletDirectory,
+                           MerchantWebhookService merchantWebhookService) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
         this.transactionService = transactionService;
         this.webSocketService = webSocketService;  // ← ADD THIS
+        this.walletDirectory = walletDirectory;
+        this.merchantWebhookService = merchantWebhookService;
     }
 
     @Transactional
@@ -52,31 +66,41 @@ public class TransferService {
             throw new IllegalArgumentException("Cannot transfer to yourself");
         }
 
-        // 2. Find recipient
-        User recipient = userRepository.findByPhone(recipientPhone)
-                .orElseThrow(() -> {
-                    log.warn("Recipient not found: {}", recipientPhone);
-                    return new UserNotFoundException("Recipient not found with phone: " + recipientPhone);
-                });
+        // 2. Resolve wallet ids — routing directory first, database on a miss.
+        //    Directory hits are confirmed with one plain read before anything is locked,
+        //    so a stale entry is repaired here instead of after locking the wrong wallet
+        Route recipientRoute = walletDirectory.lookup(recipientPhone).orElse(null);
+        Route senderRoute = walletDirectory.lookup(sender.getPhone()).orElse(null);
+        Map<Long, WalletOwner> owners = confirmRoutes(senderRoute, recipientRoute);
+
+        if (recipientRoute == null || !routes(owners, recipientRoute, recipientPhone)) {
+            recipientRoute = staleRoute(recipientRoute, recipientPhone, () -> routeFromDatabase(recipientPhone));
+        }
+        if (senderRoute == null || senderRoute.userId() != sender.getId()
+                || !routes(owners, senderRoute, sender.getPhone())) {
+            senderRoute = staleRoute(senderRoute, sender.getPhone(),
+                    () -> new Route(sender.getId(), walletIdOf(sender.getId())));
+        }
 
         // 3. Lock wallets in consistent order
         Wallet senderWallet;
         Wallet recipientWallet;
 
-        if (sender.getId() < recipient.getId()) {
-            senderWallet = lockWallet(sender.getId());
-            recipientWallet = lockWallet(recipient.getId());
+        if (sender.getId() < recipientRoute.userId()) {
+            senderWallet = lockWallet(senderRoute);
+            recipientWallet = lockWallet(recipientRoute);
         } else {
-            recipientWallet = lockWallet(recipient.getId());
-            senderWallet = lockWallet(sender.getId());
+            recipientWallet = lockWallet(recipientRoute);
+            senderWallet = lockWallet(senderRoute);
         }
+        User recipient = recipientWallet.getUser();
 
-        // 4. Check funds
-        if (senderWallet.getBalance().compareTo(amount) < 0) {
+        // 4. Check funds — amounts held for pending withdrawals can't be spent
+        if (senderWallet.getAvailableBalance().compareTo(amount) < 0) {
             log.warn("Insufficient funds: {} | Available: ₹{} | Required: ₹{}",
-                    sender.getEmail(), senderWallet.getBalance(), amount);
+                    sender.getEmail(), senderWallet.getAvailableBalance(), amount);
             throw new InsufficientFundsException(
-                    "Insufficient funds. Available: ₹" + senderWallet.getBalance());
+                    "Insufficient funds. Available: ₹" + senderWallet.getAvailableBalance());
         }
 
         // 5. Debit sender
@@ -100,31 +124,31 @@ public class TransferService {
         log.info("✅ Transfer completed: {} → {} | Amount: ₹{} | TxnRef: {}",
                 sender.getEmail(), recipient.getEmail(), amount, txn.getTxnRef());
 
-        // ========== 8. SEND WEBSOCKET NOTIFICATIONS ==========
-
-        try {
-            // Notify sender
-            webSocketService.notifyTransferSent(
-                    sender.getEmail(),
-                    recipient.getName(),
-                    amount,
-                    newSenderBalance
-            );
-            log.info("🔔 Sent WebSocket to sender: {}", sender.getEmail());
-
-            // Notify recipient
-            webSocketService.notifyTransferReceived(
-                    recipient.getEmail(),
-                    sender.getName(),
-                    amount,
-                    newRecipientBalance
-            );
-            log.info("🔔 Sent WebSocket to recipient: {}", recipient.getEmail());
-
-        } catch (Exception e) {
-            log.error("❌ Failed to send WebSocket notification", e);
-            // Don't fail the transfer if notification fails
-        }
+        // ========== 8. QUEUE WEBSOCKET NOTIFICATIONS ==========
+        // Written to the outbox in this transaction; relayed only after commit
+
+        webSocketService.notifyTransferSent(
+                sender.getEmail(),
+                recipient.getName(),
+                amount,
+                newSenderBalance
+        );
+        webSocketService.notifyTransferReceived(
+                recipient.getEmail(),
+                sender.getName(),
+                amount,
+                newRecipientBalance
+        );
+
+        // 9. Queue the merchant callback, if the recipient registered one — same transaction
+        merchantWebhookService.queueTransferReceived(
+                recipient.getId(),
+                txn.getTxnRef(),
+                amount,
+                sender.getName(),
+                request.getNote(),
+                newRecipientBalance
+        );
 
         return new TransferResponse(
                 txn.getTxnRef(),
@@ -138,11 +162,60 @@ public class TransferService {
         );
     }
 
-    private Wallet lockWallet(Long userId) {
-        return walletRepository.findByIdForUpdate(
-                walletRepository.findByUserId(userId)
-                        .orElseThrow(() -> new WalletNotFoundException("Wallet not found"))
-                        .getId()
-        ).orElseThrow(() -> new WalletNotFoundException("Wallet lock failed"));
+    private Route routeFromDatabase(String phone) {
+        User user = userRepository.findByPhone(phone)
+                .orElseThrow(() -> {
+                    log.warn("Recipient not found: {}", phone);
+                    return new UserNotFoundException("Recipient not found with phone: " + phone);
+                });
+        Route route = new Route(user.getId(), walletIdOf(user.getId()));
+        walletDirectory.record(phone, route.userId(), route.walletId());
+        return route;
+    }
+
+    private Long walletIdOf(Long userId) {
+        return walletRepository.findByUserId(userId)
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found"))
+                .getId();
+    }
+
+    private Map<Long, WalletOwner> confirmRoutes(Route senderRoute, Route recipientRoute) {
+        List<Long> walletIds = Stream.of(senderRoute, recipientRoute)
+                .filter(Objects::nonNull)
+                .map(Route::walletId)
+                .toList();
+        if (walletIds.isEmpty()) {
+            return Map.of();
+        }
+        return walletRepository.findOwners(walletIds).stream()
+                .collect(Collectors.toMap(WalletOwner::walletId, owner -> owner));
+    }
+
+    private boolean routes(Map<Long, WalletOwner> owners, Route route, String phone) {
+        WalletOwner owner = owners.get(route.walletId());
+        return owner != null
+                && owner.userId() == route.userId()
+                && phone.equals(owner.phone());
+    }
+
+    // The directory can lag a database reset; a stale entry is dropped and the
+    // route is resolved through the database instead
+    private Route staleRoute(Route route, String phone, Supplier<Route> fromDatabase) {
+        if (route != null) {
+            log.warn("Stale wallet route for {}, falling back to database", phone);
+            walletDirectory.evict(phone);
+        }
+        return fromDatabase.get();
+    }
+
+    // Routes were confirmed before locking, so a mismatch here means the wallet changed
+    // owner in between; fail rather than take a further lock out of order
+    private Wallet lockWallet(Route route) {
+        Wallet wallet = walletRepository.findByIdForUpdate(route.walletId())
+                .orElseThrow(() -> new WalletNotFoundException("Wallet lock failed"));
+        if (wallet.getUser().getId() != route.userId()) {
+            throw new WalletNotFoundException("Wallet lock failed");
+        }
+        return wallet;
     }
 }
\ No newline at end of file
@@ -0,0 +1,441 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.ImportJobStatusDTO;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk onboarding of a partner's customer base.
+ *
+ * The CSV ({@code name,email,phone,password} with a header row) is streamed
+ * line by line and processed in chunks. Each chunk preloads the emails and
+ * phones that already exist into in-memory sets, hashes passwords in
+ * parallel across cores, and inserts users and wallets with JDBC batch
+ * statements inside one transaction. Rejected rows are appended to
+ * {@code <file>.errors.csv}. A job reports the last committed line so a
+ * failed or interrupted import can be restarted from that offset; errors
+ * the earlier run recorded from that line on are dropped first, so a
+ * resumed job doesn't list them twice.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    // Same rules as RegisterRequest
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^[6-9]\\d{9}$");
+    private static final int MIN_PASSWORD_LENGTH = 8;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (name, email, phone, password_hash, is_active, created_at) " +
+            "VALUES (:name, :email, :phone, :passwordHash, TRUE, :createdAt)";
+    private static final String INSERT_WALLET =
+            "INSERT INTO wallets (user_id, balance, currency, is_active, version, created_at, updated_at) " +
+            "VALUES (:userId, 0.00, 'INR', TRUE, 0, :createdAt, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "user-import"));
+    private final ForkJoinPool hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(NamedParameterJdbcTemplate jdbc,
+                             TransactionTemplate transactionTemplate,
+                             PasswordEncoder passwordEncoder,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${wallet.import.chunk-size:1000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    // ─── Job control ──────────────────────────────────────────────────────────
+
+    /**
+     * Queues an import of {@code file}. {@code fromLine} is the 1-based line to
+     * start at; pass the previous job's {@code committedThroughLine + 1} to resume.
+     */
+    public ImportJobStatusDTO startImport(Path file, long fromLine) {
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Import file not readable: " + file);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file, Math.max(2, fromLine));
+        jobs.put(job.id, job);
+        jobExecutor.submit(() -> run(job));
+
+        log.info("📥 User import {} queued: {} from line {}", job.id, file, job.fromLine);
+        return job.toStatus();
+    }
+
+    public ImportJobStatusDTO getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown import job: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    // ─── Pipeline ─────────────────────────────────────────────────────────────
+
+    private void run(ImportJob job) {
+        job.state = "RUNNING";
+        Path errorFile = Path.of(job.file + ".errors.csv");
+
+        try {
+            keepErrorsBefore(errorFile, job.fromLine);
+        } catch (IOException e) {
+            job.state = "FAILED";
+            job.failure = "Could not prepare " + errorFile + ": " + e.getMessage();
+            log.error("❌ User import {} failed: {}", job.id, job.failure);
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+
+            job.errorFile = errorFile.toString();
+            long lineNo = 0;
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo < job.fromLine || line.isBlank()) {
+                    continue;
+                }
+
+                ImportRow row = parse(lineNo, line);
+                if (row.error != null) {
+                    writeError(errors, job, row);
+                } else {
+                    chunk.add(row);
+                }
+                job.linesRead.set(lineNo);
+
+                if (chunk.size() == chunkSize) {
+                    processChunk(job, chunk, errors);
+                    job.committedThroughLine.set(lineNo);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk, errors);
+            }
+            job.committedThroughLine.set(lineNo);
+            job.state = "COMPLETED";
+
+            log.info("✅ User import {} completed: {} imported, {} rejected",
+                    job.id, job.imported.get(), job.rejected.get());
+
+        } catch (Exception e) {
+            job.state = "FAILED";
+            job.failure = e.getMessage();
+            log.error("❌ User import {} failed after line {} — resume from line {}",
+                    job.id, job.committedThroughLine.get(), job.committedThroughLine.get() + 1, e);
+        }
+    }
+
+    private void processChunk(ImportJob job, List<ImportRow> chunk, BufferedWriter errors) throws Exception {
+        List<ImportRow> accepted = rejectDuplicates(chunk);
+        for (ImportRow row : chunk) {
+            if (row.error != null) {
+                writeError(errors, job, row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // BCrypt dominates the cost of onboarding — spread it over every core
+        hashingPool.submit(() -> accepted.parallelStream()
+                .forEach(row -> row.passwordHash = passwordEncoder.encode(row.password))).get();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(accepted));
+            job.imported.addAndGet(accepted.size());
+            publishRegistered(accepted);
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these emails/phones since the preload — fall back to row by row
+            log.warn("Import chunk hit a concurrent duplicate, retrying {} rows individually", accepted.size());
+            for (ImportRow row : accepted) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(row)));
+                    job.imported.incrementAndGet();
+                    publishRegistered(List.of(row));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    row.error = "Email or phone already registered";
+                    writeError(errors, job, row);
+                }
+            }
+        }
+    }
+
+    // In-memory duplicate check: within the chunk, then against rows already in the DB
+    private List<ImportRow> rejectDuplicates(List<ImportRow> chunk) {
+        List<String> emails = new ArrayList<>(chunk.size());
+        List<String> phones = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            emails.add(row.email);
+            phones.add(row.phone);
+        }
+
+        Set<String> existingEmails = new HashSet<>(jdbc.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", emails), String.class));
+        Set<String> existingPhones = new HashSet<>(jdbc.queryForList(
+                "SELECT phone FROM users WHERE phone IN (:phones)", Map.of("phones", phones), String.class));
+
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            if (existingEmails.contains(row.email)) {
+                row.error = "Email already registered";
+            } else if (existingPhones.contains(row.phone)) {
+                row.error = "Phone already registered";
+            } else if (!seenEmails.add(row.email)) {
+                row.error = "Duplicate email in file";
+            } else if (!seenPhones.add(row.phone)) {
+                row.error = "Duplicate phone in file";
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private void insertBatch(List<ImportRow> rows) {
+        LocalDateTime now = LocalDateTime.now();
+
+        SqlParameterSource[] users = new SqlParameterSource[rows.size()];
+        List<String> emails = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            users[i] = new MapSqlParameterSource()
+                    .addValue("name", row.name)
+                    .addValue("email", row.email)
+                    .addValue("phone", row.phone)
+                    .addValue("passwordHash", row.passwordHash)
+                    .addValue("createdAt", now);
+            emails.add(row.email);
+        }
+        jdbc.batchUpdate(INSERT_USER, users);
+
+        // Batched inserts don't hand back generated keys portably, so read them back in one query
+        Map<String, Long> idsByEmail = new HashMap<>();
+        jdbc.query("SELECT id, email FROM users WHERE email IN (:emails)", Map.of("emails", emails),
+                rs -> {
+                    idsByEmail.put(rs.getString("email"), rs.getLong("id"));
+                });
+
+        SqlParameterSource[] wallets = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            row.userId = idsByEmail.get(row.email);
+            wallets[i] = new MapSqlParameterSource()
+                    .addValue("userId", row.userId)
+                    .addValue("createdAt", now);
+        }
+        jdbc.batchUpdate(INSERT_WALLET, wallets);
+
+        Map<Long, Long> walletIdsByUser = new HashMap<>();
+        jdbc.query("SELECT id, user_id FROM wallets WHERE user_id IN (:userIds)",
+                Map.of("userIds", idsByEmail.values()),
+                rs -> {
+                    walletIdsByUser.put(rs.getLong("user_id"), rs.getLong("id"));
+                });
+        for (ImportRow row : rows) {
+            row.walletId = walletIdsByUser.get(row.userId);
+        }
+    }
+
+    // Same event as self sign-up, fired after the chunk has committed
+    private void publishRegistered(List<ImportRow> rows) {
+        for (ImportRow row : rows) {
+            eventPublisher.publishEvent(new UserRegisteredEvent(row.userId, row.walletId, row.name, row.phone));
+        }
+    }
+
+    // ─── Parsing ──────────────────────────────────────────────────────────────
+
+    private ImportRow parse(long lineNo, String line) {
+        ImportRow row = new ImportRow(lineNo, line);
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            row.error = "Expected 4 columns (name,email,phone,password), got " + fields.size();
+            return row;
+        }
+
+        row.name = fields.get(0).trim();
+        row.email = fields.get(1).trim().toLowerCase();
+        row.phone = fields.get(2).trim();
+        row.password = fields.get(3);
+
+        if (row.name.isEmpty()) {
+            row.error = "Name is required";
+        } else if (!EMAIL.matcher(row.email).matches()) {
+            row.error = "Invalid email format";
+        } else if (!PHONE.matcher(row.phone).matches()) {
+            row.error = "Invalid Indian phone number";
+        } else if (row.password.length() < MIN_PASSWORD_LENGTH) {
+            row.error = "Password must be at least " + MIN_PASSWORD_LENGTH + " characters";
+        }
+        return row;
+    }
+
+    // Minimal RFC 4180 split: quoted fields may contain commas and doubled quotes
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // Error rows start with their line number; anything from fromLine on is about to be re-read
+    private static void keepErrorsBefore(Path errorFile, long fromLine) throws IOException {
+        if (!Files.exists(errorFile)) {
+            return;
+        }
+        List<String> kept = new ArrayList<>();
+        for (String line : Files.readAllLines(errorFile, StandardCharsets.UTF_8)) {
+            int comma = line.indexOf(',');
+            try {
+                if (comma > 0 && Long.parseLong(line.substring(0, comma)) < fromLine) {
+                    kept.add(line);
+                }
+            } catch (NumberFormatException ignored) {
+                // not one of ours — dropped with the rest
+            }
+        }
+        Files.write(errorFile, kept, StandardCharsets.UTF_8);
+    }
+
+    private void writeError(BufferedWriter errors, ImportJob job, ImportRow row) {
+        job.rejected.incrementAndGet();
+        try {
+            errors.write(row.lineNo + ",\"" + row.error.replace("\"", "\"\"") + "\"," + row.raw);
+            errors.newLine();
+        } catch (IOException e) {
+            log.warn("Could not write import error row {}: {}", row.lineNo, e.getMessage());
+        }
+    }
+
+    // ─── Internal state ───────────────────────────────────────────────────────
+
+    private static final class ImportRow {
+        final long lineNo;
+        final String raw;
+        String name;
+        String email;
+        String phone;
+        String password;
+        String passwordHash;
+        Long userId;
+        Long walletId;
+        String error;
+
+        ImportRow(long lineNo, String raw) {
+            this.lineNo = lineNo;
+            this.raw = raw;
+        }
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final Path file;
+        final long fromLine;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong linesRead = new AtomicLong();
+        final AtomicLong committedThroughLine = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        volatile String state = "QUEUED";
+        volatile String errorFile;
+        volatile String failure;
+
+        ImportJob(String id, Path file, long fromLine) {
+            this.id = id;
+            this.file = file;
+            this.fromLine = fromLine;
+            this.committedThroughLine.set(fromLine - 1);
+        }
+
+        ImportJobStatusDTO toStatus() {
+            return new ImportJobStatusDTO(id, file.toString(), state, fromLine,
+                    linesRead.get(), committedThroughLine.get(),
+                    imported.get(), rejected.get(), errorFile, failure, startedAt);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import com.utkarsh.paytm_wallet_clone.util.MappedPhoneDirectory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Phone → (userId, walletId) routing for the transfer path.
+ *
+ * Backed by a {@link MappedPhoneDirectory} file, so the table is warm as soon
+ * as the service starts and costs the GC nothing. On startup only users
+ * registered since the last sync are scanned in; afterwards every
+ * registration is recorded as it commits. The database stays the source of
+ * truth — callers verify what they lock and {@link #evict} stale entries.
+ */
+@Service
+public class WalletDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletDirectoryService.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path file;
+    private final int expectedUsers;
+
+    private MappedPhoneDirectory directory;
+
+    public WalletDirectoryService(JdbcTemplate jdbcTemplate,
+                                  @Value("${wallet.directory.file:data/wallet-directory.bin}") Path file,
+                                  @Value("${wallet.directory.expected-users:1000000}") int expectedUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.file = file;
+        this.expectedUsers = expectedUsers;
+    }
+
+    @PostConstruct
+    public void open() {
+        directory = MappedPhoneDirectory.open(file, expectedUsers);
+        log.info("📒 Wallet directory mapped: {} | {} entries, capacity {}",
+                file, directory.size(), directory.capacity());
+    }
+
+    // ─── Sync ─────────────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        long started = System.currentTimeMillis();
+        Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        long lastId = directory.syncedUserId();
+
+        // A file ahead of the database means the database was reset — start over
+        if (maxUserId != null && lastId > maxUserId) {
+            log.warn("⚠️ Wallet directory is ahead of the database ({} > {}), rebuilding", lastId, maxUserId);
+            directory.clear();
+            lastId = 0;
+        }
+
+        long loaded = 0;
+        while (true) {
+            List<long[]> page = new ArrayList<>(LOAD_PAGE_SIZE);
+            jdbcTemplate.query(
+                    "SELECT u.id, u.phone, w.id FROM users u JOIN wallets w ON w.user_id = u.id "
+                            + "WHERE u.id > ? ORDER BY u.id LIMIT ?",
+                    rs -> {
+                        page.add(new long[]{rs.getLong(1), parsePhone(rs.getString(2)), rs.getLong(3)});
+                    },
+                    lastId, LOAD_PAGE_SIZE);
+            for (long[] row : page) {
+                if (row[1] > 0) {
+                    directory.put(row[1], row[0], row[2]);
+                }
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1)[0];
+            }
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+        }
+        directory.markSynced(lastId);
+
+        log.info("📒 Wallet directory caught up: {} new users | {} entries | {} ms",
+                loaded, directory.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        record(event.phone(), event.userId(), event.walletId());
+    }
+
+    @PreDestroy
+    public void close() {
+        directory.close();
+    }
+
+    // ─── Lookup ───────────────────────────────────────────────────────────────
+
+    public Optional<MappedPhoneDirectory.Route> lookup(String phone) {
+        long key = parsePhone(phone);
+        return key > 0 ? Optional.ofNullable(directory.get(key)) : Optional.empty();
+    }
+
+    public void record(String phone, Long userId, Long walletId) {
+        long key = parsePhone(phone);
+        if (key > 0 && userId != null && walletId != null) {
+            directory.put(key, userId, walletId);
+        }
+    }
+
+    public void evict(String phone) {
+        long key = parsePhone(phone);
+        if (key > 0) {
+            directory.remove(key);
+        }
+    }
+
+    private static long parsePhone(String phone) {
+        if (phone == null || phone.isEmpty() || phone.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
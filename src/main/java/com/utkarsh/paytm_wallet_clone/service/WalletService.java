@@ -34,6 +34,7 @@ public class WalletService {
         return new WalletBalanceDTO(
                 wallet.getId(),
                 wallet.getBalance(),
+                wallet.getHeldAmount(),
                 wallet.getCurrency(),
                 user.getId(),
                 user.getName()
@@ -73,7 +74,7 @@ public class WalletService {
     @Transactional
     public void debitWallet(Wallet wallet, BigDecimal amount) {
         BigDecimal newBalance = wallet.getBalance().subtract(amount);
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+        if (newBalance.compareTo(wallet.getHeldAmount()) < 0) {
             throw new RuntimeException("Insufficient funds");
         }
         wallet.setBalance(newBalance);
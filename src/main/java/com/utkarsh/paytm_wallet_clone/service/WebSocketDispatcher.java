@@ -0,0 +1,223 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.DispatcherStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbound fan-out for user notifications.
+ *
+ * Each user hashes to one of N shards, so a user's messages stay in order
+ * while different users are sent in parallel. A message is dropped and
+ * counted instead of piling up when the user's sessions are all backed up
+ * (their send buffers, see {@link SessionSendBuffers}, are past the
+ * high-water mark), when the user already has too many messages on the
+ * shard, or when the shard queue is full. Per-session send-time and buffer
+ * limits (see WebSocketConfig) disconnect clients that stop reading
+ * altogether.
+ *
+ * Dropped frames are not retried from the outbox — the relay has already
+ * deleted them. Every frame is numbered and kept in the user's replay ring
+ * before it gets here, so a client that sees a gap in {@code seq} (or
+ * reconnects) fetches what it missed from the ring.
+ */
+@Service
+public class WebSocketDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketDispatcher.class);
+
+    // Latency buckets are powers of two in microseconds: [0,1), [1,2), [2,4) ... up to ~35 minutes
+    private static final int LATENCY_BUCKETS = 32;
+
+    private record Task(String user, AtomicInteger pending, Runnable send, long enqueuedNanos) {
+    }
+
+    private final List<BlockingQueue<Task>> queues;
+    private final List<Thread> workers = new ArrayList<>();
+    private final int perUserLimit;
+    private final SessionSendBuffers sendBuffers;
+    private final ConcurrentHashMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder droppedQueueFull = new LongAdder();
+    private final LongAdder droppedUserBacklog = new LongAdder();
+    private final LongAdder droppedSlowClient = new LongAdder();
+    private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BUCKETS);
+    // Open STOMP sessions by id; disconnect events can repeat for one session, so the gauge is the set size
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+
+    public WebSocketDispatcher(@Value("${wallet.websocket.dispatch.shards:0}") int shards,
+                               @Value("${wallet.websocket.dispatch.queue-capacity:10000}") int queueCapacity,
+                               @Value("${wallet.websocket.dispatch.per-user-limit:100}") int perUserLimit,
+                               SessionSendBuffers sendBuffers) {
+        int shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.perUserLimit = perUserLimit;
+        this.sendBuffers = sendBuffers;
+        this.queues = new ArrayList<>(shardCount);
+
+        for (int i = 0; i < shardCount; i++) {
+            BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            Thread worker = new Thread(() -> runShard(queue), "ws-dispatch-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("📡 WebSocket dispatcher started: {} shards × {} queued messages", shardCount, queueCapacity);
+    }
+
+    /**
+     * Queues {@code send} on the user's shard. Returns false if the message
+     * was dropped because the client is not keeping up, or the shard or the
+     * user's backlog is full.
+     */
+    public boolean dispatch(String user, Runnable send) {
+        if (sendBuffers.isBackedUp(user)) {
+            droppedSlowClient.increment();
+            log.debug("Dropped notification for {}: session send buffers backed up", user);
+            return false;
+        }
+
+        AtomicInteger pending = inFlight.computeIfAbsent(user, key -> new AtomicInteger());
+        if (pending.incrementAndGet() > perUserLimit) {
+            release(user, pending);
+            droppedUserBacklog.increment();
+            log.debug("Dropped notification for {}: {} already in flight", user, perUserLimit);
+            return false;
+        }
+
+        if (!queues.get(shardOf(user)).offer(new Task(user, pending, send, System.nanoTime()))) {
+            release(user, pending);
+            droppedQueueFull.increment();
+            log.debug("Dropped notification for {}: shard queue full", user);
+            return false;
+        }
+        dispatched.increment();
+        return true;
+    }
+
+    private int shardOf(String user) {
+        return Math.floorMod(user.hashCode(), queues.size());
+    }
+
+    private void runShard(BlockingQueue<Task> queue) {
+        while (running) {
+            Task task;
+            try {
+                task = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+
+            try {
+                task.send().run();
+                sent.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("❌ WebSocket send to {} failed: {}", task.user(), e.getMessage());
+            } finally {
+                release(task.user(), task.pending());
+                recordLatency(System.nanoTime() - task.enqueuedNanos());
+            }
+        }
+    }
+
+    private void release(String user, AtomicInteger pending) {
+        if (pending.decrementAndGet() <= 0) {
+            inFlight.remove(user, pending);
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        int bucket = Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latency.incrementAndGet(bucket);
+    }
+
+    // ─── Sessions ─────────────────────────────────────────────────────────────
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    // ─── Metrics ──────────────────────────────────────────────────────────────
+
+    public DispatcherStatsDTO getStats() {
+        List<Integer> depths = new ArrayList<>(queues.size());
+        for (BlockingQueue<Task> queue : queues) {
+            depths.add(queue.size());
+        }
+        return new DispatcherStatsDTO(
+                sessions.size(),
+                depths,
+                dispatched.sum(),
+                sent.sum(),
+                failed.sum(),
+                droppedQueueFull.sum(),
+                droppedUserBacklog.sum(),
+                droppedSlowClient.sum(),
+                latencyPercentileMicros(0.50),
+                latencyPercentileMicros(0.99));
+    }
+
+    // Upper bound of the bucket holding the given percentile
+    private long latencyPercentileMicros(double percentile) {
+        long total = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            total += latency.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += latency.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (LATENCY_BUCKETS - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
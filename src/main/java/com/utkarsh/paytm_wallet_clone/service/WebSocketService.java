@@ -1,26 +1,64 @@
 package com.utkarsh.paytm_wallet_clone.service;
 
+import com.utkarsh.paytm_wallet_clone.cluster.ClusterMessageRouter;
 import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BroadcastMessage;
+import com.utkarsh.paytm_wallet_clone.event.NotificationQueuedEvent;
+import com.utkarsh.paytm_wallet_clone.model.NotificationOutbox;
+import com.utkarsh.paytm_wallet_clone.repository.NotificationOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
+/**
+ * Balance notifications.
+ *
+ * The {@code notify*} methods only write to the notification outbox, inside
+ * the caller's transaction, so a rolled-back transfer never announces a
+ * balance. {@link OutboxRelayService} drains the outbox after commit and
+ * calls {@link #sendBalanceUpdate} to do the actual STOMP send.
+ */
 @Service
 public class WebSocketService {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketService.class);
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterMessageRouter clusterRouter;
+    private final NotificationOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WebSocketDispatcher dispatcher;
+    private final BalanceUpdateCoalescer coalescer;
+    private final NotificationReplayService replayService;
 
-    public WebSocketService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketService(ClusterMessageRouter clusterRouter,
+                            NotificationOutboxRepository outboxRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            WebSocketDispatcher dispatcher,
+                            BalanceUpdateCoalescer coalescer,
+                            NotificationReplayService replayService) {
+        this.clusterRouter = clusterRouter;
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.dispatcher = dispatcher;
+        this.coalescer = coalescer;
+        this.replayService = replayService;
     }
 
     /**
-     * Send balance update to specific user
+     * Queue a balance update in the outbox; delivered once the transaction commits
+     */
+    public void queueBalanceUpdate(String userEmail, String type, BigDecimal newBalance,
+                                   BigDecimal amount, String fromUser, String message) {
+        outboxRepository.save(new NotificationOutbox(userEmail, type, newBalance, amount, fromUser, message));
+        eventPublisher.publishEvent(new NotificationQueuedEvent(userEmail));
+    }
+
+    /**
+     * Send balance update to specific user (called by the outbox relay)
      */
     public void sendBalanceUpdate(String userEmail, String type, BigDecimal newBalance, 
                                     BigDecimal amount, String fromUser, String message) {
@@ -29,15 +67,39 @@ public class WebSocketService {
                 type, newBalance, amount, fromUser, message
         );
         
-        // Send to user-specific queue
-        messagingTemplate.convertAndSendToUser(
-                userEmail,
-                "/queue/balance",
-                notification
-        );
-        
-        log.info("🔔 WebSocket notification sent to {} | Type: {} | Amount: ₹{}", 
-                userEmail, type, amount);
+        if (coalescer.isEnabled()) {
+            coalescer.offer(userEmail, notification, this::deliver);
+        } else {
+            deliver(userEmail, notification);
+        }
+    }
+
+    private void deliver(String userEmail, BalanceUpdateMessage notification) {
+        // Buffered for replay first: a frame the dispatcher drops is never retried from the outbox,
+        // the client recovers it from the ring when it sees a seq gap or reconnects
+        replayService.publish(userEmail, notification, numbered -> {
+            // Send to user-specific queue on the user's dispatcher shard, relayed if they are on another node
+            boolean queued = dispatcher.dispatch(userEmail, () -> clusterRouter.sendToUser(
+                    userEmail,
+                    LocalNotificationDelivery.BALANCE_DESTINATION,
+                    numbered
+            ));
+
+            if (queued) {
+                log.info("🔔 WebSocket notification sent to {} | Type: {} | Amount: ₹{} | Seq: {}",
+                        userEmail, numbered.getType(), numbered.getAmount(), numbered.getSeq());
+            }
+        });
+    }
+
+    /**
+     * Push a maintenance notice or promotion to every connected session, on every node
+     */
+    public BroadcastMessage broadcast(String type, String title, String message) {
+        BroadcastMessage broadcast = new BroadcastMessage(UUID.randomUUID().toString(), type, title, message);
+        clusterRouter.broadcast(LocalNotificationDelivery.BROADCAST_DESTINATION, broadcast);
+        log.info("📢 Broadcast {} queued | Type: {} | Title: {}", broadcast.getId(), type, title);
+        return broadcast;
     }
 
     /**
@@ -45,7 +107,7 @@ public class WebSocketService {
      */
     public void notifyPaymentReceived(String userEmail, BigDecimal amount, BigDecimal newBalance) {
         String message = String.format("💰 Payment of ₹%.2f received!", amount);
-        sendBalanceUpdate(userEmail, "CREDIT", newBalance, amount, null, message);
+        queueBalanceUpdate(userEmail, "CREDIT", newBalance, amount, null, message);
     }
 
     /**
@@ -54,7 +116,7 @@ public class WebSocketService {
     public void notifyTransferReceived(String recipientEmail, String senderName, 
                                         BigDecimal amount, BigDecimal newBalance) {
         String message = String.format("💰 You received ₹%.2f from %s", amount, senderName);
-        sendBalanceUpdate(recipientEmail, "TRANSFER_RECEIVED", newBalance, amount, senderName, message);
+        queueBalanceUpdate(recipientEmail, "TRANSFER_RECEIVED", newBalance, amount, senderName, message);
     }
 
     /**
@@ -63,6 +125,6 @@ public class WebSocketService {
     public void notifyTransferSent(String senderEmail, String recipientName, 
                                      BigDecimal amount, BigDecimal newBalance) {
         String message = String.format("✅ Transfer of ₹%.2f to %s completed", amount, recipientName);
-        sendBalanceUpdate(senderEmail, "DEBIT", newBalance, amount, recipientName, message);
+        queueBalanceUpdate(senderEmail, "DEBIT", newBalance, amount, recipientName, message);
     }
 }
@@ -0,0 +1,257 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner;
+import com.utkarsh.paytm_wallet_clone.dto.response.WebhookInboxStatsDTO;
+import com.utkarsh.paytm_wallet_clone.model.WebhookInboxEvent;
+import com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WebhookInboxRepository;
+import com.utkarsh.paytm_wallet_clone.util.WebhookEventParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Persist-then-ack ingestion for gateway webhooks.
+ *
+ * The webhook request only verifies the signature and inserts the raw event;
+ * the event id's unique key turns redeliveries into no-ops. Events are then
+ * claimed in batches and handed to one of N single-threaded partitions by
+ * user id, so one user's events apply in the order received while different
+ * users proceed in parallel. Each event is applied and marked processed in
+ * one transaction; failures are retried with backoff up to
+ * {@code max-attempts}. A retried event can land after later events for the
+ * same user — payment events are per order, so that is safe.
+ */
+@Service
+public class WebhookInboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInboxService.class);
+
+    static final String PAYMENT_CAPTURED = "payment.captured";
+
+    private final WebhookInboxRepository inboxRepository;
+    private final RazorpayOrderRepository razorpayOrderRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration claimTimeout;
+    private final int maxInFlight;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "webhook-dispatch"));
+    private final List<ThreadPoolExecutor> partitions;
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private volatile long lastLagMs;
+
+    public WebhookInboxService(WebhookInboxRepository inboxRepository,
+                               RazorpayOrderRepository razorpayOrderRepository,
+                               PaymentService paymentService,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${wallet.webhook.inbox.partitions:8}") int partitionCount,
+                               @Value("${wallet.webhook.inbox.batch-size:200}") int batchSize,
+                               @Value("${wallet.webhook.inbox.max-attempts:8}") int maxAttempts,
+                               @Value("${wallet.webhook.inbox.retry-backoff:15s}") Duration retryBackoff,
+                               @Value("${wallet.webhook.inbox.claim-timeout:5m}") Duration claimTimeout) {
+        this.inboxRepository = inboxRepository;
+        this.razorpayOrderRepository = razorpayOrderRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimTimeout = claimTimeout;
+        this.maxInFlight = partitionCount * batchSize;
+
+        this.partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            String name = "webhook-inbox-" + i;
+            partitions.add(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> new Thread(r, name)));
+        }
+    }
+
+    /**
+     * Stores a verified event. Returns false if the event was already in the
+     * inbox — the gateway is redelivering something we have.
+     */
+    public boolean accept(String eventId, String eventType, String orderId, String payload) {
+        try {
+            inboxRepository.saveAndFlush(new WebhookInboxEvent(eventId, eventType, orderId, payload));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Webhook event {} already in the inbox", eventId);
+            return false;
+        }
+        requestDispatch();
+        return true;
+    }
+
+    // Picks up retries whose backoff has passed and claims abandoned by a dead node
+    @Scheduled(fixedDelayString = "${wallet.webhook.inbox.poll-ms:5000}")
+    public void poll() {
+        int released = inboxRepository.releaseStaleClaims(
+                WebhookInboxStatus.QUEUED, WebhookInboxStatus.RECEIVED, LocalDateTime.now().minus(claimTimeout));
+        if (released > 0) {
+            log.warn("⚠️ Re-queued {} webhook events left claimed for over {}", released, claimTimeout);
+        }
+        requestDispatch();
+    }
+
+    public WebhookInboxStatsDTO getStats() {
+        LocalDateTime oldest = inboxRepository.findOldestReceivedAt(
+                List.of(WebhookInboxStatus.RECEIVED, WebhookInboxStatus.QUEUED));
+        long oldestAgeMs = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+        return new WebhookInboxStatsDTO(
+                inboxRepository.countByStatus(WebhookInboxStatus.RECEIVED),
+                inboxRepository.countByStatus(WebhookInboxStatus.FAILED),
+                partitions.stream().map(p -> p.getQueue().size()).toList(),
+                processed.sum(), retried.sum(), oldestAgeMs, lastLagMs);
+    }
+
+    // ─── Dispatch ─────────────────────────────────────────────────────────────
+
+    private void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        // Cleared before claiming so an event accepted mid-dispatch schedules another pass
+        dispatchRequested.set(false);
+        try {
+            int claimed;
+            do {
+                int room = maxInFlight - inFlight.get();
+                if (room <= 0) {
+                    return;   // workers ask for another pass once they catch up
+                }
+                claimed = claimBatch(Math.min(batchSize, room));
+            } while (claimed == batchSize);
+        } catch (Exception e) {
+            // Unclaimed rows stay RECEIVED and go out on the next poll
+            log.error("❌ Webhook inbox dispatch failed", e);
+        }
+    }
+
+    private int claimBatch(int limit) {
+        List<WebhookInboxEvent> events = transactionTemplate.execute(status -> {
+            List<WebhookInboxEvent> rows = inboxRepository.lockNextBatch(LocalDateTime.now(), limit);
+            if (!rows.isEmpty()) {
+                inboxRepository.markClaimed(rows.stream().map(WebhookInboxEvent::getId).toList(),
+                        WebhookInboxStatus.QUEUED, LocalDateTime.now());
+            }
+            return rows;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        List<String> orderIds = events.stream().map(WebhookInboxEvent::getOrderId)
+                .filter(Objects::nonNull).distinct().toList();
+        Map<String, Long> owners = orderIds.isEmpty() ? Map.of()
+                : razorpayOrderRepository.findOwners(orderIds).stream()
+                        .collect(Collectors.toMap(OrderOwner::orderId, OrderOwner::userId));
+
+        for (WebhookInboxEvent event : events) {
+            inFlight.incrementAndGet();
+            partitionFor(owners.get(event.getOrderId()), event.getOrderId()).execute(() -> {
+                try {
+                    process(event);
+                } finally {
+                    if (inFlight.decrementAndGet() == maxInFlight / 2) {
+                        requestDispatch();
+                    }
+                }
+            });
+        }
+        return events.size();
+    }
+
+    // Events for unknown orders still partition by order id so redeliveries stay together
+    private ThreadPoolExecutor partitionFor(Long userId, String orderId) {
+        int hash = userId != null ? Long.hashCode(userId) : Objects.hashCode(orderId);
+        return partitions.get(Math.floorMod(hash, partitions.size()));
+    }
+
+    // ─── Processing ───────────────────────────────────────────────────────────
+
+    void process(WebhookInboxEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                apply(event);
+                inboxRepository.markDone(event.getId(), WebhookInboxStatus.PROCESSED, LocalDateTime.now());
+            });
+            processed.increment();
+            lastLagMs = Duration.between(event.getReceivedAt(), LocalDateTime.now()).toMillis();
+        } catch (Exception e) {
+            int attempt = event.getAttempts() + 1;
+            boolean giveUp = attempt >= maxAttempts;
+            LocalDateTime nextAttempt = LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 10)));
+            inboxRepository.markAttemptFailed(event.getId(),
+                    giveUp ? WebhookInboxStatus.FAILED : WebhookInboxStatus.RECEIVED,
+                    truncate(e.getMessage()), nextAttempt);
+            retried.increment();
+
+            if (giveUp) {
+                log.error("❌ Webhook event {} failed after {} attempts: {}", event.getEventId(), attempt, e.getMessage());
+            } else {
+                log.warn("⚠️ Webhook event {} failed (attempt {}), retrying at {}: {}",
+                        event.getEventId(), attempt, nextAttempt, e.getMessage());
+            }
+        }
+    }
+
+    private void apply(WebhookInboxEvent event) {
+        if (!PAYMENT_CAPTURED.equals(event.getEventType())) {
+            return;   // stored for the record; nothing to apply
+        }
+        WebhookEventParser.Fields fields = WebhookEventParser.parse(event.getPayload());
+        if (fields.paymentId() == null || fields.orderId() == null || fields.amount() < 0) {
+            throw new IllegalArgumentException("payment.captured without payment id, order id or amount");
+        }
+        paymentService.handlePaymentSuccess(
+                fields.orderId(), fields.paymentId(), Math.toIntExact(fields.amount()));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Queued events stay QUEUED and are re-claimed after the claim timeout
+        dispatcher.shutdownNow();
+        partitions.forEach(ExecutorService::shutdownNow);
+    }
+}
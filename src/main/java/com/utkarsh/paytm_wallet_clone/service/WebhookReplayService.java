@@ -0,0 +1,349 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner;
+import com.utkarsh.paytm_wallet_clone.dto.response.WebhookReplayStatusDTO;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.security.WebhookSignatureVerifier;
+import com.utkarsh.paytm_wallet_clone.util.ImportDirectory;
+import com.utkarsh.paytm_wallet_clone.util.WebhookEventParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Re-ingests Razorpay events exported to an NDJSON file after an outage.
+ *
+ * One event per line, with the body kept as a string so its exact bytes
+ * can be verified:
+ *
+ * <pre>
+ * {"event_id":"evt_Pxyz","signature":"&lt;hex HMAC of body&gt;","body":"{\"entity\":\"event\",...}"}
+ * </pre>
+ *
+ * Lines are read in order; the signature is checked with the webhook secret
+ * and anything that fails is counted as rejected. Events repeated in the file
+ * are skipped and counted apart from those already applied. Verified {@code payment.captured} events are looked up to
+ * their order's user in batches and handed to one of N single-threaded
+ * partitions by that user — as in the webhook inbox, a user's events apply
+ * in file order and never contend for the same wallet row, while different
+ * users proceed in parallel. Each goes through
+ * {@link PaymentService#handlePaymentSuccess}, so events the live webhook
+ * already applied are counted as such. Lines that fail are copied to
+ * {@code <file>.failed.ndjson} in the {@link ImportDirectory}, which can be
+ * replayed unchanged.
+ */
+@Service
+public class WebhookReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookReplayService.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int LOGGED_PROBLEMS = 20;
+
+    private record ReplayLine(String eventId, String signature, String body) {
+    }
+
+    private record CapturedEvent(long lineNo, String line, String orderId, String paymentId, long amount) {
+    }
+
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final RazorpayOrderRepository razorpayOrderRepository;
+    private final PaymentService paymentService;
+    private final ImportDirectory importDirectory;
+    private final int partitionCount;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "webhook-replay"));
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    public WebhookReplayService(WebhookSignatureVerifier signatureVerifier,
+                                RazorpayOrderRepository razorpayOrderRepository,
+                                PaymentService paymentService,
+                                ImportDirectory importDirectory,
+                                @Value("${wallet.webhook.replay.partitions:8}") int partitionCount,
+                                @Value("${wallet.webhook.replay.batch-size:500}") int batchSize,
+                                @Value("${wallet.webhook.replay.max-in-flight:5000}") int maxInFlight) {
+        this.signatureVerifier = signatureVerifier;
+        this.razorpayOrderRepository = razorpayOrderRepository;
+        this.paymentService = paymentService;
+        this.importDirectory = importDirectory;
+        this.partitionCount = partitionCount;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // ─── Job control ──────────────────────────────────────────────────────────
+
+    /** Queues a replay of {@code file}, which must be inside the {@link ImportDirectory}. */
+    public WebhookReplayStatusDTO startReplay(Path file) {
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Event file not readable: " + file);
+        }
+        Path failedFile = importDirectory.sibling(file, ".failed.ndjson");
+
+        ReplayJob job = new ReplayJob(UUID.randomUUID().toString(), file, failedFile);
+        jobs.put(job.id, job);
+        jobExecutor.submit(() -> run(job));
+
+        log.info("🔁 Webhook replay {} queued: {}", job.id, file);
+        return job.toStatus();
+    }
+
+    public WebhookReplayStatusDTO getStatus(String jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown webhook replay job: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    // ─── Pipeline ─────────────────────────────────────────────────────────────
+
+    private void run(ReplayJob job) {
+        job.state = "RUNNING";
+        job.startedNanos = System.nanoTime();
+
+        List<ExecutorService> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            String name = "webhook-replay-" + i;
+            partitions.add(Executors.newSingleThreadExecutor(r -> new Thread(r, name)));
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        try (BufferedReader in = Files.newBufferedReader(job.file, StandardCharsets.UTF_8);
+             BufferedWriter failed = Files.newBufferedWriter(job.failedFile, StandardCharsets.UTF_8)) {
+
+            Set<String> seen = new HashSet<>();
+            List<CapturedEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                job.linesRead.set(++lineNo);
+                if (line.isBlank()) {
+                    continue;
+                }
+                CapturedEvent event = verify(job, lineNo, line, seen);
+                if (event != null) {
+                    batch.add(event);
+                    if (batch.size() == batchSize) {
+                        dispatch(job, batch, partitions, inFlight, failed);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                dispatch(job, batch, partitions, inFlight, failed);
+            }
+            inFlight.acquire(maxInFlight);   // every partition has drained
+            job.state = "COMPLETED";
+
+            WebhookReplayStatusDTO status = job.toStatus();
+            log.info("✅ Webhook replay {} completed: {} credited, {} already applied, {} repeated in file, {} ignored, {} rejected, {} failed ({} events/s)",
+                    job.id, status.getCredited(), status.getAlreadyApplied(), status.getRepeatedInFile(), status.getIgnored(),
+                    status.getRejected(), status.getFailed(), Math.round(status.getEventsPerSecond()));
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.state = "FAILED";
+            job.failure = e.getMessage();
+            log.error("❌ Webhook replay {} failed at line {}", job.id, job.linesRead.get(), e);
+        } finally {
+            job.finishedNanos = System.nanoTime();
+            partitions.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    // Returns the event to apply, or null once the line has been counted as something else
+    private CapturedEvent verify(ReplayJob job, long lineNo, String line, Set<String> seen) {
+        ReplayLine replay;
+        try {
+            replay = parseLine(line);
+        } catch (IllegalArgumentException e) {
+            reject(job, lineNo, e.getMessage());
+            return null;
+        }
+        byte[] body = replay.body().getBytes(StandardCharsets.UTF_8);
+        if (!signatureVerifier.verify(body, replay.signature())) {
+            reject(job, lineNo, "invalid signature");
+            return null;
+        }
+        // The signature is an HMAC of the body, so it identifies the event when no id was exported
+        if (!seen.add(replay.eventId() != null ? replay.eventId() : replay.signature())) {
+            job.repeatedInFile.incrementAndGet();
+            return null;
+        }
+
+        WebhookEventParser.Fields fields;
+        try {
+            fields = WebhookEventParser.parse(body);
+        } catch (IllegalArgumentException e) {
+            reject(job, lineNo, e.getMessage());
+            return null;
+        }
+        if (!WebhookInboxService.PAYMENT_CAPTURED.equals(fields.event())) {
+            job.ignored.incrementAndGet();
+            return null;
+        }
+        if (fields.paymentId() == null || fields.orderId() == null || fields.amount() < 0) {
+            reject(job, lineNo, "payment.captured without payment id, order id or amount");
+            return null;
+        }
+        return new CapturedEvent(lineNo, line, fields.orderId(), fields.paymentId(), fields.amount());
+    }
+
+    private void dispatch(ReplayJob job, List<CapturedEvent> batch, List<ExecutorService> partitions,
+                          Semaphore inFlight, BufferedWriter failed) throws InterruptedException {
+        List<String> orderIds = batch.stream().map(CapturedEvent::orderId).distinct().toList();
+        Map<String, Long> owners = razorpayOrderRepository.findOwners(orderIds).stream()
+                .collect(Collectors.toMap(OrderOwner::orderId, OrderOwner::userId));
+
+        for (CapturedEvent event : batch) {
+            Long userId = owners.get(event.orderId());
+            if (userId == null) {
+                fail(job, event, "unknown order " + event.orderId(), failed);
+                continue;
+            }
+            inFlight.acquire();
+            partitions.get(Math.floorMod(Long.hashCode(userId), partitions.size())).execute(() -> {
+                try {
+                    apply(job, event, failed);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void apply(ReplayJob job, CapturedEvent event, BufferedWriter failed) {
+        try {
+            boolean credited = paymentService.handlePaymentSuccess(
+                    event.orderId(), event.paymentId(), Math.toIntExact(event.amount()));
+            (credited ? job.credited : job.alreadyApplied).incrementAndGet();
+        } catch (Exception e) {
+            fail(job, event, e.getMessage(), failed);
+        }
+    }
+
+    private void fail(ReplayJob job, CapturedEvent event, String reason, BufferedWriter failed) {
+        if (job.failed.incrementAndGet() <= LOGGED_PROBLEMS) {
+            log.warn("⚠️ Webhook replay {} line {} failed: {}", job.id, event.lineNo(), reason);
+        }
+        synchronized (failed) {
+            try {
+                failed.write(event.line());
+                failed.newLine();
+            } catch (IOException e) {
+                log.warn("Could not write failed replay line {}: {}", event.lineNo(), e.getMessage());
+            }
+        }
+    }
+
+    private void reject(ReplayJob job, long lineNo, String reason) {
+        if (job.rejected.incrementAndGet() <= LOGGED_PROBLEMS) {
+            log.warn("⚠️ Webhook replay {} line {} rejected: {}", job.id, lineNo, reason);
+        }
+    }
+
+    /** Reads {@code event_id}, {@code signature} and {@code body} from one NDJSON line. */
+    private static ReplayLine parseLine(String line) {
+        try (JsonParser parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("not a JSON object");
+            }
+            String eventId = null;
+            String signature = null;
+            String body = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING) {
+                    switch (name) {
+                        case "event_id" -> eventId = parser.getText();
+                        case "signature" -> signature = parser.getText();
+                        case "body" -> body = parser.getText();
+                        default -> { }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (signature == null || body == null) {
+                throw new IllegalArgumentException("signature and body are required");
+            }
+            return new ReplayLine(eventId, signature, body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("malformed line: " + e.getMessage(), e);
+        }
+    }
+
+    // ─── Internal state ───────────────────────────────────────────────────────
+
+    private static final class ReplayJob {
+        final String id;
+        final Path file;
+        final Path failedFile;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong linesRead = new AtomicLong();
+        final AtomicLong credited = new AtomicLong();
+        final AtomicLong repeatedInFile = new AtomicLong();
+        final AtomicLong alreadyApplied = new AtomicLong();
+        final AtomicLong ignored = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        volatile long startedNanos;
+        volatile long finishedNanos;
+        volatile String state = "QUEUED";
+        volatile String failure;
+
+        ReplayJob(String id, Path file, Path failedFile) {
+            this.id = id;
+            this.file = file;
+            this.failedFile = failedFile;
+        }
+
+        WebhookReplayStatusDTO toStatus() {
+            long durationMs = startedNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(
+                    (finishedNanos != 0 ? finishedNanos : System.nanoTime()) - startedNanos);
+            long processed = credited.get() + alreadyApplied.get() + failed.get();
+            double eventsPerSecond = durationMs == 0 ? 0 : processed * 1000.0 / durationMs;
+            return new WebhookReplayStatusDTO(id, file.toString(), state, linesRead.get(),
+                    credited.get(), repeatedInFile.get(), alreadyApplied.get(), ignored.get(), rejected.get(),
+                    failed.get(), eventsPerSecond, durationMs, failedFile.toString(), failure, startedAt);
+        }
+    }
+}
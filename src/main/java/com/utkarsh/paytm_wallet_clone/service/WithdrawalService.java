@@ -0,0 +1,106 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.WithdrawalRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.WithdrawalDTO;
+import com.utkarsh.paytm_wallet_clone.exception.InsufficientFundsException;
+import com.utkarsh.paytm_wallet_clone.exception.WalletNotFoundException;
+import com.utkarsh.paytm_wallet_clone.exception.WithdrawalNotFoundException;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.model.Wallet;
+import com.utkarsh.paytm_wallet_clone.model.Withdrawal;
+import com.utkarsh.paytm_wallet_clone.model.enums.WithdrawalStatus;
+import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WithdrawalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Withdrawal requests. A request only places a hold on the wallet — one
+ * conditional UPDATE, no row lock kept — and the money leaves the balance
+ * when {@link PayoutService} settles the next cycle.
+ */
+@Service
+public class WithdrawalService {
+
+    private static final Logger log = LoggerFactory.getLogger(WithdrawalService.class);
+
+    private static final int MAX_LISTED = 50;
+
+    private final WithdrawalRepository withdrawalRepository;
+    private final WalletRepository walletRepository;
+
+    public WithdrawalService(WithdrawalRepository withdrawalRepository,
+                             WalletRepository walletRepository) {
+        this.withdrawalRepository = withdrawalRepository;
+        this.walletRepository = walletRepository;
+    }
+
+    @Transactional
+    public WithdrawalDTO requestWithdrawal(User user, WithdrawalRequest request) {
+        BigDecimal amount = request.getAmount();
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Amount can have at most two decimal places");
+        }
+
+        Wallet wallet = walletRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new WalletNotFoundException(
+                        "Wallet not found for user: " + user.getEmail()));
+
+        if (walletRepository.placeHold(wallet.getId(), amount) == 0) {
+            log.warn("Withdrawal refused for {}: ₹{} exceeds available balance", user.getEmail(), amount);
+            throw new InsufficientFundsException("Insufficient funds for a withdrawal of ₹" + amount);
+        }
+
+        Withdrawal withdrawal = new Withdrawal();
+        withdrawal.setUser(user);
+        withdrawal.setWalletId(wallet.getId());
+        withdrawal.setAmount(amount);
+        withdrawal.setAccountNumber(request.getAccountNumber());
+        withdrawal.setIfsc(request.getIfsc());
+        withdrawal.setAccountHolder(request.getAccountHolder().trim());
+        withdrawalRepository.save(withdrawal);
+
+        log.info("🏧 Withdrawal {} requested: {} | ₹{} held", withdrawal.getId(), user.getEmail(), amount);
+        return toDTO(withdrawal);
+    }
+
+    /** Cancels a PENDING withdrawal and releases its hold; fails once the payout cycle has it. */
+    @Transactional
+    public WithdrawalDTO cancelWithdrawal(User user, Long withdrawalId) {
+        Withdrawal withdrawal = withdrawalRepository.findById(withdrawalId)
+                .filter(w -> w.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new WithdrawalNotFoundException("Withdrawal not found: " + withdrawalId));
+
+        int cancelled = withdrawalRepository.transition(withdrawalId, user.getId(),
+                WithdrawalStatus.PENDING, WithdrawalStatus.CANCELLED);
+        if (cancelled == 0) {
+            throw new IllegalArgumentException("Withdrawal " + withdrawalId + " can no longer be cancelled");
+        }
+        walletRepository.releaseHold(withdrawal.getWalletId(), withdrawal.getAmount());
+        withdrawal.setStatus(WithdrawalStatus.CANCELLED);
+
+        log.info("🏧 Withdrawal {} cancelled by {} | ₹{} released", withdrawalId, user.getEmail(), withdrawal.getAmount());
+        return toDTO(withdrawal);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WithdrawalDTO> getWithdrawals(User user) {
+        return withdrawalRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), PageRequest.of(0, MAX_LISTED))
+                .stream()
+                .map(WithdrawalService::toDTO)
+                .toList();
+    }
+
+    private static WithdrawalDTO toDTO(Withdrawal withdrawal) {
+        String account = withdrawal.getAccountNumber();
+        return new WithdrawalDTO(withdrawal.getId(), withdrawal.getAmount(), withdrawal.getStatus().name(),
+                "XXXX" + account.substring(account.length() - 4), withdrawal.getIfsc(),
+                withdrawal.getTxnRef(), withdrawal.getCreatedAt(), withdrawal.getSettledAt());
+    }
+}
@@ -0,0 +1,142 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Fixed binary layout for balance frames, negotiated per STOMP session as an
+ * alternative to JSON. Amounts travel as paise in a long and the free-text
+ * message is left out — clients render it from type, amount and sender.
+ *
+ * <pre>
+ *  offset  size  field
+ *   0       1    version (1)
+ *   1       1    type: 1 CREDIT, 2 DEBIT, 3 TRANSFER_RECEIVED, 4 SUMMARY, 0 other
+ *   2       1    flags: bit 0 = summary block present, bit 1 = sender present
+ *   3       8    seq (0 if unsequenced)
+ *  11       8    new balance, paise
+ *  19       8    amount, paise (SUMMARY: net change)
+ *  27       8    timestamp, epoch millis
+ *  35      20    [summary] count int, credited paise, debited paise
+ *   .     2+n    [sender]  length short + UTF-8 bytes
+ * </pre>
+ *
+ * All multi-byte fields are big-endian.
+ */
+public final class BalanceFrameCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final String[] TYPES = {null, "CREDIT", "DEBIT", "TRANSFER_RECEIVED", "SUMMARY"};
+    private static final int HEADER_BYTES = 35;
+    private static final int SUMMARY_BYTES = 20;
+    private static final int FLAG_SUMMARY = 1;
+    private static final int FLAG_SENDER = 2;
+    private static final int MAX_SENDER_BYTES = 255;
+
+    private BalanceFrameCodec() {
+    }
+
+    public static byte[] encode(BalanceUpdateMessage message) {
+        byte[] sender = senderBytes(message.getFromUser());
+        boolean summary = message.getCount() != null;
+
+        int flags = (summary ? FLAG_SUMMARY : 0) | (sender != null ? FLAG_SENDER : 0);
+        int size = HEADER_BYTES + (summary ? SUMMARY_BYTES : 0) + (sender != null ? 2 + sender.length : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(VERSION)
+                .put(typeCode(message.getType()))
+                .put((byte) flags)
+                .putLong(message.getSeq() != null ? message.getSeq() : 0)
+                .putLong(toPaise(message.getNewBalance()))
+                .putLong(toPaise(message.getAmount()))
+                .putLong(toEpochMillis(message.getTimestamp()));
+        if (summary) {
+            buffer.putInt(message.getCount())
+                    .putLong(toPaise(message.getTotalCredited()))
+                    .putLong(toPaise(message.getTotalDebited()));
+        }
+        if (sender != null) {
+            buffer.putShort((short) sender.length).put(sender);
+        }
+        return buffer.array();
+    }
+
+    public static BalanceUpdateMessage decode(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported balance frame version " + version);
+        }
+        int typeCode = buffer.get();
+        int flags = buffer.get();
+        long seq = buffer.getLong();
+        BigDecimal newBalance = fromPaise(buffer.getLong());
+        BigDecimal amount = fromPaise(buffer.getLong());
+        long timestamp = buffer.getLong();
+
+        String type = typeCode > 0 && typeCode < TYPES.length ? TYPES[typeCode] : null;
+        BalanceUpdateMessage message = new BalanceUpdateMessage(type, newBalance, amount, null, null);
+        message.setSeq(seq != 0 ? seq : null);
+        message.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+
+        if ((flags & FLAG_SUMMARY) != 0) {
+            message.setCount(buffer.getInt());
+            message.setTotalCredited(fromPaise(buffer.getLong()));
+            message.setTotalDebited(fromPaise(buffer.getLong()));
+        }
+        if ((flags & FLAG_SENDER) != 0) {
+            byte[] sender = new byte[buffer.getShort()];
+            buffer.get(sender);
+            message.setFromUser(new String(sender, StandardCharsets.UTF_8));
+        }
+        return message;
+    }
+
+    private static byte typeCode(String type) {
+        for (int i = 1; i < TYPES.length; i++) {
+            if (TYPES[i].equals(type)) {
+                return (byte) i;
+            }
+        }
+        return 0;
+    }
+
+    // Sender names are display names; anything past 255 bytes is cut at a character boundary
+    private static byte[] senderBytes(String fromUser) {
+        if (fromUser == null) {
+            return null;
+        }
+        byte[] bytes = fromUser.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_SENDER_BYTES) {
+            return bytes;
+        }
+        int end = MAX_SENDER_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(bytes, 0, truncated, 0, end);
+        return truncated;
+    }
+
+    private static long toPaise(BigDecimal rupees) {
+        return rupees == null ? 0 : rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? 0 : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
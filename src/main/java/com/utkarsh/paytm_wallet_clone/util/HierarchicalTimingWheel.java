@@ -0,0 +1,136 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) for coarse-grained deadlines.
+ *
+ * Level 0 has one slot per tick; every level above covers {@code wheelSize}
+ * slots of the level below. A deadline lands on the lowest level whose span
+ * covers it and is cascaded down as time reaches its slot, so adding and
+ * expiring are O(1) regardless of how many deadlines are outstanding.
+ * Deadlines beyond the total span wait in an overflow list that is re-filed
+ * whenever the top level wraps.
+ *
+ * Not lock-free — all public methods are synchronized. Callers add from
+ * request threads and advance from a single scheduler thread.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final int levels;
+    private final long[] levelSpan;           // ticks covered by one slot at each level
+    private final List<Entry<T>>[][] slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<T> due = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.levelSpan = new long[levels + 1];
+        levelSpan[0] = 1;
+        for (int l = 1; l <= levels; l++) {
+            levelSpan[l] = Math.multiplyExact(levelSpan[l - 1], wheelSize);
+        }
+        this.slots = new List[levels][wheelSize];
+        this.currentTick = startMs / tickMs;
+    }
+
+    // ─── Add ─────────────────────────────────────────────────────────────────
+
+    public synchronized void add(long deadlineMs, T item) {
+        place(new Entry<>(deadlineMs / tickMs, item));
+        size++;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(entry.item);
+            return;
+        }
+        for (int l = 0; l < levels; l++) {
+            if (delta < levelSpan[l + 1]) {
+                int slot = (int) ((entry.deadlineTick / levelSpan[l]) % wheelSize);
+                List<Entry<T>> bucket = slots[l][slot];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    slots[l][slot] = bucket;
+                }
+                bucket.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    // ─── Advance ─────────────────────────────────────────────────────────────
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and returns every item whose
+     * deadline has passed, in no particular order.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick % wheelSize);
+            List<Entry<T>> bucket = slots[0][slot];
+            if (bucket != null) {
+                slots[0][slot] = null;
+                for (Entry<T> entry : bucket) {
+                    due.add(entry.item);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>(due);
+        due.clear();
+        size -= expired.size();
+        return expired;
+    }
+
+    // Re-file higher level slots whose time has come, top level first
+    private void cascade() {
+        for (int l = levels - 1; l >= 1; l--) {
+            if (currentTick % levelSpan[l] != 0) {
+                continue;
+            }
+            int slot = (int) ((currentTick / levelSpan[l]) % wheelSize);
+            List<Entry<T>> bucket = slots[l][slot];
+            if (bucket != null) {
+                slots[l][slot] = null;
+                for (Entry<T> entry : bucket) {
+                    place(entry);
+                }
+            }
+        }
+        if (!overflow.isEmpty() && currentTick % levelSpan[levels] == 0) {
+            List<Entry<T>> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            for (Entry<T> entry : pending) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+}
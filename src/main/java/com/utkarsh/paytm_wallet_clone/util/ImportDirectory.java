@@ -0,0 +1,62 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * The one directory admin file jobs may read from and write next to.
+ *
+ * Requested paths are resolved against it and normalized, so {@code ..}
+ * segments and absolute paths elsewhere are refused, and an existing file is
+ * also checked after following symlinks. Output files such as
+ * {@code <file>.errors.csv} are written beside the input and so stay inside.
+ */
+public final class ImportDirectory {
+
+    private final Path root;
+
+    public ImportDirectory(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /** Resolves a file name (or a path below the directory); throws {@link IllegalArgumentException} otherwise. */
+    public Path resolve(String requested) {
+        if (requested == null || requested.isBlank()) {
+            throw new IllegalArgumentException("File path is required");
+        }
+        Path candidate;
+        try {
+            candidate = root.resolve(requested.trim()).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid file path: " + requested);
+        }
+        if (!candidate.startsWith(root) || candidate.equals(root)) {
+            throw new IllegalArgumentException("File must be inside the import directory");
+        }
+        if (Files.exists(candidate)) {
+            try {
+                if (!candidate.toRealPath().startsWith(root.toRealPath())) {
+                    throw new IllegalArgumentException("File must be inside the import directory");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("File not readable: " + requested);
+            }
+        }
+        return candidate;
+    }
+
+    /** The output file beside {@code file}, e.g. {@code <file>.failed.ndjson}, held to the same checks. */
+    public Path sibling(Path file, String suffix) {
+        Path normalized = file.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root)) {
+            throw new IllegalArgumentException("File must be inside the import directory");
+        }
+        return resolve(root.relativize(normalized) + suffix);
+    }
+}
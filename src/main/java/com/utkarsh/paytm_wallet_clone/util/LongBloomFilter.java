@@ -0,0 +1,85 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over primitive long keys (phone numbers fit comfortably).
+ *
+ * Uses Kirsch–Mitzenmacher double hashing (h1 + i·h2) on two 64-bit mixes of
+ * the key, so membership checks never allocate. Bits live in an AtomicLongArray, which
+ * makes concurrent {@link #put} calls safe without a lock.
+ */
+public class LongBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    private LongBloomFilter(long numBits, int numHashes) {
+        long wordCount = (numBits + 63) >>> 6;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + numBits + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.numBits = wordCount << 6;
+        this.numHashes = numHashes;
+    }
+
+    public static LongBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new LongBloomFilter(m, k);
+    }
+
+    public void put(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int hashCount() {
+        return numHashes;
+    }
+
+    private long index(long combined) {
+        return (combined & Long.MAX_VALUE) % numBits;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
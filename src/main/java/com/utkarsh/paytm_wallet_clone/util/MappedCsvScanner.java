@@ -0,0 +1,330 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Reads a CSV file through read-only memory mappings, one window at a time,
+ * without copying lines onto the heap.
+ *
+ * Each line is handed to the callback as a reusable {@link Row} that only
+ * records where its fields start and end inside the mapping. Amounts, dates
+ * and substring searches work directly on those bytes; a {@code String} is
+ * made only when the caller asks for one. A line that runs past the end of a
+ * window is re-read at the start of the next one, so files of any size work
+ * with a bounded mapping. Quoted fields may contain commas and doubled
+ * quotes but not line breaks.
+ */
+public final class MappedCsvScanner {
+
+    public static final int DEFAULT_WINDOW_BYTES = 64 << 20;
+    private static final int MAX_FIELDS = 32;
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(Row row) throws Exception;
+    }
+
+    private MappedCsvScanner() {
+    }
+
+    /**
+     * Calls {@code handler} for every non-blank line from {@code fromLine}
+     * (1-based) on. Returns the number of lines in the file.
+     */
+    public static long scan(Path file, long fromLine, int windowBytes, RowHandler handler) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long lineNo = 0;
+            Row row = new Row();
+
+            while (position < size) {
+                long length = Math.min(windowBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+
+                int start = 0;
+                while (start < length) {
+                    int end = indexOfNewline(window, start, (int) length);
+                    if (end < 0) {
+                        if (!last) {
+                            break;   // line continues past this window — remap from its start
+                        }
+                        end = (int) length;
+                    }
+                    lineNo++;
+                    if (lineNo >= fromLine) {
+                        row.reset(window, lineNo, start, trimCarriageReturn(window, start, end));
+                        if (!row.isBlank()) {
+                            handler.row(row);
+                        }
+                    }
+                    start = end + 1;
+                }
+                if (start == 0) {
+                    throw new IOException("Line " + (lineNo + 1) + " is longer than the " + windowBytes + "-byte window");
+                }
+                position += Math.min(start, length);
+            }
+            return lineNo;
+        }
+    }
+
+    private static int indexOfNewline(MappedByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimCarriageReturn(MappedByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    // ─── Row view ─────────────────────────────────────────────────────────────
+
+    /** One line of the file; valid only inside the callback. */
+    public static final class Row {
+
+        private MappedByteBuffer buffer;
+        private long lineNo;
+        private int lineStart;
+        private int lineEnd;
+        private int fieldCount;
+        private final int[] starts = new int[MAX_FIELDS];
+        private final int[] ends = new int[MAX_FIELDS];
+        private final boolean[] quoted = new boolean[MAX_FIELDS];
+
+        private void reset(MappedByteBuffer buffer, long lineNo, int lineStart, int lineEnd) {
+            this.buffer = buffer;
+            this.lineNo = lineNo;
+            this.lineStart = lineStart;
+            this.lineEnd = lineEnd;
+            split();
+        }
+
+        private void split() {
+            fieldCount = 0;
+            int i = lineStart;
+            while (fieldCount < MAX_FIELDS) {
+                int field = fieldCount++;
+                if (i < lineEnd && buffer.get(i) == '"') {
+                    quoted[field] = true;
+                    starts[field] = ++i;
+                    while (i < lineEnd && !(buffer.get(i) == '"' && (i + 1 >= lineEnd || buffer.get(i + 1) != '"'))) {
+                        i += buffer.get(i) == '"' ? 2 : 1;
+                    }
+                    ends[field] = Math.min(i, lineEnd);
+                    while (i < lineEnd && buffer.get(i) != ',') {
+                        i++;
+                    }
+                } else {
+                    quoted[field] = false;
+                    starts[field] = i;
+                    while (i < lineEnd && buffer.get(i) != ',') {
+                        i++;
+                    }
+                    ends[field] = i;
+                }
+                if (i >= lineEnd) {
+                    return;
+                }
+                i++;   // skip the comma
+            }
+        }
+
+        public long lineNo() {
+            return lineNo;
+        }
+
+        public int fieldCount() {
+            return fieldCount;
+        }
+
+        boolean isBlank() {
+            for (int i = lineStart; i < lineEnd; i++) {
+                if (!isSpace(buffer.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean isEmpty(int field) {
+            return field >= fieldCount || trimmedStart(field) == trimmedEnd(field);
+        }
+
+        /** The field as a string, surrounding spaces trimmed and doubled quotes collapsed. */
+        public String text(int field) {
+            if (field >= fieldCount) {
+                return "";
+            }
+            return decode(trimmedStart(field), trimmedEnd(field), quoted[field]);
+        }
+
+        public String raw() {
+            return decode(lineStart, lineEnd, false);
+        }
+
+        /**
+         * Parses a decimal amount such as {@code 1,25,000.50} into paise
+         * without building a string. Returns 0 for an empty field and -1 if
+         * the field is not a non-negative amount with at most two decimals.
+         */
+        public long paise(int field) {
+            if (isEmpty(field)) {
+                return 0;
+            }
+            long rupees = 0;
+            long fraction = 0;
+            int decimals = -1;
+            boolean digits = false;
+            for (int i = trimmedStart(field), end = trimmedEnd(field); i < end; i++) {
+                byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    digits = true;
+                    if (decimals < 0) {
+                        rupees = rupees * 10 + (b - '0');
+                        if (rupees > Long.MAX_VALUE / 1000) {
+                            return -1;
+                        }
+                    } else if (++decimals > 2) {
+                        return -1;
+                    } else {
+                        fraction = fraction * 10 + (b - '0');
+                    }
+                } else if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else if (b != ',' || decimals >= 0) {
+                    return -1;
+                }
+            }
+            if (!digits) {
+                return -1;
+            }
+            return rupees * 100 + (decimals == 1 ? fraction * 10 : fraction);
+        }
+
+        /**
+         * Parses {@code yyyy-MM-dd}, optionally followed by {@code T} or a
+         * space and {@code HH:mm[:ss]}, into seconds since the epoch (local
+         * time, treated as UTC). Returns {@code Long.MIN_VALUE} if it doesn't parse.
+         */
+        public long epochSecond(int field) {
+            if (field >= fieldCount) {
+                return Long.MIN_VALUE;
+            }
+            int i = trimmedStart(field);
+            int end = trimmedEnd(field);
+            if (end - i < 10 || buffer.get(i + 4) != '-' || buffer.get(i + 7) != '-') {
+                return Long.MIN_VALUE;
+            }
+            int year = digits(i, 4);
+            int month = digits(i + 5, 2);
+            int day = digits(i + 8, 2);
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            if (end - i >= 16 && (buffer.get(i + 10) == 'T' || buffer.get(i + 10) == ' ') && buffer.get(i + 13) == ':') {
+                hour = digits(i + 11, 2);
+                minute = digits(i + 14, 2);
+                if (end - i >= 19 && buffer.get(i + 16) == ':') {
+                    second = digits(i + 17, 2);
+                }
+            }
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                    || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            try {
+                long epochDay = LocalDate.of(year, month, day).toEpochDay();
+                return epochDay * 86_400 + hour * 3_600L + minute * 60L + second;
+            } catch (DateTimeException e) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        /** Position of {@code needle} (ASCII, case-insensitive) inside the field, or -1. */
+        public int indexOf(int field, byte[] needle) {
+            if (field >= fieldCount) {
+                return -1;
+            }
+            int end = ends[field] - needle.length;
+            outer:
+            for (int i = starts[field]; i <= end; i++) {
+                for (int j = 0; j < needle.length; j++) {
+                    if (lower(buffer.get(i + j)) != lower(needle[j])) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        /** The run of letters, digits and underscores starting at {@code position}. */
+        public String token(int field, int position) {
+            int end = position;
+            while (end < ends[field] && isTokenByte(buffer.get(end))) {
+                end++;
+            }
+            return decode(position, end, false);
+        }
+
+        private String decode(int from, int to, boolean unescapeQuotes) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            return unescapeQuotes ? text.replace("\"\"", "\"") : text;
+        }
+
+        private int digits(int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        private int trimmedStart(int field) {
+            int i = starts[field];
+            while (i < ends[field] && isSpace(buffer.get(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int trimmedEnd(int field) {
+            int i = ends[field];
+            while (i > starts[field] && isSpace(buffer.get(i - 1))) {
+                i--;
+            }
+            return i;
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        private static boolean isTokenByte(byte b) {
+            return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_';
+        }
+
+        private static int lower(byte b) {
+            return b >= 'A' && b <= 'Z' ? b + 32 : b;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-addressing hash table from a 10-digit phone number to (userId, walletId),
+ * living in a memory-mapped file instead of the Java heap.
+ *
+ * <pre>
+ * header (64 bytes): magic | version | capacity | size | syncedUserId
+ * slots  (24 bytes): phone (0 = empty) | userId | walletId
+ * </pre>
+ *
+ * Linear probing over a power-of-two capacity, grown at 70% load into a new
+ * file that atomically replaces the old one. Writes are serialized; reads are
+ * lock-free and validated with a sequence counter so they never observe a
+ * half-written slot. A single mapping caps capacity at 2^26 slots (~47M
+ * entries at the load limit).
+ */
+public final class MappedPhoneDirectory implements Closeable {
+
+    public record Route(long userId, long walletId) {
+    }
+
+    private static final long MAGIC = 0x5046_5744_4952_0001L;
+    private static final long VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 24;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_CAPACITY = 16;
+    private static final int H_SIZE = 24;
+    private static final int H_SYNCED = 32;
+
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD = 0.7;
+
+    private final Path file;
+    private volatile MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    // Odd while a write is in progress; readers retry if it moved under them
+    private final AtomicLong sequence = new AtomicLong();
+
+    private MappedPhoneDirectory(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = (int) buffer.getLong(H_CAPACITY);
+        this.size = (int) buffer.getLong(H_SIZE);
+    }
+
+    /**
+     * Maps {@code file} if it holds a valid directory, otherwise creates an
+     * empty one sized for {@code expectedEntries}.
+     */
+    public static MappedPhoneDirectory open(Path file, int expectedEntries) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file)) {
+                MappedByteBuffer existing = map(file, Files.size(file));
+                if (isValid(existing, Files.size(file))) {
+                    return new MappedPhoneDirectory(file, existing);
+                }
+            }
+            return new MappedPhoneDirectory(file, create(file, capacityFor(expectedEntries)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open phone directory " + file, e);
+        }
+    }
+
+    // ─── Reads ───────────────────────────────────────────────────────────────
+
+    public Route get(long phone) {
+        if (phone <= 0) {
+            return null;
+        }
+        while (true) {
+            long before = sequence.get();
+            if ((before & 1) == 0) {
+                MappedByteBuffer current = buffer;
+                int slot = find(current, (int) current.getLong(H_CAPACITY), phone);
+                Route route = slot < 0 ? null : new Route(
+                        current.getLong(offset(slot) + 8),
+                        current.getLong(offset(slot) + 16));
+                VarHandle.acquireFence();
+                if (sequence.get() == before) {
+                    return route;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int capacity() {
+        return capacity;
+    }
+
+    /** Highest user id known to be fully reflected in the file (set by the owner after a catch-up scan). */
+    public synchronized long syncedUserId() {
+        return buffer.getLong(H_SYNCED);
+    }
+
+    // ─── Writes ──────────────────────────────────────────────────────────────
+
+    public synchronized void put(long phone, long userId, long walletId) {
+        if (phone <= 0) {
+            throw new IllegalArgumentException("phone must be positive");
+        }
+        if (size + 1 > capacity * MAX_LOAD) {
+            grow();
+        }
+
+        MappedByteBuffer current = buffer;
+        int slot = probe(current, capacity, phone);
+        sequence.incrementAndGet();
+        try {
+            boolean inserted = current.getLong(offset(slot)) == 0;
+            current.putLong(offset(slot) + 8, userId);
+            current.putLong(offset(slot) + 16, walletId);
+            current.putLong(offset(slot), phone);
+            if (inserted) {
+                current.putLong(H_SIZE, ++size);
+            }
+        } finally {
+            sequence.incrementAndGet();
+        }
+    }
+
+    public synchronized boolean remove(long phone) {
+        MappedByteBuffer current = buffer;
+        int slot = find(current, capacity, phone);
+        if (slot < 0) {
+            return false;
+        }
+
+        sequence.incrementAndGet();
+        try {
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int mask = capacity - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (true) {
+                long key = current.getLong(offset(next));
+                if (key == 0) {
+                    break;
+                }
+                int home = hash(key) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    copySlot(current, next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            clearSlot(current, hole);
+            current.putLong(H_SIZE, --size);
+        } finally {
+            sequence.incrementAndGet();
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        sequence.incrementAndGet();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                clearSlot(buffer, slot);
+            }
+            size = 0;
+            buffer.putLong(H_SIZE, 0);
+            buffer.putLong(H_SYNCED, 0);
+        } finally {
+            sequence.incrementAndGet();
+        }
+    }
+
+    public synchronized void markSynced(long userId) {
+        buffer.putLong(H_SYNCED, userId);
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        buffer.force();
+    }
+
+    // Rehashes into a fresh file while readers keep using the old mapping, then swaps
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Phone directory is full at " + size + " entries");
+        }
+        int newCapacity = capacity * 2;
+        Path tmp = file.resolveSibling(file.getFileName() + ".resize");
+        try {
+            MappedByteBuffer grown = create(tmp, newCapacity);
+            MappedByteBuffer old = buffer;
+            for (int slot = 0; slot < capacity; slot++) {
+                long phone = old.getLong(offset(slot));
+                if (phone != 0) {
+                    int target = probe(grown, newCapacity, phone);
+                    copySlot(old, slot, grown, target);
+                }
+            }
+            grown.putLong(H_SIZE, size);
+            grown.putLong(H_SYNCED, old.getLong(H_SYNCED));
+            grown.force();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            sequence.incrementAndGet();
+            buffer = grown;
+            capacity = newCapacity;
+            sequence.incrementAndGet();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow phone directory " + file, e);
+        }
+    }
+
+    // ─── Slots ───────────────────────────────────────────────────────────────
+
+    private static int find(MappedByteBuffer buf, int cap, long phone) {
+        int slot = probe(buf, cap, phone);
+        return buf.getLong(offset(slot)) == phone ? slot : -1;
+    }
+
+    // First slot holding phone, or the empty slot where it would go
+    private static int probe(MappedByteBuffer buf, int cap, long phone) {
+        int mask = cap - 1;
+        int slot = hash(phone) & mask;
+        while (true) {
+            long key = buf.getLong(offset(slot));
+            if (key == 0 || key == phone) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static void copySlot(MappedByteBuffer buf, int from, int to) {
+        copySlot(buf, from, buf, to);
+    }
+
+    private static void copySlot(MappedByteBuffer src, int from, MappedByteBuffer dst, int to) {
+        dst.putLong(offset(to) + 8, src.getLong(offset(from) + 8));
+        dst.putLong(offset(to) + 16, src.getLong(offset(from) + 16));
+        dst.putLong(offset(to), src.getLong(offset(from)));
+    }
+
+    private static void clearSlot(MappedByteBuffer buf, int slot) {
+        buf.putLong(offset(slot), 0);
+        buf.putLong(offset(slot) + 8, 0);
+        buf.putLong(offset(slot) + 16, 0);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // ─── File layout ─────────────────────────────────────────────────────────
+
+    private static int capacityFor(int expectedEntries) {
+        long needed = (long) Math.ceil(Math.max(1, expectedEntries) / MAX_LOAD);
+        long cap = Long.highestOneBit(Math.max(MIN_CAPACITY, needed - 1)) << 1;
+        return (int) Math.min(MAX_CAPACITY, cap);
+    }
+
+    private static MappedByteBuffer create(Path path, int cap) throws IOException {
+        long length = (long) HEADER_BYTES + (long) cap * SLOT_BYTES;
+        Files.deleteIfExists(path);
+        MappedByteBuffer buf = map(path, length);
+        buf.putLong(H_MAGIC, MAGIC);
+        buf.putLong(H_VERSION, VERSION);
+        buf.putLong(H_CAPACITY, cap);
+        buf.putLong(H_SIZE, 0);
+        buf.putLong(H_SYNCED, 0);
+        return buf;
+    }
+
+    private static MappedByteBuffer map(Path path, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            return buf;
+        }
+    }
+
+    private static boolean isValid(MappedByteBuffer buf, long fileLength) {
+        if (fileLength < HEADER_BYTES
+                || buf.getLong(H_MAGIC) != MAGIC
+                || buf.getLong(H_VERSION) != VERSION) {
+            return false;
+        }
+        long cap = buf.getLong(H_CAPACITY);
+        long size = buf.getLong(H_SIZE);
+        return cap >= MIN_CAPACITY && cap <= MAX_CAPACITY && Long.bitCount(cap) == 1
+                && fileLength == HEADER_BYTES + cap * SLOT_BYTES
+                && size >= 0 && size <= cap;
+    }
+}
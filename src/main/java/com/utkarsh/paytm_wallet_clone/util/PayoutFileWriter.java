@@ -0,0 +1,127 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams a fixed-width bank payout file, one record per line, written to
+ * {@code <file>.part} and moved into place only by {@link #finish()}.
+ *
+ * <pre>
+ *  record   cols  field
+ *  header   1     'H'
+ *           40    batch id, left-aligned
+ *           8     value date, yyyyMMdd
+ *  detail   1     'D'
+ *           9     sequence number, zero-padded
+ *           18    account number, left-aligned
+ *           11    IFSC
+ *           35    beneficiary name, upper-case ASCII, cut to fit
+ *           15    amount in paise, zero-padded
+ *           20    payment reference, left-aligned
+ *  trailer  1     'T'
+ *           9     record count, zero-padded
+ *           18    total in paise, zero-padded
+ * </pre>
+ *
+ * Lines end with CRLF, as most bank host-to-host formats expect.
+ */
+public final class PayoutFileWriter implements Closeable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String CRLF = "\r\n";
+
+    private final Path target;
+    private final Path part;
+    private final BufferedWriter out;
+    private final StringBuilder line = new StringBuilder(128);
+    private long count;
+    private long totalPaise;
+    private boolean finished;
+
+    public PayoutFileWriter(Path target, String batchId, LocalDate valueDate) throws IOException {
+        this.target = target;
+        this.part = target.resolveSibling(target.getFileName() + ".part");
+        this.out = Files.newBufferedWriter(part, StandardCharsets.US_ASCII);
+        line.append('H');
+        pad(batchId, 40);
+        line.append(DATE.format(valueDate));
+        writeLine();
+    }
+
+    public void record(String accountNumber, String ifsc, String beneficiary, long amountPaise,
+                       String reference) throws IOException {
+        count++;
+        totalPaise += amountPaise;
+        line.append('D');
+        zeroPad(count, 9);
+        pad(accountNumber, 18);
+        pad(ifsc, 11);
+        pad(beneficiary.toUpperCase(), 35);
+        zeroPad(amountPaise, 15);
+        pad(reference, 20);
+        writeLine();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long totalPaise() {
+        return totalPaise;
+    }
+
+    /** Writes the trailer and moves the file into place. */
+    public void finish() throws IOException {
+        line.append('T');
+        zeroPad(count, 9);
+        zeroPad(totalPaise, 18);
+        writeLine();
+        out.close();
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    // Leaves no half-written file behind if finish() was never reached
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private void pad(String value, int width) {
+        int length = Math.min(value.length(), width);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            line.append(c >= 0x20 && c < 0x7f ? c : ' ');
+        }
+        for (int i = length; i < width; i++) {
+            line.append(' ');
+        }
+    }
+
+    private void zeroPad(long value, int width) {
+        String digits = Long.toString(value);
+        if (value < 0 || digits.length() > width) {
+            throw new IllegalArgumentException(value + " does not fit in " + width + " digits");
+        }
+        for (int i = digits.length(); i < width; i++) {
+            line.append('0');
+        }
+        line.append(digits);
+    }
+
+    private void writeLine() throws IOException {
+        out.append(line).append(CRLF);
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent items, each numbered with a
+ * monotonically increasing sequence starting after {@code baseSeq}.
+ * Readers ask for everything after the last sequence they saw and get
+ * {@code null} when that range has already been overwritten (or was never
+ * part of this ring), meaning they must fall back to a full refresh.
+ */
+public final class SequencedRing<T> {
+
+    private final Object[] slots;
+    private final long baseSeq;
+    private long lastSeq;
+
+    public SequencedRing(int capacity, long baseSeq) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new Object[capacity];
+        this.baseSeq = baseSeq;
+        this.lastSeq = baseSeq;
+    }
+
+    /** Stores {@code item} and returns its sequence number. */
+    public synchronized long append(T item) {
+        lastSeq++;
+        slots[(int) (lastSeq % slots.length)] = item;
+        return lastSeq;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Items with a sequence greater than {@code afterSeq}, oldest first, or
+     * {@code null} if some of them are no longer (or were never) held.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> since(long afterSeq) {
+        long oldest = Math.max(baseSeq + 1, lastSeq - slots.length + 1);
+        if (afterSeq > lastSeq || afterSeq < oldest - 1) {
+            return null;
+        }
+        List<T> items = new ArrayList<>((int) (lastSeq - afterSeq));
+        for (long seq = afterSeq + 1; seq <= lastSeq; seq++) {
+            items.add((T) slots[(int) (seq % slots.length)]);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,354 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index over (phone, display name) pairs, stored entirely in
+ * sorted primitive arrays so tens of millions of users cost a handful of
+ * objects instead of tens of millions.
+ *
+ * <ul>
+ *   <li>Phones are 10-digit numbers kept as a sorted {@code long[]}; a digit
+ *       prefix maps to a numeric range found with one binary search.</li>
+ *   <li>Display names are UTF-8 bytes packed into one array, parallel to the
+ *       phones.</li>
+ *   <li>Every normalized name token ({@code "Rāhul Kumar"} → {@code rahul},
+ *       {@code kumar}) is packed ASCII, sorted lexicographically, and points
+ *       back at its owner's phone slot.</li>
+ * </ul>
+ *
+ * Build with {@link Builder}; updates go to a new snapshot.
+ */
+public final class UserPrefixIndex {
+
+    public static final int PHONE_DIGITS = 10;
+    private static final long[] POW10 = new long[PHONE_DIGITS + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= PHONE_DIGITS; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final long[] phones;
+    private final int[] nameOffsets;
+    private final byte[] names;
+
+    private final int[] tokenOffsets;
+    private final byte[] tokens;
+    private final int[] tokenOwners;
+
+    private UserPrefixIndex(long[] phones, int[] nameOffsets, byte[] names,
+                            int[] tokenOffsets, byte[] tokens, int[] tokenOwners) {
+        this.phones = phones;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+        this.tokenOffsets = tokenOffsets;
+        this.tokens = tokens;
+        this.tokenOwners = tokenOwners;
+    }
+
+    public static UserPrefixIndex empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return phones.length;
+    }
+
+    public long phoneAt(int slot) {
+        return phones[slot];
+    }
+
+    public String nameAt(int slot) {
+        return new String(names, nameOffsets[slot], nameOffsets[slot + 1] - nameOffsets[slot],
+                StandardCharsets.UTF_8);
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────
+
+    /**
+     * Feeds slots whose phone starts with {@code digitPrefix} to {@code sink}
+     * in ascending phone order until the sink returns false.
+     */
+    public void forEachPhonePrefix(String digitPrefix, SlotSink sink) {
+        int len = digitPrefix.length();
+        if (len == 0 || len > PHONE_DIGITS) {
+            return;
+        }
+        long prefix = Long.parseLong(digitPrefix);
+        long lo = prefix * POW10[PHONE_DIGITS - len];
+        long hi = (prefix + 1) * POW10[PHONE_DIGITS - len];
+
+        int i = lowerBound(phones, lo);
+        while (i < phones.length && phones[i] < hi) {
+            if (!sink.accept(i)) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Feeds slots owning a name token that starts with {@code tokenPrefix}
+     * (already normalized) to {@code sink} until the sink returns false. A
+     * slot can be reported once per matching token.
+     */
+    public void forEachTokenPrefix(String tokenPrefix, SlotSink sink) {
+        byte[] prefix = tokenPrefix.getBytes(StandardCharsets.US_ASCII);
+        if (prefix.length == 0) {
+            return;
+        }
+
+        int lo = 0;
+        int hi = tokenOwners.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToken(mid, prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        for (int t = lo; t < tokenOwners.length && tokenStartsWith(t, prefix); t++) {
+            if (!sink.accept(tokenOwners[t])) {
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface SlotSink {
+        boolean accept(int slot);
+    }
+
+    private int compareToken(int t, byte[] key) {
+        int start = tokenOffsets[t];
+        int len = tokenOffsets[t + 1] - start;
+        return Arrays.compare(tokens, start, start + len, key, 0, key.length);
+    }
+
+    private boolean tokenStartsWith(int t, byte[] prefix) {
+        int start = tokenOffsets[t];
+        int len = tokenOffsets[t + 1] - start;
+        return len >= prefix.length
+                && Arrays.equals(tokens, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // ─── Normalization ───────────────────────────────────────────────────────
+
+    /** Lower-cases, strips accents and splits on anything that is not [a-z0-9]. */
+    public static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>(3);
+        if (text == null) {
+            return result;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+                result.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            result.add(token.toString());
+        }
+        return result;
+    }
+
+    // ─── Builder ─────────────────────────────────────────────────────────────
+
+    public static final class Builder {
+
+        private long[] phones = new long[1024];
+        private String[] pendingNames = new String[1024];
+        private int count;
+
+        public Builder add(long phone, String name) {
+            if (count == phones.length) {
+                phones = Arrays.copyOf(phones, count * 2);
+                pendingNames = Arrays.copyOf(pendingNames, count * 2);
+            }
+            phones[count] = phone;
+            pendingNames[count] = name != null ? name : "";
+            count++;
+            return this;
+        }
+
+        /** Copies every entry of an existing snapshot, e.g. before merging new registrations. */
+        public Builder addAll(UserPrefixIndex index) {
+            for (int slot = 0; slot < index.size(); slot++) {
+                add(index.phoneAt(slot), index.nameAt(slot));
+            }
+            return this;
+        }
+
+        public UserPrefixIndex build() {
+            // Sort (phone, insertion order) packed into one long: 34 bits of phone, 29 of index
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (phones[i] << 29) | i;
+            }
+            Arrays.parallelSort(keys);
+
+            // De-duplicate phones, letting the most recently added entry win
+            int unique = 0;
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                long phone = keys[i] >>> 29;
+                if (i + 1 < count && (keys[i + 1] >>> 29) == phone) {
+                    continue;
+                }
+                order[unique++] = (int) (keys[i] & ((1 << 29) - 1));
+            }
+
+            long[] sortedPhones = new long[unique];
+            int[] nameOffsets = new int[unique + 1];
+            ByteArrayBuilder names = new ByteArrayBuilder(unique * 12);
+            ByteArrayBuilder tokenBytes = new ByteArrayBuilder(unique * 12);
+            IntArrayBuilder tokenStarts = new IntArrayBuilder(unique * 2);
+            IntArrayBuilder owners = new IntArrayBuilder(unique * 2);
+
+            for (int slot = 0; slot < unique; slot++) {
+                int source = order[slot];
+                sortedPhones[slot] = phones[source];
+                names.append(pendingNames[source].getBytes(StandardCharsets.UTF_8));
+                nameOffsets[slot + 1] = names.size;
+
+                for (String token : tokenize(pendingNames[source])) {
+                    tokenStarts.add(tokenBytes.size);
+                    tokenBytes.append(token.getBytes(StandardCharsets.US_ASCII));
+                    owners.add(slot);
+                }
+            }
+
+            // Sort token ids by their bytes, then lay the tokens out in that order
+            int tokenCount = owners.size;
+            byte[] rawTokens = tokenBytes.toArray();
+            int[] rawStarts = Arrays.copyOf(tokenStarts.values, tokenCount + 1);
+            rawStarts[tokenCount] = rawTokens.length;
+
+            int[] ids = new int[tokenCount];
+            for (int i = 0; i < tokenCount; i++) {
+                ids[i] = i;
+            }
+            mergeSort(ids, (a, b) -> Arrays.compare(
+                    rawTokens, rawStarts[a], rawStarts[a + 1],
+                    rawTokens, rawStarts[b], rawStarts[b + 1]) <= 0);
+
+            byte[] sortedTokens = new byte[rawTokens.length];
+            int[] tokenOffsets = new int[tokenCount + 1];
+            int[] tokenOwners = new int[tokenCount];
+            int position = 0;
+            for (int i = 0; i < tokenCount; i++) {
+                int id = ids[i];
+                int len = rawStarts[id + 1] - rawStarts[id];
+                System.arraycopy(rawTokens, rawStarts[id], sortedTokens, position, len);
+                position += len;
+                tokenOffsets[i + 1] = position;
+                tokenOwners[i] = owners.values[id];
+            }
+
+            return new UserPrefixIndex(sortedPhones, nameOffsets, names.toArray(),
+                    tokenOffsets, sortedTokens, tokenOwners);
+        }
+
+        // Bottom-up stable merge sort on primitive ids — no boxing for tens of millions of tokens
+        private static void mergeSort(int[] values, IdOrder lessOrEqual) {
+            int n = values.length;
+            int[] src = values;
+            int[] dst = new int[n];
+            for (int width = 1; width < n; width *= 2) {
+                for (int lo = 0; lo < n; lo += 2 * width) {
+                    int mid = Math.min(lo + width, n);
+                    int hi = Math.min(lo + 2 * width, n);
+                    int i = lo;
+                    int j = mid;
+                    int k = lo;
+                    while (i < mid && j < hi) {
+                        dst[k++] = lessOrEqual.test(src[i], src[j]) ? src[i++] : src[j++];
+                    }
+                    while (i < mid) {
+                        dst[k++] = src[i++];
+                    }
+                    while (j < hi) {
+                        dst[k++] = src[j++];
+                    }
+                }
+                int[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+            if (src != values) {
+                System.arraycopy(src, 0, values, 0, n);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdOrder {
+        boolean test(int a, int b);
+    }
+
+    private static final class ByteArrayBuilder {
+        byte[] values;
+        int size;
+
+        ByteArrayBuilder(int capacity) {
+            values = new byte[Math.max(16, capacity)];
+        }
+
+        void append(byte[] bytes) {
+            if (size + bytes.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + bytes.length));
+            }
+            System.arraycopy(bytes, 0, values, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class IntArrayBuilder {
+        int[] values;
+        int size;
+
+        IntArrayBuilder(int capacity) {
+            values = new int[Math.max(16, capacity)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls the four fields the wallet acts on out of a Razorpay webhook body
+ * without building a JSON tree:
+ *
+ * <pre>
+ *  event                          → event
+ *  payload.payment.entity.id      → paymentId
+ *  payload.payment.entity.order_id → orderId
+ *  payload.payment.entity.amount  → amount (paise)
+ * </pre>
+ *
+ * Objects off that path and all arrays are skipped unread, and parsing stops
+ * as soon as all four have been seen.
+ */
+public final class WebhookEventParser {
+
+    public record Fields(String event, String paymentId, String orderId, long amount) {
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Object names from the root down to the payment entity
+    private static final String[] PATH = {"payload", "payment", "entity"};
+
+    private WebhookEventParser() {
+    }
+
+    public static Fields parse(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return parse(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed webhook payload: " + e.getMessage(), e);
+        }
+    }
+
+    public static Fields parse(String body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return parse(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed webhook payload: " + e.getMessage(), e);
+        }
+    }
+
+    private static Fields parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Malformed webhook payload: not a JSON object");
+        }
+        String event = null;
+        String paymentId = null;
+        String orderId = null;
+        long amount = -1;
+
+        // depth 0 = root object; depth 3 = payload.payment.entity
+        int depth = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.END_OBJECT) {
+                if (depth-- == 0) {
+                    break;
+                }
+                continue;
+            }
+            // Only field names remain at this point — we never step into anything else
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.START_OBJECT) {
+                if (depth < PATH.length && PATH[depth].equals(name)) {
+                    depth++;
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (depth == 0 && "event".equals(name)) {
+                event = parser.getValueAsString();
+            } else if (depth == PATH.length) {
+                switch (name) {
+                    case "id" -> paymentId = parser.getValueAsString();
+                    case "order_id" -> orderId = parser.getValueAsString();
+                    case "amount" -> amount = parser.getValueAsLong(-1);
+                    default -> { }
+                }
+            }
+
+            if (event != null && paymentId != null && orderId != null && amount >= 0) {
+                break;
+            }
+        }
+
+        if (event == null) {
+            throw new IllegalArgumentException("Malformed webhook payload: no event");
+        }
+        return new Fields(event, paymentId, orderId, amount);
+    }
+}
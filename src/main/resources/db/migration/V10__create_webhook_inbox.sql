@@ -0,0 +1,19 @@
+-- Verified gateway webhooks, stored before the webhook is acknowledged and
+-- processed afterwards by the inbox workers. event_id makes redeliveries of
+-- the same event a no-op.
+CREATE TABLE webhook_inbox (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id        VARCHAR(100)    NOT NULL,
+    event_type      VARCHAR(60)     NOT NULL,
+    order_id        VARCHAR(100),
+    payload         MEDIUMTEXT      NOT NULL,
+    status          VARCHAR(20)     NOT NULL,
+    attempts        INT             NOT NULL DEFAULT 0,
+    last_error      VARCHAR(500),
+    received_at     DATETIME(3)     NOT NULL,
+    next_attempt_at DATETIME(3)     NOT NULL,
+    claimed_at      DATETIME(3),
+    processed_at    DATETIME(3),
+    CONSTRAINT uk_webhook_inbox_event UNIQUE (event_id),
+    INDEX idx_webhook_inbox_status (status, next_attempt_at, id)
+);
@@ -0,0 +1,5 @@
+-- Orders are now inserted as INITIATING before the gateway is called and get
+-- their gateway order id (and CREATED) once the call returns.
+ALTER TABLE razorpay_orders
+    MODIFY order_id VARCHAR(100) NULL,
+    MODIFY status ENUM('INITIATING', 'CREATED', 'PAID', 'FAILED', 'REFUNDED') DEFAULT 'CREATED';
@@ -0,0 +1,30 @@
+-- Money reserved by pending withdrawals. Spendable balance is balance - held_amount;
+-- the hold turns into a real debit when the payout cycle settles the withdrawal.
+ALTER TABLE wallets
+    ADD COLUMN held_amount DECIMAL(12, 2) NOT NULL DEFAULT 0.00;
+
+-- Withdrawals to a bank account. PENDING rows hold funds until the next payout
+-- cycle posts their DEBIT (txn_ref) and puts them in that cycle's file (batch_id).
+CREATE TABLE withdrawals (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT          NOT NULL,
+    wallet_id       BIGINT          NOT NULL,
+    amount          DECIMAL(12, 2)  NOT NULL,
+    account_number  VARCHAR(18)     NOT NULL,
+    ifsc            VARCHAR(11)     NOT NULL,
+    account_holder  VARCHAR(100)    NOT NULL,
+    status          VARCHAR(20)     NOT NULL,
+    batch_id        VARCHAR(40),
+    txn_ref         VARCHAR(36),
+    created_at      DATETIME(3)     NOT NULL,
+    settled_at      DATETIME(3),
+    CONSTRAINT fk_withdrawal_user
+        FOREIGN KEY (user_id) REFERENCES users(id),
+    CONSTRAINT fk_withdrawal_wallet
+        FOREIGN KEY (wallet_id) REFERENCES wallets(id),
+    CONSTRAINT chk_withdrawal_amount
+        CHECK (amount > 0),
+    INDEX idx_withdrawal_status (status, id),
+    INDEX idx_withdrawal_batch (batch_id, id),
+    INDEX idx_withdrawal_user (user_id, created_at)
+);
@@ -0,0 +1,31 @@
+-- Refunds of paid add-money orders back to the customer's payment method.
+-- QUEUED → DEBITED (wallet debited, ledger row txn_ref) → REFUNDED at the gateway;
+-- a refund the gateway refuses is reversed to FAILED, one the wallet can no
+-- longer cover is SKIPPED. One refund per order, ever — resubmitting an order
+-- can't refund it twice.
+CREATE TABLE refunds (
+    id                  BIGINT AUTO_INCREMENT PRIMARY KEY,
+    batch_id            VARCHAR(40)     NOT NULL,
+    order_id            BIGINT          NOT NULL,   -- razorpay_orders.id
+    payment_id          VARCHAR(100)    NOT NULL,
+    wallet_id           BIGINT          NOT NULL,
+    amount              DECIMAL(12, 2)  NOT NULL,
+    status              VARCHAR(20)     NOT NULL,
+    reason              VARCHAR(100),
+    txn_ref             VARCHAR(36),
+    gateway_refund_id   VARCHAR(100),
+    attempts            INT             NOT NULL DEFAULT 0,   -- gateway passes started
+    claimed_until       DATETIME(3),                          -- a node is talking to the gateway until then
+    last_error          VARCHAR(255),
+    created_at          DATETIME(3)     NOT NULL,
+    updated_at          DATETIME(3)     NOT NULL,
+    CONSTRAINT uq_refund_order UNIQUE (order_id),
+    CONSTRAINT fk_refund_order
+        FOREIGN KEY (order_id) REFERENCES razorpay_orders(id),
+    CONSTRAINT fk_refund_wallet
+        FOREIGN KEY (wallet_id) REFERENCES wallets(id),
+    CONSTRAINT chk_refund_amount
+        CHECK (amount > 0),
+    INDEX idx_refund_batch (batch_id, status, id),
+    INDEX idx_refund_status (status, batch_id)
+);
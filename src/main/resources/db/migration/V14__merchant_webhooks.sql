@@ -0,0 +1,33 @@
+-- One callback URL per merchant account; the secret signs every request to it.
+CREATE TABLE merchant_endpoints (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT          NOT NULL,
+    url         VARCHAR(500)    NOT NULL,
+    secret      VARCHAR(80)     NOT NULL,
+    created_at  DATETIME(3)     NOT NULL,
+    updated_at  DATETIME(3)     NOT NULL,
+    CONSTRAINT uq_merchant_endpoint_user UNIQUE (user_id),
+    CONSTRAINT fk_merchant_endpoint_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+-- Durable queue of events owed to merchant endpoints, written in the same
+-- transaction as the money movement. Delivered rows are deleted; PENDING rows
+-- wait for next_attempt_at (also used as the dispatcher's lease), and rows
+-- that ran out of attempts stay as FAILED for inspection.
+CREATE TABLE merchant_webhook_deliveries (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    endpoint_id      BIGINT          NOT NULL,
+    event_id         VARCHAR(50)     NOT NULL,
+    event_type       VARCHAR(40)     NOT NULL,
+    payload          TEXT            NOT NULL,
+    status           VARCHAR(10)     NOT NULL,
+    attempts         INT             NOT NULL DEFAULT 0,
+    next_attempt_at  DATETIME(3)     NOT NULL,
+    last_error       VARCHAR(255),
+    created_at       DATETIME(3)     NOT NULL,
+    CONSTRAINT uq_merchant_delivery_event UNIQUE (endpoint_id, event_id),
+    CONSTRAINT fk_merchant_delivery_endpoint
+        FOREIGN KEY (endpoint_id) REFERENCES merchant_endpoints(id) ON DELETE CASCADE,
+    INDEX idx_merchant_delivery_due (status, next_attempt_at)
+);
@@ -0,0 +1,4 @@
+-- Merchant accounts are the only ones allowed to register a webhook callback;
+-- operators switch the flag through /api/admin/merchants/{userId}.
+ALTER TABLE users
+    ADD COLUMN is_merchant BOOLEAN NOT NULL DEFAULT FALSE;
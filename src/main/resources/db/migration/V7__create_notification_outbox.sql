@@ -0,0 +1,12 @@
+-- Balance notifications written in the same transaction as the balance change
+-- and drained by the relay after commit. Rows are deleted once delivered.
+CREATE TABLE notification_outbox (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_email  VARCHAR(150)    NOT NULL,
+    type        VARCHAR(30)     NOT NULL,
+    new_balance DECIMAL(12, 2)  NOT NULL,
+    amount      DECIMAL(12, 2)  NOT NULL,
+    from_user   VARCHAR(100),
+    message     VARCHAR(255)    NOT NULL,
+    created_at  TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,9 @@
+-- Which cluster node holds a user's WebSocket sessions, so a node can relay
+-- a user-destined message to the node the user is connected to.
+CREATE TABLE websocket_sessions (
+    user_email  VARCHAR(150)    NOT NULL,
+    node_id     VARCHAR(100)    NOT NULL,
+    sessions    INT             NOT NULL,
+    PRIMARY KEY (user_email, node_id),
+    INDEX idx_websocket_sessions_node (node_id)
+);
@@ -0,0 +1,39 @@
+-- Per-wallet ledger sequence for delta sync: every ledger row a wallet takes
+-- part in is numbered 1, 2, 3 ... for that wallet, and the wallet row keeps
+-- the latest number. A client holding seq N asks for rows after N.
+ALTER TABLE wallets ADD COLUMN ledger_seq BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE transactions
+    ADD COLUMN sender_seq   BIGINT NULL,
+    ADD COLUMN receiver_seq BIGINT NULL;
+
+-- Number existing rows per wallet in insertion order, across both roles
+CREATE TEMPORARY TABLE ledger_seq_backfill AS
+SELECT id, wallet_id, role,
+       ROW_NUMBER() OVER (PARTITION BY wallet_id ORDER BY id) AS seq
+FROM (
+    SELECT id, sender_wallet_id AS wallet_id, 'S' AS role
+    FROM transactions WHERE sender_wallet_id IS NOT NULL
+    UNION ALL
+    SELECT id, receiver_wallet_id AS wallet_id, 'R' AS role
+    FROM transactions WHERE receiver_wallet_id IS NOT NULL
+) ledger;
+
+UPDATE transactions t
+JOIN ledger_seq_backfill b ON b.id = t.id AND b.role = 'S'
+SET t.sender_seq = b.seq;
+
+UPDATE transactions t
+JOIN ledger_seq_backfill b ON b.id = t.id AND b.role = 'R'
+SET t.receiver_seq = b.seq;
+
+UPDATE wallets w
+JOIN (SELECT wallet_id, MAX(seq) AS seq FROM ledger_seq_backfill GROUP BY wallet_id) m
+    ON m.wallet_id = w.id
+SET w.ledger_seq = m.seq;
+
+DROP TEMPORARY TABLE ledger_seq_backfill;
+
+-- A changes call is a range scan on one of these per role
+CREATE UNIQUE INDEX idx_txn_sender_seq   ON transactions (sender_wallet_id, sender_seq);
+CREATE UNIQUE INDEX idx_txn_receiver_seq ON transactions (receiver_wallet_id, receiver_seq);
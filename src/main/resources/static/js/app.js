@@ -291,10 +291,8 @@ async function handleAddMoney(event) {
             description: 'Add money to wallet',
             order_id: orderResponse.razorpayOrderId,
             handler: function (response) {
-                showAlert('Payment successful! Your wallet will be credited shortly.', 'success');
-                setTimeout(() => {
-                    window.location.href = 'dashboard.html';
-                }, 2000);
+                showAlert('Payment successful! Waiting for your wallet to be credited...', 'success');
+                waitForCredit(orderResponse.razorpayOrderId);
             },
             prefill: {
                 email: Auth.getUserData().email
@@ -318,6 +316,26 @@ async function handleAddMoney(event) {
     }
 }
 
+// One held request per attempt; the server answers as soon as the webhook credits the wallet
+async function waitForCredit(orderId, attempt = 1) {
+    try {
+        const status = await apiCall(`/payment/orders/${orderId}/status?wait=30s`);
+
+        if (status.status === 'PAID') {
+            showAlert(`✅ ₹${parseFloat(status.amount).toFixed(2)} added to your wallet!`, 'success');
+            setTimeout(() => { window.location.href = 'dashboard.html'; }, 1500);
+            return;
+        }
+        if (status.status === 'CREATED' && attempt < 4) {
+            return waitForCredit(orderId, attempt + 1);
+        }
+    } catch (error) {
+        console.error('Order status check failed:', error);
+    }
+    // Still pending (or lost track) — the dashboard picks up the credit when it lands
+    window.location.href = 'dashboard.html';
+}
+
 // ===== TOGGLE PASSWORD VISIBILITY =====
 function togglePassword(inputId) {
     const input = document.getElementById(inputId);
@@ -0,0 +1,340 @@
+package com.utkarsh.paytm_wallet_clone;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.MerchantEndpointRequest;
+import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
+import com.utkarsh.paytm_wallet_clone.exception.InsufficientFundsException;
+import com.utkarsh.paytm_wallet_clone.exception.MerchantAccountRequiredException;
+import com.utkarsh.paytm_wallet_clone.merchant.StubMerchantReceiver;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.model.Wallet;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.service.MerchantWebhookDispatcher;
+import com.utkarsh.paytm_wallet_clone.service.MerchantWebhookService;
+import com.utkarsh.paytm_wallet_clone.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Not @Transactional: the dispatcher claims and deletes rows on its own threads and only sees committed rows
+@SpringBootTest(properties = {
+        "wallet.merchant-webhook.allow-http=true",
+        "wallet.merchant-webhook.allow-private-addresses=true",
+        "wallet.merchant-webhook.events-per-request=2",
+        "wallet.merchant-webhook.poll-ms=3600000"
+})
+class MerchantWebhookIntegrationTest {
+
+    private static final String SECRET = "whsec_integration_test";
+
+    @Autowired
+    private MerchantWebhookService merchantWebhookService;
+
+    @Autowired
+    private MerchantWebhookDispatcher dispatcher;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<StubMerchantReceiver> receivers = new ArrayList<>();
+    private String runId;
+
+    private User alice;
+    private User shop;
+    private StubMerchantReceiver receiver;
+    private long endpointId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        runId = Long.toString(ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L));
+        alice = user("Alice", "1000.00");
+        shop = user("Shop", "0.00");
+        receiver = receiver();
+        endpointId = register(shop, receiver);
+    }
+
+    @AfterEach
+    void tearDown() {
+        receivers.forEach(StubMerchantReceiver::close);
+        for (User user : users) {
+            // Queued deliveries go with the endpoint (ON DELETE CASCADE)
+            jdbcTemplate.update("DELETE FROM merchant_endpoints WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM transactions WHERE sender_wallet_id IN (SELECT id FROM wallets WHERE user_id = ?) " +
+                    "OR receiver_wallet_id IN (SELECT id FROM wallets WHERE user_id = ?)", user.getId(), user.getId());
+        }
+        for (User user : users) {
+            jdbcTemplate.update("DELETE FROM wallets WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        }
+    }
+
+    // ─── Queueing ─────────────────────────────────────────────────────────────
+
+    @Test
+    void transferToMerchantIsQueuedAndDelivered() {
+        String txnRef = transferService.transfer(alice, transfer(shop, "100.00")).getTxnRef();
+
+        await(() -> receiver.eventIds().contains("evt_" + txnRef));
+
+        assertThat(receiver.rejected()).isZero();
+        await(() -> rows(endpointId) == 0);
+    }
+
+    @Test
+    void transferToAccountWithoutEndpointQueuesNothing() {
+        User bob = user("Bob", "0.00");
+
+        String txnRef = transferService.transfer(alice, transfer(bob, "100.00")).getTxnRef();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM merchant_webhook_deliveries WHERE event_id = ?",
+                Integer.class, "evt_" + txnRef)).isZero();
+    }
+
+    @Test
+    void rolledBackTransferQueuesNothing() {
+        receiver.failing(1.0, 503);   // anything queued would stay behind as a backed-off row
+
+        assertThatThrownBy(() -> transferService.transfer(alice, transfer(shop, "5000.00")))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(rows(endpointId)).isZero();
+        assertThat(receiver.requests()).isZero();
+    }
+
+    @Test
+    void onlyMerchantAccountsCanRegister() {
+        MerchantEndpointRequest request = new MerchantEndpointRequest();
+        request.setUrl(receiver.url());
+
+        assertThatThrownBy(() -> merchantWebhookService.register(alice, request))
+                .isInstanceOf(MerchantAccountRequiredException.class);
+    }
+
+    // ─── Dispatch ─────────────────────────────────────────────────────────────
+
+    @Test
+    void deliveredBatchesAreDeleted() {
+        queue(endpointId, 5, 0, LocalDateTime.now());
+
+        dispatcher.poll();
+
+        await(() -> rows(endpointId) == 0);
+        assertThat(receiver.eventIds()).hasSize(5);
+        assertThat(receiver.requests()).isEqualTo(3);   // events-per-request=2
+    }
+
+    @Test
+    void failedRequestBacksOffTheRestOfTheEndpoint() {
+        receiver.failing(1.0, 503);
+        queue(endpointId, 5, 0, LocalDateTime.now());
+
+        dispatcher.poll();
+
+        await(() -> count(endpointId, "attempts = 1") == 5);
+        assertThat(receiver.requests()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM merchant_webhook_deliveries " +
+                        "WHERE endpoint_id = ? AND status = 'PENDING' AND next_attempt_at > ?",
+                Integer.class, endpointId, Timestamp.valueOf(LocalDateTime.now()))).isEqualTo(5);
+        assertThat(count(endpointId, "last_error LIKE 'HTTP 503%'")).isEqualTo(5);
+    }
+
+    @Test
+    void eventIsKeptAsFailedAfterMaxAttempts() {
+        receiver.failing(1.0, 500);
+        queue(endpointId, 1, 11, LocalDateTime.now());   // max-attempts defaults to 12
+
+        dispatcher.poll();
+
+        await(() -> count(endpointId, "status = 'FAILED'") == 1);
+        assertThat(count(endpointId, "attempts = 12")).isEqualTo(1);
+    }
+
+    @Test
+    void leasedAndLockedRowsAreSkipped() throws Exception {
+        List<Long> due = queue(endpointId, 2, 0, LocalDateTime.now());
+        queue(endpointId, 1, 0, LocalDateTime.now().plusMinutes(10));   // still leased by another node
+
+        // Another node holds the first row mid-claim
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM merchant_webhook_deliveries WHERE id = ? FOR UPDATE",
+                    due.get(0));
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            dispatcher.poll();
+            await(() -> !exists(due.get(1)));
+            assertThat(exists(due.get(0))).isTrue();
+            assertThat(receiver.eventIds()).hasSize(1);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        dispatcher.poll();
+        await(() -> !exists(due.get(0)));
+        assertThat(rows(endpointId)).isEqualTo(1);   // the leased row waits for its lease to run out
+        assertThat(receiver.eventIds()).hasSize(2);
+    }
+
+    @Test
+    void slowEndpointDoesNotHoldUpOthers() throws Exception {
+        receiver.latency(Duration.ofSeconds(4));
+        User fastShop = user("FastShop", "0.00");
+        StubMerchantReceiver fast = receiver();
+        long fastEndpointId = register(fastShop, fast);
+
+        queue(endpointId, 1, 0, LocalDateTime.now());
+        dispatcher.poll();
+        await(() -> receiver.requests() == 1);
+
+        // Queued while the slow request is still in flight, so it needs a later pass
+        queue(fastEndpointId, 1, 0, LocalDateTime.now());
+        dispatcher.poll();
+
+        await(() -> rows(fastEndpointId) == 0, Duration.ofSeconds(2));
+        assertThat(rows(endpointId)).isEqualTo(1);
+
+        await(() -> rows(endpointId) == 0);
+        assertThat(receiver.eventIds()).hasSize(1);
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private User user(String name, String balance) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "." + runId + "@example.com");
+        user.setPhone((6 + users.size()) + "0" + runId);
+        user.setPasswordHash(passwordEncoder.encode("Test@1234"));
+        user.setIsActive(true);
+        userRepository.save(user);
+
+        Wallet wallet = new Wallet();
+        wallet.setUser(user);
+        wallet.setBalance(new BigDecimal(balance));
+        walletRepository.save(wallet);
+
+        users.add(user);
+        return user;
+    }
+
+    private StubMerchantReceiver receiver() throws Exception {
+        StubMerchantReceiver stub = new StubMerchantReceiver(0, SECRET);
+        receivers.add(stub);
+        return stub;
+    }
+
+    private long register(User merchant, StubMerchantReceiver stub) {
+        merchantWebhookService.setMerchant(merchant.getId(), true);
+        merchant.setIsMerchant(true);
+
+        MerchantEndpointRequest request = new MerchantEndpointRequest();
+        request.setUrl(stub.url());
+        merchantWebhookService.register(merchant, request);
+
+        // The stub checks signatures with a fixed secret rather than the issued one
+        jdbcTemplate.update("UPDATE merchant_endpoints SET secret = ? WHERE user_id = ?", SECRET, merchant.getId());
+        return jdbcTemplate.queryForObject("SELECT id FROM merchant_endpoints WHERE user_id = ?",
+                Long.class, merchant.getId());
+    }
+
+    private TransferRequest transfer(User recipient, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setRecipientPhone(recipient.getPhone());
+        request.setAmount(new BigDecimal(amount));
+        request.setNote("Order " + runId);
+        return request;
+    }
+
+    private List<Long> queue(long endpoint, int events, int attempts, LocalDateTime dueAt) {
+        List<Long> ids = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String eventId = "evt_" + runId + "_" + endpoint + "_" + dueAt.getNano() + "_" + i;
+            jdbcTemplate.update("INSERT INTO merchant_webhook_deliveries " +
+                            "(endpoint_id, event_id, event_type, payload, status, attempts, next_attempt_at, created_at) " +
+                            "VALUES (?, ?, 'transfer.received', ?, 'PENDING', ?, ?, ?)",
+                    endpoint, eventId,
+                    "{\"id\":\"" + eventId + "\",\"type\":\"transfer.received\",\"data\":{\"amount\":\"1.00\"}}",
+                    attempts, Timestamp.valueOf(dueAt), Timestamp.valueOf(LocalDateTime.now()));
+            ids.add(jdbcTemplate.queryForObject("SELECT id FROM merchant_webhook_deliveries WHERE event_id = ?",
+                    Long.class, eventId));
+        }
+        return ids;
+    }
+
+    private int rows(long endpoint) {
+        return count(endpoint, "1 = 1");
+    }
+
+    private int count(long endpoint, String condition) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM merchant_webhook_deliveries WHERE endpoint_id = ? AND " + condition,
+                Integer.class, endpoint);
+    }
+
+    private boolean exists(long deliveryId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM merchant_webhook_deliveries WHERE id = ?",
+                Integer.class, deliveryId) > 0;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        await(condition, Duration.ofSeconds(10));
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
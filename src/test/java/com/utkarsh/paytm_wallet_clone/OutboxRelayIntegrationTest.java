@@ -0,0 +1,160 @@
+package com.utkarsh.paytm_wallet_clone;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.model.Wallet;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.service.LocalNotificationDelivery;
+import com.utkarsh.paytm_wallet_clone.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Not @Transactional: the relay drains on its own thread after the test's transactions commit
+@SpringBootTest(properties = {
+        "wallet.outbox.batch-size=2",
+        "wallet.outbox.poll-ms=3600000"
+})
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private String runId;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        runId = Long.toString(ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L));
+        alice = user("Alice", "1000.00");
+        bob = user("Bob", "0.00");
+        carol = user("Carol", "0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (User user : users) {
+            jdbcTemplate.update("DELETE FROM notification_outbox WHERE user_email = ?", user.getEmail());
+            jdbcTemplate.update("DELETE FROM transactions WHERE sender_wallet_id IN (SELECT id FROM wallets WHERE user_id = ?) " +
+                    "OR receiver_wallet_id IN (SELECT id FROM wallets WHERE user_id = ?)", user.getId(), user.getId());
+        }
+        for (User user : users) {
+            jdbcTemplate.update("DELETE FROM wallets WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        }
+    }
+
+    @Test
+    void onlyCommittedNotificationsAreSentAndTheOutboxEmpties() {
+        transactionTemplate.executeWithoutResult(status -> {
+            transferService.transfer(alice, transfer(bob, "100.00"));
+
+            // Queued, but nothing may leave before commit
+            assertThat(outboxRows(bob)).isEqualTo(1);
+            verify(messagingTemplate, after(300).never())
+                    .convertAndSendToUser(eq(bob.getEmail()), anyString(), any(Object.class));
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            transferService.transfer(alice, transfer(carol, "50.00"));
+            status.setRollbackOnly();
+        });
+
+        verify(messagingTemplate, timeout(5_000))
+                .convertAndSendToUser(eq(bob.getEmail()), eq(LocalNotificationDelivery.BALANCE_DESTINATION), any(Object.class));
+        verify(messagingTemplate, after(500).never())
+                .convertAndSendToUser(eq(carol.getEmail()), anyString(), any(Object.class));
+        assertThat(outboxRows(bob)).isZero();
+        assertThat(outboxRows(carol)).isZero();
+    }
+
+    @Test
+    void deliveredRowsAreDeletedBatchByBatch() {
+        // Three transfers queue six notifications — three batches of batch-size=2
+        transactionTemplate.executeWithoutResult(status -> {
+            transferService.transfer(alice, transfer(bob, "10.00"));
+            transferService.transfer(alice, transfer(carol, "10.00"));
+            transferService.transfer(alice, transfer(bob, "10.00"));
+        });
+
+        verify(messagingTemplate, timeout(5_000).times(3))
+                .convertAndSendToUser(eq(alice.getEmail()), eq(LocalNotificationDelivery.BALANCE_DESTINATION), any(Object.class));
+        verify(messagingTemplate, timeout(5_000).times(2))
+                .convertAndSendToUser(eq(bob.getEmail()), eq(LocalNotificationDelivery.BALANCE_DESTINATION), any(Object.class));
+        verify(messagingTemplate, timeout(5_000).times(1))
+                .convertAndSendToUser(eq(carol.getEmail()), eq(LocalNotificationDelivery.BALANCE_DESTINATION), any(Object.class));
+        assertThat(outboxRows(alice) + outboxRows(bob) + outboxRows(carol)).isZero();
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private User user(String name, String balance) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "." + runId + "@example.com");
+        user.setPhone((6 + users.size()) + "1" + runId);
+        user.setPasswordHash(passwordEncoder.encode("Test@1234"));
+        user.setIsActive(true);
+        userRepository.save(user);
+
+        Wallet wallet = new Wallet();
+        wallet.setUser(user);
+        wallet.setBalance(new BigDecimal(balance));
+        walletRepository.save(wallet);
+
+        users.add(user);
+        return user;
+    }
+
+    private TransferRequest transfer(User recipient, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setRecipientPhone(recipient.getPhone());
+        request.setAmount(new BigDecimal(amount));
+        request.setNote("Outbox " + runId);
+        return request;
+    }
+
+    private int outboxRows(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE user_email = ?",
+                Integer.class, user.getEmail());
+    }
+}
@@ -0,0 +1,239 @@
+package com.utkarsh.paytm_wallet_clone;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.BulkRefundRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.RefundBatchDTO;
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
+import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.model.Wallet;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.service.RefundService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Not @Transactional: batches run on RefundService's own threads and only see committed rows
+@SpringBootTest(properties = "wallet.refund.resume-initial-delay-ms=3600000")
+class RefundIntegrationTest {
+
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private RazorpayOrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private PaymentGateway paymentGateway;
+
+    private User carol;
+    private Wallet wallet;
+    private String runId;
+
+    @BeforeEach
+    void setUp() {
+        runId = Long.toString(ThreadLocalRandom.current().nextLong(100_000_000L, 1_000_000_000L));
+
+        carol = new User();
+        carol.setName("Carol");
+        carol.setEmail("carol." + runId + "@example.com");
+        carol.setPhone("7" + runId);
+        carol.setPasswordHash(passwordEncoder.encode("Test@1234"));
+        carol.setIsActive(true);
+        userRepository.save(carol);
+
+        wallet = new Wallet();
+        wallet.setUser(carol);
+        wallet.setBalance(new BigDecimal("1000.00"));
+        walletRepository.save(wallet);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refunds WHERE wallet_id = ?", wallet.getId());
+        jdbcTemplate.update("DELETE FROM transactions WHERE sender_wallet_id = ? OR receiver_wallet_id = ?",
+                wallet.getId(), wallet.getId());
+        jdbcTemplate.update("DELETE FROM razorpay_orders WHERE user_id = ?", carol.getId());
+        jdbcTemplate.update("DELETE FROM wallets WHERE id = ?", wallet.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", carol.getId());
+    }
+
+    @Test
+    void debitsTheWalletThenRefundsAtTheGateway() {
+        String orderId = paidOrder("300.00");
+        when(paymentGateway.createRefund(eq(payment(orderId)), eq(30000L), any()))
+                .thenAnswer(call -> refund("rfnd_1", call.getArgument(0), call.getArgument(2)));
+
+        RefundBatchDTO batch = awaitFinished(refundService.submit(request(orderId)).getBatchId());
+
+        assertThat(batch.getRefunded()).isEqualTo(1);
+        assertThat(batch.getRefundedAmount()).isEqualByComparingTo("300.00");
+        assertThat(balance()).isEqualByComparingTo("700.00");
+        assertThat(orderStatus(orderId)).isEqualTo("REFUNDED");
+        assertThat(ledgerRows("DEBIT")).isEqualTo(1);
+    }
+
+    @Test
+    void refundTheAvailableBalanceCantCoverIsSkipped() {
+        jdbcTemplate.update("UPDATE wallets SET held_amount = 800.00 WHERE id = ?", wallet.getId());
+        String orderId = paidOrder("300.00");
+
+        RefundBatchDTO batch = awaitFinished(refundService.submit(request(orderId)).getBatchId());
+
+        assertThat(batch.getSkipped()).isEqualTo(1);
+        assertThat(balance()).isEqualByComparingTo("1000.00");
+        assertThat(orderStatus(orderId)).isEqualTo("PAID");
+        verify(paymentGateway, never()).createRefund(any(), anyLong(), any());
+    }
+
+    @Test
+    void retryAfterATimeoutFindsTheRefundByReceipt() {
+        String orderId = paidOrder("300.00");
+        AtomicReference<PaymentGateway.GatewayRefund> madeAtGateway = new AtomicReference<>();
+        // The gateway makes the refund, but the response never arrives
+        when(paymentGateway.createRefund(any(), anyLong(), any())).thenAnswer(call -> {
+            madeAtGateway.set(refund("rfnd_2", call.getArgument(0), call.getArgument(2)));
+            throw new PaymentGatewayException("Payment gateway timed out");
+        });
+        when(paymentGateway.fetchRefunds(payment(orderId)))
+                .thenAnswer(call -> madeAtGateway.get() != null ? List.of(madeAtGateway.get()) : List.of());
+
+        RefundBatchDTO batch = awaitFinished(refundService.submit(request(orderId)).getBatchId());
+
+        assertThat(batch.getRefunded()).isEqualTo(1);
+        assertThat(balance()).isEqualByComparingTo("700.00");
+        verify(paymentGateway, times(1)).createRefund(any(), anyLong(), any());
+        assertThat(jdbcTemplate.queryForObject("SELECT gateway_refund_id FROM refunds WHERE wallet_id = ?",
+                String.class, wallet.getId())).isEqualTo("rfnd_2");
+    }
+
+    @Test
+    void refundTheGatewayRejectsIsReversed() {
+        String orderId = paidOrder("300.00");
+        when(paymentGateway.createRefund(any(), anyLong(), any()))
+                .thenThrow(new PaymentGatewayException("Payment already fully refunded", null, true));
+
+        RefundBatchDTO batch = awaitFinished(refundService.submit(request(orderId)).getBatchId());
+
+        assertThat(batch.getFailed()).isEqualTo(1);
+        assertThat(balance()).isEqualByComparingTo("1000.00");
+        assertThat(ledgerRows("DEBIT")).isEqualTo(1);
+        assertThat(ledgerRows("CREDIT")).isEqualTo(1);
+        assertThat(orderStatus(orderId)).isEqualTo("PAID");
+    }
+
+    @Test
+    void resumedBatchCompletesARefundLeftDebitedByACrash() {
+        String orderId = paidOrder("300.00");
+        AtomicReference<PaymentGateway.GatewayRefund> madeAtGateway = new AtomicReference<>();
+        // The node dies mid-call: the refund exists at the gateway, the row is left DEBITED under a lease
+        when(paymentGateway.createRefund(any(), anyLong(), any())).thenAnswer(call -> {
+            madeAtGateway.set(refund("rfnd_3", call.getArgument(0), call.getArgument(2)));
+            throw new IllegalStateException("node stopped");
+        });
+        when(paymentGateway.fetchRefunds(payment(orderId)))
+                .thenAnswer(call -> madeAtGateway.get() != null ? List.of(madeAtGateway.get()) : List.of());
+
+        String batchId = refundService.submit(request(orderId)).getBatchId();
+        assertThat(awaitFinished(batchId).getDebited()).isEqualTo(1);
+
+        // The dead node's lease runs out
+        jdbcTemplate.update("UPDATE refunds SET claimed_until = ? WHERE batch_id = ?",
+                LocalDateTime.now().minusMinutes(1), batchId);
+        refundService.resume(batchId);
+        RefundBatchDTO batch = awaitFinished(batchId);
+
+        assertThat(batch.getRefunded()).isEqualTo(1);
+        assertThat(balance()).isEqualByComparingTo("700.00");
+        assertThat(ledgerRows("DEBIT")).isEqualTo(1);
+        verify(paymentGateway, times(1)).createRefund(any(), anyLong(), any());
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private String paidOrder(String amount) {
+        RazorpayOrder order = new RazorpayOrder();
+        order.setUser(carol);
+        order.setAmount(new BigDecimal(amount));
+        order.setRazorpayOrderId("order_" + runId);
+        order.setRazorpayPaymentId("pay_" + runId);
+        order.setReceipt("receipt_" + runId);
+        order.setStatus(RazorpayOrder.RazorpayOrderStatus.PAID);
+        orderRepository.save(order);
+        return order.getRazorpayOrderId();
+    }
+
+    private String payment(String orderId) {
+        return "pay_" + orderId.substring("order_".length());
+    }
+
+    private static PaymentGateway.GatewayRefund refund(String id, String paymentId, String receipt) {
+        return new PaymentGateway.GatewayRefund(id, paymentId, 30000, "processed", receipt);
+    }
+
+    private static BulkRefundRequest request(String orderId) {
+        BulkRefundRequest request = new BulkRefundRequest();
+        request.setOrderIds(List.of(orderId));
+        request.setReason("Test refund");
+        return request;
+    }
+
+    private RefundBatchDTO awaitFinished(String batchId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        RefundBatchDTO batch = refundService.getBatch(batchId);
+        while ("RUNNING".equals(batch.getState()) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            batch = refundService.getBatch(batchId);
+        }
+        assertThat(batch.getState()).isNotEqualTo("RUNNING");
+        return batch;
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, wallet.getId());
+    }
+
+    private String orderStatus(String orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM razorpay_orders WHERE order_id = ?", String.class, orderId);
+    }
+
+    private int ledgerRows(String type) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE type = ? AND (sender_wallet_id = ? OR receiver_wallet_id = ?)",
+                Integer.class, type, wallet.getId(), wallet.getId());
+    }
+}
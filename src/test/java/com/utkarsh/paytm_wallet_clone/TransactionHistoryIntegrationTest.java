@@ -1,6 +1,7 @@
 package com.utkarsh.paytm_wallet_clone;
 
 import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.TransactionChangesResponse;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransactionDTO;
 import com.utkarsh.paytm_wallet_clone.model.User;
 import com.utkarsh.paytm_wallet_clone.model.Wallet;
@@ -171,4 +172,36 @@ class TransactionHistoryIntegrationTest {
 
         System.out.println("✅ Pagination works correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    void changesSince_shouldReturnOnlyNewRowsInSeqOrder() {
+        for (int i = 1; i <= 3; i++) {
+            TransferRequest request = new TransferRequest();
+            request.setRecipientPhone("9999999999");
+            request.setAmount(new BigDecimal("10.00"));
+            transferService.transfer(alice, request);
+        }
+
+        // First sync from zero pages through the ledger
+        TransactionChangesResponse first = transactionService.getChangesSince(alice, 0, 2).orElseThrow();
+        assertThat(first.getTransactions()).extracting(TransactionDTO::getSeq).containsExactly(1L, 2L);
+        assertThat(first.getLatestSeq()).isEqualTo(2);
+        assertThat(first.isHasMore()).isTrue();
+
+        TransactionChangesResponse second = transactionService.getChangesSince(alice, first.getLatestSeq(), 2).orElseThrow();
+        assertThat(second.getTransactions()).extracting(TransactionDTO::getSeq).containsExactly(3L);
+        assertThat(second.isHasMore()).isFalse();
+
+        // Caught up — nothing to send
+        assertThat(transactionService.getChangesSince(alice, second.getLatestSeq(), 2)).isEmpty();
+
+        // Bob's ledger is numbered independently
+        TransactionChangesResponse bobChanges = transactionService.getChangesSince(bob, 0, 10).orElseThrow();
+        assertThat(bobChanges.getTransactions())
+                .extracting(TransactionDTO::getDirection)
+                .containsOnly(TransactionDTO.TransactionDirection.RECEIVED);
+        assertThat(bobChanges.getLatestSeq()).isEqualTo(3);
+
+        System.out.println("✅ Delta sync returns only rows after sinceSeq");
+    }
+}
@@ -0,0 +1,67 @@
+package com.utkarsh.paytm_wallet_clone.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import com.utkarsh.paytm_wallet_clone.util.BalanceFrameCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs binary-v1 encoding of one balance frame: time per message here,
+ * allocation per message with {@code -prof gc}, and encoded size printed at
+ * setup.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.utkarsh.paytm_wallet_clone.bench.BalanceEncodingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalanceEncodingBenchmark {
+
+    private ObjectMapper json;
+    private BalanceUpdateMessage message;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same shape Spring Boot's STOMP converter produces
+        json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        message = new BalanceUpdateMessage("TRANSFER_RECEIVED", new BigDecimal("12345.67"),
+                new BigDecimal("500.00"), "Rahul Kumar", "💰 You received ₹500.00 from Rahul Kumar");
+        message.setSeq(1_718_000_000_000_042L);
+
+        System.out.printf("%nbytes/message: json=%d binary-v1=%d%n",
+                json.writeValueAsBytes(message).length, BalanceFrameCodec.encode(message).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return BalanceFrameCodec.encode(message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(BalanceEncodingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.utkarsh.paytm_wallet_clone.bench;
+
+import com.utkarsh.paytm_wallet_clone.merchant.CallbackAddressPolicy;
+import com.utkarsh.paytm_wallet_clone.merchant.MerchantWebhookSender;
+import com.utkarsh.paytm_wallet_clone.merchant.StubMerchantReceiver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merchant webhook deliveries per second through the shared client against
+ * a local stub receiver with a few milliseconds of latency. One operation is
+ * one signed POST carrying {@code eventsPerRequest} events, so events per
+ * second is the score times that; 32 threads stand in for the dispatcher's
+ * per-endpoint virtual threads.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.utkarsh.paytm_wallet_clone.bench.MerchantWebhookDeliveryBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class MerchantWebhookDeliveryBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_secret";
+
+    @Param({"1", "100"})
+    public int eventsPerRequest;
+
+    @Param({"5"})
+    public int receiverLatencyMs;
+
+    private StubMerchantReceiver receiver;
+    private MerchantWebhookSender sender;
+    private List<String> events;
+
+    @Setup
+    public void setUp() throws Exception {
+        receiver = new StubMerchantReceiver(0, SECRET).latency(Duration.ofMillis(receiverLatencyMs));
+        sender = new MerchantWebhookSender(Duration.ofSeconds(3), Duration.ofSeconds(10),
+                new CallbackAddressPolicy(true));
+        events = new ArrayList<>(eventsPerRequest);
+        for (int i = 0; i < eventsPerRequest; i++) {
+            events.add(("{\"id\":\"evt_TXN%08d\",\"type\":\"transfer.received\",\"created_at\":\"2026-10-18T12:00:00Z\","
+                    + "\"data\":{\"txn_ref\":\"TXN%08d\",\"amount\":\"250.00\",\"currency\":\"INR\","
+                    + "\"from\":\"Alice\",\"note\":null,\"balance\":\"10250.00\"}}").formatted(i, i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sender.close();
+        receiver.close();
+    }
+
+    @Benchmark
+    public boolean deliver() {
+        return sender.deliver(receiver.url(), SECRET, events).delivered();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MerchantWebhookDeliveryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.utkarsh.paytm_wallet_clone.bench;
+
+import com.utkarsh.paytm_wallet_clone.security.WebhookSignatureVerifier;
+import com.utkarsh.paytm_wallet_clone.util.WebhookEventParser;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature check and field extraction: the original String /
+ * {@code Mac.getInstance} / {@code JSONObject} path against the raw-bytes
+ * path. Time per webhook here, bytes per webhook as
+ * {@code gc.alloc.rate.norm} from {@code -prof gc}.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.utkarsh.paytm_wallet_clone.bench.WebhookVerificationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WebhookVerificationBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_secret";
+
+    // Trimmed from a real payment.captured delivery
+    private static final String BODY = """
+            {"entity":"event","account_id":"acc_BFQ7uQEaa7j2z7","event":"payment.captured",\
+            "contains":["payment"],"payload":{"payment":{"entity":{"id":"pay_DESlfW9H8K9uqM",\
+            "entity":"payment","amount":50000,"currency":"INR","base_amount":50000,"status":"captured",\
+            "order_id":"order_DESlLckIVRkHWj","invoice_id":null,"international":false,"method":"upi",\
+            "amount_refunded":0,"amount_transferred":0,"refund_status":null,"captured":true,\
+            "description":"Add money to wallet","card_id":null,"bank":null,"wallet":null,\
+            "vpa":"gaurav.kumar@exampleupi","email":"gaurav.kumar@example.com","contact":"+919876543210",\
+            "notes":{"user_id":"42","purpose":"wallet_topup"},"fee":1180,"tax":180,"error_code":null,\
+            "error_description":null,"error_source":null,"error_step":null,"error_reason":null,\
+            "acquirer_data":{"rrn":"313409574362","upi_transaction_id":"D2F6E3B5D8A74D2B9E1F0A2C4B6D8E0F"},\
+            "created_at":1567674599}}},"created_at":1567674606}""";
+
+    private byte[] body;
+    private String signature;
+    private WebhookSignatureVerifier verifier;
+
+    @Setup
+    public void setUp() throws Exception {
+        body = BODY.getBytes(StandardCharsets.UTF_8);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        signature = HexFormat.of().formatHex(mac.doFinal(body));
+        verifier = new WebhookSignatureVerifier(SECRET);
+    }
+
+    // ─── Signature ────────────────────────────────────────────────────────────
+
+    @Benchmark
+    public boolean verifyOriginal() throws Exception {
+        String rawBody = new String(body, StandardCharsets.UTF_8);   // @RequestBody String
+        Mac sha256Hmac = Mac.getInstance("HmacSHA256");
+        sha256Hmac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+        byte[] hash = sha256Hmac.doFinal(rawBody.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString().equals(signature);
+    }
+
+    @Benchmark
+    public boolean verifyRawBytes() {
+        return verifier.verify(body, signature);
+    }
+
+    // ─── Field extraction ─────────────────────────────────────────────────────
+
+    @Benchmark
+    public Object parseJsonObject() {
+        JSONObject json = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        JSONObject payment = json.getJSONObject("payload").getJSONObject("payment").getJSONObject("entity");
+        return new WebhookEventParser.Fields(json.getString("event"), payment.getString("id"),
+                payment.getString("order_id"), payment.getInt("amount"));
+    }
+
+    @Benchmark
+    public Object parseStreaming() {
+        return WebhookEventParser.parse(body);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(WebhookVerificationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,163 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two routers in one JVM sharing a registry, with a transport that calls the
+ * peer router directly.
+ */
+class ClusterMessageRouterTest {
+
+    private final InMemoryUserSessionRegistry registry = new InMemoryUserSessionRegistry();
+    private final Map<String, ClusterMessageRouter> nodes = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> delivered = new ConcurrentHashMap<>();
+    private final AtomicInteger transportCalls = new AtomicInteger();
+
+    private final ClusterTransport transport = (nodeId, batch) -> {
+        transportCalls.incrementAndGet();
+        nodes.get(nodeId).receive(batch);
+    };
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(ClusterMessageRouter::shutdown);
+    }
+
+    @Test
+    void deliversLocallyWhenUserIsOnThisNode() {
+        ClusterMessageRouter a = node("node-a", 100);
+        node("node-b", 100);
+        registry.sessionOpened("alice@test.com", "node-a");
+
+        a.sendToUser("alice@test.com", "/queue/balance", "hello");
+
+        assertThat(delivered.get("node-a")).containsExactly("alice@test.com:hello");
+        assertThat(transportCalls).hasValue(0);
+    }
+
+    @Test
+    void relaysToTheNodeHoldingTheSession() throws Exception {
+        ClusterMessageRouter a = node("node-a", 100);
+        node("node-b", 100);
+        registry.sessionOpened("bob@test.com", "node-b");
+
+        a.sendToUser("bob@test.com", "/queue/balance", "hello");
+        a.flushAll();
+
+        awaitDelivered("node-b", 1);
+        assertThat(delivered.get("node-a")).isEmpty();
+        assertThat(delivered.get("node-b")).containsExactly("bob@test.com:hello");
+    }
+
+    @Test
+    void batchesRelayedMessagesInOrder() throws Exception {
+        ClusterMessageRouter a = node("node-a", 100);
+        node("node-b", 100);
+        registry.sessionOpened("bob@test.com", "node-b");
+
+        for (int i = 0; i < 250; i++) {
+            a.sendToUser("bob@test.com", "/queue/balance", i);
+        }
+        a.flushAll();
+
+        awaitDelivered("node-b", 250);
+        assertThat(transportCalls).hasValue(3);
+        assertThat(delivered.get("node-b")).first().isEqualTo("bob@test.com:0");
+        assertThat(delivered.get("node-b")).last().isEqualTo("bob@test.com:249");
+        assertThat(a.getRelayed()).isEqualTo(250);
+    }
+
+    @Test
+    void fansOutToEveryNodeTheUserIsOn() throws Exception {
+        ClusterMessageRouter a = node("node-a", 100);
+        node("node-b", 100);
+        registry.sessionOpened("carol@test.com", "node-a");
+        registry.sessionOpened("carol@test.com", "node-b");
+
+        a.sendToUser("carol@test.com", "/queue/balance", "hi");
+        a.flushAll();
+
+        awaitDelivered("node-b", 1);
+        assertThat(delivered.get("node-a")).containsExactly("carol@test.com:hi");
+    }
+
+    @Test
+    void broadcastsToEveryActiveNode() throws Exception {
+        List<String> broadcasts = new CopyOnWriteArrayList<>();
+        ClusterMessageRouter.LocalDelivery delivery = delivery(new CopyOnWriteArrayList<>(), broadcasts);
+        ClusterMessageRouter a = new ClusterMessageRouter("node-a", registry, transport, delivery, 100, 60_000);
+        ClusterMessageRouter b = new ClusterMessageRouter("node-b", registry, transport, delivery, 100, 60_000);
+        nodes.put("node-a", a);
+        nodes.put("node-b", b);
+        registry.sessionOpened("erin@test.com", "node-b");
+
+        a.broadcast("/queue/broadcast", "maintenance");
+        a.flushAll();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (broadcasts.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(broadcasts).containsExactly("/queue/broadcast:maintenance", "/queue/broadcast:maintenance");
+        assertThat(transportCalls).hasValue(1);
+    }
+
+    @Test
+    void countsFailedRelays() throws Exception {
+        ClusterMessageRouter a = new ClusterMessageRouter("node-a", registry,
+                (nodeId, batch) -> { throw new IllegalStateException("peer down"); },
+                delivery(new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>()), 100, 60_000);
+        nodes.put("node-a", a);
+        registry.sessionOpened("dave@test.com", "node-b");
+
+        a.sendToUser("dave@test.com", "/queue/balance", "lost");
+        a.flushAll();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (a.getRelayFailures() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(a.getRelayFailures()).isEqualTo(1);
+    }
+
+    private ClusterMessageRouter node(String nodeId, int batchSize) {
+        List<String> sink = new CopyOnWriteArrayList<>();
+        delivered.put(nodeId, sink);
+        ClusterMessageRouter router = new ClusterMessageRouter(nodeId, registry, transport,
+                delivery(sink, new CopyOnWriteArrayList<>()), batchSize, 60_000);
+        nodes.put(nodeId, router);
+        return router;
+    }
+
+    // Records "user:payload" for user sends and "destination:payload" for broadcasts
+    private static ClusterMessageRouter.LocalDelivery delivery(List<String> sent, List<String> broadcasts) {
+        return new ClusterMessageRouter.LocalDelivery() {
+            @Override
+            public void deliver(String user, String destination, Object payload) {
+                sent.add(user + ":" + payload);
+            }
+
+            @Override
+            public void broadcast(String destination, Object payload) {
+                broadcasts.add(destination + ":" + payload);
+            }
+        };
+    }
+
+    private void awaitDelivered(String nodeId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (delivered.get(nodeId).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(delivered.get(nodeId)).hasSize(count);
+    }
+}
@@ -0,0 +1,68 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ClusterSessionListenerTest {
+
+    private static final Principal ALICE = () -> "alice@test.com";
+
+    private final InMemoryUserSessionRegistry registry = new InMemoryUserSessionRegistry();
+    private final ClusterMessageRouter router = new ClusterMessageRouter("node-a", registry,
+            (nodeId, batch) -> { }, new ClusterMessageRouter.LocalDelivery() {
+                @Override
+                public void deliver(String user, String destination, Object payload) {
+                }
+
+                @Override
+                public void broadcast(String destination, Object payload) {
+                }
+            }, 100, 60_000);
+    private final ClusterSessionListener listener = new ClusterSessionListener(registry, router);
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    void repeatedDisconnectKeepsTheUsersOtherSessionsRouted() {
+        listener.onConnected(connected("s1"));
+        listener.onConnected(connected("s2"));
+
+        // Spring may publish SessionDisconnectEvent twice for the same session
+        listener.onDisconnected(disconnected("s1"));
+        listener.onDisconnected(disconnected("s1"));
+
+        assertThat(registry.nodesFor("alice@test.com")).containsExactly("node-a");
+
+        listener.onDisconnected(disconnected("s2"));
+        assertThat(registry.nodesFor("alice@test.com")).isEmpty();
+    }
+
+    private static SessionConnectedEvent connected(String sessionId) {
+        return new SessionConnectedEvent(ClusterSessionListenerTest.class, frame(sessionId), ALICE);
+    }
+
+    private static SessionDisconnectEvent disconnected(String sessionId) {
+        return new SessionDisconnectEvent(ClusterSessionListenerTest.class, frame(sessionId), sessionId,
+                CloseStatus.NORMAL, ALICE);
+    }
+
+    private static Message<byte[]> frame(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
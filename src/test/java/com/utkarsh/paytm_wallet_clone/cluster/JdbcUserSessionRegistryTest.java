@@ -0,0 +1,65 @@
+package com.utkarsh.paytm_wallet_clone.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JdbcUserSessionRegistryTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile List<String> rows = List.of("node-a");
+
+    // Stands in for the websocket_sessions table; only counts reads
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            lookups.incrementAndGet();
+            return (List<T>) rows;
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            return 1;
+        }
+    };
+
+    @Test
+    void nodesForIsServedFromCacheWithinTtl() {
+        JdbcUserSessionRegistry registry = new JdbcUserSessionRegistry(jdbcTemplate, 60_000, 100);
+
+        assertThat(registry.nodesFor("alice@test.com")).containsExactly("node-a");
+        rows = List.of("node-a", "node-b");
+        assertThat(registry.nodesFor("alice@test.com")).containsExactly("node-a");
+
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsReadAgain() throws Exception {
+        JdbcUserSessionRegistry registry = new JdbcUserSessionRegistry(jdbcTemplate, 1, 100);
+
+        registry.nodesFor("alice@test.com");
+        rows = List.of("node-b");
+        Thread.sleep(5);
+
+        assertThat(registry.nodesFor("alice@test.com")).containsExactly("node-b");
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void localSessionChangesInvalidateTheEntry() {
+        JdbcUserSessionRegistry registry = new JdbcUserSessionRegistry(jdbcTemplate, 60_000, 100);
+
+        registry.nodesFor("alice@test.com");
+        rows = List.of("node-a", "node-b");
+        registry.sessionOpened("alice@test.com", "node-b");
+
+        assertThat(registry.nodesFor("alice@test.com")).containsExactlyInAnyOrder("node-a", "node-b");
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+}
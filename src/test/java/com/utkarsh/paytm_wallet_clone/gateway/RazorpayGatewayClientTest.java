@@ -0,0 +1,120 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RazorpayGatewayClientTest {
+
+    private final StubRazorpayServer stub = new StubRazorpayServer(0);
+    private final RazorpayGatewayClient client = new RazorpayGatewayClient(stub.baseUrl(), "key", "secret",
+            Duration.ofSeconds(1), Duration.ofSeconds(1), new CircuitBreaker(2, Duration.ofMinutes(1)));
+
+    RazorpayGatewayClientTest() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void createsOrder() {
+        PaymentGateway.GatewayOrder order = client.createOrder(50000, "INR", "receipt_1");
+
+        assertThat(order.id()).startsWith("order_stub_");
+        assertThat(order.amountPaise()).isEqualTo(50000);
+        assertThat(order.status()).isEqualTo("created");
+    }
+
+    @Test
+    void fetchesCapturedPayment() {
+        PaymentGateway.GatewayOrder paid = client.createOrder(50000, "INR", "receipt_1");
+        PaymentGateway.GatewayOrder unpaid = client.createOrder(20000, "INR", "receipt_2");
+        String paymentId = stub.capture(paid.id(), 50000);
+
+        assertThat(client.fetchPayments(paid.id()))
+                .isEqualTo(List.of(new PaymentGateway.GatewayPayment(paymentId, 50000, "captured")));
+        assertThat(client.fetchPayments(unpaid.id()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void refundsPaymentAndFindsItByReceipt() {
+        PaymentGateway.GatewayOrder order = client.createOrder(50000, "INR", "receipt_1");
+        String paymentId = stub.capture(order.id(), 50000);
+
+        PaymentGateway.GatewayRefund refund = client.createRefund(paymentId, 50000, "refund_7");
+
+        assertThat(refund.id()).startsWith("rfnd_stub_");
+        assertThat(refund.amountPaise()).isEqualTo(50000);
+        assertThat(client.fetchRefunds(paymentId)).isEqualTo(List.of(refund));
+        assertThat(client.fetchRefunds("pay_unknown").isEmpty()).isTrue();
+    }
+
+    @Test
+    void slowGatewayTimesOutThenBreakerFailsFast() {
+        stub.latency(Duration.ofSeconds(3));
+
+        assertThatThrownBy(() -> client.createOrder(50000, "INR", "receipt_1")).isInstanceOf(PaymentGatewayException.class);
+        assertThatThrownBy(() -> client.createOrder(50000, "INR", "receipt_2")).isInstanceOf(PaymentGatewayException.class);
+        assertThat(client.getBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open — rejected without reaching the gateway
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> client.createOrder(50000, "INR", "receipt_3")).isInstanceOf(PaymentGatewayException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(100));
+        assertThat(stub.requests()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedRequestsDoNotTripTheBreaker() {
+        stub.failing(1.0, 400);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.createOrder(50000, "INR", "receipt")).isInstanceOf(PaymentGatewayException.class);
+        }
+        assertThat(client.getBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(stub.requests()).isEqualTo(3);
+    }
+
+    @Test
+    void marksRejectionsAsNotRetryable() {
+        stub.failing(1.0, 400);
+        assertThatThrownBy(() -> client.createRefund("pay_1", 100, "refund_1"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasFieldOrPropertyWithValue("rejected", true);
+
+        stub.failing(1.0, 503);
+        assertThatThrownBy(() -> client.createRefund("pay_1", 100, "refund_1"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasFieldOrPropertyWithValue("rejected", false);
+    }
+
+    @Test
+    void unexpectedErrorInTrialCallStillSettlesTheBreaker() throws Exception {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), now::get);
+        RazorpayGatewayClient trialClient = new RazorpayGatewayClient(stub.baseUrl(), "key", "secret",
+                Duration.ofSeconds(1), Duration.ofSeconds(1), breaker);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertThatThrownBy(() -> trialClient.call("trial", () -> {
+            throw new IllegalStateException("unexpected");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // The trial was recorded as a failure, so the next open period ends in a fresh trial
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(trialClient.createOrder(50000, "INR", "receipt_1").id()).startsWith("order_stub_");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,79 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import com.utkarsh.paytm_wallet_clone.security.WebhookSignatureVerifier;
+import com.utkarsh.paytm_wallet_clone.util.WebhookEventParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SimulatedPaymentGatewayTest {
+
+    private static final String SECRET = "whsec_sim";
+
+    private record Delivery(byte[] body, String signature, String eventId) {
+    }
+
+    private final LinkedBlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+    private final HttpServer receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    private SimulatedPaymentGateway gateway;
+
+    SimulatedPaymentGatewayTest() throws Exception {
+        receiver.createContext("/webhook/razorpay", exchange -> {
+            deliveries.add(new Delivery(exchange.getRequestBody().readAllBytes(),
+                    exchange.getRequestHeaders().getFirst("X-Razorpay-Signature"),
+                    exchange.getRequestHeaders().getFirst("X-Razorpay-Event-Id")));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+        receiver.stop(0);
+    }
+
+    @Test
+    void paysOrderWithSignedCapturedWebhook() throws Exception {
+        gateway = simulator(0.0);
+
+        PaymentGateway.GatewayOrder order = gateway.createOrder(50000, "INR", "receipt_1");
+        Delivery delivery = deliveries.poll(5, TimeUnit.SECONDS);
+
+        assertThat(order.id()).startsWith("order_sim_");
+        assertThat(delivery != null).isTrue();
+        assertThat(new WebhookSignatureVerifier(SECRET).verify(delivery.body(), delivery.signature())).isTrue();
+        assertThat(delivery.eventId()).startsWith("evt_sim_");
+
+        WebhookEventParser.Fields fields = WebhookEventParser.parse(delivery.body());
+        assertThat(fields.event()).isEqualTo("payment.captured");
+        assertThat(fields.orderId()).isEqualTo(order.id());
+        assertThat(fields.paymentId()).startsWith("pay_sim_");
+    }
+
+    @Test
+    void failureRatioSendsFailedPayments() throws Exception {
+        gateway = simulator(1.0);
+
+        gateway.createOrder(50000, "INR", "receipt_1");
+        Delivery delivery = deliveries.poll(5, TimeUnit.SECONDS);
+
+        assertThat(WebhookEventParser.parse(delivery.body()).event()).isEqualTo("payment.failed");
+        assertThat(gateway.getSimulatedFailures()).isEqualTo(1L);
+    }
+
+    private SimulatedPaymentGateway simulator(double failureRatio) {
+        String url = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/webhook/razorpay";
+        return new SimulatedPaymentGateway(url, SECRET, 0, Duration.ofMillis(10), Duration.ofMillis(50), failureRatio);
+    }
+}
@@ -0,0 +1,168 @@
+package com.utkarsh.paytm_wallet_clone.gateway;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal stand-in for the Razorpay Orders API with adjustable latency and
+ * failure rate, for tests and for load runs of the add-money flow.
+ *
+ * <pre>
+ *  POST /v1/orders        → {"id":"order_stub_N","amount":...,"status":"created",...}
+ *  GET  /v1/orders/{id}   → the stored order, or 404
+ *  GET  /v1/orders/{id}/payments → payments recorded with {@link #capture}
+ *  POST /v1/payments/{id}/refund   → {"id":"rfnd_stub_N","payment_id":...,"amount":...,"receipt":...}
+ *  GET  /v1/payments/{id}/refunds  → refunds made against the payment
+ * </pre>
+ *
+ * Load run: start it, then point the app at it with
+ * {@code RAZORPAY_API_BASE_URL=http://localhost:9090/v1}.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.utkarsh.paytm_wallet_clone.gateway.StubRazorpayServer \
+ *     -Dexec.args="9090 150 0.02"      # port, latency ms, failure ratio
+ * </pre>
+ */
+public class StubRazorpayServer implements AutoCloseable {
+
+    private static final Pattern AMOUNT = Pattern.compile("\"amount\"\\s*:\\s*(\\d+)");
+    private static final Pattern RECEIPT = Pattern.compile("\"receipt\"\\s*:\\s*\"([^\"]*)\"");
+
+    private final HttpServer server;
+    private final Map<String, String> orders = new ConcurrentHashMap<>();
+    private final Map<String, String> payments = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> refunds = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRatio;
+    private volatile int failureStatus = 500;
+
+    public StubRazorpayServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/v1/orders", this::handle);
+        server.createContext("/v1/payments", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1";
+    }
+
+    public StubRazorpayServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Fraction of requests answered with {@code status} instead of the order. */
+    public StubRazorpayServer failing(double ratio, int status) {
+        this.failureRatio = ratio;
+        this.failureStatus = status;
+        return this;
+    }
+
+    /** Records a captured payment against {@code orderId}, as if the customer had paid. */
+    public String capture(String orderId, long amountPaise) {
+        String paymentId = "pay_stub_" + sequence.incrementAndGet();
+        payments.put(orderId, "{\"id\":\"%s\",\"entity\":\"payment\",\"amount\":%d,\"currency\":\"INR\",\"status\":\"captured\",\"order_id\":\"%s\"}"
+                .formatted(paymentId, amountPaise, orderId));
+        return paymentId;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            if (failureRatio > 0 && ThreadLocalRandom.current().nextDouble() < failureRatio) {
+                respond(exchange, failureStatus, "{\"error\":{\"code\":\"SERVER_ERROR\"}}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(exchange.getRequestMethod()) && path.equals("/v1/orders")) {
+                String id = "order_stub_" + sequence.incrementAndGet();
+                String order = "{\"id\":\"%s\",\"entity\":\"order\",\"amount\":%s,\"currency\":\"INR\",\"receipt\":\"%s\",\"status\":\"created\"}"
+                        .formatted(id, group(AMOUNT, body, "0"), group(RECEIPT, body, ""));
+                orders.put(id, order);
+                respond(exchange, 200, order);
+            } else if ("POST".equals(exchange.getRequestMethod()) && path.endsWith("/refund")) {
+                String paymentId = lastSegment(path.substring(0, path.length() - "/refund".length()));
+                String refund = "{\"id\":\"rfnd_stub_%d\",\"entity\":\"refund\",\"payment_id\":\"%s\",\"amount\":%s,\"receipt\":\"%s\",\"status\":\"processed\"}"
+                        .formatted(sequence.incrementAndGet(), paymentId, group(AMOUNT, body, "0"), group(RECEIPT, body, ""));
+                refunds.computeIfAbsent(paymentId, key -> new CopyOnWriteArrayList<>()).add(refund);
+                respond(exchange, 200, refund);
+            } else if ("GET".equals(exchange.getRequestMethod()) && path.endsWith("/refunds")) {
+                String paymentId = lastSegment(path.substring(0, path.length() - "/refunds".length()));
+                List<String> made = refunds.getOrDefault(paymentId, List.of());
+                respond(exchange, 200, "{\"entity\":\"collection\",\"count\":%d,\"items\":[%s]}"
+                        .formatted(made.size(), String.join(",", made)));
+            } else if ("GET".equals(exchange.getRequestMethod()) && path.endsWith("/payments")) {
+                String orderId = lastSegment(path.substring(0, path.length() - "/payments".length()));
+                String payment = payments.get(orderId);
+                respond(exchange, 200, payment == null
+                        ? "{\"entity\":\"collection\",\"count\":0,\"items\":[]}"
+                        : "{\"entity\":\"collection\",\"count\":1,\"items\":[" + payment + "]}");
+            } else if ("GET".equals(exchange.getRequestMethod()) && orders.containsKey(lastSegment(path))) {
+                respond(exchange, 200, orders.get(lastSegment(path)));
+            } else {
+                respond(exchange, 404, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\"}}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String group(Pattern pattern, String body, String fallback) {
+        Matcher matcher = pattern.matcher(body);
+        return matcher.find() ? matcher.group(1) : fallback;
+    }
+
+    private static String lastSegment(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        StubRazorpayServer stub = new StubRazorpayServer(port)
+                .latency(Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 0))
+                .failing(args.length > 2 ? Double.parseDouble(args[2]) : 0, 500);
+        System.out.println("Stub Razorpay listening on " + stub.baseUrl());
+    }
+}
@@ -0,0 +1,43 @@
+package com.utkarsh.paytm_wallet_clone.merchant;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CallbackAddressPolicyTest {
+
+    private final CallbackAddressPolicy policy = new CallbackAddressPolicy(false);
+
+    @Test
+    void internalAddressesAreNotPublic() throws Exception {
+        for (String address : new String[] {"127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1",
+                "169.254.169.254", "100.64.0.1", "0.0.0.0", "224.0.0.1", "::1", "fe80::1", "fd00::1", "fc00::1"}) {
+            assertThat(CallbackAddressPolicy.isPublic(InetAddress.getByName(address))).as(address).isFalse();
+        }
+    }
+
+    @Test
+    void publicAddressesPass() throws Exception {
+        assertThat(CallbackAddressPolicy.isPublic(InetAddress.getByName("93.184.216.34"))).isTrue();
+        assertThat(CallbackAddressPolicy.isPublic(InetAddress.getByName("2606:2800:220:1:248:1893:25c8:1946"))).isTrue();
+    }
+
+    @Test
+    void checkRefusesMetadataAndIpv6Literals() {
+        assertThatThrownBy(() -> policy.check(URI.create("https://169.254.169.254/latest/meta-data")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("non-public address");
+        assertThatThrownBy(() -> policy.check(URI.create("https://[::1]:8443/hooks")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> policy.check(URI.create("https://93.184.216.34/hooks"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void allowPrivateSkipsTheCheck() {
+        assertThatCode(() -> new CallbackAddressPolicy(true).check(URI.create("http://localhost:9191/hooks")))
+                .doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,103 @@
+package com.utkarsh.paytm_wallet_clone.merchant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MerchantWebhookSenderTest {
+
+    private static final String SECRET = "whsec_test_secret";
+
+    private StubMerchantReceiver receiver;
+    private MerchantWebhookSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        receiver = new StubMerchantReceiver(0, SECRET);
+        sender = new MerchantWebhookSender(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new CallbackAddressPolicy(true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    void deliversSignedBatchInOneRequest() {
+        MerchantWebhookSender.Result result = sender.deliver(receiver.url(), SECRET,
+                List.of(event("evt_1"), event("evt_2"), event("evt_3")));
+
+        assertThat(result.delivered()).isTrue();
+        assertThat(receiver.requests()).isEqualTo(1);
+        assertThat(receiver.eventIds()).containsExactlyInAnyOrder("evt_1", "evt_2", "evt_3");
+        assertThat(receiver.rejected()).isZero();
+    }
+
+    @Test
+    void receiverRejectsWrongSecret() {
+        MerchantWebhookSender.Result result = sender.deliver(receiver.url(), "whsec_other", List.of(event("evt_1")));
+
+        assertThat(result.delivered()).isFalse();
+        assertThat(result.status()).isEqualTo(401);
+        assertThat(receiver.rejected()).isEqualTo(1);
+        assertThat(receiver.events()).isZero();
+    }
+
+    @Test
+    void reportsServerErrorsAsUndelivered() {
+        receiver.failing(1.0, 503);
+
+        MerchantWebhookSender.Result result = sender.deliver(receiver.url(), SECRET, List.of(event("evt_1")));
+
+        assertThat(result.delivered()).isFalse();
+        assertThat(result.status()).isEqualTo(503);
+        assertThat(result.error()).startsWith("HTTP 503");
+    }
+
+    @Test
+    void reportsUnreachableEndpointWithoutThrowing() {
+        String url = receiver.url();
+        receiver.close();
+
+        MerchantWebhookSender.Result result = sender.deliver(url, SECRET, List.of(event("evt_1")));
+
+        assertThat(result.delivered()).isFalse();
+        assertThat(result.status()).isZero();
+        assertThat(result.error()).isNotBlank();
+    }
+
+    @Test
+    void refusesLoopbackCallbackAtSendTime() {
+        try (MerchantWebhookSender strict = new MerchantWebhookSender(Duration.ofSeconds(2), Duration.ofSeconds(5),
+                new CallbackAddressPolicy(false))) {
+            MerchantWebhookSender.Result result = strict.deliver(receiver.url(), SECRET, List.of(event("evt_1")));
+
+            assertThat(result.delivered()).isFalse();
+            assertThat(result.status()).isZero();
+            assertThat(result.error()).contains("non-public address");
+        }
+        assertThat(receiver.requests()).isZero();
+    }
+
+    @Test
+    void signsTimestampAndBody() {
+        String body = MerchantWebhookSender.body(List.of("{\"a\":1}", "{\"b\":2}"));
+
+        assertThat(body).isEqualTo("{\"events\":[{\"a\":1},{\"b\":2}]}");
+        assertThat(MerchantWebhookSender.sign(SECRET, 1700000000L, body))
+                .startsWith("v1=")
+                .hasSize(67)
+                .isNotEqualTo(MerchantWebhookSender.sign(SECRET, 1700000001L, body));
+    }
+
+    private static String event(String id) {
+        return "{\"id\":\"" + id + "\",\"type\":\"transfer.received\",\"data\":{\"amount\":\"100.00\"}}";
+    }
+}
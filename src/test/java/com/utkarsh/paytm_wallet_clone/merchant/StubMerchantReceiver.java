@@ -0,0 +1,157 @@
+package com.utkarsh.paytm_wallet_clone.merchant;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local merchant callback endpoint: checks the signature the way a merchant
+ * would, records which events arrived, and can be slowed down or made to
+ * fail, for tests and for delivery load runs.
+ *
+ * <pre>
+ *  POST /hooks  → 204 when the signature matches, 401 when it doesn't,
+ *                 {@code failureStatus} for the configured share of requests
+ * </pre>
+ *
+ * Load run: register {@code http://localhost:9191/hooks} as a merchant's
+ * callback (the app needs {@code MERCHANT_WEBHOOK_ALLOW_HTTP=true} and
+ * {@code MERCHANT_WEBHOOK_ALLOW_PRIVATE=true}) and start
+ * the stub with the secret the registration returned.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.utkarsh.paytm_wallet_clone.merchant.StubMerchantReceiver \
+ *     -Dexec.args="9191 whsec_... 50 0.05"      # port, secret, latency ms, failure ratio
+ * </pre>
+ */
+public class StubMerchantReceiver implements AutoCloseable {
+
+    private static final Pattern EVENT_ID = Pattern.compile("\\{\"id\":\"([^\"]+)\",\"type\":");
+
+    private final HttpServer server;
+    private final String secret;
+    private final Set<String> eventIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRatio;
+    private volatile int failureStatus = 503;
+
+    public StubMerchantReceiver(int port, String secret) throws IOException {
+        this.secret = secret;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/hooks", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/hooks";
+    }
+
+    public StubMerchantReceiver latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Fraction of correctly signed requests answered with {@code status} instead of 204. */
+    public StubMerchantReceiver failing(double ratio, int status) {
+        this.failureRatio = ratio;
+        this.failureStatus = status;
+        return this;
+    }
+
+    /** Events accepted, counting redeliveries. */
+    public long events() {
+        return events.get();
+    }
+
+    /** Distinct event ids accepted. */
+    public Set<String> eventIds() {
+        return eventIds;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    /** Requests refused for a missing or wrong signature. */
+    public int rejected() {
+        return rejected.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            String timestamp = exchange.getRequestHeaders().getFirst("X-Wallet-Timestamp");
+            String signature = exchange.getRequestHeaders().getFirst("X-Wallet-Signature");
+            if (timestamp == null || signature == null || !MessageDigest.isEqual(
+                    signature.getBytes(StandardCharsets.UTF_8), expectedSignature(timestamp, body))) {
+                rejected.incrementAndGet();
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            if (failureRatio > 0 && ThreadLocalRandom.current().nextDouble() < failureRatio) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+
+            Matcher matcher = EVENT_ID.matcher(new String(body, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                eventIds.add(matcher.group(1));
+                events.incrementAndGet();
+            }
+            exchange.sendResponseHeaders(204, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] expectedSignature(String timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+            return ("v1=" + HexFormat.of().formatHex(mac.doFinal(body))).getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9191;
+        StubMerchantReceiver stub = new StubMerchantReceiver(port, args.length > 1 ? args[1] : "whsec_local")
+                .latency(Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 0))
+                .failing(args.length > 3 ? Double.parseDouble(args[3]) : 0, 503);
+        System.out.println("Stub merchant listening on " + stub.url());
+    }
+}
@@ -0,0 +1,51 @@
+package com.utkarsh.paytm_wallet_clone.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WebhookSignatureVerifierTest {
+
+    private static final String SECRET = "whsec_test";
+    private static final byte[] BODY = "{\"event\":\"payment.captured\",\"note\":\"₹500\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final WebhookSignatureVerifier verifier = new WebhookSignatureVerifier(SECRET);
+
+    @Test
+    void acceptsTheGatewaySignature() throws Exception {
+        String signature = sign(BODY);
+
+        assertThat(verifier.verify(BODY, signature)).isTrue();
+        assertThat(verifier.verify(BODY, signature.toUpperCase())).isTrue();
+        // The cached Mac is reset between calls
+        assertThat(verifier.verify(BODY, signature)).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedBodyOrSignature() throws Exception {
+        String signature = sign(BODY);
+        byte[] tampered = BODY.clone();
+        tampered[3] ^= 1;
+
+        assertThat(verifier.verify(tampered, signature)).isFalse();
+        assertThat(verifier.verify(BODY, signature.substring(0, 63) + (signature.endsWith("0") ? "1" : "0"))).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedSignatures() {
+        assertThat(verifier.verify(BODY, null)).isFalse();
+        assertThat(verifier.verify(BODY, "abc")).isFalse();
+        assertThat(verifier.verify(BODY, "zz".repeat(32))).isFalse();
+    }
+
+    private static String sign(byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+}
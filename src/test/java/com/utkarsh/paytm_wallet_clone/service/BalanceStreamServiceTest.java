@@ -0,0 +1,110 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.cluster.InMemoryUserSessionRegistry;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BalanceStreamServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    /** Records the event ids written instead of touching a response. */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<Long> sent = new CopyOnWriteArrayList<>();
+        volatile boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder frame = new StringBuilder();
+            builder.build().forEach(part -> frame.append(part.getData()));
+            Matcher id = EVENT_ID.matcher(frame);
+            if (id.find()) {
+                sent.add(Long.parseLong(id.group(1)));
+            }
+        }
+    }
+
+    private final NotificationReplayService replayService = new NotificationReplayService(32, Duration.ofMinutes(10));
+    private final InMemoryUserSessionRegistry registry = new InMemoryUserSessionRegistry();
+    private final BalanceStreamService service =
+            new BalanceStreamService(replayService, registry, "node-a", Duration.ofMinutes(30), 64);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void streamsLiveUpdatesInOrder() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.attach("alice@test.com", null, emitter);
+
+        for (int i = 0; i < 50; i++) {
+            publish("alice@test.com");
+        }
+
+        awaitSize(emitter, 50);
+        assertThat(emitter.sent).isSorted();
+        assertThat(registry.nodesFor("alice@test.com")).containsExactly("node-a");
+    }
+
+    @Test
+    void replaysMissedFramesFromLastEventId() throws Exception {
+        long first = publish("bob@test.com");
+        publish("bob@test.com");
+        publish("bob@test.com");
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.attach("bob@test.com", first, emitter);
+
+        awaitSize(emitter, 2);
+        assertThat(emitter.sent).containsExactly(first + 1, first + 2);
+    }
+
+    @Test
+    void unregistersWhenClientGoesAway() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.attach("carol@test.com", null, emitter);
+        assertThat(service.getOpenStreams()).isEqualTo(1);
+
+        emitter.broken = true;
+        publish("carol@test.com");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getOpenStreams() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(service.getOpenStreams()).isZero();
+        assertThat(registry.nodesFor("carol@test.com")).isEmpty();
+    }
+
+    // Numbers the frame through the replay buffer and hands it to the stream, as local delivery does
+    private long publish(String user) {
+        BalanceUpdateMessage message = new BalanceUpdateMessage("CREDIT", BigDecimal.TEN, BigDecimal.ONE, null, "x");
+        replayService.publish(user, message, numbered -> service.deliver(user, numbered));
+        return message.getSeq();
+    }
+
+    private static void awaitSize(RecordingEmitter emitter, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.sent.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(emitter.sent).hasSize(size);
+    }
+}
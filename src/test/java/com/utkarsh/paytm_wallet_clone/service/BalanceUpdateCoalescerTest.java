@@ -0,0 +1,117 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BalanceUpdateCoalescerTest {
+
+    private final BalanceUpdateCoalescer coalescer = new BalanceUpdateCoalescer(true, 50);
+    private final List<BalanceUpdateMessage> sent = new CopyOnWriteArrayList<>();
+    private final BiConsumer<String, BalanceUpdateMessage> sink = (user, message) -> sent.add(message);
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void firstUpdateGoesOutImmediately() throws Exception {
+        BalanceUpdateMessage first = update("CREDIT", "100.00", "1100.00");
+
+        coalescer.offer("alice@test.com", first, sink);
+
+        assertThat(sent).containsExactly(first);
+        Thread.sleep(150);
+        assertThat(sent).containsExactly(first);   // nothing followed, so no summary
+    }
+
+    @Test
+    void burstIsFoldedIntoOneSummary() {
+        coalescer.offer("alice@test.com", update("CREDIT", "100.00", "1100.00"), sink);
+        coalescer.offer("alice@test.com", update("CREDIT", "50.00", "1150.00"), sink);
+        coalescer.offer("alice@test.com", update("DEBIT", "20.00", "1130.00"), sink);
+        coalescer.offer("alice@test.com", update("CREDIT", "30.00", "1160.00"), sink);
+
+        awaitSent(2);
+        BalanceUpdateMessage summary = sent.get(1);
+        assertThat(summary.getType()).isEqualTo("SUMMARY");
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getTotalCredited()).isEqualByComparingTo("80.00");
+        assertThat(summary.getTotalDebited()).isEqualByComparingTo("20.00");
+        assertThat(summary.getAmount()).isEqualByComparingTo("60.00");
+        assertThat(summary.getNewBalance()).isEqualByComparingTo("1160.00");
+    }
+
+    @Test
+    void singleFollowerIsSentAsItIs() {
+        BalanceUpdateMessage follower = update("DEBIT", "20.00", "1080.00");
+
+        coalescer.offer("alice@test.com", update("CREDIT", "100.00", "1100.00"), sink);
+        coalescer.offer("alice@test.com", follower, sink);
+
+        awaitSent(2);
+        assertThat(sent.get(1)).isSameAs(follower);
+    }
+
+    @Test
+    void usersHaveSeparateWindows() {
+        BalanceUpdateMessage alice = update("CREDIT", "1.00", "1.00");
+        BalanceUpdateMessage bob = update("CREDIT", "2.00", "2.00");
+
+        coalescer.offer("alice@test.com", alice, sink);
+        coalescer.offer("bob@test.com", bob, sink);
+
+        assertThat(sent).containsExactly(alice, bob);
+    }
+
+    @Test
+    void updateArrivingWhileTheSummaryIsSentFollowsIt() throws Exception {
+        BalanceUpdateMessage late = update("CREDIT", "5.00", "1155.00");
+        BiConsumer<String, BalanceUpdateMessage> offeringSink = (user, message) -> {
+            sent.add(message);
+            // Lands while the closing window is being sent — must not go out ahead of it as a leading update
+            if ("SUMMARY".equals(message.getType())) {
+                coalescer.offer(user, late, sink);
+            }
+        };
+
+        coalescer.offer("alice@test.com", update("CREDIT", "100.00", "1100.00"), offeringSink);
+        coalescer.offer("alice@test.com", update("CREDIT", "25.00", "1125.00"), offeringSink);
+        coalescer.offer("alice@test.com", update("CREDIT", "25.00", "1150.00"), offeringSink);
+
+        awaitSent(3);
+        assertThat(sent).extracting(BalanceUpdateMessage::getType).containsExactly("CREDIT", "SUMMARY", "CREDIT");
+        assertThat(sent.get(2)).isSameAs(late);
+
+        // The window is gone once nothing more arrived: the next update leads again
+        Thread.sleep(150);
+        BalanceUpdateMessage next = update("CREDIT", "1.00", "1156.00");
+        coalescer.offer("alice@test.com", next, sink);
+        assertThat(sent).hasSize(4).last().isSameAs(next);
+    }
+
+    private void awaitSent(int frames) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sent.size() < frames && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertThat(sent).hasSizeGreaterThanOrEqualTo(frames);
+    }
+
+    private static BalanceUpdateMessage update(String type, String amount, String newBalance) {
+        return new BalanceUpdateMessage(type, new BigDecimal(newBalance), new BigDecimal(amount), null, type);
+    }
+}
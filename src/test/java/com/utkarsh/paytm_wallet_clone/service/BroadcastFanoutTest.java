@@ -0,0 +1,103 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BroadcastMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BroadcastFanoutTest {
+
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+    private final ThreadPoolTaskExecutor outbound = new ThreadPoolTaskExecutor();
+    private BroadcastFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        template.setMessageConverter(converter);
+        outbound.initialize();
+        fanout = new BroadcastFanout(template, userRegistry, outbound, 1_000_000, 100, 4, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanout.shutdown();
+        outbound.shutdown();
+    }
+
+    @Test
+    void sendsOnceToEverySessionSharingOneSerializedBody() throws Exception {
+        Set<SimpUser> users = new HashSet<>();
+        for (int u = 0; u < 250; u++) {
+            users.add(user("user" + u + "@test.com", "s" + u + "a", "s" + u + "b"));
+        }
+        when(userRegistry.getUsers()).thenReturn(users);
+
+        fanout.fanOut("/queue/broadcast", new BroadcastMessage("b-1", "MAINTENANCE", "Downtime", "Back at 2am"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sent.size() < 500 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(sent).hasSize(500);
+        assertThat(sent).extracting(SimpMessageHeaderAccessor::getSessionId).doesNotHaveDuplicates();
+        assertThat(sent).extracting(Message::getPayload).allSatisfy(body -> assertThat(body).isSameAs(sent.get(0).getPayload()));
+        assertThat(SimpMessageHeaderAccessor.getDestination(sent.get(0).getHeaders())).startsWith("/user/user");
+    }
+
+    @Test
+    void pacesToTheConfiguredRate() throws Exception {
+        BroadcastFanout slow = new BroadcastFanout(new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+                userRegistry, outbound, 1_000, 100, 2, 5_000);
+        Set<SimpUser> users = new HashSet<>();
+        for (int u = 0; u < 300; u++) {
+            users.add(user("user" + u + "@test.com", "s" + u));
+        }
+        when(userRegistry.getUsers()).thenReturn(users);
+
+        long start = System.nanoTime();
+        slow.fanOut("/queue/broadcast", "{\"type\":\"PROMOTION\"}");
+        while (sent.size() < 300 && System.nanoTime() - start < 5_000_000_000L) {
+            Thread.sleep(5);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        slow.shutdown();
+
+        // 300 sessions at 1000/s in batches of 100: the third batch starts no earlier than 200 ms in
+        assertThat(sent).hasSize(300);
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(190);
+    }
+
+    private static SimpUser user(String name, String... sessionIds) {
+        SimpUser user = mock(SimpUser.class);
+        when(user.getName()).thenReturn(name);
+        Set<SimpSession> sessions = new HashSet<>();
+        for (String id : sessionIds) {
+            SimpSession session = mock(SimpSession.class);
+            when(session.getId()).thenReturn(id);
+            sessions.add(session);
+        }
+        when(user.getSessions()).thenReturn(sessions);
+        return user;
+    }
+}
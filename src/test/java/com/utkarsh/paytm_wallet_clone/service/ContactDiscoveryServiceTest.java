@@ -0,0 +1,106 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.ContactDiscoveryResponse;
+import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactDiscoveryServiceTest {
+
+    private static final Set<String> REGISTERED = Set.of("9876543210", "9123456789");
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final List<List<String>> lookups = new ArrayList<>();
+
+    // Stands in for the users table during the startup build
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return (T) Long.valueOf(REGISTERED.size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if ((Long) args[0] > 0) {
+                return List.of();
+            }
+            List<T> rows = new ArrayList<>();
+            long id = 1;
+            for (String phone : REGISTERED) {
+                rows.add((T) new Object[]{id++, phone});
+            }
+            return rows;
+        }
+    };
+
+    private ContactDiscoveryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContactDiscoveryService(userRepository, jdbcTemplate, 1_000, 0.001, 1);
+        service.rebuild();
+    }
+
+    @Test
+    void normalizesAddressBookFormatsBeforeLookup() {
+        stubLookups();
+
+        ContactDiscoveryResponse response = service.discover(List.of(
+                "+91 98765 43210", "098765-43210", "9876543210", "+91-91234-56789", "12345", "5123456789"));
+
+        assertThat(response.getChecked()).isEqualTo(2);   // three spellings of one number, one other, two invalid
+        assertThat(response.getRegistered()).extracting(UserLookupDTO::getPhone)
+                .containsExactlyInAnyOrder("9876543210", "9123456789");
+    }
+
+    @Test
+    void reportsOnlyNumbersConfirmedByTheLookup() {
+        stubLookups();
+        // In the filter but not in the table — what a false positive looks like
+        service.onUserRegistered(new UserRegisteredEvent(99L, 99L, "Gone", "7000000000"));
+
+        ContactDiscoveryResponse response = service.discover(List.of(
+                "9876543210", "7000000000", "8000000000", "9123456789"));
+
+        assertThat(response.getChecked()).isEqualTo(4);
+        assertThat(response.getCandidates()).isEqualTo(3);
+        assertThat(response.getRegistered()).extracting(UserLookupDTO::getPhone)
+                .containsExactlyInAnyOrder("9876543210", "9123456789");
+        // query-chunk-size=1: one IN lookup per candidate, and the unregistered number never reached one
+        assertThat(lookups).hasSize(3).allSatisfy(chunk -> assertThat(chunk).hasSize(1));
+        assertThat(lookups).noneMatch(chunk -> chunk.contains("8000000000"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubLookups() {
+        when(userRepository.findLookupsByPhoneIn(anyCollection())).thenAnswer(call -> {
+            Collection<String> phones = call.getArgument(0);
+            lookups.add(List.copyOf(phones));
+            return phones.stream()
+                    .filter(REGISTERED::contains)
+                    .map(phone -> new UserLookupDTO("User " + phone, phone, true))
+                    .toList();
+        });
+    }
+}
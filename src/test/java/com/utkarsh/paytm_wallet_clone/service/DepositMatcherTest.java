@@ -0,0 +1,69 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.PendingDeposit;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DepositMatcherTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 9, 30, 14, 0);
+
+    private final DepositMatcher matcher = new DepositMatcher(Duration.ofHours(72));
+
+    @Test
+    void referenceAmountAndDateMatchIsConfidentAndClaimsTheOrder() {
+        matcher.add(order(1, "receipt_7_1", "500.00"));
+
+        DepositMatcher.Match match = matcher.match("RECEIPT_7_1", 50000, at(CREATED.plusHours(3)));
+        assertThat(match.kind()).isEqualTo(DepositMatcher.Kind.CONFIDENT);
+        assertThat(match.order().razorpayOrderId()).isEqualTo("order_1");
+
+        // A second credit quoting the same receipt can't take it again
+        assertThat(matcher.match("receipt_7_1", 50000, at(CREATED.plusHours(4))).kind())
+                .isEqualTo(DepositMatcher.Kind.REVIEW);
+        assertThat(matcher.match(null, 50000, at(CREATED.plusHours(4))).kind())
+                .isEqualTo(DepositMatcher.Kind.UNMATCHED);
+    }
+
+    @Test
+    void dateOnlyStatementLineMatchesOnTheOrdersDay() {
+        matcher.add(order(1, "receipt_7_1", "500.00"));
+
+        assertThat(matcher.match("receipt_7_1", 50000, at(CREATED.toLocalDate().atStartOfDay())).kind())
+                .isEqualTo(DepositMatcher.Kind.CONFIDENT);
+    }
+
+    @Test
+    void weakerEvidenceGoesToReview() {
+        matcher.add(order(1, "receipt_7_1", "500.00"));
+        matcher.add(order(2, "receipt_8_1", "750.00"));
+        matcher.add(order(3, "receipt_9_1", "750.00"));
+
+        assertThat(matcher.match("receipt_7_1", 49900, at(CREATED)).reason()).isEqualTo("Amount differs from order");
+        assertThat(matcher.match("receipt_7_1", 50000, at(CREATED.plusDays(4))).reason())
+                .isEqualTo("Credited outside the match window");
+        assertThat(matcher.match("receipt_1_1", 50000, at(CREATED)).kind()).isEqualTo(DepositMatcher.Kind.REVIEW);
+
+        DepositMatcher.Match byAmount = matcher.match(null, 50000, at(CREATED.plusHours(1)));
+        assertThat(byAmount.kind()).isEqualTo(DepositMatcher.Kind.REVIEW);
+        assertThat(byAmount.order().razorpayOrderId()).isEqualTo("order_1");
+
+        DepositMatcher.Match ambiguous = matcher.match(null, 75000, at(CREATED.plusHours(1)));
+        assertThat(ambiguous.order()).isNull();
+        assertThat(ambiguous.reason()).isEqualTo("2 pending orders match amount and time");
+    }
+
+    private static PendingDeposit order(long id, String receipt, String amount) {
+        return new PendingDeposit(id, "order_" + id, receipt, new BigDecimal(amount), CREATED);
+    }
+
+    private static long at(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,50 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.NotificationReplayResponse;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NotificationReplayServiceTest {
+
+    private final NotificationReplayService replay = new NotificationReplayService(4, Duration.ofMillis(1));
+
+    @Test
+    void replaysFramesAfterLastSeq() {
+        long first = publish("alice@test.com");
+        publish("alice@test.com");
+        publish("alice@test.com");
+
+        NotificationReplayResponse response = replay.replay("alice@test.com", first);
+
+        assertThat(response.isResyncRequired()).isFalse();
+        assertThat(response.getMessages()).hasSize(2);
+        assertThat(response.getLatestSeq()).isEqualTo(first + 2);
+    }
+
+    @Test
+    void recreatedRingNumbersAheadOfEvictedOne() throws Exception {
+        // Outrun the clock-derived base, so a ring based on the clock alone would reuse these seqs
+        long seen = publish("alice@test.com");
+        while (seen <= (System.currentTimeMillis() + 50) * 1_000) {
+            seen = publish("alice@test.com");
+        }
+
+        Thread.sleep(5);
+        replay.evictIdle();
+        assertThat(replay.replay("alice@test.com", seen).isResyncRequired()).isTrue();
+
+        assertThat(publish("alice@test.com")).isGreaterThan(seen);
+        assertThat(publish("bob@test.com")).isGreaterThan(seen);
+    }
+
+    private long publish(String user) {
+        BalanceUpdateMessage message = new BalanceUpdateMessage("CREDIT", BigDecimal.TEN, BigDecimal.ONE, null, "test");
+        replay.publish(user, message, sent -> { });
+        return message.getSeq();
+    }
+}
@@ -0,0 +1,58 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.OrderStatusResponse;
+import com.utkarsh.paytm_wallet_clone.event.OrderStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderStatusWaitersTest {
+
+    private final OrderStatusWaiters waiters = new OrderStatusWaiters();
+    private final AtomicReference<String> status = new AtomicReference<>("CREATED");
+
+    @Test
+    void completesWaitersWhenOrderIsPaid() {
+        DeferredResult<OrderStatusResponse> first = waiters.await("order_1", Duration.ofSeconds(30), this::current);
+        DeferredResult<OrderStatusResponse> second = waiters.await("order_1", Duration.ofSeconds(30), this::current);
+        assertThat(first.hasResult()).isFalse();
+        assertThat(waiters.getWaiting()).isEqualTo(2);
+
+        status.set("PAID");
+        waiters.onStatusChanged(new OrderStatusChangedEvent("order_1"));
+
+        assertThat(((OrderStatusResponse) first.getResult()).getStatus()).isEqualTo("PAID");
+        assertThat(((OrderStatusResponse) second.getResult()).getStatus()).isEqualTo("PAID");
+        assertThat(waiters.getWaiting()).isZero();
+    }
+
+    @Test
+    void answersAtOnceIfPaidBeforeRegistering() {
+        status.set("PAID");
+
+        DeferredResult<OrderStatusResponse> result = waiters.await("order_2", Duration.ofSeconds(30), this::current);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((OrderStatusResponse) result.getResult()).getStatus()).isEqualTo("PAID");
+    }
+
+    @Test
+    void ignoresOtherOrders() {
+        DeferredResult<OrderStatusResponse> result = waiters.await("order_3", Duration.ofSeconds(30), this::current);
+
+        waiters.onStatusChanged(new OrderStatusChangedEvent("order_4"));
+
+        assertThat(result.hasResult()).isFalse();
+    }
+
+    private OrderStatusResponse current() {
+        return new OrderStatusResponse("order", status.get(), new BigDecimal("500.00"),
+                "PAID".equals(status.get()) ? LocalDateTime.now() : null);
+    }
+}
@@ -0,0 +1,160 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.ReconcileCandidate;
+import com.utkarsh.paytm_wallet_clone.dto.response.ReconciliationSummaryDTO;
+import com.utkarsh.paytm_wallet_clone.event.OrdersDueForExpiryEvent;
+import com.utkarsh.paytm_wallet_clone.exception.PaymentGatewayException;
+import com.utkarsh.paytm_wallet_clone.gateway.PaymentGateway;
+import com.utkarsh.paytm_wallet_clone.model.RazorpayOrder;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentReconciliationServiceTest {
+
+    private final PaymentGateway gateway = mock(PaymentGateway.class);
+    private final RazorpayOrderRepository orderRepository = mock(RazorpayOrderRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final ExpiryService expiryService = mock(ExpiryService.class);
+
+    private final PaymentReconciliationService reconciliation = new PaymentReconciliationService(
+            gateway, orderRepository, paymentService, expiryService, Duration.ofMinutes(15), 2, 4, 100,
+            Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        reconciliation.shutdown();
+    }
+
+    @Test
+    void settlesCapturedOrdersAcrossPages() {
+        when(orderRepository.findReconcileCandidates(eq(RazorpayOrder.RazorpayOrderStatus.CREATED), eq(0L), any(), any()))
+                .thenReturn(List.of(candidate(1, "order_a"), candidate(2, "order_b")));
+        when(orderRepository.findReconcileCandidates(eq(RazorpayOrder.RazorpayOrderStatus.CREATED), eq(2L), any(), any()))
+                .thenReturn(List.of(candidate(3, "order_c")));
+        when(gateway.fetchPayments("order_a")).thenReturn(List.of(
+                new PaymentGateway.GatewayPayment("pay_0", 50000, "failed"),
+                new PaymentGateway.GatewayPayment("pay_1", 50000, "captured")));
+        when(gateway.fetchPayments("order_b")).thenReturn(List.of());
+        when(gateway.fetchPayments("order_c")).thenReturn(List.of(
+                new PaymentGateway.GatewayPayment("pay_3", 20000, "captured")));
+        when(paymentService.handlePaymentSuccess("order_a", "pay_1", 50000)).thenReturn(true);
+        when(paymentService.handlePaymentSuccess("order_c", "pay_3", 20000)).thenReturn(false);
+
+        ReconciliationSummaryDTO summary = reconciliation.reconcile().orElseThrow();
+
+        assertThat(summary.getChecked()).isEqualTo(3);
+        assertThat(summary.getSettled()).isEqualTo(1);
+        assertThat(summary.getAlreadySettled()).isEqualTo(1);
+        assertThat(summary.getUnpaid()).isEqualTo(1);
+        assertThat(summary.getErrors()).isEqualTo(0);
+        assertThat(summary.isAborted()).isFalse();
+        verify(paymentService, never()).handlePaymentSuccess(eq("order_b"), any(), anyInt());
+        assertThat(reconciliation.getLastSummary()).contains(summary);
+    }
+
+    @Test
+    void stopsWhenTheGatewayIsDown() {
+        when(orderRepository.findReconcileCandidates(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(candidate(1, "order_a"), candidate(2, "order_b")));
+        when(gateway.fetchPayments(any())).thenThrow(new PaymentGatewayException("Payment gateway unavailable"));
+
+        ReconciliationSummaryDTO summary = reconciliation.reconcile().orElseThrow();
+
+        assertThat(summary.getChecked()).isEqualTo(2);
+        assertThat(summary.getErrors()).isEqualTo(2);
+        assertThat(summary.isAborted()).isTrue();
+        verify(orderRepository, times(1)).findReconcileCandidates(any(), anyLong(), any(), any());
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void nextRunResumesAfterTheCapAndWrapsAround() {
+        PaymentReconciliationService capped = new PaymentReconciliationService(
+                gateway, orderRepository, paymentService, expiryService, Duration.ofMinutes(15), 2, 4, 2,
+                Duration.ofMinutes(5));
+        staleOrders(candidate(1, "order_a"), candidate(2, "order_b"), candidate(3, "order_c"));
+        when(gateway.fetchPayments(any())).thenReturn(List.of());
+
+        try {
+            assertThat(capped.reconcile().orElseThrow().getChecked()).isEqualTo(2);
+            // Resumes after order 2, reaches the end, then wraps to order 1 and stops before order 2 again
+            assertThat(capped.reconcile().orElseThrow().getChecked()).isEqualTo(2);
+            assertThat(capped.reconcile().orElseThrow().getChecked()).isEqualTo(2);
+        } finally {
+            capped.shutdown();
+        }
+
+        verify(gateway, times(2)).fetchPayments("order_a");
+        verify(gateway, times(2)).fetchPayments("order_b");
+        verify(gateway, times(2)).fetchPayments("order_c");
+    }
+
+    @Test
+    void abortedRunRetriesTheSamePageNextTime() {
+        staleOrders(candidate(1, "order_a"), candidate(2, "order_b"), candidate(3, "order_c"));
+        when(gateway.fetchPayments(any()))
+                .thenThrow(new PaymentGatewayException("Payment gateway unavailable"))
+                .thenThrow(new PaymentGatewayException("Payment gateway unavailable"))
+                .thenReturn(List.of());
+
+        assertThat(reconciliation.reconcile().orElseThrow().isAborted()).isTrue();
+        ReconciliationSummaryDTO summary = reconciliation.reconcile().orElseThrow();
+
+        assertThat(summary.getChecked()).isEqualTo(3);
+        assertThat(summary.getUnpaid()).isEqualTo(3);
+    }
+
+    @Test
+    void ordersDueForExpiryAreFailedOnlyWhenTheGatewayHasNoPayment() {
+        LocalDateTime createdBefore = LocalDateTime.now().minusHours(24);
+        when(orderRepository.findReconcileCandidatesByIds(List.of(1L, 2L, 3L), RazorpayOrder.RazorpayOrderStatus.CREATED))
+                .thenReturn(List.of(candidate(1, "order_a"), candidate(2, "order_b"), candidate(3, "order_c")));
+        when(gateway.fetchPayments("order_a")).thenReturn(List.of());
+        when(gateway.fetchPayments("order_b")).thenReturn(List.of(
+                new PaymentGateway.GatewayPayment("pay_2", 50000, "captured")));
+        when(gateway.fetchPayments("order_c")).thenThrow(new PaymentGatewayException("Payment gateway unavailable"));
+        when(paymentService.handlePaymentSuccess("order_b", "pay_2", 50000)).thenReturn(true);
+
+        reconciliation.onOrdersDueForExpiry(new OrdersDueForExpiryEvent(List.of(1L, 2L, 3L), createdBefore));
+
+        verify(expiryService, timeout(2_000)).failOrders(List.of(1L), createdBefore);
+        verify(expiryService, timeout(2_000)).deferOrders(List.of(3L), Duration.ofMinutes(5));
+        verify(paymentService).handlePaymentSuccess("order_b", "pay_2", 50000);
+    }
+
+    @Test
+    void ordersAlreadyPaidAreNotRechecked() {
+        when(orderRepository.findReconcileCandidatesByIds(any(), any())).thenReturn(List.of());
+
+        reconciliation.onOrdersDueForExpiry(new OrdersDueForExpiryEvent(List.of(1L), LocalDateTime.now()));
+
+        verifyNoInteractions(gateway, expiryService);
+    }
+
+    // Serves keyset pages the way the query does: ids after the cursor, at most the page size
+    private void staleOrders(ReconcileCandidate... rows) {
+        when(orderRepository.findReconcileCandidates(any(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            Pageable page = invocation.getArgument(3);
+            return Arrays.stream(rows)
+                    .filter(row -> row.id() > afterId)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+    }
+
+    private static ReconcileCandidate candidate(long id, String orderId) {
+        return new ReconcileCandidate(id, orderId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.UserLookupDTO;
+import com.utkarsh.paytm_wallet_clone.event.UserRegisteredEvent;
+import com.utkarsh.paytm_wallet_clone.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RecipientSuggestionServiceTest {
+
+    private final RecipientSuggestionService service = new RecipientSuggestionService(new JdbcTemplate(), 50_000, 5);
+
+    @BeforeEach
+    void setUp() {
+        // Registrations land in the delta, no snapshot load needed
+        service.onUserRegistered(new UserRegisteredEvent(1L, 1L, "Rahul Kumar", "9876543210"));
+        service.onUserRegistered(new UserRegisteredEvent(2L, 2L, "Priya Sharma", "9198000000"));
+    }
+
+    @Test
+    void countryAndTrunkPrefixesAreDropped() {
+        assertThat(RecipientSuggestionService.phoneDigits("+91 98")).isEqualTo("98");
+        assertThat(RecipientSuggestionService.phoneDigits("+91-98765")).isEqualTo("98765");
+        assertThat(RecipientSuggestionService.phoneDigits("098765")).isEqualTo("98765");
+        assertThat(RecipientSuggestionService.phoneDigits("919876543210")).isEqualTo("9876543210");
+        assertThat(RecipientSuggestionService.phoneDigits("9198")).isEqualTo("9198");
+        assertThat(RecipientSuggestionService.phoneDigits("rahul")).isNull();
+    }
+
+    @Test
+    void partialInternationalNumberMatchesTheLocalPrefix() {
+        List<UserLookupDTO> results = service.suggest("alice@test.com", "+91 9876", 8);
+
+        // Read as "9198 76…" it would have matched nobody, or Priya
+        assertThat(results).extracting(UserLookupDTO::getPhone).containsExactly("9876543210");
+    }
+
+    @Test
+    void nameMatchesOnlyShowTheLastFourDigits() {
+        List<UserLookupDTO> results = service.suggest("alice@test.com", "rah", 8);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getName()).isEqualTo("Rahul Kumar");
+        assertThat(results.get(0).getPhone()).isEqualTo("******3210");
+    }
+
+    @Test
+    void shortQueriesReturnNothing() {
+        assertThat(service.suggest("alice@test.com", "r", 8)).isEmpty();
+        assertThat(service.suggest("alice@test.com", "ra", 8)).isEmpty();
+        assertThat(service.suggest("alice@test.com", "987", 8)).isEmpty();
+    }
+
+    @Test
+    void requestsOverTheLimitAreRefused() {
+        for (int i = 0; i < 5; i++) {
+            service.suggest("alice@test.com", "rahul", 8);
+        }
+
+        assertThatThrownBy(() -> service.suggest("alice@test.com", "rahul", 8))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(service.suggest("bob@test.com", "rahul", 8)).hasSize(1);
+    }
+}
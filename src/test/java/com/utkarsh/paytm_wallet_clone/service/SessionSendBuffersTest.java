@@ -0,0 +1,87 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionSendBuffersTest {
+
+    private SessionSendBuffers buffers;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        buffers = new SessionSendBuffers(1_000, 0.5);   // backed up at 500 buffered bytes
+        handler = mock(WebSocketHandler.class);
+    }
+
+    @Test
+    void framesCountUntilTheSocketWriteReturns() throws Exception {
+        WebSocketSession counted = open("s1", "alice@test.com");
+
+        handToSession("s1", 300);
+        handToSession("s1", 300);
+        assertThat(buffers.bufferedBytes("s1")).isEqualTo(600);
+        assertThat(buffers.isBackedUp("alice@test.com")).isTrue();
+
+        counted.sendMessage(new TextMessage("frame"));
+        assertThat(buffers.bufferedBytes("s1")).isEqualTo(300);
+        assertThat(buffers.isBackedUp("alice@test.com")).isFalse();
+    }
+
+    @Test
+    void userIsBackedUpOnlyWhenEverySessionIs() throws Exception {
+        open("s1", "alice@test.com");
+        open("s2", "alice@test.com");
+
+        handToSession("s1", 800);
+        assertThat(buffers.isBackedUp("alice@test.com")).isFalse();
+
+        handToSession("s2", 800);
+        assertThat(buffers.isBackedUp("alice@test.com")).isTrue();
+    }
+
+    @Test
+    void unknownUsersAreNeverBackedUp() {
+        assertThat(buffers.isBackedUp("nobody@test.com")).isFalse();
+    }
+
+    // Opens a raw session through the decorator and returns what Spring's handler would write to
+    private WebSocketSession open(String sessionId, String user) throws Exception {
+        WebSocketSession raw = mock(WebSocketSession.class);
+        when(raw.getId()).thenReturn(sessionId);
+        buffers.decorate(handler).afterConnectionEstablished(raw);
+
+        ArgumentCaptor<WebSocketSession> counted = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler, atLeastOnce()).afterConnectionEstablished(counted.capture());
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        Principal principal = () -> user;
+        buffers.onConnected(new SessionConnectedEvent(this,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), principal));
+        return counted.getValue();
+    }
+
+    private void handToSession(String sessionId, int bytes) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[bytes], accessor.getMessageHeaders());
+        buffers.beforeHandle(message, mock(MessageChannel.class), mock(MessageHandler.class));
+    }
+}
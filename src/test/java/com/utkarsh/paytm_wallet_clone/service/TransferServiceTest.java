@@ -1,13 +1,16 @@
 package com.utkarsh.paytm_wallet_clone.service;
 
+import com.utkarsh.paytm_wallet_clone.dto.projection.WalletOwner;
 import com.utkarsh.paytm_wallet_clone.dto.request.TransferRequest;
 import com.utkarsh.paytm_wallet_clone.dto.response.TransferResponse;
 import com.utkarsh.paytm_wallet_clone.exception.InsufficientFundsException;
 import com.utkarsh.paytm_wallet_clone.exception.UserNotFoundException;
+import com.utkarsh.paytm_wallet_clone.model.Transaction;
 import com.utkarsh.paytm_wallet_clone.model.User;
 import com.utkarsh.paytm_wallet_clone.model.Wallet;
 import com.utkarsh.paytm_wallet_clone.repository.UserRepository;
 import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.util.MappedPhoneDirectory.Route;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -33,6 +37,15 @@ class TransferServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private WalletDirectoryService walletDirectory;
+
+    @Mock
+    private MerchantWebhookService merchantWebhookService;
+
     @InjectMocks
     private TransferService transferService;
 
@@ -168,4 +181,67 @@ class TransferServiceTest {
 
         System.out.println("✅ Test passed: Minimum amount transfer works");
     }
-}
\ No newline at end of file
+
+    // ─── Test 6: Routed Transfer Skips Lookups ────────────────────────────────
+
+    @Test
+    void transfer_routedThroughDirectory_shouldSkipUserAndWalletLookups() {
+        TransferRequest request = new TransferRequest();
+        request.setRecipientPhone("9999999999");
+        request.setAmount(new BigDecimal("100.00"));
+
+        when(walletDirectory.lookup("9999999999")).thenReturn(Optional.of(new Route(2L, 2L)));
+        when(walletDirectory.lookup("9876543210")).thenReturn(Optional.of(new Route(1L, 1L)));
+        when(walletRepository.findOwners(List.of(1L, 2L))).thenReturn(List.of(
+                new WalletOwner(1L, 1L, "9876543210"), new WalletOwner(2L, 2L, "9999999999")));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(senderWallet));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(recipientWallet));
+        Transaction txn = new Transaction();
+        txn.setTxnRef("TXN-ROUTED");
+        when(transactionService.recordTransfer(any(), any(), any(), any())).thenReturn(txn);
+
+        TransferResponse response = transferService.transfer(sender, request);
+
+        assertThat(response.getNewBalance()).isEqualByComparingTo(new BigDecimal("900.00"));
+        verify(webSocketService).notifyTransferSent("alice@test.com", "Bob",
+                new BigDecimal("100.00"), new BigDecimal("900.00"));
+        assertThat(recipientWallet.getBalance()).isEqualByComparingTo(new BigDecimal("600.00"));
+        verify(merchantWebhookService).queueTransferReceived(2L, "TXN-ROUTED",
+                new BigDecimal("100.00"), "Alice", null, new BigDecimal("600.00"));
+        verify(userRepository, never()).findByPhone(anyString());
+        verify(walletRepository, never()).findByUserId(anyLong());
+
+        System.out.println("✅ Test passed: Routed transfer skipped lookups");
+    }
+
+    // ─── Test 7: Stale Route Never Locks The Wrong Wallet ─────────────────────
+
+    @Test
+    void transfer_staleRoute_shouldFallBackBeforeLocking() {
+        TransferRequest request = new TransferRequest();
+        request.setRecipientPhone("9999999999");
+        request.setAmount(new BigDecimal("100.00"));
+
+        // Directory still points Bob's phone at wallet 7, which now belongs to someone else
+        when(walletDirectory.lookup("9999999999")).thenReturn(Optional.of(new Route(2L, 7L)));
+        when(walletDirectory.lookup("9876543210")).thenReturn(Optional.of(new Route(1L, 1L)));
+        when(walletRepository.findOwners(List.of(1L, 7L))).thenReturn(List.of(
+                new WalletOwner(1L, 1L, "9876543210"), new WalletOwner(7L, 3L, "7777777777")));
+        when(userRepository.findByPhone("9999999999")).thenReturn(Optional.of(recipient));
+        when(walletRepository.findByUserId(2L)).thenReturn(Optional.of(recipientWallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(senderWallet));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(recipientWallet));
+        Transaction txn = new Transaction();
+        txn.setTxnRef("TXN-STALE");
+        when(transactionService.recordTransfer(any(), any(), any(), any())).thenReturn(txn);
+
+        transferService.transfer(sender, request);
+
+        assertThat(recipientWallet.getBalance()).isEqualByComparingTo(new BigDecimal("600.00"));
+        verify(walletDirectory).evict("9999999999");
+        verify(walletDirectory).record("9999999999", 2L, 2L);
+        verify(walletRepository, never()).findByIdForUpdate(7L);
+
+        System.out.println("✅ Test passed: Stale route repaired before locking");
+    }
+}
@@ -0,0 +1,141 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.response.ImportJobStatusDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private static final String HEADER = "name,email,phone,password";
+
+    @TempDir
+    Path dir;
+
+    private final NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+    private final UserImportService importer = new UserImportService(jdbc,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            passwordEncoder, mock(ApplicationEventPublisher.class), 3);
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+    }
+
+    @Test
+    void importsValidRowsAndWritesRejectedOnesToTheErrorFile() throws Exception {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        Path file = write(
+                HEADER,
+                "\"Sharma, Ravi\",Ravi@Example.com,9876543210,secret123",
+                "Asha,not-an-email,9876543211,secret123",
+                "Kiran,kiran@example.com,5876543212,secret123",
+                "",
+                "Meena,meena@example.com,9876543213,short",
+                "Too,few,columns",
+                "Ravi Again,ravi@example.com,9876543214,secret123",
+                "\"Dev \"\"DJ\"\" Rao\",dev@example.com,9876543215,secret123");
+
+        ImportJobStatusDTO status = awaitFinished(importer.startImport(file, 2).getJobId());
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getImported()).isEqualTo(2);
+        assertThat(status.getRejected()).isEqualTo(5);
+        assertThat(status.getCommittedThroughLine()).isEqualTo(9);
+        assertThat(insertedValues("name")).containsExactly("Sharma, Ravi", "Dev \"DJ\" Rao");
+        assertThat(insertedValues("email")).containsExactly("ravi@example.com", "dev@example.com");
+        assertThat(Files.readAllLines(Path.of(status.getErrorFile()))).containsExactly(
+                "3,\"Invalid email format\",Asha,not-an-email,9876543211,secret123",
+                "4,\"Invalid Indian phone number\",Kiran,kiran@example.com,5876543212,secret123",
+                "6,\"Password must be at least 8 characters\",Meena,meena@example.com,9876543213,short",
+                "7,\"Expected 4 columns (name,email,phone,password), got 3\",Too,few,columns",
+                "8,\"Duplicate email in file\",Ravi Again,ravi@example.com,9876543214,secret123");
+    }
+
+    @Test
+    void rejectsEmailsAlreadyRegistered() throws Exception {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(jdbc.queryForList(contains("email IN"), anyMap(), eq(String.class)))
+                .thenReturn(List.of("taken@example.com"));
+        Path file = write(HEADER,
+                "Taken,taken@example.com,9876543210,secret123",
+                "Fresh,fresh@example.com,9876543211,secret123");
+
+        ImportJobStatusDTO status = awaitFinished(importer.startImport(file, 2).getJobId());
+
+        assertThat(status.getImported()).isEqualTo(1);
+        assertThat(insertedValues("email")).containsExactly("fresh@example.com");
+        assertThat(Files.readString(Path.of(status.getErrorFile()))).contains("\"Email already registered\"");
+    }
+
+    @Test
+    void resumesFromLineAndReplacesErrorsForReReadLines() throws Exception {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        Path file = write(HEADER,
+                "Asha,asha@example.com,9876543210,secret123",
+                "Bad,bad-email,9876543211,secret123",
+                "Chetan,chetan@example.com,9876543212,secret123",
+                "Worse,worse-email,9876543213,secret123");
+        // Left behind by a run that died after reading line 5
+        Files.writeString(Path.of(file + ".errors.csv"), String.join("\n",
+                "3,\"Invalid email format\",Bad,bad-email,9876543211,secret123",
+                "5,\"Invalid email format\",Worse,worse-email,9876543213,secret123", ""));
+
+        ImportJobStatusDTO status = awaitFinished(importer.startImport(file, 4).getJobId());
+
+        assertThat(status.getFromLine()).isEqualTo(4);
+        assertThat(status.getImported()).isEqualTo(1);
+        assertThat(insertedValues("email")).containsExactly("chetan@example.com");
+        assertThat(Files.readAllLines(Path.of(status.getErrorFile()))).containsExactly(
+                "3,\"Invalid email format\",Bad,bad-email,9876543211,secret123",
+                "5,\"Invalid email format\",Worse,worse-email,9876543213,secret123");
+    }
+
+    @Test
+    void refusesUnreadableFile() {
+        assertThatThrownBy(() -> importer.startImport(dir.resolve("missing.csv"), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write(String... lines) throws Exception {
+        return Files.write(dir.resolve("partner.csv"), List.of(lines));
+    }
+
+    private List<Object> insertedValues(String column) {
+        ArgumentCaptor<SqlParameterSource[]> users = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbc, atLeastOnce()).batchUpdate(startsWith("INSERT INTO users"), users.capture());
+        return users.getAllValues().stream()
+                .flatMap(Arrays::stream)
+                .map(row -> row.getValue(column))
+                .toList();
+    }
+
+    private ImportJobStatusDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ImportJobStatusDTO status = importer.getStatus(jobId);
+            if (!"QUEUED".equals(status.getState()) && !"RUNNING".equals(status.getState())) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Import " + jobId + " did not finish");
+    }
+}
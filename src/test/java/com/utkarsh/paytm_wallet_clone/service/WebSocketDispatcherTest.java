@@ -0,0 +1,123 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WebSocketDispatcherTest {
+
+    private WebSocketDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void keepsPerUserOrder() throws Exception {
+        dispatcher = new WebSocketDispatcher(4, 1_000, 1_000, keepingUp());
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(500);
+
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            dispatcher.dispatch("alice@test.com", () -> {
+                received.add(n);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).isSorted().hasSize(500);
+    }
+
+    @Test
+    void dropsOnceUserBacklogIsFull() throws Exception {
+        dispatcher = new WebSocketDispatcher(1, 1_000, 2, keepingUp());
+        CountDownLatch release = new CountDownLatch(1);
+
+        assertThat(dispatcher.dispatch("slow@test.com", () -> await(release))).isTrue();
+        assertThat(dispatcher.dispatch("slow@test.com", () -> { })).isTrue();
+        assertThat(dispatcher.dispatch("slow@test.com", () -> { })).isFalse();
+
+        release.countDown();
+        assertThat(dispatcher.getStats().getDroppedUserBacklog()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsWhenShardQueueIsFull() {
+        dispatcher = new WebSocketDispatcher(1, 1, 100, keepingUp());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        dispatcher.dispatch("a@test.com", () -> {
+            started.countDown();
+            await(release);
+        });
+        await(started);
+
+        assertThat(dispatcher.dispatch("b@test.com", () -> { })).isTrue();   // fills the queue
+        assertThat(dispatcher.dispatch("c@test.com", () -> { })).isFalse();
+
+        release.countDown();
+        assertThat(dispatcher.getStats().getDroppedQueueFull()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsWhileClientSendBuffersAreBackedUp() {
+        dispatcher = new WebSocketDispatcher(1, 1_000, 100, new SessionSendBuffers(65_536, 0.5) {
+            @Override
+            public boolean isBackedUp(String user) {
+                return user.equals("slow@test.com");
+            }
+        });
+
+        assertThat(dispatcher.dispatch("slow@test.com", () -> { })).isFalse();
+        assertThat(dispatcher.dispatch("fast@test.com", () -> { })).isTrue();
+        assertThat(dispatcher.getStats().getDroppedSlowClient()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedDisconnectCountsOnce() {
+        dispatcher = new WebSocketDispatcher(1, 1_000, 100, keepingUp());
+        dispatcher.onConnected(new SessionConnectedEvent(this, frame("s1")));
+        dispatcher.onConnected(new SessionConnectedEvent(this, frame("s2")));
+
+        // Spring may publish SessionDisconnectEvent more than once for the same session
+        dispatcher.onDisconnected(new SessionDisconnectEvent(this, frame("s1"), "s1", CloseStatus.NORMAL));
+        dispatcher.onDisconnected(new SessionDisconnectEvent(this, frame("s1"), "s1", CloseStatus.NORMAL));
+
+        assertThat(dispatcher.getStats().getActiveSessions()).isEqualTo(1);
+    }
+
+    private static Message<byte[]> frame(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static SessionSendBuffers keepingUp() {
+        return new SessionSendBuffers(65_536, 0.5);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner;
+import com.utkarsh.paytm_wallet_clone.model.WebhookInboxEvent;
+import com.utkarsh.paytm_wallet_clone.model.enums.WebhookInboxStatus;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WebhookInboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebhookInboxServiceTest {
+
+    private final WebhookInboxRepository inboxRepository = mock(WebhookInboxRepository.class);
+    private final RazorpayOrderRepository orderRepository = mock(RazorpayOrderRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+
+    private final WebhookInboxService inbox = new WebhookInboxService(
+            inboxRepository, orderRepository, paymentService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            4, 10, 3, Duration.ofSeconds(15), Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        inbox.shutdown();
+    }
+
+    @Test
+    void redeliveredEventIsNotStoredTwice() {
+        when(inboxRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_webhook_inbox_event"));
+
+        assertThat(inbox.accept("evt_1", "payment.captured", "order_1", "{}")).isFalse();
+    }
+
+    @Test
+    void appliesOneUsersEventsInOrder() {
+        when(inboxRepository.lockNextBatch(any(), anyInt()))
+                .thenReturn(List.of(captured(1, "order_a", "pay_1"), captured(2, "order_b", "pay_2"),
+                        captured(3, "order_a", "pay_3")))
+                .thenReturn(List.of());
+        when(orderRepository.findOwners(any()))
+                .thenReturn(List.of(new OrderOwner("order_a", 7L), new OrderOwner("order_b", 7L)));
+
+        inbox.poll();
+
+        InOrder inOrder = inOrder(paymentService);
+        inOrder.verify(paymentService, timeout(2000)).handlePaymentSuccess("order_a", "pay_1", 50000);
+        inOrder.verify(paymentService, timeout(2000)).handlePaymentSuccess("order_b", "pay_2", 50000);
+        inOrder.verify(paymentService, timeout(2000)).handlePaymentSuccess("order_a", "pay_3", 50000);
+        verify(inboxRepository, timeout(2000).times(3)).markDone(anyLong(), eq(WebhookInboxStatus.PROCESSED), any());
+    }
+
+    @Test
+    void failedEventIsRetriedThenParked() {
+        doThrow(new RuntimeException("Order not found"))
+                .when(paymentService).handlePaymentSuccess(any(), any(), anyInt());
+
+        WebhookInboxEvent event = captured(1, "order_x", "pay_1");
+        inbox.process(event);
+        verify(inboxRepository).markAttemptFailed(eq(1L), eq(WebhookInboxStatus.RECEIVED), eq("Order not found"), any());
+
+        event.setAttempts(2);
+        inbox.process(event);
+        verify(inboxRepository).markAttemptFailed(eq(1L), eq(WebhookInboxStatus.FAILED), eq("Order not found"), any());
+        verify(inboxRepository, never()).markDone(anyLong(), any(), any());
+    }
+
+    @Test
+    void otherEventTypesAreMarkedProcessedWithoutApplying() {
+        WebhookInboxEvent event = new WebhookInboxEvent("evt_9", "payment.authorized", "order_y", "{}");
+        event.setId(9L);
+
+        inbox.process(event);
+
+        verifyNoInteractions(paymentService);
+        verify(inboxRepository).markDone(eq(9L), eq(WebhookInboxStatus.PROCESSED), any());
+    }
+
+    private static WebhookInboxEvent captured(long id, String orderId, String paymentId) {
+        String payload = """
+                {"event":"payment.captured","payload":{"payment":{"entity":
+                {"id":"%s","order_id":"%s","amount":50000}}}}""".formatted(paymentId, orderId);
+        WebhookInboxEvent event = new WebhookInboxEvent("evt_" + id, "payment.captured", orderId, payload);
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,129 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.projection.OrderOwner;
+import com.utkarsh.paytm_wallet_clone.dto.response.WebhookReplayStatusDTO;
+import com.utkarsh.paytm_wallet_clone.repository.RazorpayOrderRepository;
+import com.utkarsh.paytm_wallet_clone.security.WebhookSignatureVerifier;
+import com.utkarsh.paytm_wallet_clone.util.ImportDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebhookReplayServiceTest {
+
+    private static final String SECRET = "replay-secret";
+
+    @TempDir
+    Path dir;
+
+    private final RazorpayOrderRepository orderRepository = mock(RazorpayOrderRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+
+    private WebhookReplayService replay;
+
+    @BeforeEach
+    void setUp() {
+        replay = new WebhookReplayService(new WebhookSignatureVerifier(SECRET), orderRepository, paymentService,
+                new ImportDirectory(dir.resolve("imports")), 4, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replay.shutdown();
+    }
+
+    @Test
+    void appliesVerifiedCapturesAndCountsTheRest() throws Exception {
+        when(orderRepository.findOwners(anyCollection())).thenReturn(List.of(
+                new OrderOwner("order_a", 1L), new OrderOwner("order_b", 2L)));
+        when(paymentService.handlePaymentSuccess("order_a", "pay_a", 50000)).thenReturn(true);
+        when(paymentService.handlePaymentSuccess("order_b", "pay_b", 20000)).thenReturn(false);
+
+        String captureA = line("evt_1", captured("pay_a", "order_a", 50000));
+        Path file = Files.createDirectories(dir.resolve("imports")).resolve("events.ndjson");
+        Files.writeString(file, String.join("\n",
+                captureA,
+                line("evt_2", captured("pay_b", "order_b", 20000)),
+                captureA,                                                       // repeated in the export
+                line("evt_3", "{\"event\":\"payment.failed\",\"payload\":{}}"),
+                "{\"event_id\":\"evt_4\",\"signature\":\"" + "0".repeat(64) + "\",\"body\":\"{}\"}",
+                line("evt_5", captured("pay_x", "order_x", 100)),               // no such order
+                "not json",
+                ""));
+
+        WebhookReplayStatusDTO status = awaitFinished(replay.startReplay(file).getJobId());
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getLinesRead()).isEqualTo(7);
+        assertThat(status.getCredited()).isEqualTo(1);
+        assertThat(status.getRepeatedInFile()).isEqualTo(1);
+        assertThat(status.getAlreadyApplied()).isEqualTo(1);
+        assertThat(status.getIgnored()).isEqualTo(1);
+        assertThat(status.getRejected()).isEqualTo(2);
+        assertThat(status.getFailed()).isEqualTo(1);
+        assertThat(Files.readString(Path.of(status.getFailedFile())).trim())
+                .isEqualTo(line("evt_5", captured("pay_x", "order_x", 100)));
+        verify(paymentService, times(1)).handlePaymentSuccess(eq("order_a"), any(), anyInt());
+    }
+
+    @Test
+    void recordsHandlerFailuresForAnotherReplay() throws Exception {
+        when(orderRepository.findOwners(anyCollection())).thenReturn(List.of(new OrderOwner("order_a", 1L)));
+        when(paymentService.handlePaymentSuccess("order_a", "pay_a", 50000))
+                .thenThrow(new IllegalStateException("Amount mismatch"));
+
+        Path file = Files.createDirectories(dir.resolve("imports")).resolve("events.ndjson");
+        Files.writeString(file, line("evt_1", captured("pay_a", "order_a", 50000)) + "\n");
+
+        WebhookReplayStatusDTO status = awaitFinished(replay.startReplay(file).getJobId());
+
+        assertThat(status.getFailed()).isEqualTo(1);
+        assertThat(status.getCredited()).isEqualTo(0);
+        assertThat(Files.readAllLines(Path.of(status.getFailedFile())).size()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesFilesOutsideTheImportDirectory() throws Exception {
+        Files.createDirectories(dir.resolve("imports"));
+        Path outside = Files.writeString(dir.resolve("events.ndjson"), "");
+
+        assertThatThrownBy(() -> replay.startReplay(outside)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WebhookReplayStatusDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            WebhookReplayStatusDTO status = replay.getStatus(jobId);
+            if (!"QUEUED".equals(status.getState()) && !"RUNNING".equals(status.getState())) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Replay " + jobId + " did not finish");
+    }
+
+    private static String captured(String paymentId, String orderId, long amount) {
+        return "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"%s\",\"order_id\":\"%s\",\"amount\":%d}}}}"
+                .formatted(paymentId, orderId, amount);
+    }
+
+    private static String line(String eventId, String body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        return "{\"event_id\":\"%s\",\"signature\":\"%s\",\"body\":\"%s\"}"
+                .formatted(eventId, signature, body.replace("\"", "\\\""));
+    }
+}
@@ -0,0 +1,117 @@
+package com.utkarsh.paytm_wallet_clone.service;
+
+import com.utkarsh.paytm_wallet_clone.dto.request.WithdrawalRequest;
+import com.utkarsh.paytm_wallet_clone.dto.response.WithdrawalDTO;
+import com.utkarsh.paytm_wallet_clone.exception.InsufficientFundsException;
+import com.utkarsh.paytm_wallet_clone.exception.WithdrawalNotFoundException;
+import com.utkarsh.paytm_wallet_clone.model.User;
+import com.utkarsh.paytm_wallet_clone.model.Wallet;
+import com.utkarsh.paytm_wallet_clone.model.Withdrawal;
+import com.utkarsh.paytm_wallet_clone.model.enums.WithdrawalStatus;
+import com.utkarsh.paytm_wallet_clone.repository.WalletRepository;
+import com.utkarsh.paytm_wallet_clone.repository.WithdrawalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WithdrawalServiceTest {
+
+    private final WithdrawalRepository withdrawalRepository = mock(WithdrawalRepository.class);
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+
+    private final WithdrawalService withdrawals = new WithdrawalService(withdrawalRepository, walletRepository);
+
+    private final User user = user(1L);
+
+    @Test
+    void holdsAmountAndMasksAccount() {
+        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(wallet(10L)));
+        when(walletRepository.placeHold(10L, new BigDecimal("2500.00"))).thenReturn(1);
+
+        WithdrawalDTO dto = withdrawals.requestWithdrawal(user, request("2500.00"));
+
+        assertThat(dto.getStatus()).isEqualTo("PENDING");
+        assertThat(dto.getAccountNumber()).isEqualTo("XXXX9012");
+        verify(withdrawalRepository).save(any(Withdrawal.class));
+    }
+
+    @Test
+    void refusesWhenHoldDoesNotFit() {
+        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(wallet(10L)));
+        when(walletRepository.placeHold(10L, new BigDecimal("2500.00"))).thenReturn(0);
+
+        assertThatThrownBy(() -> withdrawals.requestWithdrawal(user, request("2500.00")))
+                .isInstanceOf(InsufficientFundsException.class);
+        verify(withdrawalRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelReleasesHold() {
+        when(withdrawalRepository.findById(5L)).thenReturn(Optional.of(withdrawal(5L, user)));
+        when(withdrawalRepository.transition(5L, 1L, WithdrawalStatus.PENDING, WithdrawalStatus.CANCELLED))
+                .thenReturn(1);
+
+        WithdrawalDTO dto = withdrawals.cancelWithdrawal(user, 5L);
+
+        assertThat(dto.getStatus()).isEqualTo("CANCELLED");
+        verify(walletRepository).releaseHold(10L, new BigDecimal("300.00"));
+    }
+
+    @Test
+    void cancelRefusesSettledWithdrawal() {
+        when(withdrawalRepository.findById(5L)).thenReturn(Optional.of(withdrawal(5L, user)));
+        when(withdrawalRepository.transition(5L, 1L, WithdrawalStatus.PENDING, WithdrawalStatus.CANCELLED))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> withdrawals.cancelWithdrawal(user, 5L))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(walletRepository, never()).releaseHold(anyLong(), any());
+    }
+
+    @Test
+    void cancelHidesOtherUsersWithdrawals() {
+        when(withdrawalRepository.findById(5L)).thenReturn(Optional.of(withdrawal(5L, user(2L))));
+
+        assertThatThrownBy(() -> withdrawals.cancelWithdrawal(user, 5L))
+                .isInstanceOf(WithdrawalNotFoundException.class);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    private static Wallet wallet(long id) {
+        Wallet wallet = new Wallet();
+        wallet.setId(id);
+        return wallet;
+    }
+
+    private static Withdrawal withdrawal(long id, User owner) {
+        Withdrawal withdrawal = new Withdrawal();
+        withdrawal.setId(id);
+        withdrawal.setUser(owner);
+        withdrawal.setWalletId(10L);
+        withdrawal.setAmount(new BigDecimal("300.00"));
+        withdrawal.setAccountNumber("123456789012");
+        withdrawal.setIfsc("HDFC0001234");
+        withdrawal.setAccountHolder("Asha Rao");
+        return withdrawal;
+    }
+
+    private static WithdrawalRequest request(String amount) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setAccountNumber("123456789012");
+        request.setIfsc("HDFC0001234");
+        request.setAccountHolder("Asha Rao");
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.utkarsh.paytm_wallet_clone.dto.websocket.BalanceUpdateMessage;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BalanceFrameCodecTest {
+
+    @Test
+    void roundTripsTransfer() {
+        BalanceUpdateMessage message = new BalanceUpdateMessage("TRANSFER_RECEIVED",
+                new BigDecimal("12345.67"), new BigDecimal("500.00"), "Rahul Kumar", "💰 You received ₹500.00 from Rahul Kumar");
+        message.setSeq(1_718_000_000_000_042L);
+        message.setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+
+        BalanceUpdateMessage decoded = BalanceFrameCodec.decode(BalanceFrameCodec.encode(message));
+
+        assertThat(decoded.getType()).isEqualTo("TRANSFER_RECEIVED");
+        assertThat(decoded.getNewBalance()).isEqualByComparingTo("12345.67");
+        assertThat(decoded.getAmount()).isEqualByComparingTo("500.00");
+        assertThat(decoded.getFromUser()).isEqualTo("Rahul Kumar");
+        assertThat(decoded.getSeq()).isEqualTo(1_718_000_000_000_042L);
+        assertThat(decoded.getTimestamp()).isEqualTo(message.getTimestamp());
+        assertThat(decoded.getMessage()).isNull();
+    }
+
+    @Test
+    void roundTripsSummary() {
+        BalanceUpdateMessage summary = new BalanceUpdateMessage("SUMMARY",
+                new BigDecimal("900.00"), new BigDecimal("-100.00"), null, "3 wallet updates");
+        summary.setCount(3);
+        summary.setTotalCredited(new BigDecimal("50.00"));
+        summary.setTotalDebited(new BigDecimal("150.00"));
+
+        BalanceUpdateMessage decoded = BalanceFrameCodec.decode(BalanceFrameCodec.encode(summary));
+
+        assertThat(decoded.getAmount()).isEqualByComparingTo("-100.00");
+        assertThat(decoded.getCount()).isEqualTo(3);
+        assertThat(decoded.getTotalCredited()).isEqualByComparingTo("50.00");
+        assertThat(decoded.getTotalDebited()).isEqualByComparingTo("150.00");
+        assertThat(decoded.getFromUser()).isNull();
+    }
+
+    @Test
+    void isSeveralTimesSmallerThanJson() throws Exception {
+        BalanceUpdateMessage message = new BalanceUpdateMessage("CREDIT",
+                new BigDecimal("2500.00"), new BigDecimal("1000.00"), null, "💰 Payment of ₹1000.00 received!");
+        message.setSeq(1_718_000_000_000_001L);
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        int jsonBytes = json.writeValueAsBytes(message).length;
+        int binaryBytes = BalanceFrameCodec.encode(message).length;
+
+        assertThat(binaryBytes).isEqualTo(35);
+        assertThat(binaryBytes * 4).isLessThan(jsonBytes);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] frame = BalanceFrameCodec.encode(new BalanceUpdateMessage("DEBIT", BigDecimal.ONE, BigDecimal.ONE, null, null));
+        frame[0] = 9;
+
+        assertThatThrownBy(() -> BalanceFrameCodec.decode(frame))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
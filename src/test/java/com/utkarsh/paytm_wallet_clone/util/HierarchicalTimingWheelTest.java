@@ -0,0 +1,61 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresItemsOnlyOnceTheirDeadlinePasses() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.add(5_000, "a");
+        wheel.add(70_000, "b");     // lands on level 1
+        wheel.add(300_000, "c");    // lands on level 2
+
+        assertThat(wheel.advance(4_000)).isEmpty();
+        assertThat(wheel.advance(5_000)).containsExactly("a");
+        assertThat(wheel.advance(69_000)).isEmpty();
+        assertThat(wheel.advance(70_000)).containsExactly("b");
+        assertThat(wheel.advance(299_000)).isEmpty();
+        assertThat(wheel.advance(300_000)).containsExactly("c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesAreDueImmediately() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 10_000);
+        wheel.add(1_000, 1);
+
+        assertThat(wheel.advance(10_000)).containsExactly(1);
+    }
+
+    @Test
+    void deadlinesBeyondTheSpanOverflowAndStillExpire() {
+        // 8 × 8 ticks of 1s = 64s span
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 0);
+        wheel.add(200_000, "far");
+
+        assertThat(wheel.advance(199_000)).isEmpty();
+        assertThat(wheel.advance(200_000)).containsExactly("far");
+    }
+
+    @Test
+    void everyRegisteredItemExpiresExactlyOnce() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 16, 3, 0);
+        for (int i = 0; i < 5_000; i++) {
+            wheel.add(i * 7L, i);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+        for (long now = 0; now <= 5_000 * 7L; now += 100) {
+            expired.addAll(wheel.advance(now));
+        }
+
+        assertThat(expired).hasSize(5_000).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+}
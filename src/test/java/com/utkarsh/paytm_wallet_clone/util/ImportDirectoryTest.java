@@ -0,0 +1,62 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ImportDirectoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resolvesNamesInsideTheDirectory() throws Exception {
+        ImportDirectory imports = new ImportDirectory(dir);
+        Files.createDirectories(dir.resolve("partners"));
+
+        assertThat(imports.resolve("partner.csv")).isEqualTo(dir.toAbsolutePath().normalize().resolve("partner.csv"));
+        assertThat(imports.resolve("partners/../partners/a.csv"))
+                .isEqualTo(dir.toAbsolutePath().normalize().resolve("partners/a.csv"));
+        assertThat(imports.resolve(dir.resolve("b.csv").toString()))
+                .isEqualTo(dir.toAbsolutePath().normalize().resolve("b.csv"));
+    }
+
+    @Test
+    void refusesPathsOutsideTheDirectory() {
+        ImportDirectory imports = new ImportDirectory(dir.resolve("imports"));
+
+        assertThatThrownBy(() -> imports.resolve("../secrets.env")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> imports.resolve("/etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> imports.resolve(".")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> imports.resolve(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesSymlinksLeadingOut() throws Exception {
+        Path root = Files.createDirectories(dir.resolve("imports"));
+        Path outside = Files.writeString(dir.resolve("outside.csv"), "x");
+        try {
+            Files.createSymbolicLink(root.resolve("link.csv"), outside);
+        } catch (UnsupportedOperationException | java.io.IOException e) {
+            return;   // file system without symlinks
+        }
+
+        assertThatThrownBy(() -> new ImportDirectory(root).resolve("link.csv"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void siblingStaysBesideTheInput() throws Exception {
+        Path root = Files.createDirectories(dir.resolve("imports"));
+        ImportDirectory imports = new ImportDirectory(root);
+
+        assertThat(imports.sibling(imports.resolve("events.ndjson"), ".failed.ndjson"))
+                .isEqualTo(root.toAbsolutePath().normalize().resolve("events.ndjson.failed.ndjson"));
+        assertThatThrownBy(() -> imports.sibling(dir.resolve("events.ndjson"), ".failed.ndjson"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
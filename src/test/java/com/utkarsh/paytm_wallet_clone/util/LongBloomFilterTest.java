@@ -0,0 +1,50 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LongBloomFilterTest {
+
+    @Test
+    void everyInsertedKeyIsFound() {
+        LongBloomFilter filter = LongBloomFilter.create(100_000, 0.01);
+        for (long phone = 9_000_000_000L; phone < 9_000_100_000L; phone++) {
+            filter.put(phone);
+        }
+
+        for (long phone = 9_000_000_000L; phone < 9_000_100_000L; phone++) {
+            assertThat(filter.mightContain(phone)).as("%d", phone).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        LongBloomFilter filter = LongBloomFilter.create(100_000, 0.01);
+        for (long phone = 9_000_000_000L; phone < 9_000_100_000L; phone++) {
+            filter.put(phone);
+        }
+
+        // Numbers from a range that was never inserted
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(ThreadLocalRandom.current().nextLong(6_000_000_000L, 8_000_000_000L))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void sizedFromExpectedInsertionsAndRate() {
+        LongBloomFilter filter = LongBloomFilter.create(1_000_000, 0.01);
+
+        // m = -n·ln(p) / ln(2)² ≈ 9.59 bits per key, k = m/n · ln 2 ≈ 7
+        assertThat(filter.bitSize()).isBetween(9_585_000L, 9_586_000L);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,85 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedCsvScannerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsFieldsWithoutCopyingLines() throws Exception {
+        Path file = write("date,reference,narration,debit,credit\r\n"
+                + "2026-09-30 14:05:00,UTR123,\"NEFT, receipt_7_1727000000 \"\"wallet\"\"\",,\"1,25,000.50\"\r\n"
+                + "2026-09-30,UTR124,ATM withdrawal,500.00,\r\n");
+        List<String> seen = new ArrayList<>();
+
+        long lines = MappedCsvScanner.scan(file, 2, MappedCsvScanner.DEFAULT_WINDOW_BYTES, row -> {
+            if (row.lineNo() == 2) {
+                assertThat(row.fieldCount()).isEqualTo(5);
+                assertThat(row.text(1)).isEqualTo("UTR123");
+                assertThat(row.text(2)).isEqualTo("NEFT, receipt_7_1727000000 \"wallet\"");
+                assertThat(row.paise(4)).isEqualTo(12500050L);
+                assertThat(row.epochSecond(0))
+                        .isEqualTo(LocalDateTime.of(2026, 9, 30, 14, 5).toEpochSecond(ZoneOffset.UTC));
+                assertThat(row.token(2, row.indexOf(2, "RECEIPT_".getBytes(StandardCharsets.US_ASCII))))
+                        .isEqualTo("receipt_7_1727000000");
+            } else {
+                assertThat(row.paise(4)).isEqualTo(0L);
+                assertThat(row.paise(3)).isEqualTo(50000L);
+                assertThat(row.indexOf(2, "receipt_".getBytes(StandardCharsets.US_ASCII))).isEqualTo(-1);
+            }
+            seen.add(row.text(1));
+        });
+
+        assertThat(lines).isEqualTo(3L);
+        assertThat(seen).isEqualTo(List.of("UTR123", "UTR124"));
+    }
+
+    @Test
+    void linesSplitAcrossWindowsAreReadWhole() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= 500; i++) {
+            csv.append("2026-09-30,UTR").append(i).append(",transfer ").append(i).append(",,").append(i).append(".5\n");
+        }
+        Path file = write(csv.toString());
+        List<Long> amounts = new ArrayList<>();
+
+        MappedCsvScanner.scan(file, 1, 64, row -> amounts.add(row.paise(4)));
+
+        assertThat(amounts.size()).isEqualTo(500);
+        for (int i = 1; i <= 500; i++) {
+            assertThat(amounts.get(i - 1)).isEqualTo(i * 100L + 50);
+        }
+    }
+
+    @Test
+    void rejectsMalformedValues() throws Exception {
+        Path file = write("2026-02-30,UTR1,x,,12.345\nyesterday,UTR2,x,,-5\n");
+        List<Long> results = new ArrayList<>();
+
+        MappedCsvScanner.scan(file, 1, MappedCsvScanner.DEFAULT_WINDOW_BYTES, row -> {
+            results.add(row.epochSecond(0));
+            results.add(row.paise(4));
+        });
+
+        assertThat(results).isEqualTo(List.of(Long.MIN_VALUE, -1L, Long.MIN_VALUE, -1L));
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = dir.resolve("statement.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,81 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedPhoneDirectoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveReopen() {
+        Path file = dir.resolve("directory.bin");
+        MappedPhoneDirectory directory = MappedPhoneDirectory.open(file, 10);
+        directory.put(9876543210L, 1, 11);
+        directory.put(9999999999L, 2, 22);
+        directory.markSynced(2);
+        directory.close();
+
+        MappedPhoneDirectory reopened = MappedPhoneDirectory.open(file, 10);
+
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.syncedUserId()).isEqualTo(2);
+        assertThat(reopened.get(9876543210L)).isEqualTo(new MappedPhoneDirectory.Route(1, 11));
+        assertThat(reopened.get(8888888888L)).isNull();
+    }
+
+    @Test
+    void growsPastInitialCapacityAndKeepsEveryEntry() {
+        MappedPhoneDirectory directory = MappedPhoneDirectory.open(dir.resolve("grow.bin"), 10);
+        int initialCapacity = directory.capacity();
+
+        for (int i = 0; i < 5_000; i++) {
+            directory.put(6000000000L + i, i, i * 10L);
+        }
+
+        assertThat(directory.capacity()).isGreaterThan(initialCapacity);
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(directory.get(6000000000L + i)).isEqualTo(new MappedPhoneDirectory.Route(i, i * 10L));
+        }
+    }
+
+    @Test
+    void removeKeepsCollidingEntriesReachable() {
+        MappedPhoneDirectory directory = MappedPhoneDirectory.open(dir.resolve("remove.bin"), 10);
+        for (int i = 0; i < 600; i++) {
+            directory.put(7000000000L + i, i, i);
+        }
+
+        for (int i = 0; i < 600; i += 2) {
+            assertThat(directory.remove(7000000000L + i)).isTrue();
+        }
+
+        assertThat(directory.size()).isEqualTo(300);
+        for (int i = 0; i < 600; i++) {
+            MappedPhoneDirectory.Route route = directory.get(7000000000L + i);
+            if (i % 2 == 0) {
+                assertThat(route).isNull();
+            } else {
+                assertThat(route.walletId()).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void corruptFileIsRecreated() throws Exception {
+        Path file = dir.resolve("corrupt.bin");
+        Files.write(file, new byte[100]);
+
+        MappedPhoneDirectory directory = MappedPhoneDirectory.open(file, 10);
+
+        assertThat(directory.size()).isZero();
+        directory.put(9876543210L, 1, 1);
+        assertThat(directory.get(9876543210L)).isNotNull();
+    }
+}
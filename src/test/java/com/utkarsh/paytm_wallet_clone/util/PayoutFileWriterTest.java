@@ -0,0 +1,65 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PayoutFileWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesFixedWidthRecordsWithTrailer() throws Exception {
+        Path file = dir.resolve("PO1.txt");
+
+        try (PayoutFileWriter writer = new PayoutFileWriter(file, "PO1", LocalDate.of(2026, 10, 18))) {
+            writer.record("123456789012", "HDFC0001234", "Asha Rao", 250050, "WD7");
+            writer.record("987654321", "SBIN0000001", "Ravi Kumar", 100, "WD9");
+            writer.finish();
+        }
+
+        String content = Files.readString(file, StandardCharsets.US_ASCII);
+        assertThat(content.endsWith("\r\n")).isTrue();
+        List<String> lines = List.of(content.split("\r\n"));
+        assertThat(lines.size()).isEqualTo(4);
+        assertThat(lines.get(0)).isEqualTo("H" + "PO1" + " ".repeat(37) + "20261018");
+        assertThat(lines.get(1)).isEqualTo("D000000001" + "123456789012      " + "HDFC0001234"
+                + "ASHA RAO" + " ".repeat(27) + "000000000250050" + "WD7" + " ".repeat(17));
+        assertThat(lines.get(1).length()).isEqualTo(109);
+        assertThat(lines.get(3)).isEqualTo("T000000002" + "000000000000250150");
+        assertThat(Files.exists(dir.resolve("PO1.txt.part"))).isFalse();
+    }
+
+    @Test
+    void cutsLongAndNonAsciiNames() throws Exception {
+        Path file = dir.resolve("PO2.txt");
+
+        try (PayoutFileWriter writer = new PayoutFileWriter(file, "PO2", LocalDate.of(2026, 10, 18))) {
+            writer.record("123456789012", "HDFC0001234", "Zoë " + "x".repeat(40), 1, "WD1");
+            writer.finish();
+        }
+
+        String detail = Files.readString(file, StandardCharsets.US_ASCII).split("\r\n")[1];
+        assertThat(detail.substring(39, 74)).isEqualTo("ZO  " + "X".repeat(31));
+    }
+
+    @Test
+    void leavesNoFileWhenNotFinished() throws Exception {
+        Path file = dir.resolve("PO3.txt");
+
+        try (PayoutFileWriter writer = new PayoutFileWriter(file, "PO3", LocalDate.of(2026, 10, 18))) {
+            writer.record("123456789012", "HDFC0001234", "Asha Rao", 100, "WD1");
+        }
+
+        assertThat(Files.exists(file)).isFalse();
+        assertThat(Files.exists(dir.resolve("PO3.txt.part"))).isFalse();
+    }
+}
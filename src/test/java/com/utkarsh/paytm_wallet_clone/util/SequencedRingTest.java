@@ -0,0 +1,41 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SequencedRingTest {
+
+    @Test
+    void returnsOnlyItemsAfterLastSeenSequence() {
+        SequencedRing<String> ring = new SequencedRing<>(4, 100);
+        ring.append("a");
+        ring.append("b");
+        ring.append("c");
+
+        assertThat(ring.lastSeq()).isEqualTo(103);
+        assertThat(ring.since(101)).containsExactly("b", "c");
+        assertThat(ring.since(103)).isEmpty();
+        assertThat(ring.since(100)).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void overwrittenRangeSignalsResync() {
+        SequencedRing<Integer> ring = new SequencedRing<>(3, 0);
+        for (int i = 1; i <= 5; i++) {
+            ring.append(i);
+        }
+
+        assertThat(ring.since(2)).containsExactly(3, 4, 5);
+        assertThat(ring.since(1)).isNull();
+    }
+
+    @Test
+    void sequenceFromAnotherStreamSignalsResync() {
+        SequencedRing<String> ring = new SequencedRing<>(8, 1_000);
+        ring.append("a");
+
+        assertThat(ring.since(5_000)).isNull();   // ahead of this ring, e.g. from before a restart
+        assertThat(ring.since(10)).isNull();      // behind its base
+    }
+}
@@ -0,0 +1,80 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UserPrefixIndexTest {
+
+    private static UserPrefixIndex sample() {
+        return new UserPrefixIndex.Builder()
+                .add(9876543210L, "Rāhul Kumar")
+                .add(9876500000L, "Priya Sharma")
+                .add(7000000000L, "Kumar Sanu")
+                .build();
+    }
+
+    private static List<String> phoneMatches(UserPrefixIndex index, String prefix) {
+        List<String> names = new ArrayList<>();
+        index.forEachPhonePrefix(prefix, slot -> names.add(index.nameAt(slot)));
+        return names;
+    }
+
+    private static List<String> tokenMatches(UserPrefixIndex index, String prefix) {
+        List<String> names = new ArrayList<>();
+        index.forEachTokenPrefix(prefix, slot -> names.add(index.nameAt(slot)));
+        return names;
+    }
+
+    @Test
+    void phonePrefixReturnsMatchesInPhoneOrder() {
+        UserPrefixIndex index = sample();
+
+        assertThat(phoneMatches(index, "98765")).containsExactly("Priya Sharma", "Rāhul Kumar");
+        assertThat(phoneMatches(index, "9876543210")).containsExactly("Rāhul Kumar");
+        assertThat(phoneMatches(index, "8")).isEmpty();
+    }
+
+    @Test
+    void nameTokensMatchAccentInsensitivePrefixes() {
+        UserPrefixIndex index = sample();
+
+        assertThat(tokenMatches(index, "rah")).containsExactly("Rāhul Kumar");
+        assertThat(tokenMatches(index, "kum")).containsExactlyInAnyOrder("Rāhul Kumar", "Kumar Sanu");
+        assertThat(tokenMatches(index, "zz")).isEmpty();
+    }
+
+    @Test
+    void laterEntryWinsForDuplicatePhone() {
+        UserPrefixIndex index = new UserPrefixIndex.Builder()
+                .add(9876543210L, "Old Name")
+                .add(9876543210L, "New Name")
+                .build();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(phoneMatches(index, "98")).containsExactly("New Name");
+        assertThat(tokenMatches(index, "old")).isEmpty();
+    }
+
+    @Test
+    void sinkCanStopIteration() {
+        UserPrefixIndex index = sample();
+        List<Integer> slots = new ArrayList<>();
+
+        index.forEachPhonePrefix("9", slot -> {
+            slots.add(slot);
+            return false;
+        });
+
+        assertThat(slots).hasSize(1);
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccents() {
+        assertThat(UserPrefixIndex.tokenize("Rāhul  O'Neil")).containsExactly("rahul", "o", "neil");
+        assertThat(UserPrefixIndex.tokenize(null)).isEmpty();
+    }
+}
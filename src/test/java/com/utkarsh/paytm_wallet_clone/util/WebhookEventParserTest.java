@@ -0,0 +1,42 @@
+package com.utkarsh.paytm_wallet_clone.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WebhookEventParserTest {
+
+    @Test
+    void extractsPaymentFieldsAndSkipsTheRest() {
+        String body = """
+                {"entity":"event","contains":["payment"],"event":"payment.captured",
+                 "payload":{"payment":{"entity":{"id":"pay_1","notes":{"id":"not_this","order_id":"nor_this"},
+                   "acquirer_data":{"rrn":"313409574362"},"order_id":"order_1","amount":50000,"status":"captured"}}},
+                 "created_at":1567674606}""";
+
+        WebhookEventParser.Fields fields = WebhookEventParser.parse(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(fields).isEqualTo(new WebhookEventParser.Fields("payment.captured", "pay_1", "order_1", 50000));
+        assertThat(WebhookEventParser.parse(body)).isEqualTo(fields);
+    }
+
+    @Test
+    void ignoresLookalikeFieldsOffThePath() {
+        String body = """
+                {"id":"evt_1","amount":1,"payload":{"refund":{"entity":{"id":"rfnd_1","amount":100}}},
+                 "event":"refund.processed"}""";
+
+        WebhookEventParser.Fields fields = WebhookEventParser.parse(body);
+
+        assertThat(fields).isEqualTo(new WebhookEventParser.Fields("refund.processed", null, null, -1));
+    }
+
+    @Test
+    void rejectsMalformedBodies() {
+        assertThatThrownBy(() -> WebhookEventParser.parse("{\"event\":")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WebhookEventParser.parse("[]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WebhookEventParser.parse("{\"payload\":{}}")).isInstanceOf(IllegalArgumentException.class);
+    }
+}